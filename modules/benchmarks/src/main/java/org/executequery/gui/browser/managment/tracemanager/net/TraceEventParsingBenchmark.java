@@ -0,0 +1,133 @@
+package org.executequery.gui.browser.managment.tracemanager.net;
+
+import org.executequery.gui.browser.managment.tracemanager.TraceEventSplitter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the events per second of the trace event parser, falling
+ * back to the grammar for the events it does not know, with the
+ * RedTrace grammar alone, over the events of the sample trace logs.
+ * <p/>
+ * Run from the project root with
+ * <pre>
+ * mvn -B -P benchmarks package
+ * java -jar modules/benchmarks/target/benchmarks.jar TraceEventParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TraceEventParsingBenchmark {
+
+    private static final String[] SAMPLE_LOGS = {"trace-database.log", "trace-services.log"};
+
+    private String[] events;
+
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+
+        final List<String> read = new ArrayList<String>();
+        TraceEventSplitter splitter = new TraceEventSplitter(new TraceEventSplitter.Listener() {
+
+            @Override
+            public void eventRead(String event, int type) {
+
+                if (type == TraceEventSplitter.LOG_MESSAGE) {
+
+                    read.add(event);
+                }
+            }
+
+            @Override
+            public void sessionStarted(int sessionId) {
+            }
+
+            @Override
+            public void sessionStopped(int sessionId) {
+            }
+
+        });
+
+        for (String sampleLog : SAMPLE_LOGS) {
+
+            splitter.append(CharBuffer.wrap(readResource(sampleLog)));
+            splitter.flush();
+        }
+
+        events = read.toArray(new String[read.size()]);
+    }
+
+    @Benchmark
+    public LogMessage eventParser() {
+
+        return new LogMessage(nextEvent());
+    }
+
+    @Benchmark
+    public LogMessage grammar() {
+
+        String event = nextEvent();
+        LogMessage message = new LogMessage();
+        message.setBody(event);
+        message.parseWithGrammar(event);
+        return message;
+    }
+
+    private String nextEvent() {
+
+        String event = events[next];
+        next = (next + 1) % events.length;
+        return event;
+    }
+
+    private static String readResource(String name) throws IOException {
+
+        InputStream in = TraceEventParsingBenchmark.class.getResourceAsStream(name);
+        if (in == null) {
+
+            throw new IOException("Missing sample log " + name);
+        }
+
+        try {
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+
+                out.write(buffer, 0, read);
+            }
+
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        } finally {
+
+            in.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+package org.executequery.gui.resultset.columnar;
+
+import org.executequery.gui.resultset.RecordDataItem;
+import org.executequery.gui.resultset.RecordDataItemFactory;
+import org.executequery.gui.resultset.ResultSetColumnHeader;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the heap retained per row by the list storage of the result set
+ * table model (one record data item per cell) with {@link ColumnarResultSetData}.
+ * <p/>
+ * Each invocation stores the rows of a generated result set - INTEGER, BIGINT,
+ * DOUBLE and TIMESTAMP columns, a VARCHAR column of few distinct values and one
+ * of mostly distinct values. The bytesPerRow counter reports the used heap after
+ * a full collection, less the used heap before, divided by the row count - the
+ * mean of the invocations of the iteration. The time score includes the collections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ColumnarStorageBenchmark {
+
+    private static final String[] STATUSES = {"NEW", "OPEN", "PENDING", "SHIPPED", "CLOSED", "CANCELLED"};
+
+    @Param({"200000"})
+    private int rows;
+
+    private List<ResultSetColumnHeader> columnHeaders;
+
+    private RecordDataItemFactory recordDataItemFactory;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long bytesPerRow;
+
+        private long totalBytesPerRow;
+
+        private int invocations;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+
+            bytesPerRow = 0;
+            totalBytesPerRow = 0;
+            invocations = 0;
+        }
+
+        void add(long bytesPerRow) {
+
+            totalBytesPerRow += bytesPerRow;
+            invocations++;
+            this.bytesPerRow = totalBytesPerRow / invocations;
+        }
+
+    }
+
+    @Setup
+    public void setup() {
+
+        columnHeaders = new ArrayList<ResultSetColumnHeader>();
+        columnHeaders.add(new ResultSetColumnHeader(0, "ID", "ID", Types.INTEGER, "INTEGER"));
+        columnHeaders.add(new ResultSetColumnHeader(1, "AMOUNT", "AMOUNT", Types.BIGINT, "BIGINT"));
+        columnHeaders.add(new ResultSetColumnHeader(2, "RATE", "RATE", Types.DOUBLE, "DOUBLE PRECISION"));
+        columnHeaders.add(new ResultSetColumnHeader(3, "CREATED", "CREATED", Types.TIMESTAMP, "TIMESTAMP"));
+        columnHeaders.add(new ResultSetColumnHeader(4, "STATUS", "STATUS", Types.VARCHAR, "VARCHAR"));
+        columnHeaders.add(new ResultSetColumnHeader(5, "CUSTOMER", "CUSTOMER", Types.VARCHAR, "VARCHAR"));
+
+        recordDataItemFactory = new RecordDataItemFactory();
+    }
+
+    @Benchmark
+    public Object listStorage(Footprint footprint) {
+
+        long usedBefore = usedHeap();
+
+        Random random = new Random(42);
+        List<List<RecordDataItem>> tableData = new ArrayList<List<RecordDataItem>>();
+        for (int row = 0; row < rows; row++) {
+
+            Object[] values = rowValues(random, row);
+            List<RecordDataItem> rowData = new ArrayList<RecordDataItem>(values.length);
+            for (int i = 0; i < values.length; i++) {
+
+                RecordDataItem item = recordDataItemFactory.create(columnHeaders.get(i));
+                item.setValue(values[i]);
+                rowData.add(item);
+            }
+            tableData.add(rowData);
+        }
+
+        footprint.add((usedHeap() - usedBefore) / rows);
+        return tableData;
+    }
+
+    @Benchmark
+    public Object columnarStorage(Footprint footprint) {
+
+        long usedBefore = usedHeap();
+
+        Random random = new Random(42);
+        ColumnarResultSetData tableData = new ColumnarResultSetData(columnHeaders, null);
+        for (int row = 0; row < rows; row++) {
+
+            Object[] values = rowValues(random, row);
+            for (int i = 0; i < values.length; i++) {
+
+                tableData.getColumn(i).appendValue(values[i]);
+            }
+            tableData.rowAppended();
+        }
+
+        footprint.add((usedHeap() - usedBefore) / rows);
+        return tableData;
+    }
+
+    private Object[] rowValues(Random random, int row) {
+
+        return new Object[]{
+                row,
+                (long) random.nextInt(1000000) * 100,
+                random.nextDouble(),
+                new Timestamp(1577836800000L + random.nextInt(365 * 24 * 3600) * 1000L),
+                STATUSES[random.nextInt(STATUSES.length)],
+                random.nextInt(20) == 0 ? null : "customer " + random.nextInt(rows)
+        };
+    }
+
+    private static long usedHeap() {
+
+        for (int i = 0; i < 3; i++) {
+
+            System.gc();
+        }
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+}
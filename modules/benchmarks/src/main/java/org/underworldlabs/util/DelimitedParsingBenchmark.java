@@ -0,0 +1,162 @@
+package org.underworldlabs.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the delimited import parsing of {@link DelimitedRecordReader}
+ * with the line by line regular expression matching it replaced, on a
+ * narrow (4 columns) and a wide (60 columns) file.
+ * <p/>
+ * The generated files have no line breaks within quoted values as the
+ * regular expression path reads lines and can not parse them.
+ * <p/>
+ * Run from the project root with
+ * <pre>
+ * mvn -B -P benchmarks package
+ * java -jar modules/benchmarks/target/benchmarks.jar DelimitedParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DelimitedParsingBenchmark {
+
+    private static final String DELIMITER = ",";
+
+    private static final int ROWS = 20000;
+
+    @Param({"4", "60"})
+    private int columns;
+
+    private String text;
+
+    private Pattern pattern;
+
+    private Pattern quotePattern;
+
+    @Setup
+    public void setup() {
+
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < ROWS; row++) {
+
+            for (int column = 0; column < columns; column++) {
+
+                if (column > 0) {
+
+                    sb.append(DELIMITER);
+                }
+
+                switch (column % 4) {
+
+                    case 0:
+                        sb.append(random.nextInt(1000000));
+                        break;
+
+                    case 1:
+                        sb.append("name ").append(random.nextInt(10000));
+                        break;
+
+                    case 2:
+                        sb.append("\"quoted, with ").append(random.nextInt(100)).append(" \"\"items\"\"\"");
+                        break;
+
+                    default:
+                        sb.append(random.nextDouble());
+                        break;
+                }
+
+            }
+            sb.append('\n');
+        }
+        text = sb.toString();
+
+        // the expressions of the import before the record reader
+        String escapedDelimiter = "\\" + DELIMITER;
+        pattern = Pattern.compile("(?:^|" + escapedDelimiter
+                + ") (?: \" ( (?> [^\"]*+ ) (?> \"\" [^\"]*+ )*+ ) \"(?=" + escapedDelimiter
+                + "?) | ( [^" + escapedDelimiter + "]*+ ) )", Pattern.COMMENTS);
+        quotePattern = Pattern.compile("\"\"", Pattern.COMMENTS);
+    }
+
+    @Benchmark
+    public void recordReader(Blackhole blackhole) throws IOException {
+
+        DelimitedRecordReader reader = new DelimitedRecordReader(new StringReader(text), DELIMITER, '"');
+        try {
+
+            while (reader.next()) {
+
+                for (int i = 0, n = reader.getFieldCount(); i < n; i++) {
+
+                    blackhole.consume(reader.getString(i));
+                }
+
+            }
+
+        } finally {
+
+            reader.close();
+        }
+
+    }
+
+    @Benchmark
+    public void regularExpressions(Blackhole blackhole) throws IOException {
+
+        Matcher matcher = pattern.matcher("");
+        Matcher quoteMatcher = quotePattern.matcher("");
+
+        BufferedReader reader = new BufferedReader(new StringReader(text));
+        String line;
+        while ((line = reader.readLine()) != null) {
+
+            matcher.reset(line);
+            int index = 0;
+            int lastIndex = -1;
+            for (int i = 0; i < columns && matcher.find(index); i++) {
+
+                String value = matcher.group(2);
+                if (value == null) {
+
+                    quoteMatcher.reset(matcher.group(1));
+                    value = quoteMatcher.replaceAll("\"");
+                }
+                blackhole.consume(value);
+
+                index = matcher.end();
+                if (index == lastIndex) {
+
+                    index++;
+                }
+                lastIndex = index;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.underworldlabs.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per cell cost of creating a plugin object (FBBlobImpl for
+ * each fetched BLOB value for example) through a new class loader per cell,
+ * as the table model did, with {@link PluginBridgeRegistry}.
+ * <p/>
+ * The benchmark jar stands in for fbplugin-impl.jar. The parent class loader
+ * can not see its classes, so each new loader opens the jar and defines the
+ * plugin class again - as with the driver class loader in the application.
+ * The per cell loaders are closed after use, the table model left them open.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PluginBridgeBenchmark {
+
+    private static final String PLUGIN_CLASS = PluginObject.class.getName();
+
+    private ClassLoader parent;
+
+    private String jarPath;
+
+    @Setup
+    public void setup() throws Exception {
+
+        parent = ClassLoader.getSystemClassLoader().getParent();
+        jarPath = new File(PluginBridgeBenchmark.class.getProtectionDomain()
+                .getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        PluginBridgeRegistry.release(parent);
+    }
+
+    @Benchmark
+    public Object classLoaderPerCell() throws Exception {
+
+        URLClassLoader classLoader = new URLClassLoader(MiscUtils.loadURLs(jarPath), parent);
+        try {
+
+            return classLoader.loadClass(PLUGIN_CLASS).newInstance();
+
+        } finally {
+
+            classLoader.close();
+        }
+
+    }
+
+    @Benchmark
+    public Object registry() throws Exception {
+
+        return PluginBridgeRegistry.newInstance(parent, PLUGIN_CLASS, jarPath);
+    }
+
+    /**
+     * The plugin class loaded by the class loaders.
+     */
+    public static class PluginObject {
+
+        private Object value;
+
+        public void setValue(Object value) {
+
+            this.value = value;
+        }
+
+        public Object getValue() {
+
+            return value;
+        }
+
+    }
+
+}
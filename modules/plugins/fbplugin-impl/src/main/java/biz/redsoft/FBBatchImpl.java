@@ -56,8 +56,18 @@ public class FBBatchImpl implements IFBBatch {
         batch.getTransaction().commit();
     }
 
+    @Override
+    public void rollback() throws SQLException {
+        batch.getTransaction().rollback();
+    }
+
     @Override
     public void cancel() throws SQLException {
         batch.cancel();
     }
+
+    @Override
+    public void release() throws SQLException {
+        batch.release();
+    }
 }
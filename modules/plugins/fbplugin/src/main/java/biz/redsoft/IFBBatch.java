@@ -21,5 +21,9 @@ public interface IFBBatch {
 
     void commit() throws SQLException;
 
+    void rollback() throws SQLException;
+
     void cancel() throws SQLException;
+
+    void release() throws SQLException;
 }
@@ -1819,6 +1819,12 @@ public class DefaultStatementExecutor implements StatementExecutor, Serializable
 
     }
 
+    @Override
+    public void detachStatement() {
+
+        stmnt = null;
+    }
+
     @Override
     public void setDatabaseConnection(DatabaseConnection _databaseConnection) {
         if (databaseConnection != _databaseConnection) {
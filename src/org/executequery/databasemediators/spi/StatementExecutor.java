@@ -131,6 +131,12 @@ public interface StatementExecutor {
      */
     void releaseResources();
 
+    /**
+     * Hands the current statement over to the reader of its result set -
+     * it is left open on release and closed by that reader.
+     */
+    void detachStatement();
+
     public boolean isCloseConnectionAfterQuery();
 
     public void setCloseConnectionAfterQuery(boolean closeConnectionAfterQuery);
@@ -277,9 +277,5 @@ public interface DatabaseHost extends NamedObject {
 
     Connection getTemporaryConnection();
 
-    int countFinishedMetaTags();
-
-    void incCountFinishedMetaTags();
-
 }
 
@@ -247,6 +247,13 @@ public abstract class AbstractDatabaseObject extends AbstractNamedObject
         this.remarks = remarks;
     }
 
+    /**
+     * Returns the remarks set on this object without retrieving them.
+     */
+    String getLoadedRemarks() {
+        return remarks;
+    }
+
     /**
      * Override to clear the columns.
      */
@@ -28,11 +28,8 @@ import org.executequery.datasource.PooledDatabaseMetaData;
 import org.executequery.gui.browser.ColumnData;
 import org.executequery.sql.SqlStatementResult;
 import org.underworldlabs.jdbc.DataSourceException;
-import org.underworldlabs.util.MiscUtils;
+import org.underworldlabs.util.DynamicLibraryLoader;
 
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -464,24 +461,13 @@ public class DefaultDatabaseExecutable extends AbstractDatabaseObject
             DatabaseMetaData dMetaData = poolMetaData.getInner();
             if (this.getHost() != null && this.getHost().getDatabaseConnection().getJDBCDriver().getClassName().contains("FBDriver")) {
 
-                URL[] urls = new URL[0];
-                Class clazzdb = null;
                 Object odb = null;
                 try {
-                    urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-                    ClassLoader cl = new URLClassLoader(urls, dMetaData.getClass().getClassLoader());
-                    clazzdb = cl.loadClass("biz.redsoft.FBDatabaseMetadataImpl");
-                    odb = clazzdb.newInstance();
+                    odb = DynamicLibraryLoader.loadingObjectFromClassLoader(dMetaData, "FBDatabaseMetadataImpl");
                     IFBDatabaseMetadata db = (IFBDatabaseMetadata) odb;
 
                     procedureSourceCode = db.getProcedureSourceCode(dMetaData, getName());
 
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
-                } catch (InstantiationException e) {
-                    e.printStackTrace();
-                } catch (MalformedURLException e) {
-                    e.printStackTrace();
                 } catch (ClassNotFoundException e) {
                     e.printStackTrace();
                 } catch (SQLException e) {
@@ -31,13 +31,12 @@ import org.executequery.datasource.DefaultDriverLoader;
 import org.executequery.gui.browser.tree.TreePanel;
 import org.executequery.log.Log;
 import org.underworldlabs.jdbc.DataSourceException;
+import org.underworldlabs.util.DynamicLibraryLoader;
 import org.underworldlabs.util.MiscUtils;
 import org.underworldlabs.util.SystemProperties;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.*;
 import java.util.*;
 
@@ -49,8 +48,6 @@ import java.util.*;
 public class DefaultDatabaseHost extends AbstractNamedObject
         implements DatabaseHost {
 
-    private int countFinishedMetaTags;
-
     private int typeTree;
 
     /**
@@ -92,7 +89,6 @@ public class DefaultDatabaseHost extends AbstractNamedObject
 
     public DefaultDatabaseHost(DatabaseConnection databaseConnection, int typeTree) {
         this.databaseConnection = databaseConnection;
-        countFinishedMetaTags = 0;
         this.typeTree = typeTree;
     }
 
@@ -108,7 +104,6 @@ public class DefaultDatabaseHost extends AbstractNamedObject
     public boolean connect() throws DataSourceException {
 
         if (!isConnected()) {
-            countFinishedMetaTags = 0;
 
             boolean connected = connectionMediator().connect(getDatabaseConnection());
             try {
@@ -199,16 +194,6 @@ public class DefaultDatabaseHost extends AbstractNamedObject
         return ConnectionManager.getTemporaryConnection(getDatabaseConnection());
     }
 
-    @Override
-    public int countFinishedMetaTags() {
-        return countFinishedMetaTags;
-    }
-
-    @Override
-    public void incCountFinishedMetaTags() {
-        countFinishedMetaTags++;
-    }
-
     /**
      * Returns the database meta data for this host.
      *
@@ -1483,13 +1468,9 @@ public class DefaultDatabaseHost extends AbstractNamedObject
         Driver driver = loadedDrivers.get(jdbcDriver.getId() + "-" + jdbcDriver.getClassName());
         if (driver.getClass().getName().contains("FBDriver")) {
             Connection conn = connection.unwrap(Connection.class);
-            URL[] urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-            ClassLoader cl = new URLClassLoader(urls, conn.getClass().getClassLoader());
             IFBDatabaseConnection db;
-            Class clazzdb;
             Object odb;
-            clazzdb = cl.loadClass("biz.redsoft.FBDatabaseConnectionImpl");
-            odb = clazzdb.newInstance();
+            odb = DynamicLibraryLoader.loadingObjectFromClassLoader(conn, "FBDatabaseConnectionImpl");
             db = (IFBDatabaseConnection) odb;
             db.setConnection(conn);
             switch (db.getMajorVersion()) {
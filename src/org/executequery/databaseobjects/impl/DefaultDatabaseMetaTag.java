@@ -76,6 +76,16 @@ public class DefaultDatabaseMetaTag extends AbstractNamedObject
      */
     private List<NamedObject> children;
 
+    /**
+     * whether the schema snapshot was looked up for the child objects
+     */
+    private boolean snapshotLookedUp;
+
+    /**
+     * the change signature of the child objects served from the schema snapshot
+     */
+    private String snapshotSignature;
+
     /**
      * Creates a new instance of DefaultDatabaseMetaTag
      */
@@ -144,7 +154,7 @@ public class DefaultDatabaseMetaTag extends AbstractNamedObject
      *
      * @return this meta tag's child database objects.
      */
-    public List<NamedObject> getObjects() throws DataSourceException {
+    public synchronized List<NamedObject> getObjects() throws DataSourceException {
 
         if (!isMarkedForReload() && children != null) {
 
@@ -168,134 +178,413 @@ public class DefaultDatabaseMetaTag extends AbstractNamedObject
             if (typeTree != TreePanel.DEFAULT) {
                 return new ArrayList<NamedObject>();
             }
+
+        String signature = null;
+        if (isSnapshotCategory(type)) {
+
+            if (children == null && !isMarkedForReload() && !snapshotLookedUp) {
+
+                snapshotLookedUp = true;
+                List<NamedObject> objects = snapshotObjects(type);
+                if (objects != null) {
+
+                    children = objects;
+                    addAsParentToObjects(children);
+                    return children;
+                }
+
+            }
+
+            signature = changeSignature(type);
+        }
+
+        List<NamedObject> loaded = loadObjects(type);
+        if (loaded == null) {
+
+            return new ArrayList<NamedObject>();
+        }
+
+        children = loaded;
+        if (signature != null) {
+
+            storeInSnapshot(signature, children);
+        }
+
+        // loop through and add this object as the parent object
+        addAsParentToObjects(children);
+
+        return children;
+    }
+
+    private List<NamedObject> asTypedObjects(int type, List<NamedObject> children) {
+
+        if (children != null && type == TABLE) {
+
+            // reset as editable tables for a default
+            // connection and meta type TABLE
+
+            List<NamedObject> _children = new ArrayList<NamedObject>(children.size());
+            for (NamedObject i : children) {
+                DefaultDatabaseTable table = new DefaultDatabaseTable((DatabaseObject) i);
+                _children.add(table);
+            }
+
+            return _children;
+
+        } else if (type == VIEW) {
+
+            List<NamedObject> _children = new ArrayList<NamedObject>(children.size());
+            for (NamedObject i : children) {
+
+                _children.add(new DefaultDatabaseView((DatabaseObject) i));
+            }
+
+            return _children;
+
+        } else if (type == GLOBAL_TEMPORARY) {
+            List<NamedObject> _children = new ArrayList<NamedObject>(children.size());
+            for (NamedObject i : children) {
+
+                _children.add(new DefaultTemporaryDatabaseTable((DatabaseObject) i));
+            }
+
+            return _children;
+
+        }
+
+        return children;
+    }
+
+    /**
+     * Loads the child objects of the specified type from the database.
+     *
+     * @return the objects loaded, null if the tree shows none of them
+     */
+    private List<NamedObject> loadObjects(int type) throws DataSourceException {
+
         if (type != SYSTEM_FUNCTION) {
 
 
             if (isFunctionOrProcedure()) {
 
-                children = loadFunctionsOrProcedures(type);
+                return loadFunctionsOrProcedures(type);
 
             } else if (isIndex()) {
 
-                children = loadIndices();
+                return loadIndices();
 
             } else if (isTrigger()) {
 
-                children = loadTriggers();
+                return loadTriggers();
 
             } else if (isSequence()) {
-                children = loadSequences();
+                return loadSequences();
 
             } else if (isDomain()) {
 
-                children = loadDomains();
+                return loadDomains();
 
             } else if (isUser()) {
                 if (typeTree != TreePanel.DEFAULT)
-                    return new ArrayList<>();
-                children = loadUsers();
+                    return null;
+                return loadUsers();
             } else if (isSystemRole()) {
                 if (typeTree != TreePanel.DEFAULT)
-                    return new ArrayList<>();
-                children = loadSystemRoles();
+                    return null;
+                return loadSystemRoles();
             } else if (isRole()) {
                 if (typeTree != TreePanel.DEFAULT)
-                    return new ArrayList<>();
-                children = loadRoles();
+                    return null;
+                return loadRoles();
             } else if (isException()) {
 
-                children = loadExceptions();
+                return loadExceptions();
 
             } else if (isUDF()) {
                 if (typeTree != TreePanel.DEFAULT)
-                    return new ArrayList<>();
-                children = loadUDFs();
+                    return null;
+                return loadUDFs();
 
             } else if (isSystemDomain()) {
 
-                children = loadSystemDomains();
+                return loadSystemDomains();
 
             } else if (isSystemIndex()) {
 
-                children = loadSystemIndices();
+                return loadSystemIndices();
 
             } else if (isSystemTrigger()) {
 
-                children = loadSystemTriggers();
+                return loadSystemTriggers();
 
             } else if (isSystemDatabaseTrigger()) {
 
-                children = loadSystemDatabaseTriggers();
+                return loadSystemDatabaseTriggers();
 
             } else if (isDDLTrigger()) {
 
-                children = loadDDLTriggers();
+                return loadDDLTriggers();
 
             } else if (isPackage()) {
 
-                children = loadPackages();
+                return loadPackages();
 
             } else {
 
                 String className = getHost().getDatabaseConnection().getJDBCDriver().getClassName();
                 if (className.contains("FBDriver")) {
                     // Red Database
-                    children = loadTables(getMetaDataKey());
+                    return asTypedObjects(type, loadTables(getMetaDataKey()));
 
                 } else {
                     // Another database
-                    children = getHost().getTables(getCatalogName(),
+                    return asTypedObjects(type, getHost().getTables(getCatalogName(),
                             getSchemaName(),
-                            getMetaDataKey());
+                            getMetaDataKey()));
                 }
+            }
 
-                if (children != null && type == TABLE) {
+        } else {
 
-                    // reset as editable tables for a default
-                    // connection and meta type TABLE
+            // system functions break down further
 
-                    List<NamedObject> _children = new ArrayList<NamedObject>(children.size());
-                    for (NamedObject i : children) {
-                        DefaultDatabaseTable table = new DefaultDatabaseTable((DatabaseObject) i);
-                        _children.add(table);
-                    }
+            return getSystemFunctionTypes();
+        }
+    }
 
-                    children = _children;
+    /**
+     * Reloads the objects served from the schema snapshot if their
+     * category changed in the database since the snapshot was taken.
+     * The objects are loaded without holding the lock of this meta tag
+     * the tree reads them with and replace the served ones under it.
+     *
+     * @return whether the objects were reloaded
+     */
+    public boolean revalidateSnapshot() throws DataSourceException {
 
-                } else if (type == VIEW) {
+        String servedSignature;
+        synchronized (this) {
 
-                    List<NamedObject> _children = new ArrayList<NamedObject>(children.size());
-                    for (NamedObject i : children) {
+            servedSignature = snapshotSignature;
+            snapshotSignature = null;
+        }
 
-                        _children.add(new DefaultDatabaseView((DatabaseObject) i));
-                    }
+        if (servedSignature == null) {
 
-                    children = _children;
+            return false;
+        }
 
-                } else if (type == GLOBAL_TEMPORARY) {
-                    List<NamedObject> _children = new ArrayList<NamedObject>(children.size());
-                    for (NamedObject i : children) {
+        int type = getSubType();
+        String signature = changeSignature(type);
+        if (servedSignature.equals(signature)) {
 
-                        _children.add(new DefaultTemporaryDatabaseTable((DatabaseObject) i));
-                    }
+            return false;
+        }
 
-                    children = _children;
+        List<NamedObject> objects = loadObjects(type);
+        if (objects == null) {
 
-                }
+            return false;
+        }
+
+        if (signature != null) {
+
+            storeInSnapshot(signature, objects);
+        }
+        addAsParentToObjects(objects);
+
+        synchronized (this) {
+
+            children = objects;
+        }
+
+        return true;
+    }
 
+    /**
+     * Returns whether the objects of the specified type are kept in the
+     * schema snapshot - the relations and the other categories of a
+     * Red Database or Firebird connection whose change signature can
+     * be read from the system tables.
+     */
+    private boolean isSnapshotCategory(int type) {
+
+        if (typeTree != DEFAULT || signatureQuery(type) == null) {
+
+            return false;
+        }
+
+        String className = getHost().getDatabaseConnection().getJDBCDriver().getClassName();
+        return className.contains("FBDriver");
+    }
+
+    private String signatureQuery(int type) {
+
+        switch (type) {
+
+            case TABLE:
+            case GLOBAL_TEMPORARY:
+            case VIEW:
+            case SYSTEM_TABLE:
+            case SYSTEM_VIEW:
+                return "select count(*), max(rdb$relation_id), sum(rdb$format), " +
+                        "sum(mod(hash(rdb$relation_name), 2147483647)) from rdb$relations";
+            case PROCEDURE:
+                return "select count(*), max(rdb$procedure_id), " +
+                        "sum(mod(hash(rdb$procedure_name), 2147483647)) from rdb$procedures";
+            case TRIGGER:
+                return "select count(*), sum(rdb$trigger_inactive), " +
+                        "sum(mod(hash(rdb$trigger_name), 2147483647)) from rdb$triggers";
+            case SEQUENCE:
+                return "select count(*), max(rdb$generator_id), " +
+                        "sum(mod(hash(rdb$generator_name), 2147483647)) from rdb$generators";
+            case DOMAIN:
+                return "select count(*), sum(mod(hash(rdb$field_name), 2147483647)) from rdb$fields";
+            case EXCEPTION:
+                return "select count(*), max(rdb$exception_number), " +
+                        "sum(mod(hash(rdb$exception_name), 2147483647)) from rdb$exceptions";
+            case INDEX:
+                return "select count(*), sum(rdb$index_inactive), " +
+                        "sum(mod(hash(rdb$index_name), 2147483647)) from rdb$indices";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the change signature of the objects of the specified type -
+     * their count, highest id and a checksum of their names - or null if
+     * it could not be read.
+     */
+    private String changeSignature(int type) {
+
+        ResultSet rs = null;
+        try {
+
+            rs = getResultSetFromQuery(signatureQuery(type));
+            if (rs == null || !rs.next()) {
+
+                return null;
             }
 
-        } else {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 1, n = rs.getMetaData().getColumnCount(); i <= n; i++) {
 
-            // system functions break down further
+                sb.append(rs.getString(i)).append('|');
+            }
+
+            return sb.toString();
+
+        } catch (SQLException e) {
+
+            Log.debug("Error reading the change signature of " + getMetaDataKey() + " - " + e.getMessage());
+            return null;
+
+        } finally {
 
-            children = getSystemFunctionTypes();
+            try {
+                releaseResources(rs, getHost().getDatabaseMetaData().getConnection());
+            } catch (SQLException throwables) {
+                releaseResources(rs, null);
+            }
         }
+    }
 
-        // loop through and add this object as the parent object
-        addAsParentToObjects(children);
+    /**
+     * Returns the objects of the specified type kept in the schema
+     * snapshot, null if there are none.
+     */
+    private List<NamedObject> snapshotObjects(int type) {
 
-        return children;
+        SchemaSnapshot.Category category =
+                SchemaSnapshot.forConnection(getHost().getDatabaseConnection()).get(getMetaDataKey());
+        if (category == null) {
+
+            return null;
+        }
+
+        List<NamedObject> objects = new ArrayList<NamedObject>(category.entries.length);
+        for (SchemaSnapshot.Entry entry : category.entries) {
+
+            objects.add(snapshotObject(type, entry));
+        }
+
+        snapshotSignature = category.signature;
+        return asTypedObjects(type, objects);
+    }
+
+    private NamedObject snapshotObject(int type, SchemaSnapshot.Entry entry) {
+
+        switch (type) {
+
+            case PROCEDURE:
+                DefaultDatabaseProcedure procedure = new DefaultDatabaseProcedure(this, entry.name);
+                procedure.setHost(getHost());
+                return procedure;
+            case TRIGGER:
+                DefaultDatabaseTrigger trigger = new DefaultDatabaseTrigger(this, entry.name);
+                trigger.setTriggerActive(entry.is(SchemaSnapshot.ACTIVE));
+                return trigger;
+            case SEQUENCE:
+                return new DefaultDatabaseSequence(this, entry.name);
+            case DOMAIN:
+                return new DefaultDatabaseDomain(this, entry.name);
+            case EXCEPTION:
+                DefaultDatabaseException exception = new DefaultDatabaseException(this, entry.name);
+                exception.setRemarks(entry.remarks);
+                return exception;
+            case INDEX:
+                DefaultDatabaseIndex index = new DefaultDatabaseIndex(this, entry.name);
+                index.setHost(getHost());
+                index.setActive(entry.is(SchemaSnapshot.ACTIVE));
+                return index;
+            default:
+                DefaultDatabaseObject object = new DefaultDatabaseObject(getHost(), getMetaDataKey());
+                object.setName(entry.name);
+                object.setCatalogName("");
+                object.setSchemaName("");
+                object.setRemarks(entry.remarks);
+                object.setSource(entry.source);
+                object.setSystemFlag(entry.is(SchemaSnapshot.SYSTEM));
+                return object;
+        }
+    }
+
+    /**
+     * Keeps the specified objects in the schema snapshot - an empty
+     * list is not kept as it may be the result of a failed load.
+     */
+    private void storeInSnapshot(String signature, List<NamedObject> objects) {
+
+        if (objects == null || objects.isEmpty()) {
+
+            return;
+        }
+
+        SchemaSnapshot.Entry[] entries = new SchemaSnapshot.Entry[objects.size()];
+        for (int i = 0; i < entries.length; i++) {
+
+            NamedObject object = objects.get(i);
+
+            String remarks = null;
+            String source = null;
+            if (object instanceof AbstractDatabaseObject) {
+
+                remarks = ((AbstractDatabaseObject) object).getLoadedRemarks();
+                source = ((AbstractDatabaseObject) object).getSource();
+            }
+
+            int flags = object.isSystem() ? SchemaSnapshot.SYSTEM : 0;
+            if (object instanceof DefaultDatabaseTrigger && ((DefaultDatabaseTrigger) object).isTriggerActive()
+                    || object instanceof DefaultDatabaseIndex && ((DefaultDatabaseIndex) object).isActive()) {
+
+                flags |= SchemaSnapshot.ACTIVE;
+            }
+
+            entries[i] = new SchemaSnapshot.Entry(object.getName(), remarks, source, flags);
+        }
+
+        SchemaSnapshot.forConnection(getHost().getDatabaseConnection()).put(getMetaDataKey(), signature, entries);
     }
 
     private void addAsParentToObjects(List<NamedObject> children) {
@@ -499,7 +788,7 @@ public class DefaultDatabaseMetaTag extends AbstractNamedObject
         }
     }
 
-    public boolean hasChildObjects() throws DataSourceException {
+    public synchronized boolean hasChildObjects() throws DataSourceException {
 
         if (!isMarkedForReload() && children != null) {
 
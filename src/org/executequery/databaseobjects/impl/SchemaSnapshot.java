@@ -0,0 +1,238 @@
+package org.executequery.databaseobjects.impl;
+
+import org.executequery.databasemediators.DatabaseConnection;
+import org.executequery.log.Log;
+import org.executequery.util.SnapshotFile;
+import org.executequery.util.UserSettingsProperties;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The objects of the meta tags of a connection last loaded, kept in
+ * the user settings directory to be shown on the next connect before
+ * the database is queried.
+ * <p/>
+ * Each meta tag category is kept with the change signature read when
+ * it was loaded, a category whose signature is no longer the one of
+ * the database is reloaded.
+ */
+public class SchemaSnapshot {
+
+    private static final int MAGIC = 0x52455353;
+
+    private static final int VERSION = 1;
+
+    private static final String DIRECTORY = "snapshots";
+
+    static final int ACTIVE = 1;
+
+    static final int SYSTEM = 2;
+
+    private static final Map<DatabaseConnection, SchemaSnapshot> SNAPSHOTS =
+            new HashMap<DatabaseConnection, SchemaSnapshot>();
+
+    private final File file;
+
+    private final Map<String, Category> categories = new HashMap<String, Category>();
+
+    private boolean modified;
+
+    private SchemaSnapshot(File file) {
+
+        this.file = file;
+    }
+
+    /**
+     * Returns the snapshot of the specified connection, read from
+     * its file on the first call.
+     */
+    public static synchronized SchemaSnapshot forConnection(DatabaseConnection databaseConnection) {
+
+        SchemaSnapshot snapshot = SNAPSHOTS.get(databaseConnection);
+        if (snapshot == null) {
+
+            snapshot = new SchemaSnapshot(snapshotFile(databaseConnection));
+            snapshot.read();
+            SNAPSHOTS.put(databaseConnection, snapshot);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Writes the snapshot of the specified connection if changed
+     * and discards it, the next connect reads it again.
+     */
+    public static void release(DatabaseConnection databaseConnection) {
+
+        SchemaSnapshot snapshot;
+        synchronized (SchemaSnapshot.class) {
+
+            snapshot = SNAPSHOTS.remove(databaseConnection);
+        }
+
+        if (snapshot != null) {
+
+            snapshot.save();
+        }
+
+    }
+
+    private static File snapshotFile(DatabaseConnection databaseConnection) {
+
+        UserSettingsProperties settings = new UserSettingsProperties();
+        File directory = new File(settings.getUserSettingsDirectory() + DIRECTORY);
+        return new File(directory, databaseConnection.getId() + ".snapshot");
+    }
+
+    synchronized Category get(String key) {
+
+        return categories.get(key);
+    }
+
+    synchronized void put(String key, String signature, Entry[] entries) {
+
+        categories.put(key, new Category(signature, entries));
+        modified = true;
+    }
+
+    /**
+     * Writes the snapshot to its file if changed since read or last written.
+     */
+    public synchronized void save() {
+
+        if (!modified) {
+
+            return;
+        }
+
+        File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+
+            Log.warning("Unable to create the schema snapshot directory " + directory);
+            return;
+        }
+
+        try {
+
+            SnapshotFile.write(file, MAGIC, VERSION, new SnapshotFile.Contents() {
+
+                @Override
+                public void write(DataOutputStream out) throws IOException {
+
+                    writeCategories(out);
+                }
+
+            });
+            modified = false;
+
+        } catch (IOException e) {
+
+            Log.warning("Error writing the schema snapshot " + file + " - " + e.getMessage());
+        }
+
+    }
+
+    private void read() {
+
+        if (!file.exists()) {
+
+            return;
+        }
+
+        try {
+
+            DataInputStream in = SnapshotFile.open(file, MAGIC, VERSION);
+            try {
+
+                for (int i = 0, n = in.readInt(); i < n; i++) {
+
+                    String key = in.readUTF();
+                    String signature = in.readUTF();
+                    Entry[] entries = new Entry[in.readInt()];
+                    for (int j = 0; j < entries.length; j++) {
+
+                        entries[j] = new Entry(in.readUTF(),
+                                SnapshotFile.readString(in), SnapshotFile.readString(in), in.readByte());
+                    }
+                    categories.put(key, new Category(signature, entries));
+                }
+
+            } finally {
+
+                in.close();
+            }
+
+        } catch (IOException e) {
+
+            Log.debug("Discarding the unreadable schema snapshot " + file + " - " + e.getMessage());
+            categories.clear();
+        }
+
+    }
+
+    private void writeCategories(DataOutputStream out) throws IOException {
+
+        out.writeInt(categories.size());
+        for (Map.Entry<String, Category> category : categories.entrySet()) {
+
+            out.writeUTF(category.getKey());
+            out.writeUTF(category.getValue().signature);
+            out.writeInt(category.getValue().entries.length);
+            for (Entry entry : category.getValue().entries) {
+
+                out.writeUTF(entry.name);
+                SnapshotFile.writeString(out, entry.remarks);
+                SnapshotFile.writeString(out, entry.source);
+                out.writeByte(entry.flags);
+            }
+
+        }
+
+    }
+
+    static final class Category {
+
+        final String signature;
+
+        final Entry[] entries;
+
+        Category(String signature, Entry[] entries) {
+
+            this.signature = signature;
+            this.entries = entries;
+        }
+
+    }
+
+    static final class Entry {
+
+        final String name;
+
+        final String remarks;
+
+        final String source;
+
+        final int flags;
+
+        Entry(String name, String remarks, String source, int flags) {
+
+            this.name = name;
+            this.remarks = remarks;
+            this.source = source;
+            this.flags = flags;
+        }
+
+        boolean is(int flag) {
+
+            return (flags & flag) != 0;
+        }
+
+    }
+
+}
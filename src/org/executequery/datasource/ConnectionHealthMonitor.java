@@ -0,0 +1,253 @@
+package org.executequery.datasource;
+
+import org.apache.commons.lang.StringUtils;
+import org.executequery.databasemediators.DatabaseConnection;
+import org.executequery.log.Log;
+import org.underworldlabs.util.SystemProperties;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared scheduler of the connection liveness checks and pool housekeeping.
+ * <p/>
+ * All the checks run on a small fixed set of daemon threads. The connections
+ * opened for one database connection form a group checked by a single task,
+ * which probes one connection of the group without an open statement - the
+ * first check runs after the diagnostic timeout and is repeated with the
+ * keepalive interval (<code>connection.keepalive.interval</code>) if set.
+ * Without an interval the connections registered while the check is
+ * pending are checked once more after the diagnostic timeout.
+ * The timeouts aborting a blocked check run on a thread of their own so the
+ * checks they abort can not keep them waiting.
+ */
+final class ConnectionHealthMonitor {
+
+    private static final int THREAD_COUNT = 2;
+
+    private static final ScheduledThreadPoolExecutor EXECUTOR =
+            createExecutor("ConnectionHealthMonitor", THREAD_COUNT);
+
+    private static final ScheduledThreadPoolExecutor WATCHDOG =
+            createExecutor("ConnectionWatchdog", 1);
+
+    private static final Map<DatabaseConnection, ConnectionGroup> GROUPS =
+            new HashMap<DatabaseConnection, ConnectionGroup>();
+
+    private ConnectionHealthMonitor() {
+    }
+
+    /**
+     * Registers the specified connection to be checked with the
+     * other connections of its database connection.
+     *
+     * @param connection   the connection to be checked
+     * @param initialDelay the delay of the first check in milliseconds
+     */
+    static synchronized void register(PooledConnection connection, long initialDelay) {
+
+        DatabaseConnection databaseConnection = connection.getDatabaseConnection();
+        ConnectionGroup group = GROUPS.get(databaseConnection);
+        if (group == null) {
+
+            group = new ConnectionGroup();
+            GROUPS.put(databaseConnection, group);
+        }
+
+        group.connections.add(connection);
+        if (group.future == null || group.future.isDone()) {
+
+            long interval = keepAliveInterval();
+            group.future = (interval > 0)
+                    ? EXECUTOR.scheduleWithFixedDelay(group, initialDelay, interval, TimeUnit.MILLISECONDS)
+                    : EXECUTOR.schedule(group, initialDelay, TimeUnit.MILLISECONDS);
+            group.periodic = interval > 0;
+            group.initialDelay = initialDelay;
+            group.recheck = false;
+
+        } else {
+
+            // the pending check may run before the delay of this connection
+            group.recheck = true;
+        }
+
+    }
+
+    /**
+     * Schedules the check of the specified group once more after a one-shot
+     * check if connections were registered while the check was pending.
+     */
+    private static synchronized void checked(ConnectionGroup group) {
+
+        if (group.periodic) {
+
+            return;
+        }
+
+        if (group.recheck && GROUPS.containsValue(group)) {
+
+            group.recheck = false;
+            group.future = EXECUTOR.schedule(group, group.initialDelay, TimeUnit.MILLISECONDS);
+
+        } else {
+
+            // no check pending, the next connection registered schedules one
+            group.future = null;
+        }
+
+    }
+
+    /**
+     * Removes the specified connection from the checked connections.
+     */
+    static synchronized void unregister(PooledConnection connection) {
+
+        DatabaseConnection databaseConnection = connection.getDatabaseConnection();
+        ConnectionGroup group = GROUPS.get(databaseConnection);
+        if (group != null && group.connections.remove(connection) && group.connections.isEmpty()) {
+
+            if (group.future != null) {
+
+                group.future.cancel(false);
+            }
+            GROUPS.remove(databaseConnection);
+        }
+
+    }
+
+    /**
+     * Executes the specified timeout task once after the specified delay in
+     * milliseconds, on the watchdog thread rather than with the checks.
+     */
+    static ScheduledFuture<?> schedule(Runnable task, long delay) {
+
+        return WATCHDOG.schedule(new LoggingTask(task), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Executes the specified task repeatedly with the specified delay in milliseconds.
+     */
+    static ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+
+        return EXECUTOR.scheduleWithFixedDelay(new LoggingTask(task), delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static long keepAliveInterval() {
+
+        String value = SystemProperties.getProperty("user", "connection.keepalive.interval");
+        if (StringUtils.isNotBlank(value)) {
+
+            try {
+
+                return Long.parseLong(value.trim());
+
+            } catch (NumberFormatException e) {
+
+                Log.warning("Invalid connection keepalive interval [ " + value + " ]");
+            }
+
+        }
+
+        return 0;
+    }
+
+    private static ScheduledThreadPoolExecutor createExecutor(final String name, int threadCount) {
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threadCount, new ThreadFactory() {
+
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+
+        });
+
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static final class ConnectionGroup implements Runnable {
+
+        private final Set<PooledConnection> connections =
+                Collections.newSetFromMap(new ConcurrentHashMap<PooledConnection, Boolean>());
+
+        private ScheduledFuture<?> future;
+
+        private boolean periodic;
+
+        private long initialDelay;
+
+        /**
+         * whether connections were registered while the check was pending
+         */
+        private boolean recheck;
+
+        @Override
+        public void run() {
+
+            try {
+
+                // a connection with an open statement would make the probe wait for it
+                for (PooledConnection connection : connections) {
+
+                    if (!connection.isStatementOpen() && !connection.isClosed()) {
+
+                        connection.checkConnectionToServer();
+                        break;
+                    }
+
+                }
+
+            } catch (Throwable e) {
+
+                Log.error("Error checking connection to server", e);
+
+            } finally {
+
+                checked(this);
+            }
+
+        }
+
+    }
+
+    private static final class LoggingTask implements Runnable {
+
+        private final Runnable task;
+
+        LoggingTask(Runnable task) {
+
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+
+            try {
+
+                task.run();
+
+            } catch (Throwable e) {
+
+                // an exception would cancel the following executions
+                Log.error("Error executing connection task", e);
+            }
+
+        }
+
+    }
+
+}
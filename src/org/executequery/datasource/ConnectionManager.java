@@ -23,25 +23,26 @@ package org.executequery.datasource;
 import org.executequery.GUIUtilities;
 import org.executequery.databasemediators.DatabaseConnection;
 import org.executequery.databasemediators.DatabaseDriver;
-import org.executequery.databaseobjects.DatabaseHost;
-import org.executequery.databaseobjects.NamedObject;
 import org.executequery.databaseobjects.impl.DefaultDatabaseMetaTag;
+import org.executequery.databaseobjects.impl.SchemaSnapshot;
 import org.executequery.gui.browser.ConnectionsTreePanel;
 import org.executequery.gui.browser.nodes.DatabaseObjectNode;
 import org.executequery.log.Log;
 import org.executequery.repository.DatabaseDriverRepository;
 import org.executequery.repository.RepositoryCache;
 import org.underworldlabs.jdbc.DataSourceException;
-import org.underworldlabs.swing.util.SwingWorker;
 import org.underworldlabs.util.SystemProperties;
 
 import javax.resource.ResourceException;
 import javax.sql.DataSource;
+import javax.swing.SwingUtilities;
 import javax.swing.tree.TreeNode;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 
 /**
  * Manages all data source connections across multiple
@@ -83,46 +84,98 @@ public final class ConnectionManager {
         pool.setInitialConnections(SystemProperties.getIntProperty("user", "connection.initialcount"));
         connectionPools.put(databaseConnection, pool);
         databaseConnection.setConnected(true);
-        DatabaseObjectNode hostNode = ((ConnectionsTreePanel) GUIUtilities.getDockedTabComponent(ConnectionsTreePanel.PROPERTY_KEY)).getHostNode(databaseConnection);
-        loadTree(hostNode);
-        DatabaseHost host = (DatabaseHost) hostNode.getDatabaseObject();
+        ConnectionsTreePanel treePanel = (ConnectionsTreePanel) GUIUtilities.getDockedTabComponent(ConnectionsTreePanel.PROPERTY_KEY);
+        DatabaseObjectNode hostNode = treePanel.getHostNode(databaseConnection);
+
+        long start = System.currentTimeMillis();
+        MetadataLoader loader = MetadataLoader.start(databaseConnection, pool.getMaximumConnections());
         try {
-            while (host.countFinishedMetaTags() < hostNode.getChildCount()) {
 
-                Thread.sleep(100);
+            loader.loadTree(hostNode).join();
+
+        } catch (CancellationException e) {
+
+            Log.info("Loading of data source " + databaseConnection.getName() + " cancelled");
+            return;
+
+        } catch (CompletionException e) {
+
+            if (e.getCause() instanceof CancellationException) {
+
+                Log.info("Loading of data source " + databaseConnection.getName() + " cancelled");
+                return;
             }
 
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            Log.error("Error loading data source " + databaseConnection.getName(), e.getCause());
         }
-        Log.info("Data source " + databaseConnection.getName() + " initialized.");
+
+        Log.info("Data source " + databaseConnection.getName() + " initialized in "
+                + (System.currentTimeMillis() - start) + " ms.");
+        revalidateSnapshot(loader, treePanel, hostNode, databaseConnection);
     }
 
+    /**
+     * Reloads in the background the meta tags of the specified host
+     * node served from the schema snapshot whose objects changed in
+     * the database, then writes the snapshot.
+     */
+    private static void revalidateSnapshot(MetadataLoader loader,
+                                           final ConnectionsTreePanel treePanel,
+                                           final DatabaseObjectNode hostNode,
+                                           final DatabaseConnection databaseConnection) {
+
+        final List<DatabaseObjectNode> reloaded = new ArrayList<DatabaseObjectNode>();
+        loader.submit(MetadataLoader.REVALIDATE, new Runnable() {
+
+            @Override
+            public void run() {
+
+                Enumeration<TreeNode> nodes = hostNode.children();
+                while (nodes.hasMoreElements()) {
+
+                    DatabaseObjectNode node = (DatabaseObjectNode) nodes.nextElement();
+                    if (node.getDatabaseObject() instanceof DefaultDatabaseMetaTag) {
+
+                        try {
+
+                            if (((DefaultDatabaseMetaTag) node.getDatabaseObject()).revalidateSnapshot()) {
+
+                                reloaded.add(node);
+                            }
+
+                        } catch (DataSourceException e) {
+
+                            Log.error("Error reloading " + node.getName() + " of the schema snapshot", e);
+                        }
 
-    public static void loadTree(DatabaseObjectNode root) {
-        root.populateChildren();
-        Enumeration<TreeNode> nodes = root.children();
-        while (nodes.hasMoreElements()) {
-            DatabaseObjectNode node = (DatabaseObjectNode) nodes.nextElement();
-            if (node.isHostNode() || node.getType() == NamedObject.META_TAG) {
-                SwingWorker sw = new SwingWorker() {
-                    @Override
-                    public Object construct() {
-                        loadTree(node);
-                        return null;
                     }
 
+                }
+
+                SchemaSnapshot.forConnection(databaseConnection).save();
+            }
+
+        }).thenRun(new Runnable() {
+
+            @Override
+            public void run() {
+
+                SwingUtilities.invokeLater(new Runnable() {
+
                     @Override
-                    public void finished() {
-                        if (node.getType() == NamedObject.META_TAG) {
-                            ((DefaultDatabaseMetaTag) node.getDatabaseObject()).getHost().incCountFinishedMetaTags();
+                    public void run() {
+
+                        for (DatabaseObjectNode node : reloaded) {
+
+                            treePanel.childrenReloaded(node);
                         }
+
                     }
-                };
-                sw.start();
+
+                });
             }
-        }
 
+        });
     }
 
     /**
@@ -138,19 +191,46 @@ public final class ConnectionManager {
             return null;
         }
 
-        synchronized (databaseConnection) {
+        // waiting for a pooled connection must not block the other borrowers
+        return connectionPool(databaseConnection).getConnection();
+    }
+
+    private static ConnectionPool connectionPool(DatabaseConnection databaseConnection) {
+
+        ConnectionPool pool = connectionPools.get(databaseConnection);
+        if (pool == null) {
+
+            synchronized (databaseConnection) {
+
+                pool = connectionPools.get(databaseConnection);
+                if (pool == null) {
 
-            if (connectionPools == null || !connectionPools.containsKey(databaseConnection)) {
+                    createDataSource(databaseConnection);
+                    pool = connectionPools.get(databaseConnection);
+                }
 
-                createDataSource(databaseConnection);
             }
 
-            ConnectionPool pool = connectionPools.get(databaseConnection);
-            Connection connection = pool.getConnection();
+        }
+
+        return pool;
+    }
 
-            return connection;
+    /**
+     * Returns the statistics of the connection pool of the specified connection.
+     *
+     * @param databaseConnection the stored database connection properties object
+     * @return the pool statistics or <code>null</code> if not connected
+     */
+    public static ConnectionPoolStatistics getPoolStatistics(DatabaseConnection databaseConnection) {
+
+        ConnectionPool pool = connectionPools.get(databaseConnection);
+        if (pool instanceof ConnectionPoolImpl) {
+
+            return ((ConnectionPoolImpl) pool).getStatistics();
         }
 
+        return null;
     }
 
     public static Connection getTemporaryConnection(DatabaseConnection databaseConnection) {
@@ -160,21 +240,13 @@ public final class ConnectionManager {
             return null;
         }
 
-        synchronized (databaseConnection) {
-
-            if (connectionPools == null || !connectionPools.containsKey(databaseConnection)) {
-
-                createDataSource(databaseConnection);
-            }
-
-            ConnectionPool pool = connectionPools.get(databaseConnection);
-            DataSource dataSource = getDataSource(databaseConnection);
-            try {
-                return new PooledConnection(dataSource.getConnection(), databaseConnection);
-            } catch (SQLException e) {
-                Log.error("Error get connection", e);
-                return pool.getConnection();
-            }
+        ConnectionPool pool = connectionPool(databaseConnection);
+        DataSource dataSource = pool.getDataSource();
+        try {
+            return new PooledConnection(dataSource.getConnection(), databaseConnection);
+        } catch (SQLException e) {
+            Log.error("Error get connection", e);
+            return pool.getConnection();
         }
 
     }
@@ -198,7 +270,14 @@ public final class ConnectionManager {
      *
      * @param the stored database connection properties object
      */
-    public static synchronized void closeConnection(DatabaseConnection databaseConnection) {
+    public static void closeConnection(DatabaseConnection databaseConnection) {
+
+        // a connect waiting for the meta data returns once cancelled
+        MetadataLoader.cancel(databaseConnection);
+        closeDataSource(databaseConnection);
+    }
+
+    private static synchronized void closeDataSource(DatabaseConnection databaseConnection) {
 
         if (connectionPools.containsKey(databaseConnection)) {
 
@@ -233,8 +312,9 @@ public final class ConnectionManager {
         // iterate and close all the pools
         for (Iterator<DatabaseConnection> i = connectionPools.keySet().iterator(); i.hasNext(); ) {
 
-            ConnectionPool pool = connectionPools.get(i.next());
-            pool.close();
+            DatabaseConnection databaseConnection = i.next();
+            MetadataLoader.cancel(databaseConnection);
+            connectionPools.get(databaseConnection).close();
         }
         connectionPools.clear();
     }
@@ -30,39 +30,131 @@ import javax.sql.DataSource;
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.Collections;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Connection pool of a database connection.
+ * <p/>
+ * Borrowing a connection takes a permit from a semaphore sized to the maximum
+ * pool capacity and the most recently returned connection from a concurrent idle
+ * queue. A new physical connection is opened only when the idle queue is empty.
+ * When all permits are taken the borrower waits up to the checkout timeout.
+ * Closing a borrowed connection returns it to the idle queue after rolling back
+ * any pending work. Idle connections are validated before they are handed out
+ * and closed when idle or open for longer than configured.
+ * <p/>
+ * When the pool is disabled (<code>connection.usepool</code>) all callers
+ * share a single connection which is closed when returned.
+ *
  * @author Takis Diakoumis
  */
 public class ConnectionPoolImpl extends AbstractConnectionPool implements PooledConnectionListener {
 
-    private int maximumConnections = MAX_POOL_SIZE;
+    /**
+     * connections returned more recently than this are not validated on borrow
+     */
+    private static final long VALIDATION_BYPASS_INTERVAL = 500;
+
+    /**
+     * the connection validation timeout in seconds
+     */
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    /**
+     * the minimum interval between two idle connection eviction runs
+     */
+    private static final long EVICTION_INTERVAL = 1000;
+
+    /**
+     * the interval of the scheduled idle connection eviction
+     */
+    private static final long HOUSEKEEPING_INTERVAL = 30000;
+
+    private int maximumConnections;
 
     private int minimumConnections = MIN_POOL_SIZE;
 
     private int initialConnections = INITIAL_POOL_SIZE;
 
-    private final List<PooledConnection> openConnections = Collections.synchronizedList(new ArrayList<PooledConnection>());
+    private final boolean usePool;
+
+    private final long checkoutTimeout;
+
+    private final long idleTimeout;
+
+    private final long maxLifetime;
+
+    private final boolean validateOnBorrow;
+
+    private final PoolPermits permits;
+
+    private final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<PooledConnection>();
+
+    private final Set<PooledConnection> openConnections = newConnectionSet();
+
+    private final Set<PooledConnection> activeConnections = newConnectionSet();
+
+    private final Object sharedConnectionLock = new Object();
+
+    private final AtomicLong createdCount = new AtomicLong();
 
-    private final List<PooledConnection> activeConnections = Collections.synchronizedList(new ArrayList<PooledConnection>());
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private final AtomicLong borrowCount = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    private final AtomicLong maximumWaitNanos = new AtomicLong();
+
+    private final AtomicLong lastEvictionTime = new AtomicLong();
 
     private final DatabaseConnection databaseConnection;
 
-    private int defaultTxIsolation = -1;
+    private volatile int defaultTxIsolation = -1;
 
-    private boolean supportsTransactions;
+    private volatile boolean supportsTransactions;
 
-    private DataSource dataSource;
+    private volatile DataSource dataSource;
 
     private SshTunnel sshTunnel;
 
+    private ScheduledFuture<?> housekeeping;
+
     public ConnectionPoolImpl(DatabaseConnection databaseConnection) {
 
         this.databaseConnection = databaseConnection;
 
+        usePool = SystemProperties.getBooleanProperty("user", "connection.usepool");
+        maximumConnections = intProperty("connection.pool.maximum", MAX_POOL_SIZE);
+        checkoutTimeout = intProperty("connection.pool.checkout.timeout", 30000);
+        idleTimeout = intProperty("connection.pool.idle.timeout", 600000);
+        maxLifetime = intProperty("connection.pool.max.lifetime", 1800000);
+        validateOnBorrow = !"false".equals(SystemProperties.getProperty("user", "connection.pool.validate"));
+
+        permits = new PoolPermits(maximumConnections);
+
+        if (usePool && (idleTimeout > 0 || maxLifetime > 0)) {
+
+            // connections may stay idle without any returns triggering eviction
+            housekeeping = ConnectionHealthMonitor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdleConnections();
+                }
+            }, HOUSEKEEPING_INTERVAL);
+        }
+
         if (Log.isDebugEnabled()) {
 
             Log.debug("Creating new pool for connection " + databaseConnection.getName());
@@ -77,26 +169,64 @@ public class ConnectionPoolImpl extends AbstractConnectionPool implements Pooled
 
     public void connectionClosed(PooledConnection pooledConnection) {
 
+        // connections destroyed by the pool are no longer active
+        if (!activeConnections.remove(pooledConnection)) {
+
+            return;
+        }
+
         if (Log.isDebugEnabled()) {
 
-            Log.debug("Removing connection " + pooledConnection.getId()
-                    + " from active connections list");
+            Log.debug("Returning connection " + pooledConnection.getId() + " to the pool");
         }
 
-        activeConnections.remove(pooledConnection);
-        reduceCapacity(minimumConnections);
+        try {
+
+            if (pooledConnection.isCloseOnReturn()) {
+
+                // the shared connection has been closed by its owner
+                destroy(pooledConnection);
+
+            } else if (!isExpired(pooledConnection, System.currentTimeMillis())
+                    && pooledConnection.resetForReuse()) {
+
+                pooledConnection.setInUse(false);
+                idleConnections.offerFirst(pooledConnection);
+
+            } else {
+
+                evict(pooledConnection);
+            }
+
+        } finally {
+
+            permits.release();
+        }
+
+        evictIdleConnections();
     }
 
     public void close(Connection connection) {
 
         if (connection != null) {
 
-            activeConnections.remove(connection);
-
             PooledConnection pooledConnection = (PooledConnection) connection;
-            pooledConnection.destroy();
+            if (openConnections.contains(pooledConnection)) {
+
+                boolean active = activeConnections.remove(pooledConnection);
+                idleConnections.remove(pooledConnection);
+                destroy(pooledConnection);
+
+                if (active) {
+
+                    permits.release();
+                }
+
+            } else {
+
+                pooledConnection.destroy();
+            }
 
-            openConnections.remove(pooledConnection);
         }
 
         ensureCapacity(minimumConnections);
@@ -106,159 +236,331 @@ public class ConnectionPoolImpl extends AbstractConnectionPool implements Pooled
 
         if (Log.isDebugEnabled()) {
 
-            Log.debug("Closing connection pool for connection " + databaseConnection.getName());
+            Log.debug("Closing connection pool for connection " + databaseConnection.getName()
+                    + " [ " + getStatistics() + " ]");
         }
 
-        for (Connection connection : openConnections) {
+        if (housekeeping != null) {
 
-            PooledConnection pooledConnection = (PooledConnection) connection;
-            pooledConnection.destroy();
+            housekeeping.cancel(false);
+            housekeeping = null;
+        }
+
+        for (PooledConnection pooledConnection : openConnections) {
+
+            activeConnections.remove(pooledConnection);
+            destroy(pooledConnection);
         }
 
         destroySshTunnel();
         activeConnections.clear();
+        idleConnections.clear();
         openConnections.clear();
     }
 
-    public synchronized Connection getConnection() {
+    public Connection getConnection() {
 
-        int size = openConnections.size();
         if (Log.isTraceEnabled()) {
 
             Log.trace("Retrieving new connection from the pool with current size: [ "
-                    + size + " ] from maximum pool capacity [ " + maximumConnections + " ]");
+                    + openConnections.size() + " ] from maximum pool capacity [ " + maximumConnections + " ]");
         }
 
-        if (databaseConnection.isSshTunnel() && sshTunnel == null) {
+        if (databaseConnection.isSshTunnel()) {
 
-            createSshTunnel();
+            ensureSshTunnel();
         }
 
-        if (size < minimumConnections) {
+        if (openConnections.size() < minimumConnections) {
 
             ensureCapacity(minimumConnections);
         }
 
-        PooledConnection connection = getNextOpenAvailable();
+        PooledConnection connection = usePool ? borrowConnection() : sharedConnection();
 
-        if (connection != null) {
+        if (Log.isDebugEnabled()) {
 
-            try {
-                if (connection.isClosed()) {
+            Log.debug("Retrieving connection " + connection.getId());
+        }
+
+        return connection;
+    }
+
+    /**
+     * Returns the statistics of this pool.
+     */
+    public ConnectionPoolStatistics getStatistics() {
+
+        return new ConnectionPoolStatistics(
+                activeConnections.size(), idleConnections.size(), maximumConnections,
+                createdCount.get(), evictedCount.get(), borrowCount.get(),
+                timeoutCount.get(), totalWaitNanos.get(), maximumWaitNanos.get());
+    }
+
+    private PooledConnection sharedConnection() {
+
+        synchronized (sharedConnectionLock) {
+
+            for (PooledConnection connection : activeConnections) {
+
+                if (isOpen(connection)) {
+
+                    return connection;
+                }
+
+                if (activeConnections.remove(connection)) {
 
-                    close(connection);
-                    return getConnection();
+                    evict(connection);
+                    permits.release();
                 }
-            } catch (SQLException e) {
+
+            }
+
+            return borrowConnection();
+        }
+
+    }
+
+    private PooledConnection borrowConnection() {
+
+        long start = System.nanoTime();
+        try {
+
+            if (!permits.tryAcquire(checkoutTimeout, TimeUnit.MILLISECONDS)) {
+
+                timeoutCount.incrementAndGet();
+                throw new DataSourceException("Maximum open connection count exceeded - no connection was " +
+                        "returned to the pool within " + checkoutTimeout + " ms");
+            }
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new DataSourceException(e);
+        }
+
+        recordWait(System.nanoTime() - start);
+
+        boolean borrowed = false;
+        try {
+
+            PooledConnection connection = nextIdleConnection();
+            if (connection == null) {
+
+                connection = createConnection();
             }
 
             connection.setInUse(true);
             activeConnections.add(connection);
+            borrowed = true;
 
-        } else if (size < maximumConnections) {
-            boolean usePool = SystemProperties.getBooleanProperty("user", "connection.usepool");
-            if (!usePool) {
-                if (activeConnections.size() > 0)
-                    return activeConnections.get(0);
-                else {
-                    createConnection();
-                    return getConnection();
-                }
-            } else {
-                createConnection();
-                return getConnection();
-            }
+            return connection;
+
+        } finally {
 
-        } else {
+            if (!borrowed) {
+
+                permits.release();
+            }
 
-            throw new DataSourceException("Maximum open connection count exceeded");
         }
 
-        if (Log.isDebugEnabled()) {
+    }
 
-            Log.debug("Retrieving connection " + connection.getId());
+    private PooledConnection nextIdleConnection() {
+
+        PooledConnection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+
+            long now = System.currentTimeMillis();
+            if (!isExpired(connection, now) && isValid(connection, now)) {
+
+                return connection;
+            }
+
+            evict(connection);
         }
 
-        return connection;
+        return null;
     }
 
-    private void destroySshTunnel() {
+    private boolean isExpired(PooledConnection connection, long now) {
 
-        if (sshTunnel != null) {
+        return maxLifetime > 0 && now - connection.getCreationTime() > maxLifetime;
+    }
 
-            sshTunnel.disconnect(databaseConnection);
-            sshTunnel = null;
+    private boolean isValid(PooledConnection connection, long now) {
+
+        if (!validateOnBorrow || now - connection.getLastReleaseTime() < VALIDATION_BYPASS_INTERVAL) {
+
+            return isOpen(connection);
+        }
+
+        Connection realConnection = connection.getRealConnection();
+        if (realConnection == null) {
+
+            return false;
+        }
+
+        try {
+
+            return realConnection.isValid(VALIDATION_TIMEOUT);
+
+        } catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+
+            return isOpen(connection);
+
+        } catch (SQLException e) {
+
+            if (Log.isDebugEnabled()) {
+
+                Log.debug("Connection " + connection.getId() + " failed validation: " + e.getMessage());
+            }
+
+            return false;
         }
+
     }
 
-    private void createSshTunnel() {
+    private boolean isOpen(PooledConnection connection) {
+
+        try {
+
+            return !connection.isClosed();
+
+        } catch (SQLException e) {
+
+            return false;
+        }
 
-        sshTunnel = new JschSshTunnel();
-        sshTunnel.connect(databaseConnection);
     }
 
-    private void ensureCapacity(int capacity) {
+    /**
+     * Closes the connections idle for longer than the idle timeout
+     * above the minimum pool size and those older than the maximum lifetime.
+     */
+    private void evictIdleConnections() {
 
-        if (Log.isDebugEnabled()) {
+        if (idleTimeout <= 0 && maxLifetime <= 0) {
 
-            Log.debug("Ensuring pool capacity " + capacity);
+            return;
         }
 
-        while (openConnections.size() < capacity) {
+        long now = System.currentTimeMillis();
+        long lastRun = lastEvictionTime.get();
+        if (now - lastRun < EVICTION_INTERVAL || !lastEvictionTime.compareAndSet(lastRun, now)) {
+
+            return;
+        }
+
+        // the least recently returned connections are at the tail
+        for (Iterator<PooledConnection> i = idleConnections.descendingIterator(); i.hasNext(); ) {
+
+            PooledConnection connection = i.next();
+            boolean idleExpired = idleTimeout > 0
+                    && now - connection.getLastReleaseTime() > idleTimeout
+                    && openConnections.size() > minimumConnections;
+
+            if ((idleExpired || isExpired(connection, now)) && idleConnections.remove(connection)) {
+
+                evict(connection);
+            }
 
-            createConnection();
         }
 
     }
 
-    private void reduceCapacity(int capacity) {
+    private void evict(PooledConnection connection) {
 
         if (Log.isDebugEnabled()) {
 
-            Log.debug("Reducing pool capacity " + capacity);
+            Log.debug("Evicting connection " + connection.getId() + " from the pool");
         }
 
-        while (openConnections.size() > capacity) {
+        evictedCount.incrementAndGet();
+        destroy(connection);
+    }
 
-            PooledConnection connection = getNextOpenAvailable();
-            if (connection != null) {
+    private void destroy(PooledConnection connection) {
 
-                close(connection);
+        openConnections.remove(connection);
+        connection.setCloseOnReturn(true);
+        connection.destroy();
+    }
 
-            } else {
+    private void recordWait(long waitNanos) {
 
-                break;
-            }
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
 
+        long maximum;
+        while (waitNanos > (maximum = maximumWaitNanos.get())
+                && !maximumWaitNanos.compareAndSet(maximum, waitNanos)) {
         }
 
     }
 
-    private PooledConnection createConnection() {
+    private synchronized void destroySshTunnel() {
 
-        PooledConnection connection = null;
+        if (sshTunnel != null) {
 
-        try {
+            sshTunnel.disconnect(databaseConnection);
+            sshTunnel = null;
+        }
+    }
+
+    private synchronized void ensureSshTunnel() {
+
+        if (sshTunnel == null) {
 
-            if (dataSource == null) {
+            sshTunnel = new JschSshTunnel();
+            sshTunnel.connect(databaseConnection);
+        }
+    }
 
-                DatabaseConnection _databaseConnection = databaseConnection;
-                if (databaseConnection.isSshTunnel()) {
+    private synchronized void ensureCapacity(int capacity) {
 
-                    if (sshTunnel == null) {
+        if (Log.isDebugEnabled()) {
 
-                        createSshTunnel();
-                    }
+            Log.debug("Ensuring pool capacity " + capacity);
+        }
 
-                    _databaseConnection = databaseConnection.copy();
-                    _databaseConnection.setHost("localhost");
-                    _databaseConnection.setPort(String.valueOf(sshTunnel.getTunnelPort()));
-                }
+        while (openConnections.size() < capacity) {
+
+            PooledConnection connection = createConnection();
+            connection.setInUse(false);
+            idleConnections.offerLast(connection);
+        }
+
+    }
+
+    private synchronized DataSource ensureDataSource() {
+
+        if (dataSource == null) {
+
+            DatabaseConnection _databaseConnection = databaseConnection;
+            if (databaseConnection.isSshTunnel()) {
 
-                dataSource = new SimpleDataSource(_databaseConnection);
+                ensureSshTunnel();
+
+                _databaseConnection = databaseConnection.copy();
+                _databaseConnection.setHost("localhost");
+                _databaseConnection.setPort(String.valueOf(sshTunnel.getTunnelPort()));
             }
 
-            Connection realConnection = dataSource.getConnection();
+            dataSource = new SimpleDataSource(_databaseConnection);
+        }
+
+        return dataSource;
+    }
+
+    private PooledConnection createConnection() {
+
+        PooledConnection connection = null;
+
+        try {
+
+            Connection realConnection = ensureDataSource().getConnection();
             if (realConnection == null) {
 
                 destroySshTunnel();
@@ -286,10 +588,11 @@ public class ConnectionPoolImpl extends AbstractConnectionPool implements Pooled
                 }
             }
 
-            connection = new PooledConnection(realConnection, databaseConnection,true,true);
+            connection = new PooledConnection(realConnection, databaseConnection, !usePool, true);
             connection.addPooledConnectionListener(this);
 
             openConnections.add(connection);
+            createdCount.incrementAndGet();
 
             if (Log.isDebugEnabled()) {
 
@@ -319,20 +622,6 @@ public class ConnectionPoolImpl extends AbstractConnectionPool implements Pooled
 
     }
 
-    private PooledConnection getNextOpenAvailable() {
-
-        for (PooledConnection pooledConnection : openConnections) {
-
-            if (pooledConnection.isAvailable()) {
-
-                return pooledConnection;
-            }
-
-        }
-
-        return null;
-    }
-
     public DataSource getDataSource() {
 
         return dataSource;
@@ -402,13 +691,23 @@ public class ConnectionPoolImpl extends AbstractConnectionPool implements Pooled
         this.initialConnections = initialConnections;
     }
 
-    public void setMaximumConnections(int maximumConnections) {
+    public synchronized void setMaximumConnections(int maximumConnections) {
 
         if (maximumConnections < 1) {
 
             throw new IllegalArgumentException("Maximum connection count must be at least 1");
         }
 
+        int delta = maximumConnections - this.maximumConnections;
+        if (delta > 0) {
+
+            permits.release(delta);
+
+        } else if (delta < 0) {
+
+            permits.reducePermits(-delta);
+        }
+
         this.maximumConnections = maximumConnections;
     }
 
@@ -446,15 +745,11 @@ public class ConnectionPoolImpl extends AbstractConnectionPool implements Pooled
 
         try {
 
-            synchronized (openConnections) {
+            for (Connection connection : openConnections) {
 
-                for (Connection connection : openConnections) {
-
-                    if (!connection.isClosed()) {
-
-                        connection.setTransactionIsolation(isolationLevelToApply);
-                    }
+                if (!connection.isClosed()) {
 
+                    connection.setTransactionIsolation(isolationLevelToApply);
                 }
 
             }
@@ -488,10 +783,46 @@ public class ConnectionPoolImpl extends AbstractConnectionPool implements Pooled
         return String.valueOf(isolationLevel);
     }
 
-}
+    private static int intProperty(String key, int defaultValue) {
 
+        String value = SystemProperties.getProperty("user", key);
+        if (StringUtils.isNotBlank(value)) {
 
+            try {
 
+                return Integer.parseInt(value.trim());
 
+            } catch (NumberFormatException e) {
 
+                Log.warning("Invalid value [ " + value + " ] of the property " + key);
+            }
 
+        }
+
+        return defaultValue;
+    }
+
+    private static Set<PooledConnection> newConnectionSet() {
+
+        return Collections.newSetFromMap(new ConcurrentHashMap<PooledConnection, Boolean>());
+    }
+
+    /**
+     * Semaphore which may be shrunk when the maximum pool size is reduced.
+     */
+    private static final class PoolPermits extends Semaphore {
+
+        PoolPermits(int permits) {
+
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+
+            super.reducePermits(reduction);
+        }
+
+    }
+
+}
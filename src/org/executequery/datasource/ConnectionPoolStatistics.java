@@ -0,0 +1,103 @@
+package org.executequery.datasource;
+
+/**
+ * Snapshot of the connection pool counters.
+ */
+public final class ConnectionPoolStatistics {
+
+    private final int activeCount;
+
+    private final int idleCount;
+
+    private final int maximumCount;
+
+    private final long createdCount;
+
+    private final long evictedCount;
+
+    private final long borrowCount;
+
+    private final long timeoutCount;
+
+    private final long totalWaitNanos;
+
+    private final long maximumWaitNanos;
+
+    ConnectionPoolStatistics(int activeCount, int idleCount, int maximumCount,
+                             long createdCount, long evictedCount, long borrowCount,
+                             long timeoutCount, long totalWaitNanos, long maximumWaitNanos) {
+
+        this.activeCount = activeCount;
+        this.idleCount = idleCount;
+        this.maximumCount = maximumCount;
+        this.createdCount = createdCount;
+        this.evictedCount = evictedCount;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maximumWaitNanos = maximumWaitNanos;
+    }
+
+    /**
+     * Returns the number of connections currently borrowed from the pool.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Returns the number of open connections waiting in the pool.
+     */
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    public int getMaximumCount() {
+        return maximumCount;
+    }
+
+    /**
+     * Returns the number of physical connections opened by the pool.
+     */
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Returns the number of connections closed by the pool because they
+     * were idle or too old, failed validation or were returned unusable.
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * Returns the number of checkouts that timed out waiting for a connection.
+     */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public double getAverageWaitMillis() {
+        return borrowCount > 0 ? totalWaitNanos / 1000000d / borrowCount : 0;
+    }
+
+    public double getMaximumWaitMillis() {
+        return maximumWaitNanos / 1000000d;
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format(
+                "active: %d, idle: %d, maximum: %d, created: %d, evicted: %d, borrowed: %d, " +
+                        "timeouts: %d, average wait: %.2f ms, maximum wait: %.2f ms",
+                activeCount, idleCount, maximumCount, createdCount, evictedCount, borrowCount,
+                timeoutCount, getAverageWaitMillis(), getMaximumWaitMillis());
+    }
+
+}
@@ -0,0 +1,321 @@
+package org.executequery.datasource;
+
+import org.executequery.databasemediators.DatabaseConnection;
+import org.executequery.databaseobjects.NamedObject;
+import org.executequery.gui.browser.nodes.DatabaseObjectNode;
+
+import javax.swing.tree.TreeNode;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Loads the meta data of a connection on a fixed number of threads.
+ * <p/>
+ * The loads queued are run by priority - the tree nodes first, then the
+ * snapshot revalidation and the autocomplete catalog - and in submission
+ * order within a priority. All the loads still queued or running are
+ * cancelled when the connection is closed.
+ */
+public final class MetadataLoader {
+
+    /**
+     * the priority of the tree nodes loaded on connect
+     */
+    public static final int TREE = 0;
+
+    /**
+     * the priority of the schema snapshot revalidation
+     */
+    public static final int REVALIDATE = 1;
+
+    /**
+     * the priority of the autocomplete catalog loading
+     */
+    public static final int AUTOCOMPLETE = 2;
+
+    private static final int MAX_THREAD_COUNT = 4;
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final Map<DatabaseConnection, MetadataLoader> LOADERS =
+            new HashMap<DatabaseConnection, MetadataLoader>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Set<CompletableFuture<?>> futures = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor executor;
+
+    private MetadataLoader(final String name, int threadCount) {
+
+        executor = new ThreadPoolExecutor(threadCount, threadCount,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "MetadataLoader-" + name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Creates the loader of the specified connection - one pooled
+     * connection is left to the editors.
+     *
+     * @param databaseConnection the connection opened
+     * @param maximumConnections the maximum size of its pool
+     */
+    static synchronized MetadataLoader start(DatabaseConnection databaseConnection, int maximumConnections) {
+
+        MetadataLoader loader = LOADERS.remove(databaseConnection);
+        if (loader != null) {
+
+            loader.cancelAll();
+        }
+
+        int threadCount = Math.max(1, Math.min(MAX_THREAD_COUNT, maximumConnections - 1));
+        loader = new MetadataLoader(databaseConnection.getName(), threadCount);
+        LOADERS.put(databaseConnection, loader);
+        return loader;
+    }
+
+    /**
+     * Returns the loader of the specified connection, null if it is not connected.
+     */
+    public static synchronized MetadataLoader forConnection(DatabaseConnection databaseConnection) {
+
+        return LOADERS.get(databaseConnection);
+    }
+
+    /**
+     * Cancels the loads of the specified connection and stops its loader.
+     */
+    static void cancel(DatabaseConnection databaseConnection) {
+
+        MetadataLoader loader;
+        synchronized (MetadataLoader.class) {
+
+            loader = LOADERS.remove(databaseConnection);
+        }
+
+        if (loader != null) {
+
+            loader.cancelAll();
+        }
+
+    }
+
+    /**
+     * Queues the specified load with the specified priority. Cancelling
+     * the returned future interrupts the load if running.
+     */
+    public CompletableFuture<Void> submit(int priority, Runnable load) {
+
+        LoadTask task = new LoadTask(priority, sequence.getAndIncrement(), load);
+        track(task);
+        try {
+
+            executor.execute(task);
+
+        } catch (RejectedExecutionException e) {
+
+            task.cancel(false);
+        }
+
+        return task;
+    }
+
+    /**
+     * Populates the specified node and then its host and meta tag
+     * children, the returned future completes once all are loaded.
+     */
+    CompletableFuture<Void> loadTree(final DatabaseObjectNode root) {
+
+        return track(submit(TREE, new Runnable() {
+
+            @Override
+            public void run() {
+
+                root.populateChildren();
+            }
+
+        }).thenCompose(new Function<Void, CompletionStage<Void>>() {
+
+            @Override
+            public CompletionStage<Void> apply(Void result) {
+
+                return loadChildren(root);
+            }
+
+        }));
+    }
+
+    private CompletableFuture<Void> loadChildren(DatabaseObjectNode node) {
+
+        List<CompletableFuture<Void>> children = new ArrayList<CompletableFuture<Void>>();
+
+        Enumeration<TreeNode> nodes = node.children();
+        while (nodes.hasMoreElements()) {
+
+            DatabaseObjectNode child = (DatabaseObjectNode) nodes.nextElement();
+            if (child.isHostNode() || child.getType() == NamedObject.META_TAG) {
+
+                children.add(loadTree(child));
+            }
+
+        }
+
+        return CompletableFuture.allOf(children.toArray(new CompletableFuture[children.size()]));
+    }
+
+    private <T extends CompletableFuture<Void>> T track(T future) {
+
+        futures.add(future);
+        future.whenComplete(new BiConsumer<Void, Throwable>() {
+
+            @Override
+            public void accept(Void result, Throwable throwable) {
+
+                futures.remove(future);
+            }
+
+        });
+
+        return future;
+    }
+
+    private void cancelAll() {
+
+        // the tree futures first, cancelling a load completes its dependents otherwise
+        CompletableFuture<?>[] tracked = futures.toArray(new CompletableFuture[0]);
+        for (CompletableFuture<?> future : tracked) {
+
+            if (!(future instanceof LoadTask)) {
+
+                future.cancel(true);
+            }
+
+        }
+
+        for (CompletableFuture<?> future : tracked) {
+
+            future.cancel(true);
+        }
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * A queued load - the future completed when it is run.
+     */
+    private static final class LoadTask extends CompletableFuture<Void>
+            implements Runnable, Comparable<LoadTask> {
+
+        private final int priority;
+
+        private final long sequence;
+
+        private final Runnable load;
+
+        private Thread runner;
+
+        LoadTask(int priority, long sequence, Runnable load) {
+
+            this.priority = priority;
+            this.sequence = sequence;
+            this.load = load;
+        }
+
+        @Override
+        public void run() {
+
+            synchronized (this) {
+
+                if (isDone()) {
+
+                    return;
+                }
+
+                runner = Thread.currentThread();
+            }
+
+            try {
+
+                load.run();
+                complete(null);
+
+            } catch (Throwable e) {
+
+                completeExceptionally(e);
+
+            } finally {
+
+                synchronized (this) {
+
+                    runner = null;
+                }
+
+                // an interrupt from a late cancel is not to reach the next task
+                Thread.interrupted();
+            }
+
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && mayInterruptIfRunning) {
+
+                synchronized (this) {
+
+                    if (runner != null) {
+
+                        runner.interrupt();
+                    }
+
+                }
+
+            }
+
+            return cancelled;
+        }
+
+        @Override
+        public int compareTo(LoadTask o) {
+
+            if (priority != o.priority) {
+
+                return priority < o.priority ? -1 : 1;
+            }
+
+            return Long.compare(sequence, o.sequence);
+        }
+
+    }
+
+}
@@ -24,15 +24,17 @@ import biz.redsoft.IFBDatabasePerformance;
 import org.executequery.GUIUtilities;
 import org.executequery.databasemediators.ConnectionMediator;
 import org.executequery.databasemediators.DatabaseConnection;
+import org.executequery.util.ThreadUtils;
 import org.underworldlabs.util.DynamicLibraryLoader;
 import org.underworldlabs.util.SystemProperties;
 
 import javax.swing.*;
 import java.sql.*;
-import java.util.Timer;
 import java.util.*;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Pooled connection wrapper.
@@ -63,6 +65,16 @@ public class PooledConnection implements Connection {
      */
     private boolean closeOnReturn;
 
+    /**
+     * the time this connection was created
+     */
+    private final long creationTime;
+
+    /**
+     * the time this connection was last released to the pool
+     */
+    private volatile long lastReleaseTime;
+
     /**
      * the original auto-commit mode from the real connection
      */
@@ -76,9 +88,12 @@ public class PooledConnection implements Connection {
 
     private List<PooledConnectionListener> listeners;
 
-    private Timer timer;
-    private Timer timerDelay;
-    private TimerTask task;
+    private volatile IFBDatabasePerformance performanceProbe;
+
+    /**
+     * whether the user was asked to close the connection to the server not responding
+     */
+    private final AtomicBoolean notRespondingConfirmed = new AtomicBoolean();
     private int timeoutShutdown;
     private PooledStatement lastStatement;
     private boolean timerCheckConnection;
@@ -109,19 +124,13 @@ public class PooledConnection implements Connection {
         this.timerCheckConnection=timerCheckConnection;
         mutex = new Semaphore(1);
         useCount = 0;
+        creationTime = System.currentTimeMillis();
+        lastReleaseTime = creationTime;
         timeoutShutdown = SystemProperties.getIntProperty("user", "connection.shutdown.timeout");
         this.realConnection = realConnection;
         this.closeOnReturn = closeOnReturn;
-        timer = new Timer();
-        timerDelay = new Timer();
-        task = new TimerTask() {
-            @Override
-            public void run() {
-                checkConnectionToServer();
-            }
-        };
-        if(this.timerCheckConnection)
-            timer.schedule(task, timeoutShutdown);
+        if (this.timerCheckConnection)
+            ConnectionHealthMonitor.register(this, timeoutShutdown);
         try {
 
             originalAutoCommit = realConnection.getAutoCommit();
@@ -179,11 +188,65 @@ public class PooledConnection implements Connection {
         if (inUse) {
 
             useCount++;
+
+        } else {
+
+            lastReleaseTime = System.currentTimeMillis();
         }
 
         this.inUse = inUse;
     }
 
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public long getLastReleaseTime() {
+        return lastReleaseTime;
+    }
+
+    /**
+     * Prepares this connection for the next borrower when it is
+     * returned to the pool - any pending work is rolled back and
+     * the original auto-commit mode is restored.
+     *
+     * @return true if the connection may be reused, false if it is
+     * closed or a statement created from it was not closed
+     */
+    boolean resetForReuse() {
+
+        if (realConnection == null || isStatementOpen()) {
+
+            return false;
+        }
+
+        try {
+
+            if (realConnection.isClosed()) {
+
+                return false;
+            }
+
+            boolean autoCommit = realConnection.getAutoCommit();
+            if (!autoCommit) {
+
+                realConnection.rollback();
+            }
+
+            if (autoCommit != originalAutoCommit) {
+
+                realConnection.setAutoCommit(originalAutoCommit);
+            }
+
+            return true;
+
+        } catch (SQLException e) {
+
+            return false;
+        }
+
+    }
+
     protected void destroy() {
 
         /*if (Log.isDebugEnabled()) {*/
@@ -209,8 +272,8 @@ public class PooledConnection implements Connection {
     public void close() throws SQLException {
 
         inUse = false;
-        if(timerCheckConnection)
-            timer.cancel();
+        if (timerCheckConnection && closeOnReturn)
+            ConnectionHealthMonitor.unregister(this);
 
         if (realConnection != null) {
 
@@ -259,43 +322,77 @@ public class PooledConnection implements Connection {
 
     public void checkConnectionToServer()
     {
+        Connection connection = realConnection;
+        if (connection == null)
+            return;
+
+        ScheduledFuture<?> watchdog = null;
         try {
-            IFBDatabasePerformance db = (IFBDatabasePerformance) DynamicLibraryLoader.loadingObjectFromClassLoader(realConnection, "FBDatabasePerformanceImpl");
-            db.setConnection(realConnection);
-            TimerTask task = new TimerTask() {
+            IFBDatabasePerformance db = performanceProbe(connection);
+            Runnable task = new Runnable() {
                 @Override
                 public void run() {
-                    if (databaseConnection.isConnected()) {
-                        if (GUIUtilities.displayConfirmDialog("The server is not responding. do you want to close the connection?") == JOptionPane.OK_OPTION) {
-                            closeDatabaseConnection();
-                            timerDelay.cancel();
-                        }
-                    } else
-                        timerDelay.cancel();
+                    confirmCloseNotResponding();
                 }
             };
-            timerDelay = new Timer();
-            /*StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-            Log.info("---------------------------------Start check----------------------------------\n\n\n");
-            for (int i = 0; i < stack.length - 2; i++)
-                Log.info(stack[stack.length - 1 - i]);*/
-            timerDelay.schedule(task, timeoutShutdown);
+            watchdog = ConnectionHealthMonitor.schedule(task, timeoutShutdown);
             db.getPerformanceInfo();
-            timerDelay.cancel();
-            //Log.info("---------------------------------Finish check.----------------------------------\n\n\n");
         } catch (SQLException e)
         {
             if (databaseConnection.isConnected())
                 closeDatabaseConnection();
-            timerDelay.cancel();
         } catch (ClassNotFoundException e) {
-            if (databaseConnection.isConnected()) {
-                if (GUIUtilities.displayConfirmDialog("The server is not responding. do you want to close the connection?") == JOptionPane.OK_OPTION) {
-                    closeDatabaseConnection();
+            confirmCloseNotResponding();
+        } finally {
+            if (watchdog != null)
+                watchdog.cancel(false);
+        }
+    }
+
+    /**
+     * Asks on the event dispatch thread whether to close the connection to
+     * the server not responding - once for this connection, the checks
+     * repeated with the keepalive interval not waiting for the answer.
+     */
+    private void confirmCloseNotResponding() {
+        if (!notRespondingConfirmed.compareAndSet(false, true))
+            return;
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                if (databaseConnection.isConnected()
+                        && GUIUtilities.displayConfirmDialog("The server is not responding. do you want to close the connection?") == JOptionPane.OK_OPTION) {
+                    // closing waits for the server
+                    ThreadUtils.startWorker(new Runnable() {
+                        @Override
+                        public void run() {
+                            closeDatabaseConnection();
+                        }
+                    });
                 }
             }
-            timerDelay.cancel();
+        });
+    }
+
+    /**
+     * Returns the performance info probe bound to the specified
+     * real connection, created once for the connection.
+     */
+    private IFBDatabasePerformance performanceProbe(Connection connection) throws SQLException, ClassNotFoundException {
+        IFBDatabasePerformance probe = performanceProbe;
+        if (probe == null) {
+            probe = (IFBDatabasePerformance) DynamicLibraryLoader.loadingObjectFromClassLoader(connection, "FBDatabasePerformanceImpl");
+            probe.setConnection(connection);
+            performanceProbe = probe;
         }
+        return probe;
+    }
+
+    /**
+     * Returns whether a statement created from this connection is not closed yet.
+     */
+    boolean isStatementOpen() {
+        return mutex.availablePermits() == 0;
     }
 
     public Statement createStatement() throws SQLException {
@@ -573,7 +670,7 @@ public class PooledConnection implements Connection {
     public void closeDatabaseConnection() {
         GUIUtilities.displayErrorMessage("lost connection to server");
         ConnectionMediator.getInstance().disconnect(databaseConnection);
-        timer.cancel();
+        ConnectionHealthMonitor.unregister(this);
     }
 
     public int getHoldability() throws SQLException {
@@ -738,6 +835,7 @@ public class PooledConnection implements Connection {
 
     public void setRealConnection(Connection realConnection) {
         this.realConnection = realConnection;
+        this.performanceProbe = null;
     }
 
     public boolean isCloseOnReturn() {
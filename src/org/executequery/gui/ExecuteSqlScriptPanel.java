@@ -46,10 +46,12 @@ import org.executequery.util.ThreadUtils;
 import org.executequery.util.ThreadWorker;
 import org.underworldlabs.swing.AbstractStatusBarPanel;
 import org.underworldlabs.swing.GUIUtils;
+import org.underworldlabs.swing.NumberTextField;
 import org.underworldlabs.swing.ProgressBar;
 import org.underworldlabs.swing.ProgressBarFactory;
 import org.underworldlabs.swing.plaf.UIUtils;
 import org.underworldlabs.swing.util.SwingWorker;
+import org.underworldlabs.util.EncodingDetector;
 import org.underworldlabs.util.FileUtils;
 import org.underworldlabs.util.MiscUtils;
 
@@ -57,8 +59,14 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
 import java.sql.SQLException;
 
 /**
@@ -74,6 +82,8 @@ public class ExecuteSqlScriptPanel extends DefaultTabViewActionPanel
     public static final String TITLE = Bundles.get(ExecuteSqlScriptPanel.class, "title");
     public static final String FRAME_ICON = "ExecuteSqlScript16.png";
     public static final int MAX_LENGTH_TEXT_PANE = 1000000;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_COMMIT_INTERVAL = 10000;
 
     private JComboBox connectionsCombo;
 
@@ -93,6 +103,12 @@ public class ExecuteSqlScriptPanel extends DefaultTabViewActionPanel
 
     private JCheckBox useConnection;
 
+    private JCheckBox batchCheckBox;
+
+    private NumberTextField batchSizeField;
+
+    private NumberTextField commitIntervalField;
+
     private JButton saveButton;
 
     private JButton startButton;
@@ -107,7 +123,10 @@ public class ExecuteSqlScriptPanel extends DefaultTabViewActionPanel
 
     private boolean resetButtons;
 
-    private String script = null;
+    /**
+     * the script file too large to be loaded into the editor
+     */
+    private File scriptFile;
 
     public ExecuteSqlScriptPanel() {
 
@@ -156,6 +175,32 @@ public class ExecuteSqlScriptPanel extends DefaultTabViewActionPanel
         logOutputCheckBox = new JCheckBox(bundleString("logOutput"));
         logOutputCheckBox.setSelected(true);
 
+        batchSizeField = new NumberTextField(false);
+        batchSizeField.setValue(DEFAULT_BATCH_SIZE);
+        batchSizeField.setColumns(6);
+        commitIntervalField = new NumberTextField(false);
+        commitIntervalField.setValue(DEFAULT_COMMIT_INTERVAL);
+        commitIntervalField.setColumns(6);
+
+        batchCheckBox = new JCheckBox(bundleString("BatchStatements"));
+        batchCheckBox.addItemListener(new ItemListener() {
+
+            @Override
+            public void itemStateChanged(ItemEvent e) {
+                batchSizeField.setEnabled(batchCheckBox.isSelected());
+                commitIntervalField.setEnabled(batchCheckBox.isSelected());
+            }
+        });
+        batchCheckBox.setSelected(false);
+        batchSizeField.setEnabled(false);
+        commitIntervalField.setEnabled(false);
+
+        JPanel batchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        batchPanel.add(new JLabel(bundleString("BatchSize")));
+        batchPanel.add(batchSizeField);
+        batchPanel.add(new JLabel(bundleString("CommitInterval")));
+        batchPanel.add(commitIntervalField);
+
         useConnection = new JCheckBox(bundleString("UseConnection"));
         useConnection.addItemListener(new ItemListener() {
 
@@ -226,6 +271,14 @@ public class ExecuteSqlScriptPanel extends DefaultTabViewActionPanel
         mainPanel.add(saveButton, gbc);
         gbc.gridy++;
         gbc.gridx = 0;
+        gbc.insets.left = 10;
+        mainPanel.add(batchCheckBox, gbc);
+        gbc.gridx = 1;
+        gbc.gridwidth = GridBagConstraints.REMAINDER;
+        gbc.insets.left = 0;
+        mainPanel.add(batchPanel, gbc);
+        gbc.gridy++;
+        gbc.gridx = 0;
         gbc.weighty = 1.0;
         gbc.weightx = 1.0;
         gbc.insets.top = 5;
@@ -289,12 +342,39 @@ public class ExecuteSqlScriptPanel extends DefaultTabViewActionPanel
         File file = new File(fileNameField.getText());
 
         try {
-            sqlText.setSQLText(FileUtils.loadFile(file.getPath()));
+            loadScriptFile(file);
         } catch (IOException e) {
             GUIUtilities.displayErrorMessage(bundleString("error.load-file"));
         }
     }
 
+    private void loadScriptFile(File file) throws IOException {
+
+        // the large scripts are read from the file while executed
+        if (file.length() < MAX_LENGTH_TEXT_PANE) {
+
+            scriptFile = null;
+            sqlText.setSQLText(FileUtils.loadFile(file.getPath()));
+
+        } else {
+
+            scriptFile = file;
+            sqlText.setSQLText("'File is very big.It can not opened in editor'");
+        }
+    }
+
+    private Reader scriptReader() throws IOException {
+
+        if (scriptFile == null) {
+
+            return new StringReader(sqlText.getSQLText());
+        }
+
+        String charset = new EncodingDetector().detectCharset(scriptFile);
+        return new BufferedReader(new InputStreamReader(new FileInputStream(scriptFile),
+                StringUtils.isNotBlank(charset) ? Charset.forName(charset) : Charset.defaultCharset()));
+    }
+
     public boolean logOutput() {
 
         return logOutputCheckBox.isSelected();
@@ -317,10 +397,7 @@ public class ExecuteSqlScriptPanel extends DefaultTabViewActionPanel
 
         File file = fileChooser.getSelectedFile();
         fileNameField.setText(file.getAbsolutePath());
-        script = FileUtils.loadFile(file.getPath());
-        if(script.length()<MAX_LENGTH_TEXT_PANE)
-            sqlText.setSQLText(script);
-        else sqlText.setSQLText("'File is very big.It can not opened in editor'");
+        loadScriptFile(file);
     }
 
     private boolean fieldsValid() {
@@ -551,13 +628,19 @@ public class ExecuteSqlScriptPanel extends DefaultTabViewActionPanel
                 if (selectedHost != null)
                     connection = selectedHost.getDatabaseConnection();
             }
-            if (script == null || script.length() < MAX_LENGTH_TEXT_PANE)
-                script = sqlText.getSQLText();
+            if (batchCheckBox.isSelected())
+                sqlScriptRunner.setBatchOptions(batchSizeField.getValue(), commitIntervalField.getValue());
+            else
+                sqlScriptRunner.setBatchOptions(0, 0);
             sqlStatementResult = sqlScriptRunner.execute(
                     connection,
-                    script,
+                    scriptReader(),
                     (ActionOnError) actionOnErrorCombo.getSelectedItem());
 
+        } catch (IOException e) {
+
+            outputPanel.appendError("Error reading script file:\n" + e.getMessage());
+
         } finally {
 
             if (sqlStatementResult != null && sqlStatementResult.isException()) {
@@ -1,19 +1,24 @@
 package org.executequery.gui.browser;
 
 import org.executequery.databasemediators.DatabaseConnection;
-import org.executequery.gui.browser.comparer.Comparer;
+import org.executequery.gui.browser.comparer.SchemaComparer;
+import org.executequery.gui.browser.comparer.SchemaExtractor;
+import org.executequery.gui.browser.comparer.SchemaModel;
 import org.executequery.localization.Bundles;
 import org.executequery.repository.DatabaseConnectionRepository;
 import org.executequery.repository.RepositoryCache;
+import org.underworldlabs.swing.util.SwingWorker;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileFilter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class ComparerDBPanel extends JPanel {
 
@@ -39,7 +44,7 @@ public class ComparerDBPanel extends JPanel {
 
     }
 
-    Comparer comparer;
+    List<String> script = new ArrayList<String>();
     List<DatabaseConnection> dcs;
     public static final String TITLE = Bundles.get(ComparerDBPanel.class, "ComparerDB");
     public static final String FRAME_ICON = "ComparerDB_16.png";
@@ -80,6 +85,8 @@ public class ComparerDBPanel extends JPanel {
         jTextArea1 = new javax.swing.JTextArea();
         btnSaveScript = new javax.swing.JButton();
         jButton1 = new javax.swing.JButton();
+        btnSaveSnapshot = new javax.swing.JButton();
+        btnCompareSnapshot = new javax.swing.JButton();
         jPanel2 = new javax.swing.JPanel();
         jCheckBox2 = new javax.swing.JCheckBox();
         jCheckBox1 = new javax.swing.JCheckBox();
@@ -164,6 +171,20 @@ public class ComparerDBPanel extends JPanel {
             }
         });
 
+        btnSaveSnapshot.setText("Save snapshot");
+        btnSaveSnapshot.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                btnSaveSnapshotActionPerformed(evt);
+            }
+        });
+
+        btnCompareSnapshot.setText("Compare with snapshot");
+        btnCompareSnapshot.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                btnCompareSnapshotActionPerformed(evt);
+            }
+        });
+
         jPanel2.setBorder(javax.swing.BorderFactory.createTitledBorder(""));
 
         jCheckBox2.setSelected(true);
@@ -291,6 +312,10 @@ public class ComparerDBPanel extends JPanel {
                                                 .addComponent(jButton1, javax.swing.GroupLayout.PREFERRED_SIZE, 120, javax.swing.GroupLayout.PREFERRED_SIZE)
                                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                                                 .addComponent(btnSaveScript, javax.swing.GroupLayout.PREFERRED_SIZE, 120, javax.swing.GroupLayout.PREFERRED_SIZE)
+                                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                                                .addComponent(btnSaveSnapshot)
+                                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                                                .addComponent(btnCompareSnapshot)
                                                 .addGap(8, 8, 8))
                                         .addComponent(jScrollPane1, GroupLayout.PREFERRED_SIZE, 500, Short.MAX_VALUE)
                                         .addComponent(jPanel1, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
@@ -307,7 +332,9 @@ public class ComparerDBPanel extends JPanel {
                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                                         .addComponent(btnSaveScript)
-                                        .addComponent(jButton1))
+                                        .addComponent(jButton1)
+                                        .addComponent(btnSaveSnapshot)
+                                        .addComponent(btnCompareSnapshot))
                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                                 .addComponent(jScrollPane1))
                         .addGroup(layout.createSequentialGroup()
@@ -336,11 +363,7 @@ public class ComparerDBPanel extends JPanel {
          w.close();}
          catch(IOException ex){}*/
 
-        if (comparer == null) {
-            jTextArea1.append("\nNothing to save - script is empty");
-            return;
-        }
-        if (comparer.script.isEmpty()) {
+        if (script.isEmpty()) {
             jTextArea1.append("\nNothing to save - script is empty");
             return;
         }
@@ -371,10 +394,10 @@ public class ComparerDBPanel extends JPanel {
             String name_ = name.substring(0, dot)
                     + filesave.getFileFilter().getDescription().substring(filesave.getFileFilter().getDescription().indexOf("(*") + 2,
                     filesave.getFileFilter().getDescription().lastIndexOf(")"));
-            comparer.script.add("русский текст");
+            script.add("русский текст");
             try (FileOutputStream path = new FileOutputStream(name_)) {
-                for (int i = 0; i < comparer.script.size(); i++) {
-                    text = comparer.script.get(i);
+                for (int i = 0; i < script.size(); i++) {
+                    text = script.get(i);
 
                     //String str = new String(text.getBytes(), "Cp1251");
                     byte[] buffer = text.getBytes();
@@ -400,281 +423,196 @@ public class ComparerDBPanel extends JPanel {
             jTextArea1.append("\nError: Unable to compare");
             return;
         }
-        comparer = new Comparer(dcs.get(dbBox1.getSelectedIndex()), dcs.get(dbBox2.getSelectedIndex()));
-        jTextArea1.append("\nComparing...\n");
 
-        jTextArea2.setText(null);
-        comparer.script.clear();
-        comparer.createdObjects.clear();
-        comparer.alteredObjects.clear();
-        comparer.droppedObjects.clear();
+        final DatabaseConnection first = dcs.get(dbBox1.getSelectedIndex());
+        final DatabaseConnection second = dcs.get(dbBox2.getSelectedIndex());
+        final Set<String> types = selectedTypes();
+
+        startComparing();
+        SwingWorker worker = new SwingWorker() {
+            public Object construct() {
+                try {
+                    SchemaModel[] models = SchemaComparer.extract(first, second);
+                    return compare(models[0], models[1], types);
+                } catch (SQLException e) {
+                    return e;
+                }
+            }
 
+            public void finished() {
+                comparisonFinished(get(), second);
+            }
+        };
+        worker.start();
+
+    }//GEN-LAST:event_jButton1ActionPerformed
 
-        String charset = "";
-        String dialect = "";
+    private void btnCompareSnapshotActionPerformed(java.awt.event.ActionEvent evt) {
 
-        String query = "select rdb$database.rdb$character_set_name\n"
-                + "from rdb$database\n";
+        if (dcs.isEmpty()) {
+            jTextArea1.append("\nError: Unable to compare");
+            return;
+        }
 
-        try {
-            ResultSet rs = comparer.secondConnection.execute(query, true).getResultSet();
+        final File file = chooseSnapshot(false);
+        if (file == null) {
+            return;
+        }
 
-            while (rs.next()) {
+        final DatabaseConnection second = dcs.get(dbBox2.getSelectedIndex());
+        final Set<String> types = selectedTypes();
+
+        startComparing();
+        SwingWorker worker = new SwingWorker() {
+            public Object construct() {
+                try {
+                    SchemaModel snapshot = SchemaModel.read(file);
+                    return compare(snapshot, new SchemaExtractor(second).extract(), types);
+                } catch (IOException e) {
+                    return e;
+                } catch (SQLException e) {
+                    return e;
+                }
+            }
 
-                charset = rs.getString(1).trim();
+            public void finished() {
+                comparisonFinished(get(), second);
             }
+        };
+        worker.start();
+    }
 
-            rs.close();
-        } catch (java.sql.SQLException e) {
-            System.out.println(e);
-        }
+    private void btnSaveSnapshotActionPerformed(java.awt.event.ActionEvent evt) {
 
-        query = "select mon$database.mon$sql_dialect\n"
-                + "from mon$database\n";
+        if (dcs.isEmpty()) {
+            jTextArea1.append("\nError: No connection to save");
+            return;
+        }
 
-        try {
-            ResultSet rs = comparer.secondConnection.execute(query, true).getResultSet();
+        final File file = chooseSnapshot(true);
+        if (file == null) {
+            return;
+        }
 
-            while (rs.next()) {
+        final DatabaseConnection first = dcs.get(dbBox1.getSelectedIndex());
+        jTextArea1.append("\nReading " + first.getName() + "...\n");
+
+        SwingWorker worker = new SwingWorker() {
+            public Object construct() {
+                try {
+                    new SchemaExtractor(first).extract().write(file);
+                    return file;
+                } catch (IOException e) {
+                    return e;
+                } catch (SQLException e) {
+                    return e;
+                }
+            }
 
-                dialect = rs.getString(1).trim();
+            public void finished() {
+                Object result = get();
+                if (result instanceof Exception) {
+                    jTextArea1.append("\nError: " + ((Exception) result).getMessage());
+                } else {
+                    jTextArea1.append("\nSnapshot was saved:\n" + "«" + file.getAbsolutePath() + "»");
+                }
             }
+        };
+        worker.start();
+    }
+
+    private File chooseSnapshot(boolean save) {
 
-            rs.close();
-        } catch (java.sql.SQLException e) {
-            System.out.println(e);
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.addChoosableFileFilter(new FileTypeFilter(".snapshot", "Schema snapshots"));
+        fileChooser.setAcceptAllFileFilterUsed(false);
+
+        int ret = fileChooser.showDialog(null, save ? "Save Snapshot" : "Compare");
+        if (ret != JFileChooser.APPROVE_OPTION) {
+            return null;
         }
 
-        comparer.script.add("set names " + charset + ";\n\n");
-        comparer.script.add("set sql dialect " + dialect + ";\n\n");
-        comparer.script.add("connect '" + comparer.secondConnection.getDatabaseConnection().getName() + " ' user '" + comparer.secondConnection.getDatabaseConnection().getUserName() + "' "
-                + "password '" + comparer.secondConnection.getDatabaseConnection().getUnencryptedPassword() + "';\n\n");
-        comparer.script.add("set autoddl on;\n\n");
-
-        comparer.lists = "";
-        comparer.dropFKs(jCheckBox12.isSelected());
-        jTextArea1.append("\n============= Foreign keys to drop =============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropPKs(jCheckBox11.isSelected());
-        jTextArea1.append("\n============= Primary keys to drop =============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropUniques(jCheckBox13.isSelected());
-        jTextArea1.append("\n=============== Uniques to drop ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropChecks(jCheckBox14.isSelected());
-        jTextArea1.append("\n=============== Checks to drop  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createExceptions(jCheckBox7.isSelected());
-        jTextArea1.append("\n============= Exceptions to create  =============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterExceptions(jCheckBox7.isSelected());
-        jTextArea1.append("\n============== Exceptions to alter ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createGenerators(jCheckBox6.isSelected());
-        jTextArea1.append("\n============= Generators to create  =============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterGenerators(jCheckBox6.isSelected());
-        jTextArea1.append("\n============== Generators to alter ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createUDFs(jCheckBox8.isSelected());
-        jTextArea1.append("\n=============== UDFs to create  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterUDFs(jCheckBox8.isSelected());
-        jTextArea1.append("\n================ UDFs to alter ================\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createDomains(jCheckBox2.isSelected());
-        jTextArea1.append("\n============== Domains to create ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterDomains(jCheckBox2.isSelected());
-        jTextArea1.append("\n=============== Domains to alter ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropIndices(jCheckBox10.isSelected());
-        jTextArea1.append("\n================ Indices to drop  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropTriggers(jCheckBox5.isSelected());
-        jTextArea1.append("\n=============== Triggers to drop  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropViews(jCheckBox3.isSelected());
-        jTextArea1.append("\n================ Views to drop ================\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createTables(jCheckBox1.isSelected());
-        jTextArea1.append("\n=============== Tables to create  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterTables(jCheckBox1.isSelected());
-        jTextArea1.append("\n================ Tables to alter ================\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropTables(jCheckBox1.isSelected());
-        jTextArea1.append("\n================ Tables to drop ================\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createProcedures(jCheckBox4.isSelected());
-        jTextArea1.append("\n============== Procedures to create =============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterProcedures(jCheckBox4.isSelected());
-        jTextArea1.append("\n============== Procedures to alter ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropProcedures(jCheckBox4.isSelected());
-        jTextArea1.append("\n============== Procedures to drop  ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createViews(jCheckBox3.isSelected());
-        comparer.retViews(true);
-        jTextArea1.append("\n================ Views to create  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterViews(jCheckBox3.isSelected());
-        jTextArea1.append("\n================= Views to alter ================\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createTriggers(jCheckBox5.isSelected());
-        jTextArea1.append("\n=============== Triggers to create  ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createChecks(jCheckBox14.isSelected());
-        jTextArea1.append("\n=============== Checks to create  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterChecks(jCheckBox14.isSelected());
-        jTextArea1.append("\n================ Checks to alter ================\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createUniques(jCheckBox13.isSelected());
-        jTextArea1.append("\n=============== Uniques to create ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterUniques(jCheckBox13.isSelected());
-        jTextArea1.append("\n================ Uniques to alter  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createPKs(jCheckBox11.isSelected());
-        jTextArea1.append("\n============= Primary keys to create =============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterPKs(jCheckBox11.isSelected());
-        jTextArea1.append("\n=============  Primary keys to alter ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createFKs(jCheckBox12.isSelected());
-        jTextArea1.append("\n============= Foreign keys to create =============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterFKs(jCheckBox12.isSelected());
-        jTextArea1.append("\n============== Foreign keys to alter  =============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropDomains(jCheckBox2.isSelected());
-        jTextArea1.append("\n=============== Domains to drop ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropUDFs(jCheckBox8.isSelected());
-        jTextArea1.append("\n================ UDFs to drop  ================\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropExceptions(jCheckBox7.isSelected());
-        jTextArea1.append("\n============== Exceptions to drop  ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.dropGenerators(jCheckBox6.isSelected());
-        jTextArea1.append("\n============== Generators to drop  ==============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterTriggers(jCheckBox5.isSelected());
-        jTextArea1.append("\n=============== Triggers to alter  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.computedField(true);
-        comparer.fillViews(true);
-        comparer.fillProcedures(true);
-        comparer.fillTriggers(true);
-        comparer.recreateChecks(true);
-
-        comparer.lists = "";
-        comparer.createIndices(jCheckBox10.isSelected());
-        jTextArea1.append("\n=============== Indices to create ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.alterIndices(jCheckBox10.isSelected());
-        jTextArea1.append("\n================ Indices to alter  ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.fillIndices(true);
-
-        comparer.lists = "";
-        comparer.dropRoles(jCheckBox9.isSelected());
-        jTextArea1.append("\n================ Roles to drop  ================\n\n");
-        jTextArea1.append(comparer.lists);
-
-        comparer.lists = "";
-        comparer.createRoles(jCheckBox9.isSelected());
-        jTextArea1.append("\n================ Roles to create ===============\n\n");
-        jTextArea1.append(comparer.lists);
-
-        for (int i = 0; i < comparer.script.size(); i++) {
-            //System.out.println(comparer.script.get(i));
-            jTextArea2.append(comparer.script.get(i));
+        File file = fileChooser.getSelectedFile();
+        if (save && !file.getName().endsWith(".snapshot")) {
+            file = new File(file.getAbsolutePath() + ".snapshot");
         }
-        /*for (int i = 0; i < comparer.warnings.size(); i++) {
-         System.out.println(i + 1 + ": " + comparer.warnings.get(i));
-         }*/
 
+        return file;
+    }
 
-    }//GEN-LAST:event_jButton1ActionPerformed
+    private Set<String> selectedTypes() {
+
+        Set<String> types = new HashSet<String>();
+        addType(types, jCheckBox1, SchemaModel.TABLE);
+        addType(types, jCheckBox2, SchemaModel.DOMAIN);
+        addType(types, jCheckBox3, SchemaModel.VIEW);
+        addType(types, jCheckBox4, SchemaModel.PROCEDURE);
+        addType(types, jCheckBox5, SchemaModel.TRIGGER);
+        addType(types, jCheckBox6, SchemaModel.SEQUENCE);
+        addType(types, jCheckBox7, SchemaModel.EXCEPTION);
+        addType(types, jCheckBox8, SchemaModel.UDF);
+        addType(types, jCheckBox9, SchemaModel.ROLE);
+        addType(types, jCheckBox10, SchemaModel.INDEX);
+        addType(types, jCheckBox11, SchemaModel.PRIMARY_KEY);
+        addType(types, jCheckBox12, SchemaModel.FOREIGN_KEY);
+        addType(types, jCheckBox13, SchemaModel.UNIQUE);
+        addType(types, jCheckBox14, SchemaModel.CHECK);
+        return types;
+    }
+
+    private static void addType(Set<String> types, JCheckBox checkBox, String type) {
+
+        if (checkBox.isSelected()) {
+            types.add(type);
+        }
+    }
+
+    private void startComparing() {
+
+        jTextArea1.append("\nComparing...\n");
+        jTextArea2.setText(null);
+        script.clear();
+        setButtonsEnabled(false);
+    }
+
+    private void setButtonsEnabled(boolean enabled) {
+
+        jButton1.setEnabled(enabled);
+        btnSaveSnapshot.setEnabled(enabled);
+        btnCompareSnapshot.setEnabled(enabled);
+    }
+
+    private static SchemaComparer compare(SchemaModel source, SchemaModel target, Set<String> types)
+            throws SQLException {
+
+        SchemaComparer schemaComparer = new SchemaComparer(source, target, types);
+        schemaComparer.compare();
+        return schemaComparer;
+    }
+
+    private void comparisonFinished(Object result, DatabaseConnection second) {
+
+        setButtonsEnabled(true);
+        if (result instanceof Exception) {
+            jTextArea1.append("\nError: " + ((Exception) result).getMessage());
+            return;
+        }
+
+        SchemaComparer schemaComparer = (SchemaComparer) result;
+        SchemaModel target = schemaComparer.getTarget();
+
+        script.add("set names " + target.getCharacterSet() + ";\n\n");
+        script.add("set sql dialect " + target.getDialect() + ";\n\n");
+        script.add("connect '" + second.getName() + " ' user '" + second.getUserName() + "' "
+                + "password '" + second.getUnencryptedPassword() + "';\n\n");
+        script.add("set autoddl on;\n\n");
+        script.addAll(schemaComparer.getScript());
+
+        jTextArea1.append(schemaComparer.getSummary());
+        for (int i = 0; i < script.size(); i++) {
+            jTextArea2.append(script.get(i));
+        }
+    }
 
     private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
         if (jCheckBox1.isSelected() == true
@@ -734,6 +672,8 @@ public class ComparerDBPanel extends JPanel {
     // Variables declaration - do not modify//GEN-BEGIN:variables
 
     private javax.swing.JButton btnSaveScript;
+    private javax.swing.JButton btnSaveSnapshot;
+    private javax.swing.JButton btnCompareSnapshot;
     private javax.swing.JButton jButton1;
     private javax.swing.JButton jButton2;
     private javax.swing.JCheckBox jCheckBox1;
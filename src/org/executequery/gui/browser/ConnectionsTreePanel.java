@@ -1369,6 +1369,23 @@ public class ConnectionsTreePanel extends TreePanel
     }
   }
 
+  /**
+   * Rebuilds the child nodes of the specified node from the
+   * objects its database object has reloaded.
+   */
+  public void childrenReloaded(DatabaseObjectNode node) {
+
+    try {
+
+      node.repopulateChildren();
+      nodeStructureChanged(node);
+
+    } catch (DataSourceException e) {
+
+      controller.handleException(e);
+    }
+  }
+
   protected void nodeStructureChanged(TreeNode node) {
     tree.nodeStructureChanged(node);
   }
@@ -1,34 +1,28 @@
 package org.executequery.gui.browser;
 
-import biz.redsoft.IFBBatch;
-import biz.redsoft.IFBBatchCompletionState;
-import biz.redsoft.IFBCryptoPluginInit;
-import biz.redsoft.IFBDatabaseConnection;
 import org.executequery.GUIUtilities;
 import org.executequery.base.TabView;
 import org.executequery.databasemediators.DatabaseConnection;
-import org.executequery.databasemediators.QueryTypes;
 import org.executequery.databasemediators.spi.DefaultStatementExecutor;
 import org.executequery.databaseobjects.DatabaseColumn;
 import org.executequery.databaseobjects.DatabaseHost;
 import org.executequery.databaseobjects.NamedObject;
-import org.executequery.datasource.ConnectionManager;
 import org.executequery.datasource.DefaultDriverLoader;
-import org.executequery.datasource.DriverLoader;
-import org.executequery.datasource.PooledConnection;
 import org.executequery.gui.LoggingOutputPanel;
 import org.executequery.gui.browser.generatortestdata.FieldGenerator;
 import org.executequery.gui.browser.generatortestdata.FieldsPanel;
 import org.executequery.gui.components.OpenConnectionsComboboxPanel;
 import org.executequery.localization.Bundles;
-import org.executequery.log.Log;
 import org.executequery.sql.SqlStatementResult;
+import org.executequery.testdata.ColumnGenerator;
+import org.executequery.testdata.TableDataPlan;
+import org.executequery.testdata.TestDataGenerator;
+import org.executequery.testdata.TestDataPlan;
 import org.underworldlabs.jdbc.DataSourceException;
 import org.underworldlabs.swing.DynamicComboBoxModel;
 import org.underworldlabs.swing.NumberTextField;
 import org.underworldlabs.swing.layouts.GridBagHelper;
 import org.underworldlabs.swing.util.SwingWorker;
-import org.underworldlabs.util.DynamicLibraryLoader;
 
 import javax.swing.*;
 import java.awt.*;
@@ -59,7 +53,7 @@ public class GeneratorTestDataPanel extends JPanel implements TabView {
 
     private JButton stopButton;
 
-    private boolean stop = false;
+    private volatile TestDataGenerator generator;
 
     private NumberTextField countRecordsField;
 
@@ -111,6 +105,10 @@ public class GeneratorTestDataPanel extends JPanel implements TabView {
 
     private NumberTextField commitAfterField;
 
+    private NumberTextField threadsField;
+
+    private NumberTextField seedField;
+
     private Vector<String> fillTables() {
         Vector<String> tables = new Vector<>();
         SqlStatementResult result = null;
@@ -183,7 +181,9 @@ public class GeneratorTestDataPanel extends JPanel implements TabView {
         stopButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                stop = true;
+                TestDataGenerator current = generator;
+                if (current != null)
+                    current.cancel();
             }
         });
         stopButton.setEnabled(false);
@@ -195,163 +195,85 @@ public class GeneratorTestDataPanel extends JPanel implements TabView {
                 SwingWorker worker = new SwingWorker() {
                     @Override
                     public Object construct() {
-                        stop = false;
                         int count = countRecordsField.getValue();
                         if (count <= 0)
                             GUIUtilities.displayErrorMessage("the number of records to be added must be greater than zero");
                         else {
-                            boolean outlog = logBox.isSelected();
+                            final boolean outlog = logBox.isSelected();
                             startButton.setEnabled(false);
                             stopButton.setEnabled(true);
                             long startTime = System.currentTimeMillis();
                             progressBar.setMinimum(0);
                             progressBar.setMaximum(count);
-                            int commitAfter = commitAfterField.getValue();
-                            int countSuccess = 0;
-                            int countError = 0;
-                            List<FieldGenerator> fieldGenerators = fieldsPanel.getFieldGenerators();
-                            List<FieldGenerator> selectedFields = new ArrayList<>();
-                            String sql = "INSERT INTO \"" + tableBox.getSelectedItem() + "\" (";
-                            String values = "";
-                            boolean first = true;
-                            for (int g = 0; g < fieldGenerators.size(); g++) {
-                                if (fieldGenerators.get(g).isSelectedField()) {
-                                    selectedFields.add(fieldGenerators.get(g));
-                                    if (!first) {
-                                        sql += ",";
-                                        values += ",";
-                                    } else first = false;
-                                    sql += " \"" + fieldGenerators.get(g).getColumn().getName() + "\"\n";
-                                    values += "? ";
-                                    fieldGenerators.get(g).setFirst();
-
-                                }
-                            }
-                            sql += ") VALUES (" + values + ");";
-                            logPanel.append("execute:\n");
-                            logPanel.append(sql);
+                            final long[] result = new long[2];
                             try {
-                                if (selectedFields.size() < 1)
-                                    throw new DataSourceException("no columns selected for generation");
-                                executor.setCommitMode(false);
-                                executor.setKeepAlive(true);
-                                if (useBatchesBox.isSelected()) {
-
-                                    int batchCount = batchCountField.getValue();
-
-                                    Connection realConnection = ConnectionManager.getTemporaryConnection(getSelectedConnection());
-                                    if (realConnection.unwrap(Connection.class).getClass().getName().contains("FBConnection")) { // Red Database or FB
-                                        Connection fbConn = realConnection.unwrap(Connection.class);
-                                        IFBDatabaseConnection db = null;
+                                TestDataPlan plan = new TestDataPlan(seedField.getLongValue());
+                                TableDataPlan table = plan.addTable((String) tableBox.getSelectedItem(), count);
+                                for (FieldGenerator fieldGenerator : fieldsPanel.getFieldGenerators()) {
+                                    if (fieldGenerator.isSelectedField()) {
+                                        DatabaseColumn column = fieldGenerator.getColumn();
+                                        ColumnGenerator columnGenerator;
                                         try {
-                                            db = (IFBDatabaseConnection) DynamicLibraryLoader.loadingObjectFromClassLoader(fbConn, "FBDatabaseConnectionImpl4");
-                                        } catch (ClassNotFoundException e) {
-                                            e.printStackTrace();
-                                        }
-                                        db.setConnection(fbConn);
-                                        IFBBatch batch = db.createBatch(sql);
-
-                                        boolean lastError = false;
-                                        String lastMessage = "";
-                                        int i = 0;
-                                        for (; i < count;) {
-
-                                            if (i + batchCount > count)
-                                                batchCount = i + batchCount - count;
-
-                                            for (int bc = 0; bc < batchCount; bc++) {
-                                                for (int g = 0; g < selectedFields.size(); g++) {
-                                                    Object param = selectedFields.get(g).getMethodGeneratorPanel().getTestDataObject();
-                                                    String typeName = selectedFields.get(g).getColumn().getTypeName();
-                                                    if (typeName.contains("BLOB")) {
-                                                        if (((byte[]) param).length == 0)
-                                                            param = new byte[1];
-                                                        batch.addBlob(g + 1, (byte[]) param);
-                                                    } else {
-                                                        batch.setObject(g + 1, param);
-                                                    }
-                                                }
-                                                batch.addBatch();
-                                            }
-
-                                            IFBBatchCompletionState execute = batch.execute();
-                                            if (printBatchStateBox.isSelected())
-                                                logPanel.append(execute.printAllStates());
-
-                                            if (stop)
-                                                break;
-                                            if (i % commitAfter == 0 && i != 0) {
-                                                batch.commit();
-                                                batch.startTransaction();
-                                            }
-                                            i += batchCount;
-                                            progressBar.setValue(i);
+                                            columnGenerator = fieldGenerator.getMethodGeneratorPanel().createGenerator();
+                                        } catch (DataSourceException ex) {
+                                            throw new DataSourceException(ex.getMessage() + " for column \"" + column.getName() + "\"", ex);
                                         }
-
-                                        batch.commit();
-                                        logPanel.append("Execution time: " + (System.currentTimeMillis() - startTime) + " ms");
-                                        GUIUtilities.displayInformationMessage("Batch execution completed. See log panel to details.");
+                                        table.addColumn(column.getName(), columnGenerator, column.getTypeName().contains("BLOB"));
                                     }
-                                } else {
-                                    PreparedStatement statement = executor.getPreparedStatement(sql);
-                                    boolean lastError = false;
-                                    String lastMessage = "";
-                                    int i = 0;
-                                    for (; i < count; i++) {
-                                        if (stop)
-                                            break;
-                                        if (i % commitAfter == 0 && i != 0) {
-                                            executor.getConnection().commit();
-                                        }
-                                        progressBar.setValue(i);
-                                        for (int g = 0; g < selectedFields.size(); g++) {
-                                            Object param = selectedFields.get(g).getMethodGeneratorPanel().getTestDataObject();
-                                            statement.setObject(g + 1, param);
-                                        }
-                                        SqlStatementResult result = executor.execute(QueryTypes.INSERT, statement);
-                                        String message = sql;// + params;
-                                        if (result.isException()) {
-                                            if (outlog) {
-                                                String errorMessage = result.getSqlException().getMessage();
-                                                if (!lastError) {
-                                                    if (!errorMessage.contentEquals(lastMessage)) {
-                                                        message += errorMessage;
-                                                        lastMessage = message;
-                                                        logPanel.appendError(message);
-                                                    }
-                                                    logPanel.appendError("failed from " + i);
-                                                    lastError = true;
-                                                }
-                                            }
-                                            countError++;
-                                            if (stopOnErrorBox.isSelected()) {
-                                                GUIUtilities.displayExceptionErrorDialog(result.getSqlException().getMessage(), result.getSqlException());
-                                                break;
-                                            }
-                                        } else {
-                                            countSuccess++;
-                                            if (outlog && lastError) {
-                                                logPanel.appendError("to " + (i - 1));
-                                                lastError = false;
+                                }
+                                if (table.getColumns().isEmpty())
+                                    throw new DataSourceException("no columns selected for generation");
+                                logPanel.append("execute:\n");
+                                logPanel.append(table.getInsertSQL());
+
+                                generator = new TestDataGenerator(getSelectedConnection(), plan);
+                                generator.setThreadCount(threadsField.getValue());
+                                generator.setBatchSize(batchCountField.getValue());
+                                generator.setCommitSize(commitAfterField.getValue());
+                                generator.setUseBatchAPI(useBatchesBox.isSelected());
+                                generator.setPrintBatchStates(printBatchStateBox.isSelected());
+                                generator.setStopOnError(stopOnErrorBox.isSelected());
+                                generator.setListener(new TestDataGenerator.Listener() {
+                                    @Override
+                                    public void tableStarted(TableDataPlan table) {
+                                    }
+
+                                    @Override
+                                    public void rowsInserted(TableDataPlan table, final long inserted, final long failed) {
+                                        SwingUtilities.invokeLater(new Runnable() {
+                                            @Override
+                                            public void run() {
+                                                progressBar.setValue((int) (inserted + failed));
                                             }
-                                        }
+                                        });
                                     }
-                                    if (outlog && lastError) {
-                                        logPanel.appendError("to " + (i - 1));
+
+                                    @Override
+                                    public void batchExecuted(TableDataPlan table, String states) {
+                                        logPanel.append(states);
                                     }
-                                    executor.getConnection().commit();
-                                    logPanel.append("Execution time: " + (System.currentTimeMillis() - startTime) + " ms");
-                                }
 
-                                if (!useBatchesBox.isSelected()) {
-                                    GUIUtilities.displayInformationMessage(countSuccess + " records added successfully\n" + countError + " queries failed");
-                                    logPanel.append(countSuccess + " records added successfully\n" + countError + " queries failed");
-                                }
+                                    @Override
+                                    public void tableFinished(TableDataPlan table, long inserted, long failed, long millis) {
+                                        result[0] = inserted;
+                                        result[1] = failed;
+                                        if (outlog && failed > 0)
+                                            logPanel.appendError(failed + " records of table " + table.getName() + " failed");
+                                    }
+                                });
+                                generator.run();
+
+                                logPanel.append("Execution time: " + (System.currentTimeMillis() - startTime) + " ms");
+                                String message = result[0] + " records added successfully\n" + result[1] + " queries failed";
+                                if (generator.isCancelled())
+                                    message = "Generation cancelled, the records after the last commit are rolled back\n" + message;
+                                GUIUtilities.displayInformationMessage(message);
+                                logPanel.append(message);
                             } catch (Exception ex) {
                                 ex.printStackTrace();
                                 GUIUtilities.displayExceptionErrorDialog("generation error: " + ex.getMessage(), ex);
                             } finally {
-                                executor.releaseResources();
+                                generator = null;
                             }
                             progressBar.setValue(0);
                         }
@@ -372,10 +294,16 @@ public class GeneratorTestDataPanel extends JPanel implements TabView {
         countRecordsField.setText("100");
 
         batchCountField = new NumberTextField(false);
-        batchCountField.setText("100");
+        batchCountField.setText("" + TestDataGenerator.DEFAULT_BATCH_SIZE);
 
         commitAfterField = new NumberTextField(false);
-        commitAfterField.setText("500");
+        commitAfterField.setText("" + TestDataGenerator.DEFAULT_COMMIT_SIZE);
+
+        threadsField = new NumberTextField(false);
+        threadsField.setValue(Runtime.getRuntime().availableProcessors());
+
+        seedField = new NumberTextField();
+        seedField.setText("0");
 
 
         logBox = new JCheckBox(bundles("OutputLog"));
@@ -415,6 +343,16 @@ public class GeneratorTestDataPanel extends JPanel implements TabView {
 
         topPanel.add(commitAfterField, gbh.defaults().nextCol().spanX().get());
 
+        label = new JLabel(bundles("Threads"));
+        topPanel.add(label, gbh.defaults().nextRowFirstCol().setLabelDefault().get());
+
+        topPanel.add(threadsField, gbh.defaults().nextCol().spanX().get());
+
+        label = new JLabel(bundles("Seed"));
+        topPanel.add(label, gbh.defaults().nextRowFirstCol().setLabelDefault().get());
+
+        topPanel.add(seedField, gbh.defaults().nextCol().spanX().get());
+
         topPanel.add(logBox, gbh.defaults().nextRowFirstCol().setLabelDefault().get());
 
         topPanel.add(stopOnErrorBox, gbh.defaults().nextCol().setLabelDefault().get());
@@ -15,23 +15,24 @@ import org.executequery.databasemediators.QueryTypes;
 import org.executequery.databasemediators.spi.DefaultStatementExecutor;
 import org.executequery.databasemediators.spi.StatementExecutor;
 import org.executequery.datasource.ConnectionManager;
+import org.executequery.gui.browser.managment.PrivilegeMatrix;
 import org.executequery.gui.browser.managment.ThreadOfGrantManager;
 import org.executequery.localization.Bundles;
 import org.executequery.log.Log;
 import org.executequery.repository.DatabaseConnectionRepository;
 import org.executequery.repository.RepositoryCache;
+import org.executequery.sql.SqlStatementResult;
 import org.underworldlabs.swing.layouts.GridBagHelper;
-import org.underworldlabs.util.MiscUtils;
+import org.underworldlabs.util.DynamicLibraryLoader;
 
 import javax.swing.*;
 import java.awt.*;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.lang.reflect.InvocationTargetException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
@@ -54,7 +55,8 @@ public class GrantManagerPanel extends JPanel {
     Vector<String> relType;
     Vector<Boolean> relSystem;
     Vector<Boolean> relGranted;
-    String grants = "SUDIXRGA";
+    static final int PAGE_SIZE = 500;
+    String grants = PrivilegeMatrix.PRIVILEGES;
     String[] headers = {bundleString("Object"), "Select", "Update", "Delete", "Insert", "Execute", "References", "Usage"};
     String[] headers2 = {bundleString("Field"), bundleString("Type"), "Update", "References"};
     Icon gr, no, adm;
@@ -63,6 +65,8 @@ public class GrantManagerPanel extends JPanel {
     Vector<String> fieldType;
     int obj_index;
     StatementExecutor querySender;
+    PrivilegeMatrix privileges;
+    boolean batch;
     int col_execute = 5;
     int col_usage = 7;
     private JButton cancelButton;
@@ -669,22 +673,11 @@ public class GrantManagerPanel extends JPanel {
             Log.error("error get connection for getting users in grant manager:", e);
         }
 
-        URL[] urls = new URL[0];
-        Class clazzdb = null;
         Object odb = null;
         try {
-            urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-            ClassLoader cl = new URLClassLoader(urls, connection.getClass().getClassLoader());
-            clazzdb = cl.loadClass("biz.redsoft.FBUserManagerImpl");
-            odb = clazzdb.newInstance();
+            odb = DynamicLibraryLoader.loadingObjectFromClassLoader(connection, "FBUserManagerImpl");
         } catch (ClassNotFoundException e) {
             Log.error("Error get users in Grant Manager:", e);
-        } catch (IllegalAccessException e) {
-            Log.error("Error get users in Grant Manager:", e);
-        } catch (InstantiationException e) {
-            Log.error("Error get users in Grant Manager:", e);
-        } catch (MalformedURLException e) {
-            Log.error("Error get users in Grant Manager:", e);
         }
         IFBUserManager userManager = (IFBUserManager) odb;
         userManager = getUserManager(userManager, listConnections.get(databaseBox.getSelectedIndex()));
@@ -737,7 +730,8 @@ public class GrantManagerPanel extends JPanel {
     }
 
     void load_table() {
-        tablePrivileges.setModel(new RoleTableModel(headers, 0));
+        RoleTableModel model = new RoleTableModel(headers, 0);
+        tablePrivileges.setModel(model);
         relName.removeAllElements();
         relType.removeAllElements();
         relSystem.removeAllElements();
@@ -748,65 +742,36 @@ public class GrantManagerPanel extends JPanel {
             getViews();
         if (objectBox.getSelectedIndex() == 0 || objectBox.getSelectedIndex() == 3)
             getProcedures();
-        jProgressBar1.setMaximum(relName.size());
-        for (int i = 0, g = 0; i < relName.size() && !enableElements; g++, i++) {
-            jProgressBar1.setValue(g);
-            try {
-                String s = "select distinct RDB$PRIVILEGE,RDB$GRANT_OPTION,RDB$FIELD_NAME from RDB$USER_PRIVILEGES\n" +
-                        "where (rdb$Relation_name='" + relName.elementAt(i) + "') and (rdb$user='"
-                        + userList.getSelectedValue().trim() + "')";
-                ResultSet rs1 = querySender.execute(QueryTypes.SELECT, s, -1).getResultSet();
-                Vector<Object> roleData = new Vector<Object>();
-                Object[] obj = {relName.elementAt(i), Color.BLACK};
-                if (relSystem.elementAt(i))
-                    obj[1] = Color.RED;
-                roleData.add(obj);
-                for (int k = 0; k < 7; k++)
-                    roleData.add(no);
-                boolean adding = true;
-                while (rs1.next()) {
-                    relGranted.set(i, true);
-                    if (filterBox.getSelectedIndex() == 0 || (filterBox.getSelectedIndex() == 1) == relGranted.elementAt(i)) {
-                        try {
-                            if (rs1.getString(3) == null) {
-                                String grant = rs1.getString(1).trim();
-                                int ind = grants.indexOf(grant);
-                                if (ind != 7) {
-                                    Object gr_opt = rs1.getObject(2);
-                                    if (gr_opt == null)
-                                        gr_opt = 0;
-                                    if (gr_opt.equals(0)) {
-                                        roleData.set(ind + 1, gr);
-                                    } else
-                                        roleData.set(ind + 1, adm);
-                                }
-                            }
-                        } catch (Exception e) {
-                            Log.error(e.getMessage());
-                        }
-                    } else {
-                        adding = false;
-                        break;
-                    }
-                }
-                rs1.close();
-                if (adding)
-                    adding = (filterBox.getSelectedIndex() == 0 || (filterBox.getSelectedIndex() == 1) == relGranted.elementAt(i));
-                if (adding)
-                    ((RoleTableModel) tablePrivileges.getModel()).addRow(roleData);
-                else {
-                    removeRow(i);
-                    i--;
-                }
-                querySender.releaseResources();
-            } catch (NullPointerException e) {
-                Log.error(bundleString("connection.close"));
-            } catch (SQLException e) {
-                Log.error(e.getMessage());
-            } catch (Exception e) {
-                GUIUtilities.displayErrorMessage(e.getMessage());
+        try {
+            privileges = PrivilegeMatrix.load(querySender, userList.getSelectedValue().trim());
+        } catch (NullPointerException e) {
+            Log.error(bundleString("connection.close"));
+            privileges = new PrivilegeMatrix();
+        } catch (SQLException e) {
+            Log.error(e.getMessage());
+            privileges = new PrivilegeMatrix();
+        }
+        for (int i = 0; i < relName.size(); i++) {
+            boolean granted = privileges.isGranted(relName.elementAt(i));
+            if (filterBox.getSelectedIndex() == 0 || (filterBox.getSelectedIndex() == 1) == granted)
+                relGranted.set(i, granted);
+            else {
+                removeRow(i);
+                i--;
             }
+        }
 
+        // rows are added a page at a time so the first objects
+        // are shown before the rows of the rest are built
+        jProgressBar1.setMaximum(relName.size());
+        Vector<Vector<Object>> page = new Vector<>();
+        for (int i = 0; i < relName.size() && !enableElements; i++) {
+            page.add(objectRow(i));
+            if (page.size() == PAGE_SIZE || i == relName.size() - 1) {
+                addRows(model, page);
+                page = new Vector<>();
+                jProgressBar1.setValue(i + 1);
+            }
             if (GUIUtilities.getCentralPane(TITLE) == null)
                 setEnableElements(true);
         }
@@ -815,6 +780,55 @@ public class GrantManagerPanel extends JPanel {
 
     }
 
+    Vector<Object> objectRow(int row) {
+        String name = relName.elementAt(row);
+        Vector<Object> roleData = new Vector<Object>();
+        Object[] obj = {name, Color.BLACK};
+        if (relSystem.elementAt(row))
+            obj[1] = Color.RED;
+        roleData.add(obj);
+        // a column per privilege code but the last, A, which has none
+        for (int ind = 0; ind < headers.length - 1; ind++)
+            roleData.add(privilegeIcon(privileges.getPrivilege(name, ind)));
+        return roleData;
+    }
+
+    @SuppressWarnings("unchecked")
+    void addRows(final RoleTableModel model, final Vector<Vector<Object>> rows) {
+        try {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    int firstRow = model.getRowCount();
+                    model.getDataVector().addAll(rows);
+                    model.fireTableRowsInserted(firstRow, model.getRowCount() - 1);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
+            Log.error(e.getMessage());
+        }
+    }
+
+    Icon privilegeIcon(int privilege) {
+        switch (privilege) {
+            case PrivilegeMatrix.GRANTED:
+                return gr;
+            case PrivilegeMatrix.GRANT_OPTION:
+                return adm;
+            default:
+                return no;
+        }
+    }
+
+    int privilegeState(Icon icon) {
+        if (icon == gr)
+            return PrivilegeMatrix.GRANTED;
+        if (icon == adm)
+            return PrivilegeMatrix.GRANT_OPTION;
+        return PrivilegeMatrix.NONE;
+    }
+
     void load_table2(String rname) {
         privilegesForFieldTable.setModel(new RoleTableModel(headers2, 0));
         fieldName = new Vector<>();
@@ -836,38 +850,20 @@ public class GrantManagerPanel extends JPanel {
         } catch (Exception e) {
             GUIUtilities.displayErrorMessage(e.getMessage());
         }
-        for (int i = 0; i < fieldName.size(); i++)
-            try {
-                String s = "select distinct RDB$PRIVILEGE,RDB$GRANT_OPTION from RDB$USER_PRIVILEGES\n" +
-                        "where (rdb$Relation_name='" + rname + "') and (rdb$user='" + userList.getSelectedValue().trim() + "') and\n" +
-                        "(RDB$FIELD_NAME='" + fieldName.elementAt(i) + "')";
-                ResultSet rs1 = querySender.execute(QueryTypes.SELECT, s, -1).getResultSet();
-                Vector<Object> roleData = new Vector<Object>();
-                roleData.add(fieldName.elementAt(i));
-                roleData.add(fieldType.elementAt(i));
-                for (int k = 0; k < 2; k++)
-                    roleData.add(no);
-                ((RoleTableModel) privilegesForFieldTable.getModel()).addRow(roleData);
-                while (rs1.next()) {
-                    String grant = rs1.getString(1).trim();
-                    int ind = grants.indexOf(grant);
-                    if (ind == 1)
-                        if (rs1.getObject(2).equals(0)) {
-                            privilegesForFieldTable.setValueAt(gr, i, 2);
-                        } else
-                            privilegesForFieldTable.getModel().setValueAt(adm, i, 2);
-                    if (ind == 5)
-                        if (rs1.getObject(2).equals(0)) {
-                            privilegesForFieldTable.setValueAt(gr, i, 3);
-                        } else
-                            privilegesForFieldTable.getModel().setValueAt(adm, i, 3);
+        Vector<Vector<Object>> rows = new Vector<>();
+        for (int i = 0; i < fieldName.size(); i++) {
+            Vector<Object> roleData = new Vector<Object>();
+            roleData.add(fieldName.elementAt(i));
+            roleData.add(fieldType.elementAt(i));
+            for (int col = 2; col < headers2.length; col++)
+                roleData.add(privilegeIcon(privileges.getPrivilege(rname, fieldName.elementAt(i), fieldPrivilege(col))));
+            rows.add(roleData);
+        }
+        privilegesForFieldTable.setModel(new RoleTableModel(rows, new Vector<Object>(Arrays.asList(headers2))));
+    }
 
-                }
-                rs1.close();
-                querySender.releaseResources();
-            } catch (Exception e) {
-                Log.error(e.getMessage());
-            }
+    int fieldPrivilege(int col) {
+        return grants.indexOf(col == 2 ? "U" : "R");
     }
 
     void getTables() {
@@ -983,89 +979,102 @@ public class GrantManagerPanel extends JPanel {
     }
 
     public void run() {
-        int col;
         switch (act) {
             case CREATE_TABLE:
                 load_table();
                 break;
-            case ALL_GRANTS_TO_ALL_OBJECTS: {
-                jProgressBar1.setMaximum(relName.size());
-                for (int row = 0; row < relName.size() && !enableElements; row++) {
-                    jProgressBar1.setValue(row);
-                    isClose();
-                    grant_all_on_role(1, row);
-
-                }
-                jProgressBar1.setValue(0);
-                setEnableElements(true);
-            }
-            break;
+            case ALL_GRANTS_TO_ALL_OBJECTS:
+                grant_on_all_objects(1, 0, true);
+                break;
             case ALL_GRANTS_TO_ALL_OBJECTS_WITH_GRANT_OPTION:
-                jProgressBar1.setMaximum(relName.size());
-                for (int row = 0; row < relName.size() && !enableElements; row++) {
-                    jProgressBar1.setValue(row);
-                    isClose();
-                    grant_all_on_role(2, row);
-
-                }
-                jProgressBar1.setValue(0);
-                setEnableElements(true);
+                grant_on_all_objects(2, 0, true);
                 break;
             case NO_ALL_GRANTS_TO_ALL_OBJECTS:
-                jProgressBar1.setMaximum(relName.size());
-                for (int row = 0; row < relName.size() && !enableElements; row++) {
-                    jProgressBar1.setValue(row);
-                    isClose();
-                    grant_all_on_role(0, row);
-
-                }
-                jProgressBar1.setValue(0);
-                setEnableElements(true);
+                grant_on_all_objects(0, 0, true);
                 break;
             case GRANT_TO_ALL_OBJECTS:
-                col = tablePrivileges.getSelectedColumn();
-                jProgressBar1.setMaximum(relName.size());
-                if (col > 0)
-                    for (int row = 0; row < relName.size() && !enableElements; row++) {
-                        jProgressBar1.setValue(row);
-                        isClose();
-                        grant_on_role(1, row, col);
-                    }
-                jProgressBar1.setValue(0);
-                setEnableElements(true);
+                grant_on_all_objects(1, tablePrivileges.getSelectedColumn(), false);
                 break;
             case GRANT_TO_ALL_OBJECTS_WITH_GRANT_OPTION:
-                col = tablePrivileges.getSelectedColumn();
-                jProgressBar1.setMaximum(relName.size());
-                if (col > 0)
-                    for (int row = 0; row < relName.size() && !enableElements; row++) {
-                        jProgressBar1.setValue(row);
-                        isClose();
-                        grant_on_role(2, row, col);
-                    }
-                jProgressBar1.setValue(0);
-                setEnableElements(true);
+                grant_on_all_objects(2, tablePrivileges.getSelectedColumn(), false);
                 break;
             case NO_GRANT_TO_ALL_OBJECTS:
-                col = tablePrivileges.getSelectedColumn();
-                jProgressBar1.setMaximum(relName.size());
-                if (col > 0)
-                    for (int row = 0; row < relName.size() && !enableElements; row++) {
-                        jProgressBar1.setValue(row);
-                        isClose();
-                        grant_on_role(0, row, col);
-                    }
-                jProgressBar1.setValue(0);
-                setEnableElements(true);
+                grant_on_all_objects(0, tablePrivileges.getSelectedColumn(), false);
                 break;
         }
     }
 
+    /**
+     * Applies the grant of all privileges, or of the privilege of the specified
+     * column, to every listed object in one transaction committed after the last
+     * object - nothing is granted for the object name column.
+     * The transaction is rolled back and the privileges reloaded if cancelled.
+     */
+    void grant_on_all_objects(int grantt, int col, boolean allPrivileges) {
+        jProgressBar1.setMaximum(relName.size());
+        boolean completed = true;
+        if (allPrivileges || col > 0) {
+            // the grants share one connection until the transaction ends
+            boolean closeAfterQuery = querySender.isCloseConnectionAfterQuery();
+            querySender.setCloseConnectionAfterQuery(false);
+            batch = true;
+            try {
+                for (int row = 0; row < relName.size() && !enableElements; row++) {
+                    jProgressBar1.setValue(row);
+                    isClose();
+                    if (allPrivileges)
+                        grant_all_on_role(grantt, row);
+                    else
+                        grant_on_role(grantt, row, col);
+                }
+                completed = !enableElements;
+            } finally {
+                batch = false;
+                querySender.setCloseConnectionAfterQuery(closeAfterQuery);
+            }
+            completed = end_transaction(completed);
+        }
+        jProgressBar1.setValue(0);
+        if (!completed) {
+            setEnableElements(false);
+            load_table();
+        }
+        setEnableElements(true);
+    }
+
+    boolean end_transaction(boolean commit) {
+        boolean ended = false;
+        try {
+            SqlStatementResult result = querySender.execute(commit ? QueryTypes.COMMIT : QueryTypes.ROLLBACK, (String) null);
+            if (result.isException())
+                Log.error(result.getErrorMessage());
+            else
+                ended = true;
+        } catch (NullPointerException e) {
+            Log.error(bundleString("connection.close"));
+        } catch (SQLException e) {
+            Log.error(e.getMessage());
+        }
+        if (!ended && commit) {
+            // rolls back and releases the connection kept for the grants
+            end_transaction(false);
+            return false;
+        }
+        querySender.releaseResources();
+        return ended && commit;
+    }
+
     void grant_query(String query, Icon icon, int row, int col, JTable t) {
         try {
             querySender.execute(QueryTypes.GRANT, query);
-            querySender.execute(QueryTypes.COMMIT, (String) null);
+            if (!batch)
+                querySender.execute(QueryTypes.COMMIT, (String) null);
             t.setValueAt(icon, row, col);
+            if (t == tablePrivileges)
+                privileges.setPrivilege(relName.elementAt(row), col - 1, privilegeState(icon));
+            else
+                privileges.setPrivilege(relName.elementAt(obj_index), fieldName.elementAt(row),
+                        fieldPrivilege(col), privilegeState(icon));
             querySender.releaseResources();
         } catch (NullPointerException e) {
             Log.error(bundleString("connection.close"));
@@ -1098,9 +1107,12 @@ public class GrantManagerPanel extends JPanel {
         try {
             querySender.execute(QueryTypes.GRANT, query, -1);
             for (int i = 1; i < headers.length; i++)
-                if (i != col_execute && i != col_usage)
+                if (i != col_execute && i != col_usage) {
                     tablePrivileges.setValueAt(icon, row, i);
-            querySender.execute(QueryTypes.COMMIT, (String) null);
+                    privileges.setPrivilege(relName.elementAt(row), i - 1, privilegeState(icon));
+                }
+            if (!batch)
+                querySender.execute(QueryTypes.COMMIT, (String) null);
             querySender.releaseResources();
         } catch (Exception e) {
             Log.error(e.getMessage());
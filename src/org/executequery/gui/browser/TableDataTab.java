@@ -36,6 +36,7 @@ import org.executequery.gui.ExecuteQueryDialog;
 import org.executequery.gui.editor.ResultSetTableContainer;
 import org.executequery.gui.editor.ResultSetTablePopupMenu;
 import org.executequery.gui.resultset.RecordDataItem;
+import org.executequery.gui.resultset.ResultSetFetchListener;
 import org.executequery.gui.resultset.ResultSetColumnHeader;
 import org.executequery.gui.resultset.ResultSetTable;
 import org.executequery.gui.resultset.ResultSetTableModel;
@@ -89,7 +90,9 @@ public class TableDataTab extends JPanel
     private GridBagConstraints rowCountPanelConstraints;
     private GridBagConstraints canEditTableNoteConstraints;
     private DisabledField rowCountField;
+    private JLabel fetchRateLabel;
     private JPanel rowCountPanel;
+    private RolloverButton fetchAllRolloverButton;
     private List<TableDataChange> tableDataChanges;
 
     private JPanel canEditTableNotePanel;
@@ -216,6 +219,11 @@ public class TableDataTab extends JPanel
 
     public void loadDataForTable(final DatabaseObject databaseObject) {
 
+        if (tableModel != null) {
+
+            tableModel.cancelBackgroundFetch();
+        }
+
         addInProgressPanel();
 
         if (timer != null) {
@@ -393,6 +401,10 @@ public class TableDataTab extends JPanel
             sorter.addSortingListener(new SortingListener() {
                 @Override
                 public void presorting(SortingEvent e) {
+                            if (tableModel.isBackgroundFetchRunning()) {
+                                // the rows still to come are sorted once the fetch completes
+                                return;
+                            }
                             tableModel.setFetchAll(true);
                             tableModel.fetchMoreData();
                             if (displayRowCount) {
@@ -944,61 +956,48 @@ public class TableDataTab extends JPanel
             }
         });
         bar.add(rollbackRolloverButton);
-        RolloverButton fetchAllRolloverButton = new RolloverButton();
+        fetchAllRolloverButton = new RolloverButton();
         fetchAllRolloverButton.setText(bundleString("FetchAll"));
         fetchAllRolloverButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent actionEvent) {
-                addInProgressPanel();
-                if (timer != null) {
 
-                    timer.cancel();
+                if (tableModel.isBackgroundFetchRunning()) {
+
+                    tableModel.cancelBackgroundFetch();
+                    return;
+                }
+
+                if (tableModel.isResultSetClose()) {
+
+                    return;
                 }
 
-                timer = new Timer();
-                timer.schedule(new TimerTask() {
+                fetchAllRolloverButton.setText(bundleString("CancelFetch"));
+                tableModel.fetchAllInBackground(new ResultSetFetchListener() {
+
                     @Override
-                    public void run() {
-                        tableModel.setFetchAll(true);
-                        if (worker != null) {
-                            cancel();
-                            worker.interrupt();
-                        }
-                        worker = new SwingWorker() {
+                    public void fetchProgress(int rowCount, double rowsPerSecond) {
 
-                            public Object construct() {
-                                try {
-                                    executing = true;
-                                    tableModel.fetchMoreData();
-                                    removeAll();
-                                    add(buttonsEditingPanel, canEditTableNoteConstraints);
-                                    add(scroller, scrollerConstraints);
-                                    if (displayRowCount) {
-                                        add(rowCountPanel, rowCountPanelConstraints);
-                                        rowCountField.setText(String.valueOf(tableModel.getRowCount()));
-                                    }
-                                    setTableProperties();
-                                    validate();
-                                    repaint();
-                                    return "done";
-                                } catch (Exception e) {
-                                    addErrorLabel(e);
-                                    return "done";
-                                }
-                            }
+                        updateFetchedRowCount(rowCount, rowsPerSecond);
+                    }
 
-                            public void finished() {
+                    @Override
+                    public void fetchFinished(int rowCount, boolean cancelled, Throwable error) {
 
-                                executing = false;
-                                cancelled = false;
-                            }
+                        fetchAllRolloverButton.setText(bundleString("FetchAll"));
+                        updateFetchedRowCount(rowCount, -1);
+                        if (table.getModel() instanceof TableSorter) {
 
-                        };
-                        worker.start();
+                            ((TableSorter) table.getModel()).resort();
+                        }
+                        if (error != null) {
 
+                            GUIUtilities.displayExceptionErrorDialog("Error loading data", error);
+                        }
                     }
-                }, 600);
 
+                });
             }
         });
         bar.add(fetchAllRolloverButton);
@@ -1011,9 +1010,20 @@ public class TableDataTab extends JPanel
         table.stopEditing();
     }
 
+    private void updateFetchedRowCount(int rowCount, double rowsPerSecond) {
+
+        if (displayRowCount) {
+
+            rowCountField.setText(String.valueOf(rowCount));
+            fetchRateLabel.setText(rowsPerSecond >= 0 ?
+                    bundleString("RowsPerSecond", Math.round(rowsPerSecond)) : "");
+        }
+    }
+
     private void initRowCountPanel() {
 
         rowCountField = new DisabledField();
+        fetchRateLabel = new JLabel();
         rowCountPanel = new JPanel(new GridBagLayout());
 
         GridBagConstraints gbc = new GridBagConstraints();
@@ -1029,6 +1039,10 @@ public class TableDataTab extends JPanel
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.insets.right = 0;
         rowCountPanel.add(rowCountField, gbc);
+        gbc.gridx = 3;
+        gbc.weightx = 0;
+        gbc.fill = GridBagConstraints.NONE;
+        rowCountPanel.add(fetchRateLabel, gbc);
     }
 
 
@@ -1189,6 +1203,10 @@ public class TableDataTab extends JPanel
         return Bundles.get(TableDataTab.class, key);
     }
 
+    private String bundleString(String key, Object... args) {
+        return Bundles.get(TableDataTab.class, key, args);
+    }
+
 
     class InterruptibleProcessPanel extends JPanel implements ActionListener {
 
@@ -10,15 +10,21 @@ import org.executequery.gui.browser.managment.tracemanager.BuildConfigurationPan
 import org.executequery.gui.browser.managment.tracemanager.LogConstants;
 import org.executequery.gui.browser.managment.tracemanager.SessionManagerPanel;
 import org.executequery.gui.browser.managment.tracemanager.TablePanel;
+import org.executequery.gui.browser.managment.tracemanager.TraceAnalyticsPanel;
+import org.executequery.gui.browser.managment.tracemanager.TraceEventSplitter;
+import org.executequery.gui.browser.managment.tracemanager.TraceEventStream;
+import org.executequery.gui.browser.managment.tracemanager.TraceLogLoader;
 import org.executequery.gui.browser.managment.tracemanager.net.LogMessage;
 import org.executequery.gui.browser.managment.tracemanager.net.SessionInfo;
 import org.executequery.localization.Bundles;
+import org.executequery.log.Log;
 import org.executequery.repository.DatabaseConnectionRepository;
 import org.executequery.repository.DatabaseDriverRepository;
 import org.executequery.repository.RepositoryCache;
 import org.underworldlabs.swing.CheckBoxPanel;
 import org.underworldlabs.swing.DynamicComboBoxModel;
 import org.underworldlabs.swing.NumberTextField;
+import org.underworldlabs.swing.util.SwingWorker;
 import org.underworldlabs.util.DynamicLibraryLoader;
 import org.underworldlabs.util.FileUtils;
 import org.underworldlabs.util.MiscUtils;
@@ -28,28 +34,32 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.*;
+import java.nio.charset.Charset;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class TraceManagerPanel extends JPanel implements TabView {
 
     public static final String TITLE = Bundles.get(TraceManagerPanel.class, "title");
     private IFBTraceManager traceManager;
     private TablePanel loggerPanel;
+    private TraceAnalyticsPanel analyticsPanel;
     private Timer timer;
-    private OutputStream fileLog;
+    private FileOutputStream fileLog;
     private OutputStream outputStream;
-    private Lock lock;
-    private StringBuilder sb;
+    private Queue<LogMessage> receivedMessages;
     private JButton fileLogButton;
     private JButton fileDatabaseButton;
     private JButton fileConfButton;
     private JButton startStopSessionButton;
     private JButton clearTableButton;
     private JButton openFileLog;
+    private JProgressBar loadProgressBar;
+    private TraceLogLoader logLoader;
+    private int loadCount;
     private JTextField fileLogField;
     private JTextField fileDatabaseField;
     private JTextField fileConfField;
@@ -63,12 +73,10 @@ public class TraceManagerPanel extends JPanel implements TabView {
     private JTextField sessionField;
     private JComboBox<DatabaseConnection> databaseBox;
     private int idLogMessage = 0;
-    private boolean changed = false;
     private List<String> charsets;
     private JComboBox charsetCombo;
     private JTabbedPane tabPane;
     private JButton hideShowTabPaneButton;
-    private Message message;
     private List<SessionInfo> sessions;
     private SessionManagerPanel sessionManagerPanel;
     private BuildConfigurationPanel confPanel;
@@ -80,7 +88,6 @@ public class TraceManagerPanel extends JPanel implements TabView {
     }
 
     private void init() {
-        message = Message.LOG_MESSAGE;
         sessions = new ArrayList<>();
         initTraceManager();
         sessionField = new JTextField();
@@ -89,18 +96,21 @@ public class TraceManagerPanel extends JPanel implements TabView {
         loadCharsets();
         CheckBoxPanel columnsCheckPanel = new CheckBoxPanel(LogConstants.COLUMNS, 6, true);
         loggerPanel = new TablePanel(columnsCheckPanel);
-        lock = new ReentrantLock();
+        analyticsPanel = new TraceAnalyticsPanel();
+        receivedMessages = new ConcurrentLinkedQueue<>();
         timer = new Timer(1500, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
                 timerAction();
             }
         });
-        sb = new StringBuilder();
         fileLogButton = new JButton("...");
         fileDatabaseButton = new JButton("...");
         fileConfButton = new JButton("...");
         openFileLog = new JButton("...");
+        loadProgressBar = new JProgressBar(0, 100);
+        loadProgressBar.setStringPainted(true);
+        loadProgressBar.setVisible(false);
         fileLogField = new JTextField();
         fileDatabaseField = new JTextField();
         fileConfField = new JTextField();
@@ -240,45 +250,7 @@ public class TraceManagerPanel extends JPanel implements TabView {
                 int returnVal = fileChooser.showOpenDialog(openFileLog);
                 if (returnVal == JFileChooser.APPROVE_OPTION) {
                     openFileLogField.setText(fileChooser.getSelectedFile().getAbsolutePath());
-                    String s = "";
-                    boolean finded = false;
-                    clearAll();
-                    idLogMessage = 0;
-                    BufferedReader reader = null;
-                    try {
-                        reader = new BufferedReader(
-                                new InputStreamReader(
-                                        new FileInputStream(openFileLogField.getText())));
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            String str = line.trim();
-                            if (str.matches(".?\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d+.*")) {
-                                if (finded) {
-                                    LogMessage logMessage = new LogMessage(s);
-                                    idLogMessage++;
-                                    logMessage.setId(idLogMessage);
-                                    loggerPanel.addRow(logMessage);
-                                }
-                                finded = true;
-                                s = str + "\n";
-                            } else {
-                                s += str + "\n";
-                            }
-                        }
-                        LogMessage logMessage = new LogMessage(s);
-                        idLogMessage++;
-                        logMessage.setId(idLogMessage);
-                        loggerPanel.addRow(logMessage);
-                    } catch (IOException e1) {
-                        e1.printStackTrace();
-                    } finally {
-                        if (reader != null) {
-                            try {
-                                reader.close();
-                            } catch (IOException e1) {
-                            }
-                        }
-                    }
+                    loadLogFile(fileChooser.getSelectedFile());
                 }
             }
         });
@@ -286,42 +258,41 @@ public class TraceManagerPanel extends JPanel implements TabView {
         startStopSessionButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (outputStream != null) {
-                    try {
-                        outputStream.close();
-                    } catch (IOException e1) {
-                        e1.printStackTrace();
-                    }
-                }
-                outputStream = null;
                 if (startStopSessionButton.getText().toUpperCase().contentEquals(bundleString("Start").toUpperCase())) {
-                    if (logToFileBox.isSelected()) {
-                        if (fileLog != null) {
-                            outputStream = new OutputStream() {
+                    closeOutputStream();
+                    if (logToFileBox.isSelected() && fileLog == null) {
+                        GUIUtilities.displayErrorMessage("File is empty");
+                        return;
+                    }
+                    outputStream = new TraceEventStream(traceCharset(),
+                            logToFileBox.isSelected() ? fileLog.getChannel() : null,
+                            new TraceEventSplitter.Listener() {
                                 @Override
-                                public void write(int b) throws IOException {
-                                    fileLog.write(b);
-                                    lock.lock();
-                                    changed = true;
-                                    sb.append((char) b);
-                                    lock.unlock();
+                                public void eventRead(String event, int type) {
+                                    eventReceived(event, type);
                                 }
-                            };
-                        } else {
-                            GUIUtilities.displayErrorMessage("File is empty");
-                            return;
-                        }
-                    }
-                    else
-                        outputStream = new OutputStream() {
-                            @Override
-                            public void write(int b) {
-                                lock.lock();
-                                changed = true;
-                                sb.append((char) b);
-                                lock.unlock();
-                            }
-                        };
+
+                                @Override
+                                public void sessionStarted(final int sessionId) {
+                                    SwingUtilities.invokeLater(new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            currentSessionId = sessionId;
+                                        }
+                                    });
+                                }
+
+                                @Override
+                                public void sessionStopped(final int sessionId) {
+                                    SwingUtilities.invokeLater(new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            if (sessionId == currentSessionId)
+                                                stopSession();
+                                        }
+                                    });
+                                }
+                            });
                     traceManager.setUser(userField.getText());
                     traceManager.setPassword(new String(passwordField.getPassword()));
                     traceManager.setLogger(outputStream);
@@ -353,11 +324,15 @@ public class TraceManagerPanel extends JPanel implements TabView {
                     } catch (Exception e1) {
                         GUIUtilities.displayExceptionErrorDialog("Error start Trace Manager", e1);
                     }
-                } else try {
-                    traceManager.stopTraceSession(currentSessionId);
-                    stopSession();
-                } catch (SQLException e1) {
-                    GUIUtilities.displayExceptionErrorDialog("Error stop Trace Manager", e1);
+                } else {
+                    // the session is stopped before its output is closed
+                    try {
+                        traceManager.stopTraceSession(currentSessionId);
+                        stopSession();
+                    } catch (SQLException e1) {
+                        GUIUtilities.displayExceptionErrorDialog("Error stop Trace Manager", e1);
+                    }
+                    closeOutputStream();
                 }
             }
         });
@@ -381,7 +356,7 @@ public class TraceManagerPanel extends JPanel implements TabView {
         JPanel topPanel = new JPanel();
         topPanel.setLayout(new GridBagLayout());
         topPanel.add(tabPane, new GridBagConstraints(0, 1,
-                3, 1, 1, 0,
+                4, 1, 1, 0,
                 GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, new Insets(5, 5, 5, 5),
                 0, 0));
 
@@ -421,7 +396,15 @@ public class TraceManagerPanel extends JPanel implements TabView {
                 GridBagConstraints.NORTHEAST, GridBagConstraints.HORIZONTAL, new Insets(5, 5, 5, 5),
                 0, 0));
 
-        add(loggerPanel, new GridBagConstraints(0, 3,
+        topPanel.add(loadProgressBar, new GridBagConstraints(3, 0,
+                1, 1, 0, 0,
+                GridBagConstraints.NORTHEAST, GridBagConstraints.NONE, new Insets(5, 5, 5, 5),
+                0, 0));
+
+        JTabbedPane resultsPane = new JTabbedPane();
+        resultsPane.add(bundleString("Events"), loggerPanel);
+        resultsPane.add(bundleString("Analytics"), analyticsPanel);
+        add(resultsPane, new GridBagConstraints(0, 3,
                 2, 1, 1, 1,
                 GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, new Insets(0, 5, 5, 5),
                 0, 0));
@@ -582,58 +565,112 @@ public class TraceManagerPanel extends JPanel implements TabView {
     }
 
     private void timerAction() {
-        lock.lock();
-        String messages = sb.toString();
-        sb.setLength(0);
-        String s = "";
-        String[] strs = messages.split("\n");
-        boolean finded = false;
-        if (!messages.isEmpty())
-            for (int i = 0; i < strs.length; i++) {
-                String str = strs[i].trim();
-                if (str.toLowerCase().startsWith("trace session id")) {
-                    if (finded) {
-                        parseMessage(s);
-                    }
-                    s = str.replace("Trace session ID ", "");
-                    if (s.contains("started")) {
-                        s = s.replace("started", "");
-                        s = s.replace(" ", "");
-                        currentSessionId = Integer.parseInt(s);
-                    } else if (s.contains("stopped")) {
-                        s = s.replace("stopped", "");
-                        s = s.replace(" ", "");
-                        int sessionId = Integer.parseInt(s);
-                        if (sessionId == currentSessionId)
-                            stopSession();
+        LogMessage logMessage;
+        while ((logMessage = receivedMessages.poll()) != null) {
+            idLogMessage++;
+            logMessage.setId(idLogMessage);
+            loggerPanel.addRow(logMessage);
+            analyticsPanel.addEvent(logMessage);
+        }
+    }
+
+    /**
+     * Loads the events of the specified trace log file in the
+     * background adding them to the table as they are parsed.
+     */
+    private void loadLogFile(final File file) {
+        clearAll();
+        final int load = loadCount;
+        loadProgressBar.setValue(0);
+        loadProgressBar.setVisible(true);
+        openFileLog.setEnabled(false);
+
+        final TraceLogLoader loader = new TraceLogLoader(file, Charset.defaultCharset(), new TraceLogLoader.Listener() {
+            @Override
+            public void eventsLoaded(final List<LogMessage> messages) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (load == loadCount) {
+                            for (LogMessage logMessage : messages) {
+                                loggerPanel.addRow(logMessage);
+                                analyticsPanel.addEvent(logMessage);
+                            }
+                        }
                     }
+                });
+            }
 
-                } else if (str.matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}.*")) {
-                    if (finded) {
-                        parseMessage(s);
+            @Override
+            public void progress(long bytesParsed, long fileLength) {
+                final int percent = fileLength > 0 ? (int) (bytesParsed * 100 / fileLength) : 100;
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        loadProgressBar.setValue(percent);
                     }
-                    message = Message.LOG_MESSAGE;
-                    finded = true;
-                    s = str + "\n";
-                } else if (str.matches("^Session ID:.*")) {
-                    if (finded) {
-                        parseMessage(s);
+                });
+            }
+        });
+        logLoader = loader;
+
+        SwingWorker worker = new SwingWorker() {
+            @Override
+            public Object construct() {
+                try {
+                    return loader.load(0);
+                } catch (IOException e) {
+                    return e;
+                }
+            }
+
+            @Override
+            public void finished() {
+                Object result = get();
+                if (logLoader == loader) {
+                    if (!loader.isCancelled() && result instanceof Integer) {
+                        idLogMessage = (Integer) result;
                     }
-                    message = Message.SESSION_INFO;
-                    finded = true;
-                    s = str + "\n";
-                } else {
-                    s += str + "\n";
+                    logLoader = null;
+                    loadProgressBar.setVisible(false);
+                    openFileLog.setEnabled(true);
+                }
+                if (result instanceof IOException) {
+                    GUIUtilities.displayExceptionErrorDialog("Error loading trace log", (IOException) result);
+                }
+            }
+        };
+        worker.start();
+    }
+
+    /**
+     * Parses an event of the trace session - called on the
+     * trace stream thread, the messages are added to the
+     * table by the timer.
+     */
+    private void eventReceived(String event, int type) {
+        if (type == TraceEventSplitter.LOG_MESSAGE) {
+            receivedMessages.add(new LogMessage(event));
+        } else {
+            final SessionInfo sessionInfo = new SessionInfo(event);
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    addSession(sessionInfo);
                 }
+            });
+        }
+    }
+
+    private Charset traceCharset() {
+        if (charsetCombo.getSelectedIndex() != 0) {
+            try {
+                return Charset.forName(MiscUtils.getJavaCharsetFromSqlCharset((String) charsetCombo.getSelectedItem()));
+            } catch (IllegalArgumentException e) {
+                Log.warning("Unsupported trace charset " + charsetCombo.getSelectedItem() + " - using the default charset");
             }
-        if (changed)
-            sb.append(s);
-        else if (!s.isEmpty() && !s.toLowerCase().startsWith("trace session")) {
-            s = s.trim();
-            parseMessage(s);
         }
-        changed = false;
-        lock.unlock();
+        return Charset.defaultCharset();
     }
 
     @Override
@@ -644,6 +681,7 @@ public class TraceManagerPanel extends JPanel implements TabView {
             } catch (SQLException e) {
                 GUIUtilities.displayExceptionErrorDialog("Error stop session", e);
             }
+        closeOutputStream();
         return true;
     }
 
@@ -657,25 +695,23 @@ public class TraceManagerPanel extends JPanel implements TabView {
         return true;
     }
 
-    private void parseMessage(String msg) {
-        if (message == Message.LOG_MESSAGE) {
-            LogMessage logMessage = new LogMessage(msg);
-            idLogMessage++;
-            logMessage.setId(idLogMessage);
-            loggerPanel.addRow(logMessage);
-        } else {
-            if (sessionManagerPanel.isRefreshFlag()) {
-                sessions.clear();
-                sessionManagerPanel.setRefreshFlag(false);
-            }
-            SessionInfo sessionInfo = new SessionInfo(msg);
-            sessions.add(sessionInfo);
-            sessionManagerPanel.setSessions(sessions);
+    private void addSession(SessionInfo sessionInfo) {
+        if (sessionManagerPanel.isRefreshFlag()) {
+            sessions.clear();
+            sessionManagerPanel.setRefreshFlag(false);
         }
+        sessions.add(sessionInfo);
+        sessionManagerPanel.setSessions(sessions);
     }
 
     public void clearAll() {
+        if (logLoader != null) {
+            logLoader.cancel();
+        }
+        loadCount++;
+        receivedMessages.clear();
         loggerPanel.clearAll();
+        analyticsPanel.clearAll();
         idLogMessage = 0;
     }
 
@@ -712,6 +748,28 @@ public class TraceManagerPanel extends JPanel implements TabView {
         fileLogField.setEnabled(logToFileBox.isSelected());
     }
 
+    /**
+     * Closes the output stream of the trace session off the event thread,
+     * closing waits for the rest of the output to be read.
+     */
+    private void closeOutputStream() {
+        final OutputStream stream = outputStream;
+        outputStream = null;
+        if (stream == null)
+            return;
+        new SwingWorker() {
+            @Override
+            public Object construct() {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    Log.error("Error closing the trace output", e);
+                }
+                return null;
+            }
+        }.start();
+    }
+
     private void stopSession() {
         startStopSessionButton.setText(bundleString("Start"));
         tabPane.remove(sessionManagerPanel);
@@ -721,9 +779,4 @@ public class TraceManagerPanel extends JPanel implements TabView {
         setEnableElements();
         logToFileBox.setEnabled(true);
     }
-
-    enum Message {
-        LOG_MESSAGE,
-        SESSION_INFO
-    }
 }
@@ -0,0 +1,1092 @@
+package org.executequery.gui.browser.comparer;
+
+import org.executequery.databasemediators.DatabaseConnection;
+import org.executequery.log.Log;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares two schema models and builds the script altering the
+ * second one into the first.
+ * <p/>
+ * The objects of each type are matched by name with a hash lookup - the
+ * constraints named by the server are matched by definition - and an
+ * object is altered when its signature differs. The DDL of the objects
+ * is generated in parallel and written in dependency order: keys,
+ * indices, triggers and views are dropped before the tables are altered
+ * and created again after, the procedures are created empty first and
+ * filled once the objects they use exist.
+ */
+public class SchemaComparer {
+
+    private static final String SERVER_NAMED_PREFIX = "INTEG_";
+
+    private static final String[] TYPES = {
+            SchemaModel.DOMAIN, SchemaModel.SEQUENCE, SchemaModel.EXCEPTION, SchemaModel.UDF,
+            SchemaModel.ROLE, SchemaModel.TABLE, SchemaModel.VIEW, SchemaModel.PROCEDURE,
+            SchemaModel.TRIGGER, SchemaModel.INDEX, SchemaModel.PRIMARY_KEY, SchemaModel.UNIQUE,
+            SchemaModel.FOREIGN_KEY, SchemaModel.CHECK};
+
+    private static final String[] LABELS = {
+            "Domains", "Generators", "Exceptions", "UDFs",
+            "Roles", "Tables", "Views", "Procedures",
+            "Triggers", "Indices", "Primary keys", "Uniques",
+            "Foreign keys", "Checks"};
+
+    private final SchemaModel source;
+
+    private final SchemaModel target;
+
+    private final Set<String> types;
+
+    private final Map<String, List<SchemaObject>> created = new HashMap<String, List<SchemaObject>>();
+
+    private final Map<String, List<SchemaObject[]>> altered = new HashMap<String, List<SchemaObject[]>>();
+
+    private final Map<String, List<SchemaObject>> dropped = new HashMap<String, List<SchemaObject>>();
+
+    private final List<Callable<String>> parts = new ArrayList<Callable<String>>();
+
+    private final List<String> script = new ArrayList<String>();
+
+    /**
+     * Creates a comparer of the specified models.
+     *
+     * @param source the model compared with, the example
+     * @param target the model altered by the script
+     * @param types  the object types compared
+     */
+    public SchemaComparer(SchemaModel source, SchemaModel target, Set<String> types) {
+
+        this.source = source;
+        this.target = target;
+        this.types = types;
+    }
+
+    /**
+     * Reads the models of the specified connections concurrently.
+     *
+     * @return the source and target models in that order
+     */
+    public static SchemaModel[] extract(DatabaseConnection source, DatabaseConnection target) throws SQLException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+
+            Future<SchemaModel> sourceModel = executor.submit(extractor(source));
+            Future<SchemaModel> targetModel = executor.submit(extractor(target));
+
+            return new SchemaModel[]{get(sourceModel), get(targetModel)};
+
+        } finally {
+
+            executor.shutdownNow();
+        }
+
+    }
+
+    private static Callable<SchemaModel> extractor(final DatabaseConnection databaseConnection) {
+
+        return new Callable<SchemaModel>() {
+
+            public SchemaModel call() throws SQLException {
+
+                return new SchemaExtractor(databaseConnection).extract();
+            }
+
+        };
+    }
+
+    private static <T> T get(Future<T> future) throws SQLException {
+
+        try {
+
+            return future.get();
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new SQLException("Schema comparison interrupted");
+
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof SQLException) {
+
+                throw (SQLException) e.getCause();
+            }
+
+            throw new SQLException(e.getCause());
+        }
+
+    }
+
+    /**
+     * Compares the models and builds the script.
+     */
+    public void compare() throws SQLException {
+
+        long start = System.currentTimeMillis();
+
+        for (String type : TYPES) {
+
+            if (types.contains(type)) {
+
+                diff(type);
+            }
+
+        }
+
+        Set<String> rekeyedTables = new HashSet<String>();
+        for (SchemaObject key : dropping(SchemaModel.PRIMARY_KEY, SchemaModel.UNIQUE)) {
+
+            rekeyedTables.add(key.get("relation"));
+        }
+
+        // unchanged foreign keys referencing a key dropped are dropped and added again
+        List<SchemaObject> foreignKeysDropped = dropping(SchemaModel.FOREIGN_KEY);
+        List<SchemaObject> foreignKeysAdded = creating(SchemaModel.FOREIGN_KEY);
+        if (types.contains(SchemaModel.FOREIGN_KEY)) {
+
+            for (SchemaObject foreignKey : target.getObjects(SchemaModel.FOREIGN_KEY)) {
+
+                if (rekeyedTables.contains(foreignKey.get("references"))
+                        && !foreignKeysDropped.contains(foreignKey)) {
+
+                    foreignKeysDropped.add(foreignKey);
+                    foreignKeysAdded.add(foreignKey);
+                }
+
+            }
+
+        }
+
+        phase("Dropping Foreign Keys", foreignKeysDropped, DROP_CONSTRAINT);
+        phase("Dropping Checks", dropping(SchemaModel.CHECK), DROP_CONSTRAINT);
+        phase("Dropping Uniques", dropping(SchemaModel.UNIQUE), DROP_CONSTRAINT);
+        phase("Dropping Primary Keys", dropping(SchemaModel.PRIMARY_KEY), DROP_CONSTRAINT);
+        phase("Dropping Indices", droppingIndices(), DROP);
+        phase("Dropping Triggers", dropping(SchemaModel.TRIGGER), DROP);
+        phase("Clearing Procedures", dropping(SchemaModel.PROCEDURE), EMPTY_PROCEDURE);
+        phase("Dropping Views", dependencyOrder(dropping(SchemaModel.VIEW), target, true), DROP);
+
+        phase("Creating Roles", list(created, SchemaModel.ROLE), CREATE_ROLE);
+        phase("Creating Exceptions", list(created, SchemaModel.EXCEPTION), CREATE_EXCEPTION);
+        alterPhase("Altering Exceptions", SchemaModel.EXCEPTION, ALTER_EXCEPTION);
+        phase("Creating Generators", list(created, SchemaModel.SEQUENCE), CREATE_SEQUENCE);
+        alterPhase("Altering Generators", SchemaModel.SEQUENCE, ALTER_SEQUENCE);
+        phase("Creating UDFs", list(created, SchemaModel.UDF), CREATE_UDF);
+        alterPhase("Altering UDFs", SchemaModel.UDF, ALTER_UDF);
+        phase("Creating Domains", list(created, SchemaModel.DOMAIN), CREATE_DOMAIN);
+        alterPhase("Altering Domains", SchemaModel.DOMAIN, ALTER_DOMAIN);
+
+        phase("Creating Procedures", creating(SchemaModel.PROCEDURE), EMPTY_PROCEDURE);
+        phase("Creating Tables", list(created, SchemaModel.TABLE), CREATE_TABLE);
+        alterPhase("Altering Tables", SchemaModel.TABLE, ALTER_TABLE);
+        phase("Dropping Tables", list(dropped, SchemaModel.TABLE), DROP);
+
+        phase("Creating Views", dependencyOrder(creating(SchemaModel.VIEW), source, false), CREATE_VIEW);
+        phase("Filling Procedures", creating(SchemaModel.PROCEDURE), CREATE_PROCEDURE);
+        phase("Creating Triggers", creating(SchemaModel.TRIGGER), CREATE_TRIGGER);
+
+        phase("Creating Primary Keys", creating(SchemaModel.PRIMARY_KEY), CREATE_PRIMARY_KEY);
+        phase("Creating Uniques", creating(SchemaModel.UNIQUE), CREATE_UNIQUE);
+        phase("Creating Checks", creating(SchemaModel.CHECK), CREATE_CHECK);
+        phase("Creating Foreign Keys", foreignKeysAdded, CREATE_FOREIGN_KEY);
+        phase("Creating Indices", creatingIndices(), CREATE_INDEX);
+        alterPhase("Altering Indices", SchemaModel.INDEX, ACTIVATE_INDEX);
+
+        phase("Dropping Procedures", list(dropped, SchemaModel.PROCEDURE), DROP);
+        phase("Dropping Domains", list(dropped, SchemaModel.DOMAIN), DROP);
+        phase("Dropping UDFs", list(dropped, SchemaModel.UDF), DROP_UDF);
+        phase("Dropping Exceptions", list(dropped, SchemaModel.EXCEPTION), DROP);
+        phase("Dropping Generators", list(dropped, SchemaModel.SEQUENCE), DROP);
+        phase("Dropping Roles", list(dropped, SchemaModel.ROLE), DROP);
+
+        generate();
+
+        Log.info("Schemas of " + source.getSource() + " and " + target.getSource()
+                + " compared in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public SchemaModel getTarget() {
+
+        return target;
+    }
+
+    /**
+     * Returns the statements of the script built.
+     */
+    public List<String> getScript() {
+
+        return script;
+    }
+
+    /**
+     * Returns the objects created, altered and dropped by the script, by type.
+     */
+    public String getSummary() {
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < TYPES.length; i++) {
+
+            appendSummary(sb, LABELS[i] + " to create", list(created, TYPES[i]));
+
+            List<SchemaObject> alteredObjects = new ArrayList<SchemaObject>();
+            for (SchemaObject[] pair : list(altered, TYPES[i])) {
+
+                alteredObjects.add(pair[0]);
+            }
+            appendSummary(sb, LABELS[i] + " to alter", alteredObjects);
+
+            appendSummary(sb, LABELS[i] + " to drop", list(dropped, TYPES[i]));
+        }
+
+        return sb.toString();
+    }
+
+    private static void appendSummary(StringBuilder sb, String title, List<SchemaObject> objects) {
+
+        if (objects.isEmpty()) {
+
+            return;
+        }
+
+        sb.append("\n============= ").append(title).append(" =============\n\n");
+        for (SchemaObject object : objects) {
+
+            sb.append("   ").append(object.getName()).append("\n");
+        }
+
+    }
+
+    // matching
+
+    private void diff(String type) {
+
+        Map<String, SchemaObject> targetObjects = new LinkedHashMap<String, SchemaObject>();
+        for (SchemaObject object : target.getObjects(type)) {
+
+            targetObjects.put(matchKey(object), object);
+        }
+
+        List<SchemaObject> typeCreated = new ArrayList<SchemaObject>();
+        List<SchemaObject[]> typeAltered = new ArrayList<SchemaObject[]>();
+        for (SchemaObject object : source.getObjects(type)) {
+
+            SchemaObject targetObject = targetObjects.remove(matchKey(object));
+            if (targetObject == null) {
+
+                typeCreated.add(object);
+
+            } else if (!object.sameDefinition(targetObject)) {
+
+                typeAltered.add(new SchemaObject[]{object, targetObject});
+            }
+
+        }
+
+        created.put(type, typeCreated);
+        altered.put(type, typeAltered);
+        dropped.put(type, new ArrayList<SchemaObject>(targetObjects.values()));
+    }
+
+    /**
+     * Returns the key matching an object with the object of the other model,
+     * its definition for a constraint named by the server.
+     */
+    private static String matchKey(SchemaObject object) {
+
+        if (isServerNamed(object)) {
+
+            return '\u0000' + object.getSignature();
+        }
+
+        return object.getName();
+    }
+
+    private static boolean isServerNamed(SchemaObject object) {
+
+        String type = object.getType();
+        return (type.equals(SchemaModel.PRIMARY_KEY) || type.equals(SchemaModel.UNIQUE)
+                || type.equals(SchemaModel.FOREIGN_KEY) || type.equals(SchemaModel.CHECK))
+                && object.getName().startsWith(SERVER_NAMED_PREFIX);
+    }
+
+    private static <T> List<T> list(Map<String, List<T>> objects, String type) {
+
+        List<T> list = objects.get(type);
+        return list != null ? list : new ArrayList<T>();
+    }
+
+    /**
+     * Returns the target objects of the specified types dropped or altered.
+     */
+    private List<SchemaObject> dropping(String... objectTypes) {
+
+        List<SchemaObject> objects = new ArrayList<SchemaObject>();
+        for (String type : objectTypes) {
+
+            for (SchemaObject[] pair : list(altered, type)) {
+
+                objects.add(pair[1]);
+            }
+            objects.addAll(list(dropped, type));
+        }
+
+        return objects;
+    }
+
+    /**
+     * Returns the source objects of the specified type created or altered.
+     */
+    private List<SchemaObject> creating(String type) {
+
+        List<SchemaObject> objects = new ArrayList<SchemaObject>(list(created, type));
+        objects.addAll(altering(type));
+        return objects;
+    }
+
+    private List<SchemaObject> altering(String type) {
+
+        List<SchemaObject> objects = new ArrayList<SchemaObject>();
+        for (SchemaObject[] pair : list(altered, type)) {
+
+            objects.add(pair[0]);
+        }
+
+        return objects;
+    }
+
+    private List<SchemaObject> droppingIndices() {
+
+        List<SchemaObject> indices = new ArrayList<SchemaObject>(list(dropped, SchemaModel.INDEX));
+        for (SchemaObject[] pair : list(altered, SchemaModel.INDEX)) {
+
+            if (!onlyActivationDiffers(pair[0], pair[1])) {
+
+                indices.add(pair[1]);
+            }
+
+        }
+
+        return indices;
+    }
+
+    private List<SchemaObject> creatingIndices() {
+
+        List<SchemaObject> indices = new ArrayList<SchemaObject>(list(created, SchemaModel.INDEX));
+        for (SchemaObject[] pair : list(altered, SchemaModel.INDEX)) {
+
+            if (!onlyActivationDiffers(pair[0], pair[1])) {
+
+                indices.add(pair[0]);
+            }
+
+        }
+
+        return indices;
+    }
+
+    private static boolean onlyActivationDiffers(SchemaObject index, SchemaObject targetIndex) {
+
+        return index.get("relation").equals(targetIndex.get("relation"))
+                && index.get("unique").equals(targetIndex.get("unique"))
+                && index.get("descending").equals(targetIndex.get("descending"))
+                && index.get("expression").equals(targetIndex.get("expression"))
+                && index.get("fields").equals(targetIndex.get("fields"));
+    }
+
+    /**
+     * Orders the specified views after the views they use, or before
+     * them when dropped.
+     */
+    private static List<SchemaObject> dependencyOrder(List<SchemaObject> views, SchemaModel model, boolean dropping) {
+
+        Map<String, SchemaObject> byName = new LinkedHashMap<String, SchemaObject>();
+        for (SchemaObject view : views) {
+
+            byName.put(view.getName(), view);
+        }
+
+        List<SchemaObject> ordered = new ArrayList<SchemaObject>();
+        Set<String> visited = new HashSet<String>();
+        for (SchemaObject view : views) {
+
+            visit(view, byName, model, visited, ordered);
+        }
+
+        if (dropping) {
+
+            Collections.reverse(ordered);
+        }
+
+        return ordered;
+    }
+
+    private static void visit(SchemaObject view, Map<String, SchemaObject> views,
+                              SchemaModel model, Set<String> visited, List<SchemaObject> ordered) {
+
+        if (!visited.add(view.getName())) {
+
+            return;
+        }
+
+        SchemaObject modelView = model.get(SchemaModel.VIEW, view.getName());
+        if (modelView != null) {
+
+            for (String dependency : modelView.getDependencies()) {
+
+                SchemaObject used = views.get(dependency);
+                if (used != null) {
+
+                    visit(used, views, model, visited, ordered);
+                }
+
+            }
+
+        }
+
+        ordered.add(view);
+    }
+
+    // script
+
+    private void phase(String title, Collection<SchemaObject> objects, final Ddl ddl) {
+
+        if (objects.isEmpty()) {
+
+            return;
+        }
+
+        parts.add(constant("/* " + title + " */\n\n"));
+        for (final SchemaObject object : objects) {
+
+            parts.add(new Callable<String>() {
+
+                public String call() {
+
+                    return ddl.generate(object, null);
+                }
+
+            });
+        }
+
+    }
+
+    private void alterPhase(String title, String type, final Ddl ddl) {
+
+        List<SchemaObject[]> pairs = list(altered, type);
+        if (pairs.isEmpty()) {
+
+            return;
+        }
+
+        parts.add(constant("/* " + title + " */\n\n"));
+        for (final SchemaObject[] pair : pairs) {
+
+            parts.add(new Callable<String>() {
+
+                public String call() {
+
+                    return ddl.generate(pair[0], pair[1]);
+                }
+
+            });
+        }
+
+    }
+
+    private static Callable<String> constant(final String text) {
+
+        return new Callable<String>() {
+
+            public String call() {
+
+                return text;
+            }
+
+        };
+    }
+
+    /**
+     * Generates the DDL of the script parts on all processors and
+     * adds it to the script in order.
+     */
+    private void generate() throws SQLException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+
+            for (Future<String> part : executor.invokeAll(parts)) {
+
+                String text = get(part);
+                if (text.length() > 0) {
+
+                    script.add(text);
+                }
+
+            }
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new SQLException("Schema comparison interrupted");
+
+        } finally {
+
+            executor.shutdownNow();
+            parts.clear();
+        }
+
+    }
+
+    // DDL
+
+    private interface Ddl {
+
+        /**
+         * Returns the DDL of the specified object, the target object
+         * is the object altered or null.
+         */
+        String generate(SchemaObject object, SchemaObject targetObject);
+    }
+
+    private static String quote(String name) {
+
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String literal(String value) {
+
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private static String keyword(SchemaObject object) {
+
+        String type = object.getType();
+        return type.equals(SchemaModel.SEQUENCE) ? "sequence" : type;
+    }
+
+    private static final Ddl DROP = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "drop " + keyword(object) + " " + quote(object.getName()) + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl DROP_UDF = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "drop external function " + quote(object.getName()) + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl DROP_CONSTRAINT = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "alter table " + quote(object.get("relation"))
+                    + " drop constraint " + quote(object.getName()) + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_ROLE = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "create role " + quote(object.getName()) + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_EXCEPTION = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "create exception " + quote(object.getName()) + " " + literal(object.get("message")) + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl ALTER_EXCEPTION = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "alter exception " + quote(object.getName()) + " " + literal(object.get("message")) + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_SEQUENCE = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "create sequence " + quote(object.getName()) + ";\n\n"
+                    + ALTER_SEQUENCE.generate(object, null);
+        }
+
+    };
+
+    private static final Ddl ALTER_SEQUENCE = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "alter sequence " + quote(object.getName())
+                    + " restart with " + (object.is("value") ? object.get("value") : "0") + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_UDF = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            StringBuilder sb = new StringBuilder("declare external function ").append(quote(object.getName()));
+            if (object.is("arguments")) {
+
+                sb.append("\n    ").append(object.get("arguments"));
+            }
+            sb.append("\nreturns ").append(object.get("returns"));
+            sb.append("\nentry_point ").append(literal(object.get("entry point")));
+            sb.append(" module_name ").append(literal(object.get("module"))).append(";\n\n");
+
+            return sb.toString();
+        }
+
+    };
+
+    private static final Ddl ALTER_UDF = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            if (!object.get("arguments").equals(targetObject.get("arguments"))
+                    || !object.get("returns").equals(targetObject.get("returns"))) {
+
+                return DROP_UDF.generate(targetObject, null) + CREATE_UDF.generate(object, null);
+            }
+
+            return "alter external function " + quote(object.getName())
+                    + "\nentry_point " + literal(object.get("entry point"))
+                    + " module_name " + literal(object.get("module")) + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_DOMAIN = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            StringBuilder sb = new StringBuilder("create domain ").append(quote(object.getName()))
+                    .append(" as ").append(object.get("type"));
+            append(sb, object.get("default"));
+            append(sb, object.is("not null") ? "not null" : "");
+            append(sb, object.get("check"));
+
+            return sb.append(";\n\n").toString();
+        }
+
+    };
+
+    private static final Ddl ALTER_DOMAIN = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            String domain = "alter domain " + quote(object.getName());
+            StringBuilder sb = new StringBuilder();
+
+            if (!object.get("type").equals(targetObject.get("type"))) {
+
+                sb.append(domain).append(" type ").append(object.get("type")).append(";\n\n");
+            }
+
+            if (!object.get("default").equals(targetObject.get("default"))) {
+
+                sb.append(domain).append(object.is("default")
+                        ? " set " + object.get("default")
+                        : " drop default").append(";\n\n");
+            }
+
+            if (object.is("not null") != targetObject.is("not null")) {
+
+                sb.append(domain).append(object.is("not null") ? " not null" : " null").append(";\n\n");
+            }
+
+            if (!object.get("check").equals(targetObject.get("check"))) {
+
+                if (targetObject.is("check")) {
+
+                    sb.append(domain).append(" drop constraint;\n\n");
+                }
+
+                if (object.is("check")) {
+
+                    sb.append(domain).append(" add ").append(object.get("check")).append(";\n\n");
+                }
+
+            }
+
+            return sb.toString();
+        }
+
+    };
+
+    private static void append(StringBuilder sb, String clause) {
+
+        if (clause.length() > 0) {
+
+            sb.append(" ").append(clause);
+        }
+
+    }
+
+    private static String columnDefinition(SchemaObject column) {
+
+        StringBuilder sb = new StringBuilder(quote(column.getName()));
+        if (column.is("computed")) {
+
+            sb.append(" computed by ").append(column.get("computed"));
+
+        } else {
+
+            append(sb, column.is("domain") ? column.get("domain") : column.get("type"));
+            append(sb, column.get("default"));
+            append(sb, column.is("not null") ? "not null" : "");
+        }
+
+        return sb.toString();
+    }
+
+    private static final Ddl CREATE_TABLE = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            StringBuilder sb = new StringBuilder(object.is("temporary")
+                    ? "create global temporary table "
+                    : "create table ");
+            sb.append(quote(object.getName())).append(" (");
+
+            List<SchemaObject> columns = object.getParts();
+            for (int i = 0; i < columns.size(); i++) {
+
+                sb.append(i > 0 ? ",\n      " : "\n      ").append(columnDefinition(columns.get(i)));
+            }
+            sb.append(")");
+
+            if (object.is("temporary")) {
+
+                sb.append("\n").append(object.get("temporary"));
+            }
+
+            return sb.append(";\n\n").toString();
+        }
+
+    };
+
+    private static final Ddl ALTER_TABLE = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            String table = "alter table " + quote(object.getName());
+            StringBuilder sb = new StringBuilder();
+
+            if (!object.get("temporary").equals(targetObject.get("temporary"))) {
+
+                sb.append("/* Table ").append(quote(object.getName()))
+                        .append(" must be created again to change its type */\n\n");
+            }
+
+            List<String> order = new ArrayList<String>();
+            for (SchemaObject targetColumn : targetObject.getParts()) {
+
+                SchemaObject column = object.getPart(targetColumn.getName());
+                if (column == null) {
+
+                    sb.append(table).append(" drop ").append(quote(targetColumn.getName())).append(";\n\n");
+                    continue;
+                }
+
+                order.add(column.getName());
+                if (column.sameDefinition(targetColumn)) {
+
+                    continue;
+                }
+
+                String alter = table + " alter " + quote(column.getName());
+                if (column.is("computed") != targetColumn.is("computed")) {
+
+                    sb.append(table).append(" drop ").append(quote(column.getName())).append(";\n\n");
+                    sb.append(table).append(" add ").append(columnDefinition(column)).append(";\n\n");
+                    order.remove(column.getName());
+                    order.add(column.getName());
+                    continue;
+                }
+
+                if (column.is("computed")) {
+
+                    sb.append(alter).append(" computed by ").append(column.get("computed")).append(";\n\n");
+                    continue;
+                }
+
+                String type = column.is("domain") ? column.get("domain") : column.get("type");
+                String targetType = targetColumn.is("domain") ? targetColumn.get("domain") : targetColumn.get("type");
+                if (!type.equals(targetType)) {
+
+                    sb.append(alter).append(" type ").append(type).append(";\n\n");
+                }
+
+                if (!column.get("default").equals(targetColumn.get("default"))) {
+
+                    sb.append(alter).append(column.is("default")
+                            ? " set " + column.get("default")
+                            : " drop default").append(";\n\n");
+                }
+
+                if (column.is("not null") != targetColumn.is("not null")) {
+
+                    sb.append(alter).append(column.is("not null") ? " not null" : " null").append(";\n\n");
+                }
+
+            }
+
+            for (SchemaObject column : object.getParts()) {
+
+                if (targetObject.getPart(column.getName()) == null) {
+
+                    sb.append(table).append(" add ").append(columnDefinition(column)).append(";\n\n");
+                    order.add(column.getName());
+                }
+
+            }
+
+            // positions from the first column out of place
+            List<SchemaObject> columns = object.getParts();
+            int first = 0;
+            while (first < columns.size() && first < order.size()
+                    && columns.get(first).getName().equals(order.get(first))) {
+
+                first++;
+            }
+
+            for (int i = first; i < columns.size() && order.size() == columns.size(); i++) {
+
+                sb.append(table).append(" alter ").append(quote(columns.get(i).getName()))
+                        .append(" position ").append(i + 1).append(";\n\n");
+            }
+
+            return sb.toString();
+        }
+
+    };
+
+    private static final Ddl CREATE_VIEW = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            StringBuilder sb = new StringBuilder("create or alter view ").append(quote(object.getName())).append(" (");
+
+            List<SchemaObject> columns = object.getParts();
+            for (int i = 0; i < columns.size(); i++) {
+
+                sb.append(i > 0 ? ", " : "").append(quote(columns.get(i).getName()));
+            }
+
+            return sb.append(")\nas\n").append(object.get("source")).append(";\n\n").toString();
+        }
+
+    };
+
+    private static String parameters(SchemaObject procedure) {
+
+        StringBuilder inputs = new StringBuilder();
+        StringBuilder outputs = new StringBuilder();
+        for (SchemaObject parameter : procedure.getParts()) {
+
+            StringBuilder sb = parameter.getType().equals("input") ? inputs : outputs;
+            sb.append(sb.length() > 0 ? ",\n      " : "\n      ").append(quote(parameter.getName()));
+            append(sb, parameter.is("domain") ? parameter.get("domain") : parameter.get("type"));
+            append(sb, parameter.is("not null") ? "not null" : "");
+            append(sb, parameter.get("default"));
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (inputs.length() > 0) {
+
+            sb.append(" (").append(inputs).append(") ");
+        }
+
+        if (outputs.length() > 0) {
+
+            sb.append("\nreturns (").append(outputs).append(") ");
+        }
+
+        return sb.toString();
+    }
+
+    private static final Ddl EMPTY_PROCEDURE = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "set term ^;\n\n" + "create or alter procedure " + quote(object.getName()) + parameters(object)
+                    + "\nas\n" + "begin\n"
+                    + "  /* Procedure Text */\n"
+                    + "  suspend;\n"
+                    + "end\n^\n\nset term ;^\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_PROCEDURE = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return "set term ^;\n\n" + "create or alter procedure " + quote(object.getName()) + parameters(object)
+                    + "\nas\n" + object.get("source") + "\n^\n\nset term ;^\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_TRIGGER = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            StringBuilder sb = new StringBuilder("set term ^;\n\n")
+                    .append("create or alter trigger ").append(quote(object.getName()));
+            if (object.is("relation")) {
+
+                sb.append(" for ").append(quote(object.get("relation")));
+            }
+
+            return sb.append("\n").append(object.is("inactive") ? "inactive" : "active")
+                    .append(" ").append(object.get("event"))
+                    .append(" position ").append(object.get("position"))
+                    .append("\n").append(object.get("source"))
+                    .append("\n^\n\nset term ;^\n\n").toString();
+        }
+
+    };
+
+    private static String addConstraint(SchemaObject object) {
+
+        StringBuilder sb = new StringBuilder("alter table ").append(quote(object.get("relation"))).append(" add ");
+        if (!isServerNamed(object)) {
+
+            sb.append("constraint ").append(quote(object.getName())).append(" ");
+        }
+
+        return sb.toString();
+    }
+
+    private static final Ddl CREATE_PRIMARY_KEY = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return addConstraint(object) + "primary key (" + object.get("fields") + ");\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_UNIQUE = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return addConstraint(object) + "unique (" + object.get("fields") + ");\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_CHECK = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            return addConstraint(object) + object.get("source") + ";\n\n";
+        }
+
+    };
+
+    private static final Ddl CREATE_FOREIGN_KEY = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            StringBuilder sb = new StringBuilder(addConstraint(object))
+                    .append("foreign key (").append(object.get("fields")).append(")\n")
+                    .append("references ").append(quote(object.get("references")))
+                    .append(" (").append(object.get("referenced fields")).append(")");
+            if (object.is("on delete")) {
+
+                sb.append("\non delete ").append(object.get("on delete"));
+            }
+            if (object.is("on update")) {
+
+                sb.append("\non update ").append(object.get("on update"));
+            }
+
+            return sb.append(";\n\n").toString();
+        }
+
+    };
+
+    private static final Ddl CREATE_INDEX = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            StringBuilder sb = new StringBuilder("create");
+            append(sb, object.is("unique") ? "unique" : "");
+            append(sb, object.is("descending") ? "descending" : "");
+            sb.append(" index ").append(quote(object.getName()))
+                    .append(" on ").append(quote(object.get("relation")));
+
+            if (object.is("expression")) {
+
+                sb.append(" computed by ").append(object.get("expression"));
+
+            } else {
+
+                sb.append(" (").append(object.get("fields")).append(")");
+            }
+            sb.append(";\n\n");
+
+            if (object.is("inactive")) {
+
+                sb.append("alter index ").append(quote(object.getName())).append(" inactive;\n\n");
+            }
+
+            return sb.toString();
+        }
+
+    };
+
+    private static final Ddl ACTIVATE_INDEX = new Ddl() {
+
+        public String generate(SchemaObject object, SchemaObject targetObject) {
+
+            if (!onlyActivationDiffers(object, targetObject)) {
+
+                return "";
+            }
+
+            return "alter index " + quote(object.getName())
+                    + (object.is("inactive") ? " inactive" : " active") + ";\n\n";
+        }
+
+    };
+
+}
@@ -0,0 +1,705 @@
+package org.executequery.gui.browser.comparer;
+
+import org.executequery.databasemediators.DatabaseConnection;
+import org.executequery.databasemediators.spi.DefaultStatementExecutor;
+import org.executequery.databasemediators.spi.StatementExecutor;
+import org.executequery.log.Log;
+import org.executequery.sql.SqlStatementResult;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the user objects of a database into a {@link SchemaModel} with
+ * one catalog query per object kind - the columns, parameters, arguments
+ * and index segments of all the objects are read by a single query each.
+ */
+public class SchemaExtractor {
+
+    /**
+     * the number of sequences whose values are read by one query
+     */
+    private static final int SEQUENCE_BATCH = 100;
+
+    private final DatabaseConnection databaseConnection;
+
+    private StatementExecutor executor;
+
+    public SchemaExtractor(DatabaseConnection databaseConnection) {
+
+        this.databaseConnection = databaseConnection;
+    }
+
+    /**
+     * Reads the model of the database.
+     */
+    public SchemaModel extract() throws SQLException {
+
+        long start = System.currentTimeMillis();
+
+        SchemaModel model = new SchemaModel(databaseConnection.getName());
+        executor = new DefaultStatementExecutor(databaseConnection, true);
+        try {
+
+            readDatabase(model);
+            readDomains(model);
+            readSequences(model);
+            readExceptions(model);
+            readUdfs(model);
+            readRoles(model);
+
+            Map<String, List<String>> segments = readIndexSegments();
+            readTables(model);
+            readViews(model);
+            readProcedures(model);
+            readTriggers(model);
+            readIndices(model, segments);
+            readKeys(model, segments);
+            readChecks(model);
+
+        } finally {
+
+            executor.releaseResources();
+        }
+
+        Log.info("Schema of " + databaseConnection.getName() + " read in "
+                + (System.currentTimeMillis() - start) + " ms");
+
+        return model;
+    }
+
+    private void readDatabase(final SchemaModel model) throws SQLException {
+
+        query("select rdb$database.rdb$character_set_name,\n"
+                + "       mon$database.mon$sql_dialect\n"
+                + "from rdb$database, mon$database", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                model.setCharacterSet(rs.getString(1));
+                model.setDialect(rs.getString(2));
+            }
+
+        });
+    }
+
+    private void readDomains(final SchemaModel model) throws SQLException {
+
+        query("select rdb$fields.rdb$field_name,\n"
+                + "       rdb$fields.rdb$field_type,\n"
+                + "       rdb$fields.rdb$character_length,\n"
+                + "       rdb$fields.rdb$field_sub_type,\n"
+                + "       rdb$fields.rdb$segment_length,\n"
+                + "       rdb$fields.rdb$field_precision,\n"
+                + "       abs(rdb$fields.rdb$field_scale),\n"
+                + "       rdb$fields.rdb$default_source,\n"
+                + "       rdb$fields.rdb$null_flag,\n"
+                + "       rdb$fields.rdb$validation_source\n"
+                + "from rdb$fields\n"
+                + "where (rdb$fields.rdb$system_flag = 0) and (rdb$fields.rdb$field_name not starting with 'RDB$')\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject domain = new SchemaObject(SchemaModel.DOMAIN, name(rs, 1));
+                domain.set("type", dataType(rs, 2));
+                domain.set("default", rs.getString(8));
+                domain.set("not null", flag(rs, 9));
+                domain.set("check", rs.getString(10));
+                model.add(domain);
+            }
+
+        });
+    }
+
+    private void readSequences(final SchemaModel model) throws SQLException {
+
+        final List<SchemaObject> sequences = new ArrayList<SchemaObject>();
+        query("select rdb$generators.rdb$generator_name\n"
+                + "from rdb$generators\n"
+                + "where rdb$generators.rdb$system_flag = 0\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject sequence = new SchemaObject(SchemaModel.SEQUENCE, name(rs, 1));
+                sequences.add(sequence);
+                model.add(sequence);
+            }
+
+        });
+
+        // gen_id takes a sequence name, the values are read by batches of a union
+        for (int i = 0; i < sequences.size(); i += SEQUENCE_BATCH) {
+
+            StringBuilder sb = new StringBuilder();
+            for (int j = i; j < Math.min(i + SEQUENCE_BATCH, sequences.size()); j++) {
+
+                if (j > i) {
+
+                    sb.append("\nunion all\n");
+                }
+
+                String name = sequences.get(j).getName();
+                sb.append("select ").append(j).append(", gen_id(\"")
+                        .append(name.replace("\"", "\"\"")).append("\", 0) from rdb$database");
+            }
+
+            query(sb.toString(), new RowReader() {
+
+                public void read(ResultSet rs) throws SQLException {
+
+                    sequences.get(rs.getInt(1)).set("value", rs.getString(2));
+                }
+
+            });
+        }
+
+    }
+
+    private void readExceptions(final SchemaModel model) throws SQLException {
+
+        query("select rdb$exceptions.rdb$exception_name,\n"
+                + "       rdb$exceptions.rdb$message\n"
+                + "from rdb$exceptions\n"
+                + "where rdb$exceptions.rdb$system_flag = 0\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject exception = new SchemaObject(SchemaModel.EXCEPTION, name(rs, 1));
+                exception.set("message", rs.getString(2));
+                model.add(exception);
+            }
+
+        });
+    }
+
+    private void readUdfs(final SchemaModel model) throws SQLException {
+
+        final Map<String, String> returnArguments = new HashMap<String, String>();
+        query("select rdb$functions.rdb$function_name,\n"
+                + "       rdb$functions.rdb$module_name,\n"
+                + "       rdb$functions.rdb$entrypoint,\n"
+                + "       rdb$functions.rdb$return_argument\n"
+                + "from rdb$functions\n"
+                + "where rdb$functions.rdb$system_flag = 0 and rdb$functions.rdb$module_name is not null\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject udf = new SchemaObject(SchemaModel.UDF, name(rs, 1));
+                udf.set("module", rs.getString(2));
+                udf.set("entry point", rs.getString(3));
+                returnArguments.put(udf.getName(), value(rs, 4, "0"));
+                model.add(udf);
+            }
+
+        });
+
+        final Map<String, List<String>> arguments = new HashMap<String, List<String>>();
+        query("select rdb$function_arguments.rdb$function_name,\n"
+                + "       rdb$function_arguments.rdb$argument_position,\n"
+                + "       rdb$function_arguments.rdb$field_type,\n"
+                + "       rdb$function_arguments.rdb$field_length,\n"
+                + "       rdb$function_arguments.rdb$field_sub_type,\n"
+                + "       0,\n"
+                + "       rdb$function_arguments.rdb$field_precision,\n"
+                + "       abs(rdb$function_arguments.rdb$field_scale),\n"
+                + "       rdb$function_arguments.rdb$mechanism\n"
+                + "from rdb$function_arguments\n"
+                + "order by 1, 2", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                String function = name(rs, 1);
+                SchemaObject udf = model.get(SchemaModel.UDF, function);
+                if (udf == null) {
+
+                    return;
+                }
+
+                String argument = "261".equals(value(rs, 3, "")) ? "blob" : dataType(rs, 3);
+                String mechanism = value(rs, 9, "");
+                boolean returned = value(rs, 2, "").equals(returnArguments.get(function));
+                if ("2".equals(mechanism)) {
+
+                    argument = argument + " by descriptor";
+
+                } else if (returned && "0".equals(mechanism)) {
+
+                    argument = argument + " by value";
+                }
+
+                if (returned) {
+
+                    udf.set("returns", argument);
+
+                } else {
+
+                    List<String> udfArguments = arguments.get(function);
+                    if (udfArguments == null) {
+
+                        udfArguments = new ArrayList<String>();
+                        arguments.put(function, udfArguments);
+                    }
+                    udfArguments.add(argument);
+                }
+
+            }
+
+        });
+
+        for (Map.Entry<String, List<String>> udfArguments : arguments.entrySet()) {
+
+            model.get(SchemaModel.UDF, udfArguments.getKey()).set("arguments", join(udfArguments.getValue()));
+        }
+
+    }
+
+    private void readRoles(final SchemaModel model) throws SQLException {
+
+        query("select rdb$roles.rdb$role_name\n"
+                + "from rdb$roles\n"
+                + "where rdb$roles.rdb$system_flag = 0\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                model.add(new SchemaObject(SchemaModel.ROLE, name(rs, 1)));
+            }
+
+        });
+    }
+
+    private Map<String, List<String>> readIndexSegments() throws SQLException {
+
+        final Map<String, List<String>> segments = new HashMap<String, List<String>>();
+        query("select rdb$index_segments.rdb$index_name,\n"
+                + "       rdb$index_segments.rdb$field_name\n"
+                + "from rdb$index_segments\n"
+                + "inner join rdb$indices on rdb$indices.rdb$index_name = rdb$index_segments.rdb$index_name\n"
+                + "where rdb$indices.rdb$system_flag = 0\n"
+                + "order by 1, rdb$index_segments.rdb$field_position", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                String index = name(rs, 1);
+                List<String> fields = segments.get(index);
+                if (fields == null) {
+
+                    fields = new ArrayList<String>();
+                    segments.put(index, fields);
+                }
+                fields.add("\"" + name(rs, 2) + "\"");
+            }
+
+        });
+
+        return segments;
+    }
+
+    private void readTables(final SchemaModel model) throws SQLException {
+
+        query("select rdb$relations.rdb$relation_name,\n"
+                + "       rdb$relations.rdb$relation_type,\n"
+                + "       rdb$relation_fields.rdb$field_name,\n"
+                + "       rdb$fields.rdb$field_type,\n"
+                + "       rdb$fields.rdb$character_length,\n"
+                + "       rdb$fields.rdb$field_sub_type,\n"
+                + "       rdb$fields.rdb$segment_length,\n"
+                + "       rdb$fields.rdb$field_precision,\n"
+                + "       abs(rdb$fields.rdb$field_scale),\n"
+                + "       rdb$relation_fields.rdb$field_source,\n"
+                + "       rdb$relation_fields.rdb$default_source,\n"
+                + "       rdb$relation_fields.rdb$null_flag,\n"
+                + "       rdb$fields.rdb$computed_source\n"
+                + "from rdb$relations\n"
+                + "left join rdb$relation_fields on rdb$relation_fields.rdb$relation_name = rdb$relations.rdb$relation_name\n"
+                + "left join rdb$fields on rdb$fields.rdb$field_name = rdb$relation_fields.rdb$field_source\n"
+                + "where rdb$relations.rdb$system_flag = 0 and rdb$relations.rdb$view_blr is null\n"
+                + "order by 1, rdb$relation_fields.rdb$field_position", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                String name = name(rs, 1);
+                SchemaObject table = model.get(SchemaModel.TABLE, name);
+                if (table == null) {
+
+                    table = new SchemaObject(SchemaModel.TABLE, name);
+                    String relationType = value(rs, 2, "0");
+                    if ("4".equals(relationType)) {
+
+                        table.set("temporary", "on commit preserve rows");
+
+                    } else if ("5".equals(relationType)) {
+
+                        table.set("temporary", "on commit delete rows");
+                    }
+                    model.add(table);
+                }
+
+                if (rs.getString(3) == null) {
+
+                    return;
+                }
+
+                SchemaObject column = new SchemaObject("column", name(rs, 3));
+                String computed = rs.getString(13);
+                if (computed != null && computed.trim().length() > 0) {
+
+                    column.set("computed", computed);
+
+                } else {
+
+                    String source = name(rs, 10);
+                    if (source.startsWith("RDB$")) {
+
+                        column.set("type", dataType(rs, 4));
+
+                    } else {
+
+                        column.set("domain", "\"" + source + "\"");
+                    }
+                    column.set("default", rs.getString(11));
+                    column.set("not null", flag(rs, 12));
+                }
+
+                table.addPart(column);
+            }
+
+        });
+    }
+
+    private void readViews(final SchemaModel model) throws SQLException {
+
+        query("select rdb$relations.rdb$relation_name,\n"
+                + "       rdb$relations.rdb$view_source,\n"
+                + "       rdb$relation_fields.rdb$field_name\n"
+                + "from rdb$relations\n"
+                + "left join rdb$relation_fields on rdb$relation_fields.rdb$relation_name = rdb$relations.rdb$relation_name\n"
+                + "where rdb$relations.rdb$system_flag = 0 and rdb$relations.rdb$view_blr is not null\n"
+                + "order by 1, rdb$relation_fields.rdb$field_position", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                String name = name(rs, 1);
+                SchemaObject view = model.get(SchemaModel.VIEW, name);
+                if (view == null) {
+
+                    view = new SchemaObject(SchemaModel.VIEW, name);
+                    view.set("source", rs.getString(2));
+                    model.add(view);
+                }
+
+                if (rs.getString(3) != null) {
+
+                    view.addPart(new SchemaObject("column", name(rs, 3)));
+                }
+
+            }
+
+        });
+
+        query("select distinct rdb$dependencies.rdb$dependent_name,\n"
+                + "       rdb$dependencies.rdb$depended_on_name\n"
+                + "from rdb$dependencies\n"
+                + "inner join rdb$relations on rdb$relations.rdb$relation_name = rdb$dependencies.rdb$depended_on_name\n"
+                + "where rdb$dependencies.rdb$dependent_type = 1 and rdb$relations.rdb$view_blr is not null", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject view = model.get(SchemaModel.VIEW, name(rs, 1));
+                String dependency = name(rs, 2);
+                if (view != null && !view.getName().equals(dependency)) {
+
+                    view.getDependencies().add(dependency);
+                }
+
+            }
+
+        });
+    }
+
+    private void readProcedures(final SchemaModel model) throws SQLException {
+
+        query("select rdb$procedures.rdb$procedure_name,\n"
+                + "       rdb$procedures.rdb$procedure_source\n"
+                + "from rdb$procedures\n"
+                + "where rdb$procedures.rdb$system_flag = 0\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject procedure = new SchemaObject(SchemaModel.PROCEDURE, name(rs, 1));
+                procedure.set("source", rs.getString(2));
+                model.add(procedure);
+            }
+
+        });
+
+        query("select rdb$procedure_parameters.rdb$procedure_name,\n"
+                + "       rdb$procedure_parameters.rdb$parameter_name,\n"
+                + "       rdb$procedure_parameters.rdb$parameter_type,\n"
+                + "       rdb$fields.rdb$field_type,\n"
+                + "       rdb$fields.rdb$character_length,\n"
+                + "       rdb$fields.rdb$field_sub_type,\n"
+                + "       rdb$fields.rdb$segment_length,\n"
+                + "       rdb$fields.rdb$field_precision,\n"
+                + "       abs(rdb$fields.rdb$field_scale),\n"
+                + "       rdb$procedure_parameters.rdb$field_source,\n"
+                + "       rdb$procedure_parameters.rdb$null_flag,\n"
+                + "       rdb$procedure_parameters.rdb$default_source\n"
+                + "from rdb$procedure_parameters\n"
+                + "inner join rdb$fields on rdb$fields.rdb$field_name = rdb$procedure_parameters.rdb$field_source\n"
+                + "order by 1, 3, rdb$procedure_parameters.rdb$parameter_number", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject procedure = model.get(SchemaModel.PROCEDURE, name(rs, 1));
+                if (procedure == null) {
+
+                    return;
+                }
+
+                SchemaObject parameter = new SchemaObject(
+                        "0".equals(value(rs, 3, "0")) ? "input" : "output", name(rs, 2));
+                String source = name(rs, 10);
+                if (source.startsWith("RDB$")) {
+
+                    parameter.set("type", dataType(rs, 4));
+
+                } else {
+
+                    parameter.set("domain", "\"" + source + "\"");
+                }
+                parameter.set("not null", flag(rs, 11));
+                parameter.set("default", rs.getString(12));
+
+                procedure.addPart(parameter);
+            }
+
+        });
+    }
+
+    private void readTriggers(final SchemaModel model) throws SQLException {
+
+        query("select rdb$triggers.rdb$trigger_name,\n"
+                + "       rdb$triggers.rdb$relation_name,\n"
+                + "       rdb$triggers.rdb$trigger_sequence,\n"
+                + "       rdb$triggers.rdb$trigger_type,\n"
+                + "       rdb$triggers.rdb$trigger_inactive,\n"
+                + "       rdb$triggers.rdb$trigger_source\n"
+                + "from rdb$triggers\n"
+                + "left join rdb$check_constraints on rdb$check_constraints.rdb$trigger_name = rdb$triggers.rdb$trigger_name\n"
+                + "where rdb$triggers.rdb$system_flag = 0 and rdb$check_constraints.rdb$trigger_name is null\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject trigger = new SchemaObject(SchemaModel.TRIGGER, name(rs, 1));
+                trigger.set("relation", rs.getString(2));
+                trigger.set("position", value(rs, 3, "0"));
+                trigger.set("event", replaceCode.replaceTriggerType(value(rs, 4, "")));
+                trigger.set("inactive", flag(rs, 5));
+                trigger.set("source", rs.getString(6));
+                model.add(trigger);
+            }
+
+        });
+    }
+
+    private void readIndices(final SchemaModel model, final Map<String, List<String>> segments) throws SQLException {
+
+        query("select rdb$indices.rdb$index_name,\n"
+                + "       rdb$indices.rdb$relation_name,\n"
+                + "       rdb$indices.rdb$unique_flag,\n"
+                + "       rdb$indices.rdb$index_type,\n"
+                + "       rdb$indices.rdb$expression_source,\n"
+                + "       rdb$indices.rdb$index_inactive\n"
+                + "from rdb$indices\n"
+                + "left join rdb$relation_constraints on rdb$relation_constraints.rdb$index_name = rdb$indices.rdb$index_name\n"
+                + "where rdb$indices.rdb$system_flag = 0 and rdb$relation_constraints.rdb$index_name is null\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject index = new SchemaObject(SchemaModel.INDEX, name(rs, 1));
+                index.set("relation", rs.getString(2));
+                index.set("unique", flag(rs, 3));
+                index.set("descending", flag(rs, 4));
+                index.set("expression", rs.getString(5));
+                index.set("fields", join(segments.get(index.getName())));
+                index.set("inactive", flag(rs, 6));
+                model.add(index);
+            }
+
+        });
+    }
+
+    private void readKeys(final SchemaModel model, final Map<String, List<String>> segments) throws SQLException {
+
+        query("select rc.rdb$constraint_name,\n"
+                + "       rc.rdb$constraint_type,\n"
+                + "       rc.rdb$relation_name,\n"
+                + "       rc.rdb$index_name,\n"
+                + "       uq.rdb$relation_name,\n"
+                + "       uq.rdb$index_name,\n"
+                + "       ref.rdb$update_rule,\n"
+                + "       ref.rdb$delete_rule\n"
+                + "from rdb$relation_constraints rc\n"
+                + "inner join rdb$relations on rdb$relations.rdb$relation_name = rc.rdb$relation_name\n"
+                + "left join rdb$ref_constraints ref on ref.rdb$constraint_name = rc.rdb$constraint_name\n"
+                + "left join rdb$relation_constraints uq on uq.rdb$constraint_name = ref.rdb$const_name_uq\n"
+                + "where rdb$relations.rdb$system_flag = 0\n"
+                + "and rc.rdb$constraint_type in ('PRIMARY KEY', 'UNIQUE', 'FOREIGN KEY')\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                String constraintType = value(rs, 2, "");
+                String type = constraintType.equals("PRIMARY KEY") ? SchemaModel.PRIMARY_KEY
+                        : constraintType.equals("UNIQUE") ? SchemaModel.UNIQUE
+                        : SchemaModel.FOREIGN_KEY;
+
+                SchemaObject key = new SchemaObject(type, name(rs, 1));
+                key.set("relation", rs.getString(3));
+                key.set("fields", join(segments.get(name(rs, 4))));
+                if (type.equals(SchemaModel.FOREIGN_KEY)) {
+
+                    key.set("references", rs.getString(5));
+                    key.set("referenced fields", join(segments.get(name(rs, 6))));
+                    key.set("on update", rule(rs.getString(7)));
+                    key.set("on delete", rule(rs.getString(8)));
+                }
+                model.add(key);
+            }
+
+        });
+    }
+
+    private void readChecks(final SchemaModel model) throws SQLException {
+
+        query("select distinct rdb$relation_constraints.rdb$constraint_name,\n"
+                + "       rdb$relation_constraints.rdb$relation_name,\n"
+                + "       rdb$triggers.rdb$trigger_source\n"
+                + "from rdb$relation_constraints\n"
+                + "inner join rdb$check_constraints on rdb$check_constraints.rdb$constraint_name = rdb$relation_constraints.rdb$constraint_name\n"
+                + "inner join rdb$triggers on rdb$triggers.rdb$trigger_name = rdb$check_constraints.rdb$trigger_name\n"
+                + "where rdb$relation_constraints.rdb$constraint_type = 'CHECK' and rdb$triggers.rdb$trigger_type = 1\n"
+                + "order by 1", new RowReader() {
+
+            public void read(ResultSet rs) throws SQLException {
+
+                SchemaObject check = new SchemaObject(SchemaModel.CHECK, name(rs, 1));
+                check.set("relation", rs.getString(2));
+                check.set("source", rs.getString(3));
+                model.add(check);
+            }
+
+        });
+    }
+
+    private void query(String query, RowReader reader) throws SQLException {
+
+        SqlStatementResult result = executor.execute(query, true);
+        ResultSet rs = result.getResultSet();
+        if (rs == null) {
+
+            if (result.getSqlException() != null) {
+
+                throw result.getSqlException();
+            }
+
+            throw new SQLException(result.getErrorMessage());
+        }
+
+        try {
+
+            while (rs.next()) {
+
+                reader.read(rs);
+            }
+
+        } finally {
+
+            rs.close();
+            executor.releaseResources();
+        }
+
+    }
+
+    /**
+     * Returns the data type of the catalog columns starting at the specified
+     * one - the field type, character length, sub type, segment length,
+     * precision and scale columns in that order.
+     */
+    private static String dataType(ResultSet rs, int column) throws SQLException {
+
+        String type = value(rs, column, "");
+        return replaceCode.replaceType(type,
+                value(rs, column + 4, "0"),
+                value(rs, column + 5, "0"),
+                value(rs, column + 2, "0"))
+                + replaceCode.replaceFieldLen(type,
+                value(rs, column + 1, ""),
+                value(rs, column + 2, "0"),
+                value(rs, column + 3, ""));
+    }
+
+    private static String name(ResultSet rs, int column) throws SQLException {
+
+        return value(rs, column, "");
+    }
+
+    private static String value(ResultSet rs, int column, String defaultValue) throws SQLException {
+
+        String value = rs.getString(column);
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    private static String flag(ResultSet rs, int column) throws SQLException {
+
+        return "1".equals(value(rs, column, "")) ? "1" : null;
+    }
+
+    private static String rule(String rule) {
+
+        if (rule == null || rule.trim().equals("RESTRICT") || rule.trim().equals("NO ACTION")) {
+
+            return null;
+        }
+
+        return rule.trim().toLowerCase();
+    }
+
+    private static String join(List<String> values) {
+
+        if (values == null) {
+
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String value : values) {
+
+            if (sb.length() > 0) {
+
+                sb.append(", ");
+            }
+            sb.append(value);
+        }
+
+        return sb.toString();
+    }
+
+    private interface RowReader {
+
+        void read(ResultSet rs) throws SQLException;
+    }
+
+}
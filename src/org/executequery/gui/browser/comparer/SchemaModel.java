@@ -0,0 +1,243 @@
+package org.executequery.gui.browser.comparer;
+
+import org.executequery.util.SnapshotFile;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The user objects of a database read by a {@link SchemaExtractor},
+ * by type and name.
+ * <p/>
+ * A model may be written to a snapshot file and read back to compare
+ * a database with it without a connection to the database it was
+ * extracted from.
+ */
+public class SchemaModel {
+
+    public static final String DOMAIN = "domain";
+
+    public static final String SEQUENCE = "generator";
+
+    public static final String EXCEPTION = "exception";
+
+    public static final String UDF = "udf";
+
+    public static final String ROLE = "role";
+
+    public static final String TABLE = "table";
+
+    public static final String VIEW = "view";
+
+    public static final String PROCEDURE = "procedure";
+
+    public static final String TRIGGER = "trigger";
+
+    public static final String INDEX = "index";
+
+    public static final String PRIMARY_KEY = "primary key";
+
+    public static final String UNIQUE = "unique";
+
+    public static final String FOREIGN_KEY = "foreign key";
+
+    public static final String CHECK = "check";
+
+    private static final int MAGIC = 0x52534348;
+
+    private static final int VERSION = 1;
+
+    private final String source;
+
+    private final Map<String, Map<String, SchemaObject>> objects =
+            new HashMap<String, Map<String, SchemaObject>>();
+
+    private String characterSet = "";
+
+    private String dialect = "";
+
+    public SchemaModel(String source) {
+
+        this.source = source;
+    }
+
+    /**
+     * Returns the name of the connection the model was extracted from.
+     */
+    public String getSource() {
+
+        return source;
+    }
+
+    public String getCharacterSet() {
+
+        return characterSet;
+    }
+
+    void setCharacterSet(String characterSet) {
+
+        this.characterSet = characterSet != null ? characterSet.trim() : "";
+    }
+
+    public String getDialect() {
+
+        return dialect;
+    }
+
+    void setDialect(String dialect) {
+
+        this.dialect = dialect != null ? dialect.trim() : "";
+    }
+
+    void add(SchemaObject object) {
+
+        Map<String, SchemaObject> typeObjects = objects.get(object.getType());
+        if (typeObjects == null) {
+
+            typeObjects = new LinkedHashMap<String, SchemaObject>();
+            objects.put(object.getType(), typeObjects);
+        }
+
+        typeObjects.put(object.getName(), object);
+    }
+
+    public SchemaObject get(String type, String name) {
+
+        Map<String, SchemaObject> typeObjects = objects.get(type);
+        return typeObjects != null ? typeObjects.get(name) : null;
+    }
+
+    /**
+     * Returns the objects of the specified type in the order read.
+     */
+    public Collection<SchemaObject> getObjects(String type) {
+
+        Map<String, SchemaObject> typeObjects = objects.get(type);
+        return typeObjects != null
+                ? typeObjects.values()
+                : Collections.<SchemaObject>emptyList();
+    }
+
+    /**
+     * Writes the model to the specified snapshot file.
+     */
+    public void write(File file) throws IOException {
+
+        SnapshotFile.write(file, MAGIC, VERSION, new SnapshotFile.Contents() {
+
+            @Override
+            public void write(DataOutputStream out) throws IOException {
+
+                writeModel(out);
+            }
+
+        });
+    }
+
+    private void writeModel(DataOutputStream out) throws IOException {
+
+        out.writeUTF(source);
+        out.writeUTF(characterSet);
+        out.writeUTF(dialect);
+
+        out.writeInt(objects.size());
+        for (Map.Entry<String, Map<String, SchemaObject>> typeObjects : objects.entrySet()) {
+
+            out.writeUTF(typeObjects.getKey());
+            out.writeInt(typeObjects.getValue().size());
+            for (SchemaObject object : typeObjects.getValue().values()) {
+
+                writeObject(out, object);
+            }
+
+        }
+
+    }
+
+    /**
+     * Reads the model of the specified snapshot file.
+     */
+    public static SchemaModel read(File file) throws IOException {
+
+        DataInputStream in = SnapshotFile.open(file, MAGIC, VERSION);
+        try {
+
+            SchemaModel model = new SchemaModel(in.readUTF());
+            model.setCharacterSet(in.readUTF());
+            model.setDialect(in.readUTF());
+
+            for (int i = 0, types = in.readInt(); i < types; i++) {
+
+                in.readUTF();
+                for (int j = 0, count = in.readInt(); j < count; j++) {
+
+                    model.add(readObject(in));
+                }
+
+            }
+
+            return model;
+
+        } finally {
+
+            in.close();
+        }
+
+    }
+
+    private static void writeObject(DataOutputStream out, SchemaObject object) throws IOException {
+
+        out.writeUTF(object.getType());
+        out.writeUTF(object.getName());
+
+        out.writeInt(object.getProperties().size());
+        for (Map.Entry<String, String> property : object.getProperties().entrySet()) {
+
+            out.writeUTF(property.getKey());
+            SnapshotFile.writeString(out, property.getValue());
+        }
+
+        out.writeInt(object.getDependencies().size());
+        for (String dependency : object.getDependencies()) {
+
+            out.writeUTF(dependency);
+        }
+
+        out.writeInt(object.getParts().size());
+        for (SchemaObject part : object.getParts()) {
+
+            writeObject(out, part);
+        }
+
+    }
+
+    private static SchemaObject readObject(DataInputStream in) throws IOException {
+
+        SchemaObject object = new SchemaObject(in.readUTF(), in.readUTF());
+
+        for (int i = 0, count = in.readInt(); i < count; i++) {
+
+            object.set(in.readUTF(), SnapshotFile.readString(in));
+        }
+
+        for (int i = 0, count = in.readInt(); i < count; i++) {
+
+            object.getDependencies().add(in.readUTF());
+        }
+
+        for (int i = 0, count = in.readInt(); i < count; i++) {
+
+            object.addPart(readObject(in));
+        }
+
+        return object;
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.executequery.gui.browser.comparer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A schema object of a {@link SchemaModel} - its properties as read from
+ * the catalog and its ordered parts, the columns of a table or the
+ * parameters of a procedure.
+ * <p/>
+ * Two objects have the same definition when their signatures - the
+ * properties and parts written in order - are equal, the objects the
+ * object depends on are not part of its definition.
+ */
+public class SchemaObject {
+
+    private final String type;
+
+    private final String name;
+
+    private final Map<String, String> properties = new LinkedHashMap<String, String>();
+
+    private final List<SchemaObject> parts = new ArrayList<SchemaObject>();
+
+    private final List<String> dependencies = new ArrayList<String>();
+
+    private String signature;
+
+    public SchemaObject(String type, String name) {
+
+        this.type = type;
+        this.name = name;
+    }
+
+    public String getType() {
+
+        return type;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * Returns the specified property, an empty string if not set.
+     */
+    public String get(String key) {
+
+        String value = properties.get(key);
+        return value != null ? value : "";
+    }
+
+    public boolean is(String key) {
+
+        return properties.containsKey(key);
+    }
+
+    /**
+     * Sets the specified property trimmed, an empty or null value
+     * removes it.
+     */
+    public void set(String key, String value) {
+
+        if (value != null) {
+
+            value = value.replace("\r", "").trim();
+        }
+
+        if (value == null || value.length() == 0) {
+
+            properties.remove(key);
+
+        } else {
+
+            properties.put(key, value);
+        }
+
+        signature = null;
+    }
+
+    Map<String, String> getProperties() {
+
+        return properties;
+    }
+
+    public List<SchemaObject> getParts() {
+
+        return parts;
+    }
+
+    public SchemaObject getPart(String partName) {
+
+        for (SchemaObject part : parts) {
+
+            if (part.getName().equals(partName)) {
+
+                return part;
+            }
+
+        }
+
+        return null;
+    }
+
+    public void addPart(SchemaObject part) {
+
+        parts.add(part);
+        signature = null;
+    }
+
+    /**
+     * Returns the names of the objects of the same type this object depends on.
+     */
+    public List<String> getDependencies() {
+
+        return dependencies;
+    }
+
+    /**
+     * Returns the properties and parts of this object written in order,
+     * the name of the object itself is not part of it.
+     */
+    public String getSignature() {
+
+        if (signature == null) {
+
+            StringBuilder sb = new StringBuilder();
+            appendSignature(sb);
+            signature = sb.toString();
+        }
+
+        return signature;
+    }
+
+    private void appendSignature(StringBuilder sb) {
+
+        sb.append(type).append('\u0000');
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+
+            sb.append(property.getKey()).append('=').append(property.getValue()).append('\u0000');
+        }
+
+        for (SchemaObject part : parts) {
+
+            sb.append('[').append(part.getName()).append('\u0000');
+            part.appendSignature(sb);
+            sb.append(']');
+        }
+
+    }
+
+    /**
+     * Returns whether the specified object has the same definition.
+     */
+    public boolean sameDefinition(SchemaObject object) {
+
+        return getSignature().hashCode() == object.getSignature().hashCode()
+                && getSignature().equals(object.getSignature());
+    }
+
+    @Override
+    public String toString() {
+
+        return name;
+    }
+
+}
@@ -33,15 +33,7 @@ public class FieldGenerator {
         return methodGeneratorPanel;
     }
 
-    public void setFirst() {
-        methodGeneratorPanel.setFirst();
-    }
-
     public void setMethodGeneratorPanel(MethodGeneratorPanel methodGeneratorPanel) {
         this.methodGeneratorPanel = methodGeneratorPanel;
     }
-
-    public Object getNextDataTestObject() {
-        return getMethodGeneratorPanel().getTestDataObject();
-    }
 }
@@ -5,6 +5,7 @@ import org.executequery.databaseobjects.DatabaseColumn;
 import org.executequery.gui.browser.GeneratorTestDataPanel;
 import org.executequery.gui.browser.generatortestdata.methodspanels.*;
 import org.executequery.log.Log;
+import org.executequery.testdata.ColumnGenerator;
 import org.underworldlabs.swing.layouts.GridBagHelper;
 
 import javax.swing.*;
@@ -101,16 +102,8 @@ public class MethodGeneratorPanel extends JPanel implements ActionListener {
         updateUI();
     }
 
-    public void setFirst() {
-        try {
-            methodPanel.setFirst(true);
-        } catch (NullPointerException e) {
-            Log.debug("methodPanel not exist");
-        }
-    }
-
-    public Object getTestDataObject() {
-        return methodPanel.getTestDataObject();
+    public ColumnGenerator createGenerator() {
+        return methodPanel.createGenerator();
     }
 
     private String bundledString(String key) {
@@ -2,6 +2,8 @@ package org.executequery.gui.browser.generatortestdata.methodspanels;
 
 import com.github.lgooddatepicker.components.DatePicker;
 import org.executequery.databaseobjects.DatabaseColumn;
+import org.executequery.testdata.ColumnGenerator;
+import org.underworldlabs.jdbc.DataSourceException;
 import org.underworldlabs.swing.DateDifferenceSetter;
 import org.underworldlabs.swing.EQDateTimePicker;
 import org.underworldlabs.swing.EQTimePicker;
@@ -10,13 +12,11 @@ import org.underworldlabs.swing.layouts.GridBagHelper;
 
 import javax.swing.*;
 import java.awt.*;
-import java.math.BigInteger;
-import java.sql.Date;
-import java.sql.Time;
-import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Period;
 
 public class AutoincrementPanel extends AbstractMethodPanel {
     private JPanel settingsPanel;
@@ -29,10 +29,6 @@ public class AutoincrementPanel extends AbstractMethodPanel {
     private DateDifferenceSetter iterationDate;
     private DatePicker startValueDate;
     private JComboBox plusMinusBox;
-    private long current_value;
-    private LocalDateTime current_date_time;
-    private BigInteger cur_bigint;
-    private double current_double;
 
     public AutoincrementPanel(DatabaseColumn col) {
         super(col);
@@ -148,113 +144,42 @@ public class AutoincrementPanel extends AbstractMethodPanel {
         add(new JPanel(), gbh.defaults().nextRowFirstCol().spanX().spanY().fillBoth().get());
     }
 
-    public Object getTestDataObject() {
-        if (col.getFormattedDataType().contentEquals("BIGINT")) {
-            if (first) {
-                cur_bigint = new BigInteger(startValueField.getText());
-                first = false;
-                return cur_bigint;
-            }
-            BigInteger iterationBig = new BigInteger(iterationField.getText());
-            if (plusMinusBox.getSelectedIndex() == 0)
-                cur_bigint = cur_bigint.add(iterationBig);
-            else cur_bigint = cur_bigint.subtract(iterationBig);
-            return cur_bigint;
+    @Override
+    public ColumnGenerator createGenerator() {
+        String type = col.getFormattedDataType();
+        boolean plus = plusMinusBox.getSelectedIndex() == 0;
+        if (type.contentEquals("BIGINT") || type.contentEquals("INTEGER") || type.contentEquals("SMALLINT")) {
+            long iteration = Long.parseLong(iterationField.getText());
+            return ColumnGenerator.sequence(type, Long.parseLong(startValueField.getText()), plus ? iteration : -iteration);
         }
-        if (col.getFormattedDataType().contentEquals("TIME")) {
-            if (first) {
-                current_date_time = startValueTime.getTime();
-                first = false;
-                return new Time(Timestamp.valueOf(current_date_time).getTime());
-            }
-            LocalTime iteration = iterationTime.getTime().toLocalTime();
-            if (plusMinusBox.getSelectedIndex() == 0) {
-                current_date_time = current_date_time.plusHours(iteration.getHour());
-                current_date_time = current_date_time.plusMinutes(iteration.getMinute());
-                current_date_time = current_date_time.plusSeconds(iteration.getSecond());
-                current_date_time = current_date_time.plusNanos(iteration.getNano());
-            } else {
-                current_date_time = current_date_time.minusHours(iteration.getHour());
-                current_date_time = current_date_time.minusMinutes(iteration.getMinute());
-                current_date_time = current_date_time.minusSeconds(iteration.getSecond());
-                current_date_time = current_date_time.minusNanos(iteration.getNano());
-            }
-            return new Time(Timestamp.valueOf(current_date_time).getTime());
+        if (type.contentEquals("DOUBLE PRECISION")
+                || type.contentEquals("FLOAT")
+                || type.startsWith("DECIMAL")
+                || type.startsWith("NUMERIC")) {
+            double iteration = Double.parseDouble(iterationField.getText());
+            return ColumnGenerator.sequence(Double.parseDouble(startValueField.getText()), plus ? iteration : -iteration);
         }
-        if (col.getFormattedDataType().contentEquals("DATE")) {
-            if (first) {
-                current_date_time = LocalDateTime.of(startValueDate.getDate(), LocalTime.of(0, 0, 0));
-                first = false;
-                return new Date(Timestamp.valueOf(current_date_time).getTime());
-            }
-            if (plusMinusBox.getSelectedIndex() == 0) {
-                current_date_time = current_date_time.plusYears(iterationDate.getYears());
-                current_date_time = current_date_time.plusDays(iterationDate.getDays());
-                current_date_time = current_date_time.plusMonths(iterationDate.getMouths());
-            } else {
-                current_date_time = current_date_time.minusYears(iterationDate.getYears());
-                current_date_time = current_date_time.minusDays(iterationDate.getDays());
-                current_date_time = current_date_time.minusMonths(iterationDate.getMouths());
-            }
-            return new Date(Timestamp.valueOf(current_date_time).getTime());
-        }
-        if (col.getFormattedDataType().contentEquals("TIMESTAMP")) {
-            if (first) {
-                current_date_time = startValueDateTime.getDateTime();
-                first = false;
-                return Timestamp.valueOf(current_date_time);
-            }
-            LocalTime iteration = iterationTime.getTime().toLocalTime();
-            if (plusMinusBox.getSelectedIndex() == 0) {
-                current_date_time = current_date_time.plusYears(iterationDate.getYears());
-                current_date_time = current_date_time.plusDays(iterationDate.getDays());
-                current_date_time = current_date_time.plusMonths(iterationDate.getMouths());
-                current_date_time = current_date_time.plusHours(iteration.getHour());
-                current_date_time = current_date_time.plusMinutes(iteration.getMinute());
-                current_date_time = current_date_time.plusSeconds(iteration.getSecond());
-                current_date_time = current_date_time.plusNanos(iteration.getNano());
-            } else {
-                current_date_time = current_date_time.minusYears(iterationDate.getYears());
-                current_date_time = current_date_time.minusDays(iterationDate.getDays());
-                current_date_time = current_date_time.minusMonths(iterationDate.getMouths());
-                current_date_time = current_date_time.minusHours(iteration.getHour());
-                current_date_time = current_date_time.minusMinutes(iteration.getMinute());
-                current_date_time = current_date_time.minusSeconds(iteration.getSecond());
-                current_date_time = current_date_time.minusNanos(iteration.getNano());
-            }
-            return Timestamp.valueOf(current_date_time);
 
+        LocalDateTime start;
+        Period period = Period.ZERO;
+        Duration duration = Duration.ZERO;
+        if (type.contentEquals("TIME")) {
+            start = startValueTime.getTime();
+        } else if (type.contentEquals("DATE")) {
+            start = LocalDateTime.of(startValueDate.getDate(), LocalTime.of(0, 0, 0));
+        } else if (type.contentEquals("TIMESTAMP")) {
+            start = startValueDateTime.getDateTime();
+        } else {
+            throw new DataSourceException("unsupported type " + type);
         }
-        if (col.getFormattedDataType().contentEquals("INTEGER") || col.getFormattedDataType().contentEquals("SMALLINT")) {
-            if (first) {
-                current_value = Long.parseLong(startValueField.getText());
-                first = false;
-                if (col.getFormattedDataType().contentEquals("SMALLINT"))
-                    return (short) current_value;
-                return (int) current_value;
-            }
-            if (plusMinusBox.getSelectedIndex() == 0)
-                current_value += Long.parseLong(iterationField.getText());
-            else current_value -= Long.parseLong(iterationField.getText());
-            if (col.getFormattedDataType().contentEquals("SMALLINT"))
-                return (short) current_value;
-            return (int) current_value;
-        }
-        if (col.getFormattedDataType().contentEquals("DOUBLE PRECISION")
-                || col.getFormattedDataType().contentEquals("FLOAT")
-                || col.getFormattedDataType().startsWith("DECIMAL")
-                || col.getFormattedDataType().startsWith("NUMERIC")) {
-            if (first) {
-                current_double = Double.parseDouble(startValueField.getText());
-                first = false;
-                return current_double;
-            }
-            if (plusMinusBox.getSelectedIndex() == 0)
-                current_double += Double.parseDouble(iterationField.getText());
-            else current_double -= Double.parseDouble(iterationField.getText());
-            return current_double;
+        if (iterationDate != null)
+            period = Period.of(iterationDate.getYears(), iterationDate.getMouths(), iterationDate.getDays());
+        if (iterationTime != null)
+            duration = Duration.ofNanos(iterationTime.getTime().toLocalTime().toNanoOfDay());
+        if (!plus) {
+            period = period.negated();
+            duration = duration.negated();
         }
-
-        return null;
+        return ColumnGenerator.sequence(type, start, period, duration);
     }
 }
@@ -4,6 +4,7 @@ import org.executequery.databaseobjects.DatabaseColumn;
 import org.executequery.gui.browser.GeneratorTestDataPanel;
 import org.executequery.gui.text.SimpleTextArea;
 import org.executequery.localization.Bundles;
+import org.executequery.testdata.ColumnGenerator;
 import org.underworldlabs.jdbc.DataSourceException;
 import org.underworldlabs.swing.layouts.GridBagHelper;
 
@@ -17,8 +18,6 @@ import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.file.Files;
@@ -26,7 +25,6 @@ import java.nio.file.Paths;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
-import java.util.Random;
 import java.util.regex.Pattern;
 
 public class GetFromListPanel extends AbstractMethodPanel {
@@ -39,7 +37,6 @@ public class GetFromListPanel extends AbstractMethodPanel {
     private JLabel labelFile;
     String[] list;
     private JTextField fileField;
-    int index;
     private JButton fileSelectButton;
 
 
@@ -123,48 +120,33 @@ public class GetFromListPanel extends AbstractMethodPanel {
     }
 
     @Override
-
-    public Object getTestDataObject() {
-        if (first) {
-            fillList();
-            first = false;
-            index = 0;
-        }
-        if (index >= list.length)
-            index = 0;
-        if (orderBox.getSelectedIndex() == 1) {
-            index = new Random().nextInt(list.length);
-        }
-        index++;
-        return listObject[index - 1];
-    }
-
-    private void fillList() {
+    public ColumnGenerator createGenerator() {
+        boolean random = orderBox.getSelectedIndex() == 1;
         if (col.getFormattedDataType().contains("BLOB")) {
             File directory = new File(fileField.getText());
             if (!directory.exists())
                 throw new DataSourceException("The selected directory does not exist.");
-            File[] files = directory.listFiles();
-            list = new String[files.length];
-            for (int i = 0; i < list.length; i++) {
-                list[i] = files[i].getAbsolutePath();
-            }
-        } else {
-            String delimiter = delimiterField.getText();
-            if (!delimiter.startsWith("\\"))
-                delimiter = Pattern.quote(delimiter);
-            if (sourceBox.getSelectedIndex() == 0)
-                list = textArea.getTextAreaComponent().getText().trim().split(delimiter);
-            else {
-                try {
-                    File file = new File(fileField.getText());
-                    if (!file.exists())
-                        throw new DataSourceException("The selected file does not exist.");
-                    String s = new String(Files.readAllBytes(Paths.get(fileField.getText())));
-                    list = s.trim().split(delimiter);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+            return ColumnGenerator.files(directory.listFiles(), random);
+        }
+        fillList();
+        return ColumnGenerator.list(listObject, random);
+    }
+
+    private void fillList() {
+        String delimiter = delimiterField.getText();
+        if (!delimiter.startsWith("\\"))
+            delimiter = Pattern.quote(delimiter);
+        if (sourceBox.getSelectedIndex() == 0)
+            list = textArea.getTextAreaComponent().getText().trim().split(delimiter);
+        else {
+            try {
+                File file = new File(fileField.getText());
+                if (!file.exists())
+                    throw new DataSourceException("The selected file does not exist.");
+                String s = new String(Files.readAllBytes(Paths.get(fileField.getText())));
+                list = s.trim().split(delimiter);
+            } catch (IOException e) {
+                e.printStackTrace();
             }
         }
         listObject = new Object[list.length];
@@ -201,13 +183,6 @@ public class GetFromListPanel extends AbstractMethodPanel {
         if (col.getFormattedDataType().contains("CHAR")) {
             return str;
         }
-        if (col.getFormattedDataType().contains("BLOB")) {
-            try {
-                return new FileInputStream(str);
-            } catch (FileNotFoundException e) {
-                e.printStackTrace();
-            }
-        }
         if (col.getFormattedDataType().contentEquals("BOOLEAN")) {
             return Boolean.valueOf(str);
         }
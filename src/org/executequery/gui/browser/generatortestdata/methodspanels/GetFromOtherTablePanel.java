@@ -7,6 +7,7 @@ import org.executequery.databaseobjects.DatabaseHost;
 import org.executequery.databaseobjects.NamedObject;
 import org.executequery.gui.browser.ConnectionsTreePanel;
 import org.executequery.sql.SqlStatementResult;
+import org.executequery.testdata.ColumnGenerator;
 import org.underworldlabs.swing.DynamicComboBoxModel;
 import org.underworldlabs.swing.NumberTextField;
 import org.underworldlabs.swing.layouts.GridBagHelper;
@@ -17,9 +18,7 @@ import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.Vector;
 
 public class GetFromOtherTablePanel extends AbstractMethodPanel {
@@ -29,8 +28,6 @@ public class GetFromOtherTablePanel extends AbstractMethodPanel {
     private JComboBox colBox;
     private DynamicComboBoxModel tableBoxModel;
     private DynamicComboBoxModel colBoxModel;
-    Random random;
-    private List<Object> objList;
 
     private void init() {
         setLayout(new GridBagLayout());
@@ -83,27 +80,9 @@ public class GetFromOtherTablePanel extends AbstractMethodPanel {
     }
 
     @Override
-    public Object getTestDataObject() {
-        if (first) {
-            first = false;
-            objList = new ArrayList<>();
-            String query = "Select first " + countRowsField.getStringValue() + " \n" + ((DatabaseColumn) colBox.getSelectedItem()).getName() + " from " + tableBox.getSelectedItem();
-            try {
-                ResultSet rs = executor.getResultSet(query).getResultSet();
-                random = new Random();
-                int count = countRowsField.getValue();
-                for (int i = 0; i < count && rs.next(); i++) {
-                    objList.add(rs.getObject(1));
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-                return null;
-            } finally {
-                executor.releaseResources();
-            }
-        }
-        int rand = random.nextInt(objList.size());
-        return objList.get(rand);
+    public ColumnGenerator createGenerator() {
+        return ColumnGenerator.reference((String) tableBox.getSelectedItem(),
+                ((DatabaseColumn) colBox.getSelectedItem()).getName(), countRowsField.getValue());
     }
 
     private Vector<String> fillTables() {
@@ -3,6 +3,7 @@ package org.executequery.gui.browser.generatortestdata.methodspanels;
 import com.github.lgooddatepicker.components.DatePicker;
 import org.executequery.databaseobjects.DatabaseColumn;
 import org.executequery.gui.text.SimpleTextArea;
+import org.executequery.testdata.ColumnGenerator;
 import org.underworldlabs.jdbc.DataSourceException;
 import org.underworldlabs.swing.EQDateTimePicker;
 import org.underworldlabs.swing.EQTimePicker;
@@ -11,14 +12,9 @@ import org.underworldlabs.swing.layouts.GridBagHelper;
 
 import javax.swing.*;
 import java.awt.*;
-import java.math.BigInteger;
-import java.sql.Date;
-import java.sql.Time;
-import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Random;
 
 public class RandomMethodPanel extends AbstractMethodPanel {
     private JPanel settingsPanel;
@@ -207,187 +203,50 @@ public class RandomMethodPanel extends AbstractMethodPanel {
 
     }
 
-    public Object getTestDataObject() {
-        if (nullBox.isSelected()) {
-            if (new Random().nextInt(10) == 0)
-                return null;
+    @Override
+    public ColumnGenerator createGenerator() {
+        ColumnGenerator generator = createRandomGenerator();
+        if (nullBox.isSelected())
+            return ColumnGenerator.nullable(generator, 0.1);
+        return generator;
+    }
+
+    private ColumnGenerator createRandomGenerator() {
+        String type = col.getFormattedDataType();
+        if (type.contentEquals("BIGINT") || type.contentEquals("INTEGER") || type.contentEquals("SMALLINT")) {
+            return ColumnGenerator.numbers(type, Long.parseLong(minField.getText()), Long.parseLong(maxField.getText()));
         }
-        if (col.getFormattedDataType().contentEquals("BIGINT")) {
-            BigInteger bigint = new BigInteger(62, new Random());
-            BigInteger max = new BigInteger(maxField.getText());
-            BigInteger min = new BigInteger(minField.getText());
-            if (max.compareTo(min) == -1)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            BigInteger zero = new BigInteger("0");
-            BigInteger diapason;
-            if (min.compareTo(zero) < 0 && max.compareTo(zero) > 0) {
-                Random random = new Random();
-                int x = random.nextInt();
-                x = x % 2;
-                if (x == 0) {
-                    diapason = min.multiply(new BigInteger("-1"));
-                    bigint = bigint.mod(diapason).multiply(new BigInteger("-1"));
-                } else {
-                    diapason = max;
-                    bigint = bigint.mod(diapason);
-                }
-            } else {
-                diapason = max.subtract(min);
-                bigint = min.add(bigint.mod(diapason));
-            }
-            return bigint;
+        if (type.contentEquals("TIME")) {
+            return ColumnGenerator.times(minTime.getTime().toLocalTime(), maxTime.getTime().toLocalTime());
         }
-        if (col.getFormattedDataType().contentEquals("TIME")) {
-            long value = new Random().nextLong();
-            if (value < 0)
-                value *= -1;
-            long max = Timestamp.valueOf(maxTime.getTime()).getTime();
-            long min = Timestamp.valueOf(minTime.getTime()).getTime();
-            if (min > max)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            long diapason = max - min;
-            if (diapason == 0) {
-                value = max;
-            } else
-                value = (min + (value % diapason));
-            Timestamp v = new Timestamp(value);
-            Time t = new Time(v.getTime());
-            return t;
+        if (type.contentEquals("DATE")) {
+            return ColumnGenerator.dates(minDate.getDate(), maxDate.getDate());
         }
-        if (col.getFormattedDataType().contentEquals("DATE")) {
-            long value = new Random().nextLong();
-            if (value < 0)
-                value *= -1;
-            long max = maxDate.getDate().toEpochDay();
-            long min = minDate.getDate().toEpochDay();
-            if (min > max)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            long diapason = max - min;
-            if (diapason == 0) {
-                value = max;
-            } else
-                value = (min + (value % diapason));
-            LocalDate temp = LocalDate.of(1970, 1, 1);
-            temp = temp.plusDays(value);
-            Date date = Date.valueOf(temp);
-            return date;
+        if (type.contentEquals("TIMESTAMP")) {
+            return ColumnGenerator.timestamps(minDateTime.getDateTime(), maxDateTime.getDateTime());
         }
-        if (col.getFormattedDataType().contentEquals("TIMESTAMP")) {
-            long value = new Random().nextLong();
-            if (value < 0)
-                value *= -1;
-            long max = Timestamp.valueOf(maxDateTime.getStringValue()).getTime();
-            long min = Timestamp.valueOf(minDateTime.getStringValue()).getTime();
-            if (min > max)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            long diapason = max - min;
-            if (diapason == 0) {
-                value = max;
-            } else
-                value = (min + (value % diapason));
-            Timestamp v = new Timestamp(value);
-            Time t = new Time(v.getTime());
-            return t;
+        if (type.contentEquals("DOUBLE PRECISION")
+                || type.contentEquals("FLOAT")
+                || type.startsWith("DECIMAL")
+                || type.startsWith("NUMERIC")) {
+            return ColumnGenerator.decimals(Double.parseDouble(minField.getText()),
+                    Double.parseDouble(maxField.getText()), countSymbolsAfterComma.getValue());
         }
-        if (col.getFormattedDataType().contentEquals("INTEGER") || col.getFormattedDataType().contentEquals("SMALLINT")) {
-            long value = new Random().nextLong();
-            if (value < 0)
-                value *= -1;
-            long max = ((NumberTextField) maxField).getValue();
-            long min = ((NumberTextField) minField).getValue();
-            if (min > max)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            long diapason = max - min;
-            if (diapason == 0) {
-                value = max;
-            } else
-                value = (min + (value % diapason));
-            if (col.getFormattedDataType().contentEquals("SMALLINT"))
-                return (short) value;
-            return (int) value;
+        if (type.contains("CHAR")) {
+            String symbols = null;
+            if (useOnlyThisSymbolsBox.isSelected())
+                symbols = useOnlyThisSymbolsField.getTextAreaComponent().getText();
+            return ColumnGenerator.strings(((NumberTextField) minField).getValue(),
+                    ((NumberTextField) maxField).getValue(), symbols);
         }
-        if (col.getFormattedDataType().contentEquals("DOUBLE PRECISION")
-                || col.getFormattedDataType().contentEquals("FLOAT")
-                || col.getFormattedDataType().startsWith("DECIMAL")
-                || col.getFormattedDataType().startsWith("NUMERIC")) {
-            long value = new Random().nextLong();
-            if (value < 0)
-                value *= -1;
-            long power = (long) Math.pow(10, countSymbolsAfterComma.getLongValue());
-            long max = Long.parseLong(maxField.getText()) * power;
-            long min = Long.parseLong(minField.getText()) * power;
-            if (min > max)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            long diapason = max - min;
-            if (diapason == 0) {
-                value = max;
-            } else
-                value = (min + (value % diapason));
-            return ((double) value) / ((double) power);
-        }
-        if (col.getFormattedDataType().contains("CHAR")) {
-            long n = new Random().nextLong();
-            if (n < 0)
-                n *= -1;
-            long max = ((NumberTextField) maxField).getLongValue() + 1;
-            long min = ((NumberTextField) minField).getLongValue();
-            if (min > max)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            long diapason = max - min;
-            if (diapason == 0) {
-                n = max;
-            } else
-                n = (min + (n % diapason));
-            StringBuilder result = new StringBuilder();
-            if (useOnlyThisSymbolsBox.isSelected()) {
-                String charset = useOnlyThisSymbolsField.getTextAreaComponent().getText();
-                int length = charset.length();
-                for (int i = 0; i < n; i++) {
-                    int x = new Random().nextInt(length);
-                    result.append(charset.charAt(x));
-                }
-            } else {
-                for (int i = 0; i < n; i++) {
-                    int x = new Random().nextInt(127);
-                    result.append((char) x);
-                }
-            }
-            return result.toString();
-        }
-        if (col.getFormattedDataType().contains("BLOB")) {
-            int n = new Random().nextInt();
-            if (n < 0)
-                n *= -1;
-            int max = ((NumberTextField) maxField).getValue() + 1;
-            int min = ((NumberTextField) minField).getValue();
-            if (min > max)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            int diapason = max - min;
-            if (diapason == 0) {
-                n = max;
-            } else
-                n = (min + (n % diapason));
-            max = ((NumberTextField) maxByteField).getValue() + 1;
-            min = ((NumberTextField) minByteField).getValue();
-            if (min > max)
-                throw new DataSourceException("minimum greater than maximum for column \"" + col.getName() + "\"");
-            diapason = max - min;
-            byte[] bytes = new byte[n];
-            for (int i = 0; i < n; i++) {
-                if (diapason == 0)
-                    bytes[i] = (byte) max;
-                int x = new Random().nextInt();
-                if (x < 0)
-                    x *= -1;
-                x = min + (x % diapason);
-                bytes[i] = (byte) x;
-            }
-            return bytes;
+        if (type.contains("BLOB")) {
+            return ColumnGenerator.bytes(((NumberTextField) minField).getValue(), ((NumberTextField) maxField).getValue(),
+                    ((NumberTextField) minByteField).getValue(), ((NumberTextField) maxByteField).getValue());
         }
-        if (col.getFormattedDataType().contains("BOOLEAN")) {
-            return new Random().nextInt(2) == 1;
+        if (type.contains("BOOLEAN")) {
+            return ColumnGenerator.booleans();
         }
-        return null;
+        throw new DataSourceException("unsupported type " + type);
     }
 
 }
@@ -0,0 +1,181 @@
+package org.executequery.gui.browser.managment;
+
+import org.executequery.databasemediators.QueryTypes;
+import org.executequery.databasemediators.spi.StatementExecutor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The privileges of a grantee on every object and field of a database,
+ * read from <code>RDB$USER_PRIVILEGES</code> with a single query and
+ * indexed by object name, field name and privilege.
+ * <p/>
+ * Privileges are indexed as in the privilege codes string
+ * <code>SUDIXRGA</code>, each holding one of {@link #NONE},
+ * {@link #GRANTED} or {@link #GRANT_OPTION}.
+ */
+public class PrivilegeMatrix {
+
+    public static final String PRIVILEGES = "SUDIXRGA";
+
+    public static final int NONE = 0;
+
+    public static final int GRANTED = 1;
+
+    public static final int GRANT_OPTION = 2;
+
+    private final Map<String, ObjectPrivileges> objects = new HashMap<String, ObjectPrivileges>();
+
+    /**
+     * Reads the privileges of the specified grantee.
+     */
+    public static PrivilegeMatrix load(StatementExecutor executor, String grantee) throws SQLException {
+
+        String query = "select RDB$RELATION_NAME, RDB$FIELD_NAME, RDB$PRIVILEGE, RDB$GRANT_OPTION\n" +
+                "from RDB$USER_PRIVILEGES where RDB$USER = '" + grantee.replace("'", "''") + "'";
+
+        PrivilegeMatrix matrix = new PrivilegeMatrix();
+        try {
+
+            ResultSet rs = executor.execute(QueryTypes.SELECT, query, -1).getResultSet();
+            while (rs.next()) {
+
+                String object = rs.getString(1).trim();
+                String field = rs.getString(2);
+                int privilege = PRIVILEGES.indexOf(rs.getString(3).trim());
+                int grant = rs.getInt(4) != 0 ? GRANT_OPTION : GRANTED;
+
+                ObjectPrivileges privileges = matrix.objectPrivileges(object);
+                if (privilege >= 0) {
+
+                    byte[] states = field != null
+                            ? privileges.fieldStates(field.trim())
+                            : privileges.states;
+                    states[privilege] = (byte) Math.max(states[privilege], grant);
+                }
+
+            }
+            rs.close();
+
+        } finally {
+
+            executor.releaseResources();
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Returns whether the grantee holds any privilege on the specified
+     * object or any of its fields.
+     */
+    public boolean isGranted(String object) {
+
+        ObjectPrivileges privileges = objects.get(object);
+        if (privileges == null) {
+
+            return false;
+        }
+
+        if (isGranted(privileges.states)) {
+
+            return true;
+        }
+
+        for (byte[] states : privileges.fields.values()) {
+
+            if (isGranted(states)) {
+
+                return true;
+            }
+
+        }
+
+        return false;
+    }
+
+    public int getPrivilege(String object, int privilege) {
+
+        ObjectPrivileges privileges = objects.get(object);
+        return privileges != null ? privileges.states[privilege] : NONE;
+    }
+
+    public int getPrivilege(String object, String field, int privilege) {
+
+        ObjectPrivileges privileges = objects.get(object);
+        if (privileges != null) {
+
+            byte[] states = privileges.fields.get(field);
+            if (states != null) {
+
+                return states[privilege];
+            }
+
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Records a privilege granted or revoked after the matrix was read.
+     */
+    public void setPrivilege(String object, int privilege, int state) {
+
+        objectPrivileges(object).states[privilege] = (byte) state;
+    }
+
+    public void setPrivilege(String object, String field, int privilege, int state) {
+
+        objectPrivileges(object).fieldStates(field)[privilege] = (byte) state;
+    }
+
+    private static boolean isGranted(byte[] states) {
+
+        for (byte state : states) {
+
+            if (state != NONE) {
+
+                return true;
+            }
+
+        }
+
+        return false;
+    }
+
+    private ObjectPrivileges objectPrivileges(String object) {
+
+        ObjectPrivileges privileges = objects.get(object);
+        if (privileges == null) {
+
+            privileges = new ObjectPrivileges();
+            objects.put(object, privileges);
+        }
+
+        return privileges;
+    }
+
+    private static class ObjectPrivileges {
+
+        final byte[] states = new byte[PRIVILEGES.length()];
+
+        final Map<String, byte[]> fields = new HashMap<String, byte[]>();
+
+        byte[] fieldStates(String field) {
+
+            byte[] fieldStates = fields.get(field);
+            if (fieldStates == null) {
+
+                fieldStates = new byte[PRIVILEGES.length()];
+                fields.put(field, fieldStates);
+            }
+
+            return fieldStates;
+        }
+
+    }
+
+}
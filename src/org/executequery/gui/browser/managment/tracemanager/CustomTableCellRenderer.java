@@ -1,7 +1,6 @@
 package org.executequery.gui.browser.managment.tracemanager;
 
 
-import org.executequery.gui.browser.managment.tracemanager.net.LogMessage;
 //import sun.swing.DefaultLookup;
 
 import javax.swing.*;
@@ -114,7 +113,6 @@ public class CustomTableCellRenderer extends JLabel implements TableCellRenderer
         }
         ResultSetDataModel model = (ResultSetDataModel) table.getModel();
         int model_row = table.getRowSorter().convertRowIndexToModel(row);
-        LogMessage message = model.getVisibleRows().get(model_row);
         Color fg = null;
         Color bg = null;
 
@@ -140,9 +138,9 @@ public class CustomTableCellRenderer extends JLabel implements TableCellRenderer
             Color background = unselectedBackground != null
                     ? unselectedBackground
                     : table.getBackground();
-            if (message.isFailed())
+            if (model.isFailed(model_row))
                 background = Color.RED;
-            if (message.isHighlight())
+            if (model.isHighlight(model_row))
                 background = Color.YELLOW;
             if (background == null || background instanceof javax.swing.plaf.UIResource) {
                 Color alternateColor = uiDefaults.getColor( "Table.alternateRowColor");
@@ -8,6 +8,8 @@ import java.util.List;
 public class CustomTableRowSorter extends TableRowSorter<ResultSetDataModel> {
     public CustomTableRowSorter(final ResultSetDataModel datamodel) {
         super(datamodel);
+        // the rows added are inserted in order instead of sorting all the rows again
+        setSortsOnUpdates(true);
     }
 
     @Override
@@ -6,18 +6,39 @@ import org.underworldlabs.swing.DynamicComboBoxModel;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
-import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
 
+/**
+ * The model of the trace table - the events are kept in a trace event
+ * store, the model keeps the store rows shown. The rows added are
+ * reported to the table in batches once the events queued on the
+ * event dispatch thread are added.
+ */
 class ResultSetDataModel extends AbstractTableModel {
 
     private List<String> columnNames = new ArrayList<>();
     private List<String> visibleColumnNames = new ArrayList<>();
-    private List<LogMessage> rows = new ArrayList<>();
-    private List<LogMessage> visibleRows = new ArrayList<>();
+    private final TraceEventStore store = new TraceEventStore();
+    private int[] visibleColumns = new int[0];
+    private int[] visibleRows = new int[1024];
+    /**
+     * the number of rows the table was notified of
+     */
+    private int visibleRowCount;
+    /**
+     * the number of rows shown including the ones the table is not notified of yet
+     */
+    private int addedRowCount;
+    private boolean insertPending;
+    private final BitSet highlightedRows = new BitSet();
+    private TraceEventStore.ValueFilter filter;
+    private String filterColumn;
+    private String filterText;
     private JComboBox filterTypeBox;
     private JComboBox filterColumnBox;
     private JComboBox rawSqlBox;
@@ -42,10 +63,17 @@ class ResultSetDataModel extends AbstractTableModel {
             if (mapCheckBox.get(columnNames.get(i)).isSelected())
                 visibleColumnNames.add(columnNames.get(i));
         }
-        visibleRows = new ArrayList<>();
-        for (int i = 0; i < rows.size(); i++) {
-            checkFilterMessage(rows.get(i));
+        visibleColumns = new int[visibleColumnNames.size()];
+        for (int i = 0; i < visibleColumns.length; i++) {
+            visibleColumns[i] = store.getColumnIndex(visibleColumnNames.get(i));
         }
+        addedRowCount = 0;
+        highlightedRows.clear();
+        String text = filterTextField.getText();
+        for (int row = 0; row < store.size(); row++) {
+            checkFilterRow(row, text);
+        }
+        visibleRowCount = addedRowCount;
         DynamicComboBoxModel model = (DynamicComboBoxModel) filterColumnBox.getModel();
         Object selectedItem = filterColumnBox.getSelectedItem();
         model.setElements(visibleColumnNames);
@@ -59,24 +87,51 @@ class ResultSetDataModel extends AbstractTableModel {
         fireTableStructureChanged();
     }
 
-    private void checkFilterMessage(LogMessage message) {
-        String filter = filterTextField.getText();
-        if (filterColumnBox.getSelectedItem() != null) {
-            String field = String.valueOf(message.getFieldOfName((String) filterColumnBox.getSelectedItem()));
+    private void checkFilterRow(int row, String text) {
+        Object column = filterColumnBox.getSelectedItem();
+        if (column != null) {
+            boolean matches = filterFor((String) column, text).matches(row);
             if (filterTypeBox.getSelectedItem() == Filter.FilterType.FILTER) {
-                if (field.contains(filter))
-                    visibleRows.add(message);
-                message.setHighlight(false);
+                if (matches)
+                    addVisibleRow(row);
+                highlightedRows.clear(row);
             } else {
-                visibleRows.add(message);
-                message.setHighlight(field.contains(filter) && !filter.isEmpty());
+                addVisibleRow(row);
+                highlightedRows.set(row, matches && !text.isEmpty());
             }
         }
     }
 
+    private TraceEventStore.ValueFilter filterFor(String column, String text) {
+        if (filter == null || !column.equals(filterColumn) || !text.equals(filterText)) {
+            filter = store.filter(store.getColumnIndex(column), text);
+            filterColumn = column;
+            filterText = text;
+        }
+        return filter;
+    }
+
+    private void addVisibleRow(int row) {
+        if (addedRowCount == visibleRows.length)
+            visibleRows = Arrays.copyOf(visibleRows, addedRowCount * 2);
+        visibleRows[addedRowCount++] = row;
+    }
+
+    /**
+     * Notifies the table of the rows added since the last notification.
+     */
+    private void fireRowsAdded() {
+        insertPending = false;
+        if (addedRowCount > visibleRowCount) {
+            int firstRow = visibleRowCount;
+            visibleRowCount = addedRowCount;
+            fireTableRowsInserted(firstRow, visibleRowCount - 1);
+        }
+    }
+
     @Override
     public int getRowCount() {
-        return visibleRows.size();
+        return visibleRowCount;
     }
 
     @Override
@@ -87,7 +142,7 @@ class ResultSetDataModel extends AbstractTableModel {
     @Override
 
     public Object getValueAt(final int rowIndex, final int columnIndex) {
-        return getValueAt(rowIndex, visibleColumnNames.get(columnIndex));
+        return store.getValue(visibleRows[rowIndex], visibleColumns[columnIndex]);
     }
 
     @Override
@@ -97,25 +152,37 @@ class ResultSetDataModel extends AbstractTableModel {
 
     @Override
     public Class<?> getColumnClass(final int columnIndex) {
-        if (visibleColumnNameFromIndex(columnIndex).contentEquals(LogConstants.TSTAMP_COLUMN))
-            return Timestamp.class;
-        if (visibleColumnNameFromIndex(columnIndex).contentEquals(LogConstants.ID_COLUMN))
-            return Integer.class;
-        return String.class;
+        return store.getColumnClass(visibleColumns[columnIndex]);
     }
 
     public Object getValueAt(final int rowIndex, final String columnName) {
-        return visibleRows.get(rowIndex).getFieldOfName(columnName);
+        return store.getValue(visibleRows[rowIndex], store.getColumnIndex(columnName));
+    }
+
+    public boolean isFailed(int rowIndex) {
+        return store.isFailed(visibleRows[rowIndex]);
     }
 
-    private String visibleColumnNameFromIndex(int i) {
-        return visibleColumnNames.get(i);
+    public boolean isHighlight(int rowIndex) {
+        return highlightedRows.get(visibleRows[rowIndex]);
     }
 
+    /**
+     * Adds the specified event - the table is notified of the
+     * rows added once the queued events are processed.
+     */
     public void addRow(LogMessage message) {
-        rows.add(message);
-        checkFilterMessage(message);
-        fireTableDataChanged();
+        int row = store.add(message);
+        checkFilterRow(row, filterTextField.getText());
+        if (addedRowCount > visibleRowCount && !insertPending) {
+            insertPending = true;
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    fireRowsAdded();
+                }
+            });
+        }
     }
 
     public List<String> getColumnNames() {
@@ -138,7 +205,8 @@ class ResultSetDataModel extends AbstractTableModel {
     }
 
     public void clearAll() {
-        rows.clear();
+        store.clear();
+        filter = null;
         rebuildModel();
     }
 
@@ -149,24 +217,4 @@ class ResultSetDataModel extends AbstractTableModel {
     public List<String> getVisibleColumnNames() {
         return visibleColumnNames;
     }
-
-    public void setVisibleColumnNames(List<String> visibleColumnNames) {
-        this.visibleColumnNames = visibleColumnNames;
-    }
-
-    public List<LogMessage> getRows() {
-        return rows;
-    }
-
-    public void setRows(List<LogMessage> rows) {
-        this.rows = rows;
-    }
-
-    public List<LogMessage> getVisibleRows() {
-        return visibleRows;
-    }
-
-    public void setVisibleRows(List<LogMessage> visibleRows) {
-        this.visibleRows = visibleRows;
-    }
 }
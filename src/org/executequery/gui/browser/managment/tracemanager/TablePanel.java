@@ -220,6 +220,7 @@ public class TablePanel extends JPanel {
         table.setRowSorter(new CustomTableRowSorter(dataModel));
         table.setDefaultRenderer(Object.class, new CustomTableCellRenderer());
         table.setDefaultRenderer(Integer.class, new CustomTableCellRenderer());
+        table.setDefaultRenderer(Long.class, new CustomTableCellRenderer());
         table.setDefaultRenderer(Timestamp.class, new StatementTimestampTableCellRenderer());
         logListPanel.setViewportView(table);
         table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
@@ -0,0 +1,770 @@
+package org.executequery.gui.browser.managment.tracemanager;
+
+import org.executequery.gui.browser.managment.tracemanager.net.LogMessage;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates the trace events as they are added.
+ * <p/>
+ * The statements finished are grouped by the fingerprint of their text -
+ * the text without comments, literals and parameter lists, in upper case
+ * with the whitespace collapsed - and the time and page counters are
+ * summed per fingerprint, per table of the table counters and per
+ * attachment. The reports are built on request ordered by the load,
+ * the heaviest first.
+ */
+public class TraceAnalytics {
+
+    public static final String FINGERPRINT_COLUMN = "FINGERPRINT";
+    public static final String COUNT_COLUMN = "COUNT";
+    public static final String FAILED_COLUMN = "FAILED";
+    public static final String TOTAL_TIME_COLUMN = "TOTAL_TIME";
+    public static final String AVG_TIME_COLUMN = "AVG_TIME";
+    public static final String P95_TIME_COLUMN = "P95_TIME";
+    public static final String MAX_TIME_COLUMN = "MAX_TIME";
+    public static final String READS_COLUMN = "READS";
+    public static final String WRITES_COLUMN = "WRITES";
+    public static final String FETCHES_COLUMN = "FETCHES";
+    public static final String MARKS_COLUMN = "MARKS";
+    public static final String RECORDS_FETCHED_COLUMN = "RECORDS_FETCHED";
+    public static final String TABLE_COLUMN = "TABLE";
+    public static final String STATEMENTS_COLUMN = "STATEMENTS";
+    public static final String NATURAL_COLUMN = "NATURAL";
+    public static final String INDEX_COLUMN = "INDEX";
+    public static final String UPDATE_COLUMN = "UPDATE";
+    public static final String INSERT_COLUMN = "INSERT";
+    public static final String DELETE_COLUMN = "DELETE";
+    public static final String BACKOUT_COLUMN = "BACKOUT";
+    public static final String PURGE_COLUMN = "PURGE";
+    public static final String EXPUNGE_COLUMN = "EXPUNGE";
+    public static final String ATTACHMENT_COLUMN = "ATTACHMENT";
+    public static final String USER_COLUMN = "USER";
+    public static final String DATABASE_COLUMN = "DATABASE";
+    public static final String CLIENT_PROCESS_COLUMN = "CLIENT_PROCESS";
+    public static final String EVENTS_COLUMN = "EVENTS";
+
+    private static final String STATEMENT_FINISH = "EXECUTE_STATEMENT_FINISH";
+
+    /**
+     * the table counter columns in the order of the trace output
+     */
+    private static final String[] TABLE_COUNTERS = {
+            "Natural", "Index", "Update", "Insert", "Delete", "Backout", "Purge", "Expunge"
+    };
+
+    private static final Pattern VALUE_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    private final Map<String, StatementStats> statements = new HashMap<>();
+
+    private final Map<String, TableStats> tables = new HashMap<>();
+
+    private final Map<String, AttachmentStats> attachments = new HashMap<>();
+
+    private int eventCount;
+
+    /**
+     * Adds the specified event to the statistics.
+     */
+    public void add(LogMessage message) {
+
+        eventCount++;
+
+        AttachmentStats attachment = null;
+        String idConnection = message.getIdConnection();
+        if (idConnection != null) {
+
+            attachment = attachments.get(idConnection);
+            if (attachment == null) {
+
+                attachment = new AttachmentStats(idConnection);
+                attachments.put(idConnection, attachment);
+            }
+
+            attachment.addEvent(message);
+        }
+
+        if (!STATEMENT_FINISH.equals(message.getTypeEvent()) || message.getStatementText() == null) {
+
+            return;
+        }
+
+        long time = toLong(message.getTimeExecution());
+        long reads = toLong(message.getCountReads());
+        long writes = toLong(message.getCountWrites());
+        long fetches = toLong(message.getCountFetches());
+        long marks = toLong(message.getCountMarks());
+
+        String fingerprint = fingerprint(message.getStatementText());
+        StatementStats statement = statements.get(fingerprint);
+        if (statement == null) {
+
+            statement = new StatementStats(fingerprint);
+            statements.put(fingerprint, statement);
+        }
+
+        statement.add(time, reads, writes, fetches, marks, toLong(message.getFetchedRecords()), message.isFailed());
+        if (attachment != null) {
+
+            attachment.addStatement(time, reads, writes, fetches, marks);
+        }
+
+        addTableCounters(message.getTableCounters());
+    }
+
+    public void clear() {
+
+        statements.clear();
+        tables.clear();
+        attachments.clear();
+        eventCount = 0;
+    }
+
+    /**
+     * Returns the number of events added.
+     */
+    public int getEventCount() {
+
+        return eventCount;
+    }
+
+    /**
+     * Returns the statement statistics, the longest total time first.
+     *
+     * @param limit the maximum number of rows
+     */
+    public Report statementReport(int limit) {
+
+        List<StatementStats> values = new ArrayList<>(statements.values());
+        Collections.sort(values, new Comparator<StatementStats>() {
+
+            @Override
+            public int compare(StatementStats o1, StatementStats o2) {
+
+                return compareDescending(o1.totalTime, o2.totalTime, o1.count, o2.count);
+            }
+
+        });
+
+        Report report = new Report(FINGERPRINT_COLUMN, COUNT_COLUMN, FAILED_COLUMN, TOTAL_TIME_COLUMN,
+                AVG_TIME_COLUMN, P95_TIME_COLUMN, MAX_TIME_COLUMN, READS_COLUMN, WRITES_COLUMN,
+                FETCHES_COLUMN, MARKS_COLUMN, RECORDS_FETCHED_COLUMN);
+
+        for (int i = 0, n = Math.min(limit, values.size()); i < n; i++) {
+
+            StatementStats stats = values.get(i);
+            report.add(stats.fingerprint, stats.count, stats.failed, stats.totalTime,
+                    stats.totalTime / stats.count, stats.percentile95(), stats.maxTime,
+                    stats.reads, stats.writes, stats.fetches, stats.marks, stats.recordsFetched);
+        }
+
+        return report;
+    }
+
+    /**
+     * Returns the table access statistics, the most records read and changed first.
+     *
+     * @param limit the maximum number of rows
+     */
+    public Report tableReport(int limit) {
+
+        List<TableStats> values = new ArrayList<>(tables.values());
+        Collections.sort(values, new Comparator<TableStats>() {
+
+            @Override
+            public int compare(TableStats o1, TableStats o2) {
+
+                return compareDescending(o1.total(), o2.total(), o1.statements, o2.statements);
+            }
+
+        });
+
+        Report report = new Report(TABLE_COLUMN, STATEMENTS_COLUMN, NATURAL_COLUMN, INDEX_COLUMN,
+                UPDATE_COLUMN, INSERT_COLUMN, DELETE_COLUMN, BACKOUT_COLUMN, PURGE_COLUMN, EXPUNGE_COLUMN);
+
+        for (int i = 0, n = Math.min(limit, values.size()); i < n; i++) {
+
+            TableStats stats = values.get(i);
+            Object[] row = new Object[2 + TABLE_COUNTERS.length];
+            row[0] = stats.table;
+            row[1] = stats.statements;
+            for (int j = 0; j < TABLE_COUNTERS.length; j++) {
+
+                row[2 + j] = stats.counters[j];
+            }
+
+            report.add(row);
+        }
+
+        return report;
+    }
+
+    /**
+     * Returns the attachment load statistics, the longest total time first.
+     *
+     * @param limit the maximum number of rows
+     */
+    public Report attachmentReport(int limit) {
+
+        List<AttachmentStats> values = new ArrayList<>(attachments.values());
+        Collections.sort(values, new Comparator<AttachmentStats>() {
+
+            @Override
+            public int compare(AttachmentStats o1, AttachmentStats o2) {
+
+                return compareDescending(o1.totalTime, o2.totalTime, o1.events, o2.events);
+            }
+
+        });
+
+        Report report = new Report(ATTACHMENT_COLUMN, USER_COLUMN, DATABASE_COLUMN, CLIENT_PROCESS_COLUMN,
+                EVENTS_COLUMN, STATEMENTS_COLUMN, TOTAL_TIME_COLUMN, READS_COLUMN, WRITES_COLUMN,
+                FETCHES_COLUMN, MARKS_COLUMN);
+
+        for (int i = 0, n = Math.min(limit, values.size()); i < n; i++) {
+
+            AttachmentStats stats = values.get(i);
+            report.add(stats.idConnection, stats.user, stats.database, stats.clientProcess,
+                    stats.events, stats.statements, stats.totalTime, stats.reads, stats.writes,
+                    stats.fetches, stats.marks);
+        }
+
+        return report;
+    }
+
+    /**
+     * Returns the fingerprint of the specified SQL text - the text without
+     * comments in upper case with the literals replaced by <code>?</code>,
+     * the lists of literals and parameters by a single <code>?</code> and
+     * the whitespace collapsed. Quoted identifiers are kept as they are.
+     */
+    public static String fingerprint(String sql) {
+
+        StringBuilder sb = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+
+            char c = sql.charAt(i);
+            char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+            if (c == '-' && next == '-') {
+
+                // a line comment
+                while (i < length && sql.charAt(i) != '\n') {
+
+                    i++;
+                }
+
+                appendSpace(sb);
+
+            } else if (c == '/' && next == '*') {
+
+                int end = sql.indexOf("*/", i + 2);
+                i = end != -1 ? end + 2 : length;
+                appendSpace(sb);
+
+            } else if (c == '\'') {
+
+                // a string literal with the quotes doubled within
+                i++;
+                while (i < length) {
+
+                    if (sql.charAt(i) == '\'') {
+
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+
+                            i += 2;
+                            continue;
+                        }
+
+                        break;
+                    }
+
+                    i++;
+                }
+
+                i++;
+                sb.append('?');
+
+            } else if (c == '"') {
+
+                int end = sql.indexOf('"', i + 1);
+                end = end != -1 ? end + 1 : length;
+                sb.append(sql, i, end);
+                i = end;
+
+            } else if (Character.isDigit(c) && !isIdentifierEnd(sb)) {
+
+                // a numeric literal with the fraction and exponent
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+
+                    i++;
+                }
+
+                if (i + 1 < length && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+
+                    int exponent = i + 1;
+                    if (sql.charAt(exponent) == '+' || sql.charAt(exponent) == '-') {
+
+                        exponent++;
+                    }
+
+                    if (exponent < length && Character.isDigit(sql.charAt(exponent))) {
+
+                        i = exponent;
+                        while (i < length && Character.isDigit(sql.charAt(i))) {
+
+                            i++;
+                        }
+
+                    }
+
+                }
+
+                sb.append('?');
+
+            } else if (Character.isWhitespace(c)) {
+
+                appendSpace(sb);
+                i++;
+
+            } else {
+
+                sb.append(Character.toUpperCase(c));
+                i++;
+            }
+
+        }
+
+        String fingerprint = sb.toString().trim();
+        return fingerprint.indexOf(',') != -1 ? VALUE_LIST.matcher(fingerprint).replaceAll("?") : fingerprint;
+    }
+
+    /**
+     * Adds the rows of the table counters - the values are right aligned with
+     * the column names of the header, a column may have no value.
+     * <pre>
+     * Table                             Natural     Index    Update    Insert
+     * ****************************************************************************
+     * EMPLOYEE                               42         1                   1
+     * </pre>
+     */
+    private void addTableCounters(String text) {
+
+        if (text == null) {
+
+            return;
+        }
+
+        String[] lines = text.split("\n");
+        if (lines.length < 3) {
+
+            return;
+        }
+
+        String header = lines[0];
+        int[] columnEnds = new int[TABLE_COUNTERS.length];
+        for (int i = 0; i < TABLE_COUNTERS.length; i++) {
+
+            int start = header.indexOf(TABLE_COUNTERS[i]);
+            columnEnds[i] = start != -1 ? start + TABLE_COUNTERS[i].length() : -1;
+        }
+
+        for (int i = 1; i < lines.length; i++) {
+
+            String line = lines[i];
+            if (line.trim().isEmpty() || line.charAt(0) == '*') {
+
+                continue;
+            }
+
+            // the table name ends where the first counter column starts
+            int nameEnd = line.length();
+            int firstEnd = firstColumnEnd(columnEnds);
+            if (firstEnd != -1) {
+
+                nameEnd = Math.min(nameEnd, lastSpaceBefore(line, firstEnd));
+            }
+
+            String name = line.substring(0, nameEnd).trim();
+            if (name.isEmpty()) {
+
+                continue;
+            }
+
+            TableStats stats = tables.get(name);
+            if (stats == null) {
+
+                stats = new TableStats(name);
+                tables.put(name, stats);
+            }
+
+            stats.statements++;
+
+            int index = nameEnd;
+            while (index < line.length()) {
+
+                while (index < line.length() && line.charAt(index) == ' ') {
+
+                    index++;
+                }
+
+                int start = index;
+                while (index < line.length() && line.charAt(index) != ' ') {
+
+                    index++;
+                }
+
+                if (index > start) {
+
+                    int column = columnOf(columnEnds, index);
+                    if (column != -1) {
+
+                        stats.counters[column] += toLong(line.substring(start, index));
+                    }
+
+                }
+
+            }
+
+        }
+
+    }
+
+    private static int firstColumnEnd(int[] columnEnds) {
+
+        for (int end : columnEnds) {
+
+            if (end != -1) {
+
+                return end;
+            }
+
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the offset after the name before the value ending at the
+     * first column end, if any - the value is right aligned.
+     */
+    private static int lastSpaceBefore(String line, int columnEnd) {
+
+        int end = Math.min(columnEnd, line.length());
+        int index = end;
+        while (index > 0 && line.charAt(index - 1) != ' ') {
+
+            index--;
+        }
+
+        return index > 0 && index < end ? index : end;
+    }
+
+    /**
+     * Returns the counter column whose header ends nearest at or after the specified value end.
+     */
+    private static int columnOf(int[] columnEnds, int valueEnd) {
+
+        int column = -1;
+        for (int i = 0; i < columnEnds.length; i++) {
+
+            if (columnEnds[i] >= valueEnd && (column == -1 || columnEnds[i] < columnEnds[column])) {
+
+                column = i;
+            }
+
+        }
+
+        return column;
+    }
+
+    private static boolean isIdentifierEnd(StringBuilder sb) {
+
+        if (sb.length() == 0) {
+
+            return false;
+        }
+
+        char c = sb.charAt(sb.length() - 1);
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static void appendSpace(StringBuilder sb) {
+
+        if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+
+            sb.append(' ');
+        }
+
+    }
+
+    private static int compareDescending(long value1, long value2, long then1, long then2) {
+
+        int result = Long.compare(value2, value1);
+        return result != 0 ? result : Long.compare(then2, then1);
+    }
+
+    private static long toLong(String value) {
+
+        if (value == null) {
+
+            return 0;
+        }
+
+        try {
+
+            return Long.parseLong(value.trim());
+
+        } catch (NumberFormatException e) {
+
+            return 0;
+        }
+
+    }
+
+    /**
+     * The rows of a report - the values are strings and numbers.
+     */
+    public static final class Report {
+
+        private final String[] columns;
+
+        private final List<Object[]> rows = new ArrayList<>();
+
+        Report(String... columns) {
+
+            this.columns = columns;
+        }
+
+        void add(Object... row) {
+
+            rows.add(row);
+        }
+
+        public String[] getColumns() {
+
+            return columns;
+        }
+
+        public List<Object[]> getRows() {
+
+            return rows;
+        }
+
+        /**
+         * Writes the report as comma separated values with a header line.
+         */
+        public void writeCsv(Writer writer) throws IOException {
+
+            writeCsvLine(writer, columns);
+            for (Object[] row : rows) {
+
+                writeCsvLine(writer, row);
+            }
+
+            writer.flush();
+        }
+
+        private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+
+            for (int i = 0; i < values.length; i++) {
+
+                if (i > 0) {
+
+                    writer.write(',');
+                }
+
+                String value = values[i] != null ? values[i].toString() : "";
+                if (value.indexOf(',') != -1 || value.indexOf('"') != -1
+                        || value.indexOf('\n') != -1 || value.indexOf('\r') != -1) {
+
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+
+                } else {
+
+                    writer.write(value);
+                }
+
+            }
+
+            writer.write("\r\n");
+        }
+
+    }
+
+    private static final class StatementStats {
+
+        private final String fingerprint;
+
+        private int count;
+
+        private int failed;
+
+        private long totalTime;
+
+        private long maxTime;
+
+        private long reads;
+
+        private long writes;
+
+        private long fetches;
+
+        private long marks;
+
+        private long recordsFetched;
+
+        private long[] times = new long[4];
+
+        /**
+         * the number of times the percentile was computed for
+         */
+        private int percentileCount;
+
+        private long percentile;
+
+        StatementStats(String fingerprint) {
+
+            this.fingerprint = fingerprint;
+        }
+
+        void add(long time, long reads, long writes, long fetches, long marks, long recordsFetched, boolean failed) {
+
+            if (count == times.length) {
+
+                times = Arrays.copyOf(times, count * 2);
+            }
+
+            times[count++] = time;
+            totalTime += time;
+            maxTime = Math.max(maxTime, time);
+            this.reads += reads;
+            this.writes += writes;
+            this.fetches += fetches;
+            this.marks += marks;
+            this.recordsFetched += recordsFetched;
+            if (failed) {
+
+                this.failed++;
+            }
+
+        }
+
+        /**
+         * Returns the time 95% of the executions took at most (nearest rank).
+         */
+        long percentile95() {
+
+            if (percentileCount != count) {
+
+                long[] sorted = Arrays.copyOf(times, count);
+                Arrays.sort(sorted);
+                percentile = sorted[(int) Math.ceil(count * 0.95) - 1];
+                percentileCount = count;
+            }
+
+            return percentile;
+        }
+
+    }
+
+    private static final class TableStats {
+
+        private final String table;
+
+        private final long[] counters = new long[TABLE_COUNTERS.length];
+
+        private long statements;
+
+        TableStats(String table) {
+
+            this.table = table;
+        }
+
+        long total() {
+
+            long total = 0;
+            for (long counter : counters) {
+
+                total += counter;
+            }
+
+            return total;
+        }
+
+    }
+
+    private static final class AttachmentStats {
+
+        private final String idConnection;
+
+        private String user;
+
+        private String database;
+
+        private String clientProcess;
+
+        private long events;
+
+        private long statements;
+
+        private long totalTime;
+
+        private long reads;
+
+        private long writes;
+
+        private long fetches;
+
+        private long marks;
+
+        AttachmentStats(String idConnection) {
+
+            this.idConnection = idConnection;
+        }
+
+        void addEvent(LogMessage message) {
+
+            events++;
+            if (user == null) {
+
+                user = message.getUserName();
+            }
+
+            if (database == null) {
+
+                database = message.getDatabase();
+            }
+
+            if (clientProcess == null) {
+
+                clientProcess = message.getClientProcess();
+            }
+
+        }
+
+        void addStatement(long time, long reads, long writes, long fetches, long marks) {
+
+            statements++;
+            totalTime += time;
+            this.reads += reads;
+            this.writes += writes;
+            this.fetches += fetches;
+            this.marks += marks;
+        }
+
+    }
+
+}
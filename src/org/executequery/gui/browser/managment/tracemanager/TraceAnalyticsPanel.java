@@ -0,0 +1,242 @@
+package org.executequery.gui.browser.managment.tracemanager;
+
+import org.executequery.GUIUtilities;
+import org.executequery.components.FileChooserDialog;
+import org.executequery.gui.browser.TraceManagerPanel;
+import org.executequery.gui.browser.managment.tracemanager.net.LogMessage;
+import org.underworldlabs.swing.NumberTextField;
+
+import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Shows the statement, table and attachment reports of the trace events
+ * added. The report shown is rebuilt every few seconds while new events
+ * arrive and can be exported as CSV.
+ */
+public class TraceAnalyticsPanel extends JPanel {
+
+    private static final int REFRESH_INTERVAL = 2000;
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private static final int STATEMENTS = 0;
+
+    private static final int TABLES = 1;
+
+    private static final int ATTACHMENTS = 2;
+
+    private final TraceAnalytics analytics = new TraceAnalytics();
+
+    private final ReportTableModel[] models = new ReportTableModel[3];
+
+    private JTabbedPane reportsPane;
+
+    private NumberTextField limitField;
+
+    private Timer timer;
+
+    private int refreshedEventCount = -1;
+
+    public TraceAnalyticsPanel() {
+
+        super(new GridBagLayout());
+        init();
+    }
+
+    private void init() {
+
+        limitField = new NumberTextField();
+        limitField.setText(String.valueOf(DEFAULT_LIMIT));
+        limitField.setColumns(6);
+        limitField.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refresh(true);
+            }
+        });
+
+        JButton refreshButton = new JButton(TraceManagerPanel.bundleString("Refresh"));
+        refreshButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refresh(true);
+            }
+        });
+
+        JButton exportButton = new JButton(TraceManagerPanel.bundleString("ExportCSV"));
+        exportButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportReport();
+            }
+        });
+
+        reportsPane = new JTabbedPane();
+        String[] titles = {"Statements", "Tables", "Attachments"};
+        for (int i = 0; i < models.length; i++) {
+            models[i] = new ReportTableModel();
+            JTable table = new JTable(models[i]);
+            table.setAutoCreateRowSorter(true);
+            table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+            reportsPane.add(TraceManagerPanel.bundleString(titles[i]), new JScrollPane(table));
+        }
+        reportsPane.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                refresh(true);
+            }
+        });
+
+        timer = new Timer(REFRESH_INTERVAL, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refresh(false);
+            }
+        });
+
+        add(new JLabel(TraceManagerPanel.bundleString("Top")), new GridBagConstraints(0, 0,
+                1, 1, 0, 0,
+                GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(5, 5, 5, 5),
+                0, 0));
+        add(limitField, new GridBagConstraints(1, 0,
+                1, 1, 0, 0,
+                GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(5, 5, 5, 5),
+                0, 0));
+        add(refreshButton, new GridBagConstraints(2, 0,
+                1, 1, 0, 0,
+                GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(5, 5, 5, 5),
+                0, 0));
+        add(exportButton, new GridBagConstraints(3, 0,
+                1, 1, 1, 0,
+                GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(5, 5, 5, 5),
+                0, 0));
+        add(reportsPane, new GridBagConstraints(0, 1,
+                4, 1, 1, 1,
+                GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, new Insets(0, 5, 5, 5),
+                0, 0));
+    }
+
+    public void addEvent(LogMessage message) {
+        analytics.add(message);
+    }
+
+    public void clearAll() {
+        analytics.clear();
+        refresh(true);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Rebuilds the report shown if events were added since the last time or if forced.
+     */
+    private void refresh(boolean force) {
+        if (!force && (refreshedEventCount == analytics.getEventCount() || !isShowing()))
+            return;
+        refreshedEventCount = analytics.getEventCount();
+        int selected = reportsPane.getSelectedIndex();
+        if (selected >= 0)
+            models[selected].setReport(report(selected, getLimit()));
+    }
+
+    private TraceAnalytics.Report report(int report, int limit) {
+        switch (report) {
+            case TABLES:
+                return analytics.tableReport(limit);
+            case ATTACHMENTS:
+                return analytics.attachmentReport(limit);
+            default:
+                return analytics.statementReport(limit);
+        }
+    }
+
+    private int getLimit() {
+        int limit = limitField.getStringValue().isEmpty() ? DEFAULT_LIMIT : limitField.getValue();
+        return limit > 0 ? limit : DEFAULT_LIMIT;
+    }
+
+    /**
+     * Writes all the rows of the report shown to a CSV file.
+     */
+    private void exportReport() {
+        FileChooserDialog fileChooser = new FileChooserDialog();
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+            return;
+        File file = fileChooser.getSelectedFile();
+        TraceAnalytics.Report report = report(reportsPane.getSelectedIndex(), Integer.MAX_VALUE);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            report.writeCsv(writer);
+        } catch (IOException e) {
+            GUIUtilities.displayExceptionErrorDialog("Error exporting the trace report", e);
+        }
+    }
+
+    private static class ReportTableModel extends AbstractTableModel {
+
+        private TraceAnalytics.Report report;
+
+        void setReport(TraceAnalytics.Report report) {
+            boolean structureChanged = this.report == null
+                    || !Arrays.equals(this.report.getColumns(), report.getColumns());
+            this.report = report;
+            if (structureChanged)
+                fireTableStructureChanged();
+            else
+                fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return report != null ? report.getRows().size() : 0;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return report != null ? report.getColumns().length : 0;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return report.getColumns()[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            for (Object[] row : report.getRows()) {
+                if (row[column] != null)
+                    return row[column].getClass();
+            }
+            return Object.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return report.getRows().get(rowIndex)[columnIndex];
+        }
+    }
+
+}
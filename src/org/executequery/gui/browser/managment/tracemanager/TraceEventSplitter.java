@@ -0,0 +1,262 @@
+package org.executequery.gui.browser.managment.tracemanager;
+
+import java.nio.CharBuffer;
+
+/**
+ * Splits the text of a trace session into its events as the text
+ * arrives - an event starts at a line with the event timestamp or
+ * a session listing line and ends where the next one starts.
+ * <p/>
+ * The lines announcing the start and stop of a trace session are
+ * reported separately and are not part of any event.
+ */
+public class TraceEventSplitter {
+
+    public static final int LOG_MESSAGE = 0;
+
+    public static final int SESSION_INFO = 1;
+
+    private static final int NO_EVENT = -1;
+
+    private static final String TRACE_SESSION_PREFIX = "trace session id";
+
+    private static final String SESSION_INFO_PREFIX = "Session ID:";
+
+    /**
+     * Receives the events split from the trace text.
+     */
+    public interface Listener {
+
+        void eventRead(String event, int type);
+
+        void sessionStarted(int sessionId);
+
+        void sessionStopped(int sessionId);
+
+    }
+
+    private final Listener listener;
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private final StringBuilder event = new StringBuilder(4096);
+
+    private int eventType = NO_EVENT;
+
+    public TraceEventSplitter(Listener listener) {
+
+        this.listener = listener;
+    }
+
+    /**
+     * Splits the remaining characters of the specified buffer.
+     */
+    public void append(CharBuffer chars) {
+
+        while (chars.hasRemaining()) {
+
+            char c = chars.get();
+            if (c == '\n') {
+
+                endLine();
+
+            } else {
+
+                line.append(c);
+            }
+
+        }
+
+    }
+
+    /**
+     * Ends the current line and event, the text read is complete.
+     */
+    public void flush() {
+
+        if (line.length() > 0) {
+
+            endLine();
+        }
+
+        endEvent();
+    }
+
+    /**
+     * Returns whether text of an event or line not reported yet was read.
+     */
+    public boolean hasPendingText() {
+
+        return eventType != NO_EVENT || line.length() > 0;
+    }
+
+    /**
+     * Returns whether the specified text has an event timestamp
+     * <code>yyyy-MM-ddTHH:mm:ss.S</code> at the specified offset.
+     */
+    public static boolean isTimestamp(CharSequence text, int offset) {
+
+        // 2017-01-01T12:00:00.0
+        if (text.length() - offset < 21) {
+
+            return false;
+        }
+
+        for (int i = 0; i < 21; i++) {
+
+            char c = text.charAt(offset + i);
+            switch (i) {
+
+                case 4:
+                case 7:
+                    if (c != '-') {
+                        return false;
+                    }
+                    break;
+
+                case 10:
+                    if (c != 'T') {
+                        return false;
+                    }
+                    break;
+
+                case 13:
+                case 16:
+                    if (c != ':') {
+                        return false;
+                    }
+                    break;
+
+                case 19:
+                    if (c != '.') {
+                        return false;
+                    }
+                    break;
+
+                default:
+                    if (c < '0' || c > '9') {
+                        return false;
+                    }
+            }
+
+        }
+
+        return true;
+    }
+
+    private void endLine() {
+
+        int start = 0;
+        int end = line.length();
+        while (start < end && Character.isWhitespace(line.charAt(start))) {
+
+            start++;
+        }
+
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+
+            end--;
+        }
+
+        if (regionMatches(line, start, TRACE_SESSION_PREFIX, true)) {
+
+            endEvent();
+            sessionLine(start + TRACE_SESSION_PREFIX.length(), end);
+
+        } else if (isTimestamp(line, start)) {
+
+            endEvent();
+            eventType = LOG_MESSAGE;
+
+        } else if (regionMatches(line, start, SESSION_INFO_PREFIX, false)) {
+
+            endEvent();
+            eventType = SESSION_INFO;
+
+        } else if (eventType == NO_EVENT && start < end) {
+
+            // the text before the first recognised event
+            eventType = LOG_MESSAGE;
+        }
+
+        if (eventType != NO_EVENT) {
+
+            event.append(line, start, end).append('\n');
+        }
+
+        line.setLength(0);
+    }
+
+    private void endEvent() {
+
+        if (eventType != NO_EVENT) {
+
+            String text = event.toString();
+            int type = eventType;
+
+            event.setLength(0);
+            eventType = NO_EVENT;
+            listener.eventRead(text, type);
+        }
+
+    }
+
+    /**
+     * Reports the session started or stopped by the line
+     * <code>Trace session ID 1 started</code>.
+     */
+    private void sessionLine(int start, int end) {
+
+        int index = start;
+        while (index < end && line.charAt(index) == ' ') {
+
+            index++;
+        }
+
+        int sessionId = 0;
+        int digits = 0;
+        while (index < end && Character.isDigit(line.charAt(index))) {
+
+            sessionId = sessionId * 10 + (line.charAt(index++) - '0');
+            digits++;
+        }
+
+        if (digits == 0) {
+
+            return;
+        }
+
+        String state = line.substring(index, end).trim();
+        if (state.startsWith("started")) {
+
+            listener.sessionStarted(sessionId);
+
+        } else if (state.startsWith("stopped")) {
+
+            listener.sessionStopped(sessionId);
+        }
+
+    }
+
+    private static boolean regionMatches(StringBuilder text, int offset, String prefix, boolean ignoreCase) {
+
+        if (text.length() - offset < prefix.length()) {
+
+            return false;
+        }
+
+        for (int i = 0, n = prefix.length(); i < n; i++) {
+
+            char c = text.charAt(offset + i);
+            char p = prefix.charAt(i);
+            if (c != p && !(ignoreCase && Character.toLowerCase(c) == Character.toLowerCase(p))) {
+
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,482 @@
+package org.executequery.gui.browser.managment.tracemanager;
+
+import org.executequery.gui.browser.managment.tracemanager.net.LogMessage;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the events of the trace table column by column.
+ * <p/>
+ * The text fields are kept as the codes of the distinct values of their
+ * column, so a value repeated across events - a user, a process, a
+ * database or a statement text - is stored once. The numeric fields are
+ * kept in primitive arrays. The messages added are not referenced.
+ * <p/>
+ * A filter on a text column tests each distinct value once and
+ * remembers the result by value code.
+ */
+class TraceEventStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int NULL_CODE = -1;
+
+    private static final byte UNKNOWN = 0;
+
+    private static final byte MATCH = 1;
+
+    private static final byte NO_MATCH = 2;
+
+    /**
+     * Tests the values of a column of the store.
+     */
+    abstract static class ValueFilter {
+
+        /**
+         * Returns whether the value of the specified row matches.
+         */
+        abstract boolean matches(int row);
+
+    }
+
+    private final Column[] columns;
+
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+    private final BitSet failed = new BitSet();
+
+    private int size;
+
+    private int capacity;
+
+    TraceEventStore() {
+
+        columns = new Column[LogConstants.COLUMNS.length];
+        for (int i = 0; i < columns.length; i++) {
+
+            String name = LogConstants.COLUMNS[i];
+            columns[i] = createColumn(name);
+            columnIndexes.put(name, i);
+        }
+
+        clear();
+    }
+
+    /**
+     * Adds the fields of the specified message.
+     *
+     * @return the row of the message
+     */
+    int add(LogMessage message) {
+
+        if (size == capacity) {
+
+            capacity *= 2;
+            for (Column column : columns) {
+
+                column.grow(capacity);
+            }
+
+        }
+
+        int row = size++;
+        for (Column column : columns) {
+
+            column.set(row, message);
+        }
+
+        failed.set(row, message.isFailed());
+        return row;
+    }
+
+    /**
+     * Removes all the events - the filters created before are not to be used after.
+     */
+    void clear() {
+
+        size = 0;
+        capacity = INITIAL_CAPACITY;
+        for (Column column : columns) {
+
+            column.allocate(capacity);
+        }
+
+        failed.clear();
+    }
+
+    int size() {
+
+        return size;
+    }
+
+    /**
+     * Returns the index of the column of the specified name, -1 if there is none.
+     */
+    int getColumnIndex(String name) {
+
+        Integer index = columnIndexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    Class<?> getColumnClass(int column) {
+
+        return columns[column].getColumnClass();
+    }
+
+    Object getValue(int row, int column) {
+
+        return columns[column].get(row);
+    }
+
+    boolean isFailed(int row) {
+
+        return failed.get(row);
+    }
+
+    /**
+     * Returns a filter of the rows whose value of the specified column
+     * contains the specified text, <code>null</code> values are
+     * tested as the text <code>null</code>.
+     */
+    ValueFilter filter(int column, String text) {
+
+        return columns[column].filter(text);
+    }
+
+    private static Column createColumn(String name) {
+
+        switch (name) {
+
+            case LogConstants.ID_COLUMN:
+                return new IdColumn(name);
+
+            case LogConstants.TSTAMP_COLUMN:
+                return new TimestampColumn(name);
+
+            case LogConstants.TIME_EXECUTION_COLUMN:
+            case LogConstants.COUNT_READS_COLUMN:
+            case LogConstants.COUNT_WRITES_COLUMN:
+            case LogConstants.COUNT_FETCHES_COLUMN:
+            case LogConstants.COUNT_MARKS_COLUMN:
+            case LogConstants.RECORDS_FETCHED_COLUMN:
+                return new NumberColumn(name);
+
+            default:
+                return new TextColumn(name);
+        }
+
+    }
+
+    private abstract static class Column {
+
+        final String name;
+
+        Column(String name) {
+
+            this.name = name;
+        }
+
+        abstract void allocate(int capacity);
+
+        abstract void grow(int capacity);
+
+        abstract void set(int row, LogMessage message);
+
+        abstract Object get(int row);
+
+        abstract Class<?> getColumnClass();
+
+        ValueFilter filter(final String text) {
+
+            return new ValueFilter() {
+
+                @Override
+                boolean matches(int row) {
+
+                    return String.valueOf(get(row)).contains(text);
+                }
+
+            };
+        }
+
+    }
+
+    private static final class IdColumn extends Column {
+
+        private int[] values;
+
+        IdColumn(String name) {
+
+            super(name);
+        }
+
+        @Override
+        void allocate(int capacity) {
+
+            values = new int[capacity];
+        }
+
+        @Override
+        void grow(int capacity) {
+
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void set(int row, LogMessage message) {
+
+            values[row] = message.getId();
+        }
+
+        @Override
+        Object get(int row) {
+
+            return values[row];
+        }
+
+        @Override
+        Class<?> getColumnClass() {
+
+            return Integer.class;
+        }
+
+    }
+
+    private static final class TimestampColumn extends Column {
+
+        private long[] times;
+
+        private int[] nanos;
+
+        TimestampColumn(String name) {
+
+            super(name);
+        }
+
+        @Override
+        void allocate(int capacity) {
+
+            times = new long[capacity];
+            nanos = new int[capacity];
+        }
+
+        @Override
+        void grow(int capacity) {
+
+            times = Arrays.copyOf(times, capacity);
+            nanos = Arrays.copyOf(nanos, capacity);
+        }
+
+        @Override
+        void set(int row, LogMessage message) {
+
+            Timestamp timestamp = message.getTimestamp();
+            times[row] = timestamp != null ? timestamp.getTime() : NO_VALUE;
+            nanos[row] = timestamp != null ? timestamp.getNanos() : 0;
+        }
+
+        @Override
+        Object get(int row) {
+
+            if (times[row] == NO_VALUE) {
+
+                return null;
+            }
+
+            Timestamp timestamp = new Timestamp(times[row]);
+            timestamp.setNanos(nanos[row]);
+            return timestamp;
+        }
+
+        @Override
+        Class<?> getColumnClass() {
+
+            return Timestamp.class;
+        }
+
+    }
+
+    /**
+     * The counters of the events, a value that is not a number is kept as <code>null</code>.
+     */
+    private static final class NumberColumn extends Column {
+
+        private long[] values;
+
+        NumberColumn(String name) {
+
+            super(name);
+        }
+
+        @Override
+        void allocate(int capacity) {
+
+            values = new long[capacity];
+        }
+
+        @Override
+        void grow(int capacity) {
+
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void set(int row, LogMessage message) {
+
+            Object value = message.getFieldOfName(name);
+            values[row] = NO_VALUE;
+            if (value != null) {
+
+                try {
+
+                    values[row] = Long.parseLong(value.toString().trim());
+
+                } catch (NumberFormatException e) {
+
+                    // kept as null
+                }
+
+            }
+
+        }
+
+        @Override
+        Object get(int row) {
+
+            return values[row] != NO_VALUE ? Long.valueOf(values[row]) : null;
+        }
+
+        @Override
+        Class<?> getColumnClass() {
+
+            return Long.class;
+        }
+
+        @Override
+        ValueFilter filter(final String text) {
+
+            final boolean nullMatches = "null".contains(text);
+            return new ValueFilter() {
+
+                @Override
+                boolean matches(int row) {
+
+                    long value = values[row];
+                    return value != NO_VALUE ? Long.toString(value).contains(text) : nullMatches;
+                }
+
+            };
+        }
+
+    }
+
+    private static final class TextColumn extends Column {
+
+        private int[] codes;
+
+        private String[] values;
+
+        private int valueCount;
+
+        private Map<String, Integer> valueCodes;
+
+        TextColumn(String name) {
+
+            super(name);
+        }
+
+        @Override
+        void allocate(int capacity) {
+
+            codes = new int[capacity];
+            values = new String[64];
+            valueCount = 0;
+            valueCodes = new HashMap<>();
+        }
+
+        @Override
+        void grow(int capacity) {
+
+            codes = Arrays.copyOf(codes, capacity);
+        }
+
+        @Override
+        void set(int row, LogMessage message) {
+
+            Object value = message.getFieldOfName(name);
+            codes[row] = value != null ? code(value.toString()) : NULL_CODE;
+        }
+
+        private int code(String value) {
+
+            Integer code = valueCodes.get(value);
+            if (code != null) {
+
+                return code;
+            }
+
+            if (valueCount == values.length) {
+
+                values = Arrays.copyOf(values, valueCount * 2);
+            }
+
+            values[valueCount] = value;
+            valueCodes.put(value, valueCount);
+            return valueCount++;
+        }
+
+        @Override
+        Object get(int row) {
+
+            int code = codes[row];
+            return code != NULL_CODE ? values[code] : null;
+        }
+
+        @Override
+        Class<?> getColumnClass() {
+
+            return String.class;
+        }
+
+        @Override
+        ValueFilter filter(final String text) {
+
+            final boolean nullMatches = "null".contains(text);
+            return new ValueFilter() {
+
+                private byte[] results = new byte[Math.max(valueCount, 64)];
+
+                @Override
+                boolean matches(int row) {
+
+                    int code = codes[row];
+                    if (code == NULL_CODE) {
+
+                        return nullMatches;
+                    }
+
+                    if (code >= results.length) {
+
+                        results = Arrays.copyOf(results, Math.max(code + 1, results.length * 2));
+                    }
+
+                    if (results[code] == UNKNOWN) {
+
+                        results[code] = values[code].contains(text) ? MATCH : NO_MATCH;
+                    }
+
+                    return results[code] == MATCH;
+                }
+
+            };
+        }
+
+    }
+
+}
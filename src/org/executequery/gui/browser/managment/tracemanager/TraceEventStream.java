@@ -0,0 +1,340 @@
+package org.executequery.gui.browser.managment.tracemanager;
+
+import org.executequery.log.Log;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The stream the trace manager writes the trace session output to.
+ * <p/>
+ * The written bytes are copied to a ring buffer shared with a reader
+ * thread. The writers - the trace session thread and the requests
+ * listing the sessions on the event thread - hold a lock while writing,
+ * the reader thread takes the bytes without locking as the only reader
+ * of the ring. The reader thread copies the bytes to
+ * the log file, if any, decodes them in the session charset and splits
+ * the text into events reported to the listener on the reader thread.
+ * An event is reported when the next one starts or when no more
+ * output arrived for a short while.
+ */
+public class TraceEventStream extends OutputStream {
+
+    private static final int RING_CAPACITY = 1 << 20;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long READ_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final long WRITE_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * the time without output after which the pending event is reported
+     */
+    private static final long QUIET_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final long CLOSE_TIMEOUT = 5000;
+
+    private final byte[] ring = new byte[RING_CAPACITY];
+
+    private final int mask = RING_CAPACITY - 1;
+
+    /**
+     * the total number of bytes written to the ring
+     */
+    private final AtomicLong writePosition = new AtomicLong();
+
+    /**
+     * the total number of bytes taken from the ring
+     */
+    private final AtomicLong readPosition = new AtomicLong();
+
+    /**
+     * held while writing to the ring
+     */
+    private final Object writeLock = new Object();
+
+    private final CharsetDecoder decoder;
+
+    private final TraceEventSplitter splitter;
+
+    private final Thread readerThread;
+
+    private FileChannel fileChannel;
+
+    private volatile boolean closed;
+
+    /**
+     * @param charset     the charset of the trace output
+     * @param fileChannel the channel to copy the output to or <code>null</code>
+     * @param listener    the listener of the events read
+     */
+    public TraceEventStream(Charset charset, FileChannel fileChannel, TraceEventSplitter.Listener listener) {
+
+        this.fileChannel = fileChannel;
+        this.splitter = new TraceEventSplitter(listener);
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        readerThread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                read();
+            }
+
+        }, "TraceEventStream");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+
+        synchronized (writeLock) {
+
+            if (closed) {
+
+                return;
+            }
+
+            long position = writePosition.get();
+            if (waitForSpace(position) == 0) {
+
+                return;
+            }
+
+            ring[(int) position & mask] = (byte) b;
+            writePosition.lazySet(position + 1);
+        }
+
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+
+        synchronized (writeLock) {
+
+            while (length > 0 && !closed) {
+
+                long position = writePosition.get();
+                int count = Math.min(waitForSpace(position), length);
+
+                int index = (int) position & mask;
+                int first = Math.min(count, RING_CAPACITY - index);
+                System.arraycopy(bytes, offset, ring, index, first);
+                System.arraycopy(bytes, offset + first, ring, 0, count - first);
+
+                writePosition.lazySet(position + count);
+                offset += count;
+                length -= count;
+            }
+
+        }
+
+    }
+
+    /**
+     * Stops accepting output and waits for the reader thread
+     * to report the rest of the events and flush the log file.
+     * The output written after is ignored.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+
+            return;
+        }
+
+        closed = true;
+        try {
+
+            readerThread.join(CLOSE_TIMEOUT);
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+    /**
+     * Waits until the ring has space and returns the free space,
+     * 0 if the stream was closed meanwhile.
+     */
+    private int waitForSpace(long position) {
+
+        int free;
+        while ((free = RING_CAPACITY - (int) (position - readPosition.get())) == 0 && !closed) {
+
+            LockSupport.parkNanos(WRITE_WAIT_NANOS);
+        }
+
+        return free;
+    }
+
+    private void read() {
+
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer fileBuffer = (fileChannel != null) ? ByteBuffer.allocate(BUFFER_SIZE) : null;
+
+        long lastOutput = System.nanoTime();
+        boolean quiet = true;
+
+        while (true) {
+
+            int count = take(bytes);
+            if (count > 0) {
+
+                if (fileBuffer != null) {
+
+                    copyToFile(bytes, count, fileBuffer);
+                }
+
+                bytes.flip();
+                decode(bytes, chars, false);
+                bytes.compact();
+
+                lastOutput = System.nanoTime();
+                quiet = false;
+                continue;
+            }
+
+            if (closed && writePosition.get() == readPosition.get()) {
+
+                bytes.flip();
+                decode(bytes, chars, true);
+                decoder.flush(chars);
+                report(chars);
+                splitter.flush();
+                writeToFile(fileBuffer);
+                return;
+            }
+
+            if (!quiet && System.nanoTime() - lastOutput > QUIET_PERIOD_NANOS) {
+
+                splitter.flush();
+                writeToFile(fileBuffer);
+                quiet = true;
+            }
+
+            LockSupport.parkNanos(READ_WAIT_NANOS);
+        }
+
+    }
+
+    /**
+     * Moves the bytes available in the ring to the specified buffer.
+     *
+     * @return the number of bytes moved
+     */
+    private int take(ByteBuffer bytes) {
+
+        long position = readPosition.get();
+        int count = Math.min((int) (writePosition.get() - position), bytes.remaining());
+        if (count == 0) {
+
+            return 0;
+        }
+
+        int index = (int) position & mask;
+        int first = Math.min(count, RING_CAPACITY - index);
+        bytes.put(ring, index, first);
+        bytes.put(ring, 0, count - first);
+
+        readPosition.lazySet(position + count);
+        return count;
+    }
+
+    private void decode(ByteBuffer bytes, CharBuffer chars, boolean endOfInput) {
+
+        CoderResult result;
+        do {
+
+            result = decoder.decode(bytes, chars, endOfInput);
+            report(chars);
+
+        } while (result.isOverflow());
+
+    }
+
+    private void report(CharBuffer chars) {
+
+        chars.flip();
+        try {
+
+            splitter.append(chars);
+
+        } catch (RuntimeException e) {
+
+            Log.error("Error reading the trace output", e);
+        }
+
+        chars.clear();
+    }
+
+    /**
+     * Copies the last bytes put to the specified buffer to the file buffer.
+     */
+    private void copyToFile(ByteBuffer bytes, int count, ByteBuffer fileBuffer) {
+
+        ByteBuffer added = bytes.duplicate();
+        added.flip();
+        added.position(added.limit() - count);
+
+        while (added.hasRemaining() && fileChannel != null) {
+
+            int length = Math.min(added.remaining(), fileBuffer.remaining());
+            ByteBuffer part = added.duplicate();
+            part.limit(part.position() + length);
+            fileBuffer.put(part);
+            added.position(added.position() + length);
+
+            if (!fileBuffer.hasRemaining()) {
+
+                writeToFile(fileBuffer);
+            }
+
+        }
+
+    }
+
+    private void writeToFile(ByteBuffer fileBuffer) {
+
+        if (fileBuffer == null || fileChannel == null) {
+
+            return;
+        }
+
+        fileBuffer.flip();
+        try {
+
+            while (fileBuffer.hasRemaining()) {
+
+                fileChannel.write(fileBuffer);
+            }
+
+        } catch (IOException e) {
+
+            Log.error("Error writing the trace log file - the output is no longer logged", e);
+            fileChannel = null;
+        }
+
+        fileBuffer.clear();
+    }
+
+}
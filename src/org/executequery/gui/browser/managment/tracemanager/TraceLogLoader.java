@@ -0,0 +1,471 @@
+package org.executequery.gui.browser.managment.tracemanager;
+
+import org.executequery.gui.browser.managment.tracemanager.net.LogMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the events of a trace log file.
+ * <p/>
+ * The file is split into chunks starting at event timestamps, each
+ * chunk is mapped into memory, decoded and parsed on a fork-join pool.
+ * The parsed chunks are passed to the listener in the order of the file
+ * as soon as they and all the chunks before are parsed, the events
+ * numbered in that order.
+ */
+public class TraceLogLoader {
+
+    private static final long CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final int DECODED_SIZE = 1024 * 1024;
+
+    /**
+     * the length of the event timestamp <code>yyyy-MM-ddTHH:mm:ss.S</code>
+     */
+    private static final int TIMESTAMP_LENGTH = 21;
+
+    /**
+     * Receives the parsed events and the loading progress.
+     */
+    public interface Listener {
+
+        /**
+         * Called with the events of the next chunk of the file - on a pool thread.
+         */
+        void eventsLoaded(List<LogMessage> messages);
+
+        /**
+         * Called with the number of bytes parsed - on a pool thread.
+         */
+        void progress(long bytesParsed, long fileLength);
+
+    }
+
+    private final File file;
+
+    private final Charset charset;
+
+    private final Listener listener;
+
+    private final AtomicLong bytesParsed = new AtomicLong();
+
+    private FileChannel channel;
+
+    private long[] chunkStarts;
+
+    private List<LogMessage>[] results;
+
+    private int nextPublished;
+
+    private int nextId;
+
+    private volatile boolean cancelled;
+
+    public TraceLogLoader(File file, Charset charset, Listener listener) {
+
+        this.file = file;
+        this.charset = charset;
+        this.listener = listener;
+    }
+
+    /**
+     * Loads the events of the file numbering them from the specified id.
+     *
+     * @return the number of events loaded
+     */
+    @SuppressWarnings("unchecked")
+    public int load(int firstId) throws IOException {
+
+        nextId = firstId;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+
+            channel = randomAccessFile.getChannel();
+            chunkStarts = findChunkStarts();
+            results = new List[chunkStarts.length - 1];
+
+            ForkJoinPool pool = new ForkJoinPool();
+            try {
+
+                pool.invoke(new ParseTask(0, results.length));
+
+            } catch (ChunkException e) {
+
+                throw e.getCause();
+
+            } finally {
+
+                pool.shutdown();
+            }
+
+        } finally {
+
+            randomAccessFile.close();
+        }
+
+        return nextId - firstId;
+    }
+
+    /**
+     * Stops loading, the chunks being parsed are discarded.
+     */
+    public void cancel() {
+
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+
+        return cancelled;
+    }
+
+    /**
+     * Returns the file offsets the chunks start at followed by the file length.
+     */
+    private long[] findChunkStarts() throws IOException {
+
+        long length = channel.size();
+
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+
+        long position = CHUNK_SIZE;
+        while (position < length) {
+
+            long start = findEventStart(position, length);
+            if (start == -1) {
+
+                break;
+            }
+
+            starts.add(start);
+            position = start + CHUNK_SIZE;
+        }
+
+        long[] chunkStarts = new long[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+
+            chunkStarts[i] = starts.get(i);
+        }
+
+        chunkStarts[starts.size()] = length;
+        return chunkStarts;
+    }
+
+    /**
+     * Returns the offset of the first line at or after the specified
+     * position starting with an event timestamp, -1 if there is none.
+     */
+    private long findEventStart(long position, long length) throws IOException {
+
+        while (position < length) {
+
+            long size = Math.min(CHUNK_SIZE, length - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+
+            // the bytes of a line start after a line feed in the ASCII compatible charsets
+            for (int i = 0, n = buffer.limit(); i < n; i++) {
+
+                if (buffer.get(i) == '\n' && i + 1 + TIMESTAMP_LENGTH + 1 <= n && isTimestampLine(buffer, i + 1)) {
+
+                    return position + i + 1;
+                }
+
+            }
+
+            // continue before the end in case the timestamp line is split
+            if (position + size >= length) {
+
+                break;
+            }
+
+            position += size - TIMESTAMP_LENGTH - 2;
+        }
+
+        return -1;
+    }
+
+    private static boolean isTimestampLine(MappedByteBuffer buffer, int index) {
+
+        // the timestamp may follow one other character of the line
+        byte first = buffer.get(index);
+        return isTimestamp(buffer, index) || (first != '\n' && first != '\r' && isTimestamp(buffer, index + 1));
+    }
+
+    private static boolean isTimestamp(MappedByteBuffer buffer, int index) {
+
+        CharSequence text = new ByteSequence(buffer, index, TIMESTAMP_LENGTH);
+        return text.length() == TIMESTAMP_LENGTH && TraceEventSplitter.isTimestamp(text, 0);
+    }
+
+    private List<LogMessage> parseChunk(int chunk) throws IOException {
+
+        long start = chunkStarts[chunk];
+        long end = chunkStarts[chunk + 1];
+
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(DECODED_SIZE);
+        EventReader reader = new EventReader();
+
+        // a chunk without event timestamps may run to the end of the file,
+        // it is mapped a part at a time as a mapping is limited to 2 GB
+        long position = start;
+        while (position < end && !cancelled) {
+
+            long size = Math.min(CHUNK_SIZE, end - position);
+            boolean endOfChunk = position + size == end;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+
+            CoderResult result;
+            do {
+
+                result = decoder.decode(buffer, chars, endOfChunk);
+                chars = readLines(reader, chars, false);
+
+            } while (result.isOverflow());
+
+            // the bytes of a character split by the end of the mapping are decoded with the next part
+            position += buffer.position();
+            if (endOfChunk) {
+
+                while (decoder.flush(chars).isOverflow()) {
+
+                    chars = readLines(reader, chars, false);
+                }
+
+                readLines(reader, chars, true);
+                break;
+            }
+
+        }
+
+        List<LogMessage> messages = reader.finish(cancelled);
+        listener.progress(bytesParsed.addAndGet(end - start), chunkStarts[chunkStarts.length - 1]);
+        return messages;
+    }
+
+    /**
+     * Reads the complete lines of the decoded characters, and the last
+     * one at the end of the chunk, keeping the rest to be continued.
+     *
+     * @return the buffer to decode the following characters into
+     */
+    private CharBuffer readLines(EventReader reader, CharBuffer chars, boolean endOfChunk) {
+
+        chars.flip();
+        int lineStart = 0;
+        int length = chars.length();
+        for (int i = 0; i < length && !cancelled; i++) {
+
+            if (chars.charAt(i) == '\n') {
+
+                reader.readLine(chars, lineStart, i);
+                lineStart = i + 1;
+            }
+
+        }
+
+        if (endOfChunk && lineStart < length) {
+
+            reader.readLine(chars, lineStart, length);
+            lineStart = length;
+        }
+
+        chars.position(chars.position() + lineStart);
+        if (lineStart == 0 && length == chars.capacity()) {
+
+            // a line longer than the buffer
+            CharBuffer larger = CharBuffer.allocate(chars.capacity() * 2);
+            larger.put(chars);
+            return larger;
+        }
+
+        chars.compact();
+        return chars;
+    }
+
+    /**
+     * Passes the parsed chunks following the last one passed to the listener.
+     */
+    private synchronized void publish(int chunk, List<LogMessage> messages) {
+
+        results[chunk] = messages;
+        while (nextPublished < results.length && results[nextPublished] != null && !cancelled) {
+
+            List<LogMessage> published = results[nextPublished];
+            results[nextPublished++] = null;
+            for (LogMessage message : published) {
+
+                message.setId(++nextId);
+            }
+
+            listener.eventsLoaded(published);
+        }
+
+    }
+
+    private final class ParseTask extends RecursiveAction {
+
+        private final int from;
+
+        private final int to;
+
+        ParseTask(int from, int to) {
+
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (cancelled) {
+
+                return;
+            }
+
+            if (to - from > 1) {
+
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(from, middle), new ParseTask(middle, to));
+                return;
+            }
+
+            try {
+
+                publish(from, parseChunk(from));
+
+            } catch (IOException e) {
+
+                cancelled = true;
+                throw new ChunkException(e);
+            }
+
+        }
+
+    }
+
+    /**
+     * Collects the events of the lines of a chunk.
+     */
+    private static final class EventReader {
+
+        private final List<LogMessage> messages = new ArrayList<>();
+
+        private final StringBuilder event = new StringBuilder(4096);
+
+        private boolean eventStarted;
+
+        void readLine(CharSequence chars, int lineStart, int lineEnd) {
+
+            // the line trimmed
+            int from = lineStart;
+            int to = lineEnd;
+            while (from < to && chars.charAt(from) <= ' ') {
+
+                from++;
+            }
+
+            while (to > from && chars.charAt(to - 1) <= ' ') {
+
+                to--;
+            }
+
+            // the timestamp may follow one other character
+            if (TraceEventSplitter.isTimestamp(chars, from)
+                    || (to - from > TIMESTAMP_LENGTH && TraceEventSplitter.isTimestamp(chars, from + 1))) {
+
+                if (eventStarted) {
+
+                    messages.add(new LogMessage(event.toString()));
+                }
+
+                eventStarted = true;
+                event.setLength(0);
+            }
+
+            event.append(chars, from, to).append('\n');
+        }
+
+        List<LogMessage> finish(boolean cancelled) {
+
+            if (eventStarted && !cancelled) {
+
+                messages.add(new LogMessage(event.toString()));
+            }
+
+            return messages;
+        }
+
+    }
+
+    private static final class ChunkException extends RuntimeException {
+
+        ChunkException(IOException cause) {
+
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+
+            return (IOException) super.getCause();
+        }
+
+    }
+
+    /**
+     * The ASCII characters of a part of a byte buffer.
+     */
+    private static final class ByteSequence implements CharSequence {
+
+        private final MappedByteBuffer buffer;
+
+        private final int offset;
+
+        private final int length;
+
+        ByteSequence(MappedByteBuffer buffer, int offset, int length) {
+
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = Math.max(0, Math.min(length, buffer.limit() - offset));
+        }
+
+        @Override
+        public int length() {
+
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+
+            return (char) (buffer.get(offset + index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+
+            return new ByteSequence(buffer, offset + start, end - start);
+        }
+
+    }
+
+}
@@ -78,8 +78,22 @@ public class LogMessage {
         init(body);
     }
 
+    /**
+     * Creates an empty message to be filled by one of the parsers.
+     */
+    LogMessage() {
+    }
+
     private void init(String body) {
         this.setBody(body);
+        if (!TraceEventParser.parse(body, this))
+            parseWithGrammar(body);
+    }
+
+    /**
+     * Parses the events the trace event parser does not know with the trace grammar.
+     */
+    void parseWithGrammar(String body) {
         RedTraceParser parser = buildParser(body);
         try {
             ParseTree tree = parser.parse();
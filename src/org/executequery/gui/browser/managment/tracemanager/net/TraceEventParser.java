@@ -0,0 +1,1099 @@
+package org.executequery.gui.browser.managment.tracemanager.net;
+
+import org.executequery.gui.browser.managment.tracemanager.TraceEventSplitter;
+
+import java.sql.Timestamp;
+
+/**
+ * Reads the text of a trace event straight into the fields of a message.
+ * <p/>
+ * The event is scanned line by line over the offsets of its lines,
+ * no parse tree is built and strings are created only for the field
+ * values. The parser knows the layouts of the Firebird trace output
+ * events - the others, such as the context variable and privilege
+ * change events, are left to the trace grammar. A parser instance
+ * is kept per thread and reused for the events parsed there.
+ */
+final class TraceEventParser {
+
+    private static final ThreadLocal<TraceEventParser> PARSERS = new ThreadLocal<TraceEventParser>() {
+
+        @Override
+        protected TraceEventParser initialValue() {
+
+            return new TraceEventParser();
+        }
+
+    };
+
+    private static final String SESSION_PREFIX = "SESSION_";
+
+    private static final String CONNECTION_PREFIX = "(ATT_";
+
+    private static final String TRANSACTION_PREFIX = "(TRA_";
+
+    private static final String SERVICE_PREFIX = "service_mgr,";
+
+    private static final String STATEMENT_PREFIX = "Statement ";
+
+    private static final String RETURNS_PREFIX = "returns: ";
+
+    private static final String RECORDS_FETCHED = " records fetched";
+
+    private static final String SEND_PORTION = "Send portion of the query:";
+
+    private static final String RECEIVE_PORTION = "Receive portion of the query:";
+
+    private static final int TIMESTAMP_LENGTH = 21;
+
+    // the layouts of the events
+    private static final int UNKNOWN = 0;
+    private static final int TRACE = 1;
+    private static final int DATABASE = 2;
+    private static final int TRANSACTION = 3;
+    private static final int STATEMENT = 4;
+    private static final int PROCEDURE = 5;
+    private static final int TRIGGER = 6;
+    private static final int SERVICE = 7;
+    private static final int ERROR = 8;
+    private static final int SWEEP = 9;
+
+    private String text;
+
+    /**
+     * the offsets of the lines of the text, without the surrounding whitespace
+     */
+    private int[] lineStarts = new int[64];
+
+    private int[] lineEnds = new int[64];
+
+    private int lineCount;
+
+    private int line;
+
+    private TraceEventParser() {
+    }
+
+    /**
+     * Parses the specified event text into the specified message.
+     *
+     * @return false if the event is not of a known layout,
+     * the message is not changed then
+     */
+    static boolean parse(String text, LogMessage message) {
+
+        return text != null && PARSERS.get().parseEvent(text, message);
+    }
+
+    private boolean parseEvent(String text, LogMessage message) {
+
+        this.text = text;
+        try {
+
+            splitLines();
+            return parseEvent(message);
+
+        } finally {
+
+            this.text = null;
+        }
+
+    }
+
+    private boolean parseEvent(LogMessage message) {
+
+        if (lineCount < 2) {
+
+            return false;
+        }
+
+        // the header - 2017-01-01T12:00:00.1230 (1234:0x7f1e2c8f7700) FAILED EXECUTE_STATEMENT_FINISH
+        int start = lineStarts[0];
+        int end = lineEnds[0];
+        if (!TraceEventSplitter.isTimestamp(text, start)) {
+
+            return false;
+        }
+
+        int timestampEnd = start + TIMESTAMP_LENGTH;
+        while (timestampEnd < end && isDigit(text.charAt(timestampEnd))) {
+
+            timestampEnd++;
+        }
+
+        int open = skipSpaces(timestampEnd, end);
+        int colon = text.indexOf(':', open);
+        int close = text.indexOf(')', open);
+        if (open >= end || text.charAt(open) != '(' || colon == -1 || close == -1 || colon > close || close >= end) {
+
+            return false;
+        }
+
+        int typeStart = skipSpaces(close + 1, end);
+        int failedEnd = -1;
+        if (text.startsWith("FAILED ", typeStart)) {
+
+            failedEnd = typeStart + 6;
+
+        } else if (text.startsWith("UNAUTHORIZED ", typeStart)) {
+
+            failedEnd = typeStart + 12;
+        }
+
+        if (failedEnd != -1) {
+
+            typeStart = skipSpaces(failedEnd, end);
+        }
+
+        String type = text.substring(typeStart, end);
+        String location = null;
+        if (type.startsWith("ERROR AT") || type.startsWith("WARNING AT")) {
+
+            int typeEnd = type.indexOf(" AT") + 3;
+            location = type.substring(typeEnd).trim();
+            type = type.substring(0, typeEnd);
+        }
+
+        int layout = layoutOf(type);
+        if (layout == UNKNOWN || !isLayoutStart(layout)) {
+
+            return false;
+        }
+
+        Timestamp timestamp;
+        try {
+
+            char[] chars = text.substring(start, timestampEnd).toCharArray();
+            chars[10] = ' ';
+            timestamp = Timestamp.valueOf(new String(chars));
+
+        } catch (IllegalArgumentException e) {
+
+            return false;
+        }
+
+        message.setTimestamp(timestamp);
+        message.setIdProcess(text.substring(open + 1, colon));
+        message.setIdThread(text.substring(colon + 1, close));
+        message.setFailed(failedEnd != -1);
+        message.setFailedText(failedEnd != -1 ? text.substring(close + 1, failedEnd) : null);
+        message.setTypeEvent(type);
+
+        line = 1;
+        switch (layout) {
+
+            case TRACE:
+                traceEvent(message);
+                break;
+
+            case DATABASE:
+                message.setTypeEventTrace(LogMessage.TypeEventTrace.DATABASE_EVENT);
+                connectionInfo(message);
+                clientProcessInfo(message);
+                break;
+
+            case TRANSACTION:
+                message.setTypeEventTrace(LogMessage.TypeEventTrace.TRANSACTION_EVENT);
+                connectionInfo(message);
+                clientProcessInfo(message);
+                transactionInfo(message);
+                counters(message);
+                break;
+
+            case STATEMENT:
+                message.setTypeEventTrace(statementEventType(type));
+                connectionInfo(message);
+                clientProcessInfo(message);
+                transactionInfo(message);
+                statement(message);
+                break;
+
+            case PROCEDURE:
+                message.setTypeEventTrace(LogMessage.TypeEventTrace.PROCEDURE_FUNCTION_EVENT);
+                connectionInfo(message);
+                clientProcessInfo(message);
+                transactionInfo(message);
+                procedureInfo(message);
+                break;
+
+            case TRIGGER:
+                message.setTypeEventTrace(LogMessage.TypeEventTrace.TRIGGER_EVENT);
+                connectionInfo(message);
+                clientProcessInfo(message);
+                transactionInfo(message);
+                if (skipBlankLines()) {
+
+                    message.setTriggerInfo(lineText(line++));
+                }
+                counters(message);
+                break;
+
+            case SERVICE:
+                serviceEvent(type, message);
+                break;
+
+            case ERROR:
+                message.setTypeEventTrace(LogMessage.TypeEventTrace.ERROR_WARNING_EVENT);
+                connectionInfo(message);
+                clientProcessInfo(message);
+                errorMessage(location, message);
+                break;
+
+            case SWEEP:
+                message.setTypeEventTrace(LogMessage.TypeEventTrace.SWEEP_EVENT);
+                connectionInfo(message);
+                clientProcessInfo(message);
+                sweepInfo(message);
+                counters(message);
+                break;
+        }
+
+        return true;
+    }
+
+    private static int layoutOf(String type) {
+
+        switch (type) {
+
+            case "TRACE_INIT":
+            case "TRACE_FINI":
+                return TRACE;
+
+            case "CREATE_DATABASE":
+            case "ATTACH_DATABASE":
+            case "DROP_DATABASE":
+            case "DETACH_DATABASE":
+                return DATABASE;
+
+            case "START_TRANSACTION":
+            case "COMMIT_RETAINING":
+            case "COMMIT_TRANSACTION":
+            case "ROLLBACK_RETAINING":
+            case "ROLLBACK_TRANSACTION":
+                return TRANSACTION;
+
+            case "PREPARE_STATEMENT":
+            case "EXECUTE_STATEMENT_START":
+            case "EXECUTE_STATEMENT_FINISH":
+            case "FREE_STATEMENT":
+            case "CLOSE_CURSOR":
+            case "COMPILE_BLR":
+            case "EXECUTE_BLR":
+            case "EXECUTE_DYN":
+                return STATEMENT;
+
+            case "EXECUTE_PROCEDURE_START":
+            case "EXECUTE_PROCEDURE_FINISH":
+            case "EXECUTE_FUNCTION_START":
+            case "EXECUTE_FUNCTION_FINISH":
+                return PROCEDURE;
+
+            case "EXECUTE_TRIGGER_START":
+            case "EXECUTE_TRIGGER_FINISH":
+                return TRIGGER;
+
+            case "ATTACH_SERVICE":
+            case "DETACH_SERVICE":
+            case "START_SERVICE":
+            case "QUERY_SERVICE":
+                return SERVICE;
+
+            case "ERROR AT":
+            case "WARNING AT":
+                return ERROR;
+
+            case "SWEEP_START":
+            case "SWEEP_FINISH":
+            case "SWEEP_FAILED":
+            case "SWEEP_PROGRESS":
+                return SWEEP;
+
+            default:
+                return UNKNOWN;
+        }
+
+    }
+
+    private static LogMessage.TypeEventTrace statementEventType(String type) {
+
+        switch (type) {
+
+            case "PREPARE_STATEMENT":
+                return LogMessage.TypeEventTrace.STATEMENT_PREPARE_EVENT;
+
+            case "FREE_STATEMENT":
+            case "CLOSE_CURSOR":
+                return LogMessage.TypeEventTrace.STATEMENT_FREE_EVENT;
+
+            case "COMPILE_BLR":
+                return LogMessage.TypeEventTrace.COMPILE_BLR_EVENT;
+
+            case "EXECUTE_BLR":
+                return LogMessage.TypeEventTrace.EXECUTE_BLR_EVENT;
+
+            case "EXECUTE_DYN":
+                return LogMessage.TypeEventTrace.EXECUTE_DYN_EVENT;
+
+            default:
+                return LogMessage.TypeEventTrace.STATEMENT_EVENT;
+        }
+
+    }
+
+    /**
+     * Returns whether the line after the header is the one
+     * the events of the specified layout start with.
+     */
+    private boolean isLayoutStart(int layout) {
+
+        switch (layout) {
+
+            case TRACE:
+                return lineStartsWith(1, SESSION_PREFIX);
+
+            case SERVICE:
+                return lineStartsWith(1, SERVICE_PREFIX);
+
+            default:
+                return connectionStart(1) != -1;
+        }
+
+    }
+
+    /**
+     * SESSION_1 name
+     */
+    private void traceEvent(LogMessage message) {
+
+        message.setTypeEventTrace(LogMessage.TypeEventTrace.TRACE_EVENT);
+
+        int start = lineStarts[line] + SESSION_PREFIX.length();
+        int end = lineEnds[line];
+        int nameStart = indexOf(' ', start, end);
+
+        message.setSessionID(text.substring(start, nameStart));
+        if (nameStart < end) {
+
+            message.setSessionName(text.substring(skipSpaces(nameStart, end), end));
+        }
+
+        line++;
+    }
+
+    /**
+     * /opt/db/employee.fdb (ATT_12, SYSDBA:NONE, UTF8, TCPv4:127.0.0.1/51234)
+     */
+    private void connectionInfo(LogMessage message) {
+
+        int open = connectionStart(line);
+        if (open == -1) {
+
+            return;
+        }
+
+        int end = lineEnds[line] - 1;
+        message.setDatabase(text.substring(lineStarts[line], open).trim());
+
+        int idStart = open + CONNECTION_PREFIX.length();
+        int userStart = nextPart(idStart, end);
+        message.setIdConnection(text.substring(idStart, partEnd(idStart, end)));
+
+        int charsetStart = nextPart(userStart, end);
+        int userEnd = partEnd(userStart, end);
+        int roleSeparator = indexOf(':', userStart, userEnd);
+        message.setUserName(text.substring(userStart, roleSeparator));
+        if (roleSeparator < userEnd) {
+
+            message.setRole(text.substring(roleSeparator + 1, userEnd));
+        }
+
+        int protocolStart = skipSpaces(nextPart(charsetStart, end), end);
+        message.setCharset(text.substring(charsetStart, partEnd(charsetStart, end)));
+
+        int protocolEnd = end;
+        while (protocolEnd > protocolStart && text.charAt(protocolEnd - 1) == ' ') {
+
+            protocolEnd--;
+        }
+
+        if (protocolStart < protocolEnd && !text.startsWith("<internal>", protocolStart)) {
+
+            int addressSeparator = indexOf(':', protocolStart, protocolEnd);
+            message.setProtocolConnection(text.substring(protocolStart, addressSeparator));
+            if (addressSeparator < protocolEnd) {
+
+                message.setClientAddress(text.substring(addressSeparator + 1, protocolEnd));
+            }
+
+        }
+
+        line++;
+    }
+
+    /**
+     * /usr/bin/isql:4567
+     */
+    private void clientProcessInfo(LogMessage message) {
+
+        if (line >= lineCount) {
+
+            return;
+        }
+
+        int start = lineStarts[line];
+        int end = lineEnds[line];
+        int separator = text.lastIndexOf(':', end - 1);
+        if (separator <= start || separator == end - 1 || text.charAt(start) == '(') {
+
+            return;
+        }
+
+        for (int i = separator + 1; i < end; i++) {
+
+            if (!isDigit(text.charAt(i))) {
+
+                return;
+            }
+
+        }
+
+        message.setClientProcess(text.substring(start, separator));
+        message.setIdClientProcess(text.substring(separator + 1, end));
+        line++;
+    }
+
+    /**
+     * (TRA_34, READ_COMMITTED | REC_VERSION | WAIT | READ_WRITE)
+     */
+    private void transactionInfo(LogMessage message) {
+
+        if (!skipBlankLines() || !lineStartsWith(line, TRANSACTION_PREFIX) || text.charAt(lineEnds[line] - 1) != ')') {
+
+            return;
+        }
+
+        int start = lineStarts[line] + TRANSACTION_PREFIX.length();
+        int end = lineEnds[line] - 1;
+
+        int modesStart = nextPart(start, end);
+        message.setIdTransaction(text.substring(start, partEnd(start, end)));
+
+        // the isolation level may have two parts, the lock and access modes are the last ones
+        int accessSeparator = text.lastIndexOf(" | ", end);
+        int blockSeparator = accessSeparator > modesStart ? text.lastIndexOf(" | ", accessSeparator - 1) : -1;
+        if (blockSeparator >= modesStart) {
+
+            message.setLevelIsolation(text.substring(modesStart, blockSeparator));
+            message.setModeOfBlock(text.substring(blockSeparator + 3, accessSeparator));
+            message.setModeOfAccess(text.substring(accessSeparator + 3, end));
+        }
+
+        line++;
+    }
+
+    /**
+     * Statement 56:
+     * -----------------
+     * query
+     * ^^^^^^^^^^^^^^^^^
+     * plan, parameters, records fetched and counters
+     */
+    private void statement(LogMessage message) {
+
+        if (!skipBlankLines()) {
+
+            return;
+        }
+
+        int start = lineStarts[line];
+        int end = lineEnds[line];
+        if (text.startsWith(STATEMENT_PREFIX, start) && text.charAt(end - 1) == ':') {
+
+            message.setIdStatement(text.substring(start + STATEMENT_PREFIX.length(), end - 1));
+            line++;
+        }
+
+        if (line < lineCount && isLineOf(line, '-')) {
+
+            line++;
+        }
+
+        // the query ends at the carets line or, if there is none, at the first line of the statistics
+        int queryStart = line;
+        int queryEnd = queryStart;
+        boolean carets = false;
+        while (queryEnd < lineCount) {
+
+            if (isLineOf(queryEnd, '^')) {
+
+                carets = true;
+                break;
+            }
+
+            queryEnd++;
+        }
+
+        if (!carets) {
+
+            queryEnd = queryStart;
+            while (queryEnd < lineCount && !isStatisticsLine(queryEnd)) {
+
+                queryEnd++;
+            }
+
+        }
+
+        message.setStatementText(linesText(queryStart, queryEnd));
+
+        line = carets ? queryEnd + 1 : queryEnd;
+        counters(message);
+    }
+
+    /**
+     * Procedure NAME:
+     * parameters, return value, records fetched and counters
+     */
+    private void procedureInfo(LogMessage message) {
+
+        if (!skipBlankLines()) {
+
+            return;
+        }
+
+        int start = lineStarts[line];
+        int end = lineEnds[line];
+        if ((text.startsWith("Procedure ", start) || text.startsWith("Function ", start))
+                && text.charAt(end - 1) == ':') {
+
+            message.setProcedureName(text.substring(start, end - 1));
+            line++;
+        }
+
+        counters(message);
+    }
+
+    /**
+     * Reads the statistics sections following the current line - the plan, the
+     * parameters, the return value, the records fetched, the global counters
+     * and the table counters.
+     */
+    private void counters(LogMessage message) {
+
+        while (line < lineCount) {
+
+            int start = lineStarts[line];
+            int end = lineEnds[line];
+            if (start == end) {
+
+                line++;
+
+            } else if (text.startsWith("PLAN", start) || text.startsWith("Select Expression", start)) {
+
+                int first = line++;
+                while (line < lineCount && (lineStartsWith(line, "->") || lineStartsWith(line, "PLAN"))) {
+
+                    line++;
+                }
+
+                message.setPlanText(linesText(first, line));
+
+            } else if (isParameterLine(line)) {
+
+                int first = line++;
+                while (line < lineCount && isParameterLine(line)) {
+
+                    line++;
+                }
+
+                message.setParamText(linesText(first, line));
+
+            } else if (text.startsWith(RETURNS_PREFIX, start)) {
+
+                message.setReturnValue(text.substring(start + RETURNS_PREFIX.length(), end));
+                line++;
+
+            } else if (isRecordsFetchedLine(line)) {
+
+                message.setFetchedRecords(text.substring(start, end - RECORDS_FETCHED.length()));
+                line++;
+
+            } else if (isGlobalCountersLine(line)) {
+
+                globalCounters(start, end, message);
+                line++;
+
+            } else if (text.startsWith("Table", start)) {
+
+                message.setTableCounters(linesText(line, lineCount));
+                line = lineCount;
+
+            } else {
+
+                line++;
+            }
+
+        }
+
+    }
+
+    /**
+     * 15 ms, 2 read(s), 1 write(s), 40 fetch(es), 3 mark(s)
+     */
+    private void globalCounters(int start, int end, LogMessage message) {
+
+        int index = start;
+        while (index < end) {
+
+            int numberStart = skipSpaces(index, end);
+            int numberEnd = numberStart;
+            while (numberEnd < end && isDigit(text.charAt(numberEnd))) {
+
+                numberEnd++;
+            }
+
+            int unitStart = skipSpaces(numberEnd, end);
+            int unitEnd = indexOf(',', unitStart, end);
+            if (numberEnd > numberStart) {
+
+                String value = text.substring(numberStart, numberEnd);
+                if (text.startsWith("ms", unitStart)) {
+
+                    message.setTimeExecution(value);
+
+                } else if (text.startsWith("read", unitStart)) {
+
+                    message.setCountReads(value);
+
+                } else if (text.startsWith("write", unitStart)) {
+
+                    message.setCountWrites(value);
+
+                } else if (text.startsWith("fetch", unitStart)) {
+
+                    message.setCountFetches(value);
+
+                } else if (text.startsWith("mark", unitStart)) {
+
+                    message.setCountMarks(value);
+                }
+
+            }
+
+            index = unitEnd + 1;
+        }
+
+    }
+
+    /**
+     * service_mgr, (Service 00000000035D3D28, SYSDBA, TCPv4:127.0.0.1, /usr/bin/fbtracemgr:4567)
+     */
+    private void serviceEvent(String type, LogMessage message) {
+
+        // the client process may continue on the next line
+        int first = line;
+        while (line < lineCount && text.charAt(lineEnds[line] - 1) != ')') {
+
+            line++;
+        }
+
+        if (line == lineCount) {
+
+            line = first;
+        }
+
+        int start = text.indexOf('(', lineStarts[first]);
+        int end = lineEnds[line] - 1;
+        line++;
+
+        if (start != -1 && start < end) {
+
+            String[] parts = text.substring(start + 1, end).split(",", 4);
+            String service = parts[0].trim();
+            message.setServiceID(service.startsWith("Service ") ? service.substring(8).trim() : service);
+
+            if (parts.length > 1) {
+
+                message.setUserName(parts[1].trim());
+            }
+
+            if (parts.length > 2) {
+
+                String connection = parts[2].trim();
+                int separator = connection.indexOf(':');
+                message.setProtocolConnection(separator != -1 ? connection.substring(0, separator) : connection);
+                if (separator != -1) {
+
+                    message.setClientAddress(connection.substring(separator + 1));
+                }
+
+            }
+
+            if (parts.length > 3) {
+
+                String process = parts[3].trim();
+                int separator = process.lastIndexOf(':');
+                message.setClientProcess(separator != -1 ? process.substring(0, separator) : process);
+                if (separator != -1) {
+
+                    message.setIdClientProcess(process.substring(separator + 1));
+                }
+
+            }
+
+        }
+
+        if ("START_SERVICE".equals(type)) {
+
+            message.setTypeEventTrace(LogMessage.TypeEventTrace.START_SERVICE_EVENT);
+            typeQueryService(message);
+            message.setOptionsStartService(linesText(line, lineCount));
+
+        } else if ("QUERY_SERVICE".equals(type)) {
+
+            message.setTypeEventTrace(LogMessage.TypeEventTrace.QUERY_SERVICE_EVENT);
+            typeQueryService(message);
+            queryPortions(message);
+
+        } else {
+
+            message.setTypeEventTrace(LogMessage.TypeEventTrace.SERVICE_EVENT);
+        }
+
+    }
+
+    /**
+     * "Start Trace Session"
+     */
+    private void typeQueryService(LogMessage message) {
+
+        if (!skipBlankLines()) {
+
+            return;
+        }
+
+        int start = lineStarts[line];
+        int end = lineEnds[line];
+        if (end - start > 1 && text.charAt(start) == '"' && text.charAt(end - 1) == '"') {
+
+            message.setTypeQueryService(text.substring(start + 1, end - 1));
+            line++;
+        }
+
+    }
+
+    private void queryPortions(LogMessage message) {
+
+        if (line >= lineCount) {
+
+            return;
+        }
+
+        int start = lineStarts[line];
+        int end = lineEnds[lineCount - 1];
+
+        int send = text.indexOf(SEND_PORTION, start);
+        int receive = text.indexOf(RECEIVE_PORTION, start);
+        if (send != -1 && send < end) {
+
+            int sendEnd = receive > send ? receive : end;
+            message.setSentData(text.substring(send + SEND_PORTION.length(), sendEnd).trim());
+        }
+
+        if (receive != -1 && receive < end) {
+
+            message.setReceivedData(text.substring(receive + RECEIVE_PORTION.length(), end).trim());
+        }
+
+    }
+
+    private void errorMessage(String location, LogMessage message) {
+
+        String error = linesText(line, lineCount);
+        if (location != null && !location.isEmpty()) {
+
+            error = error != null ? location + "\n" + error : location;
+        }
+
+        message.setErrorMessage(error);
+        line = lineCount;
+    }
+
+    /**
+     * Transaction counters:
+     * Oldest interesting 1
+     * Oldest active 2
+     * Oldest snapshot 2
+     * Next transaction 3
+     */
+    private void sweepInfo(LogMessage message) {
+
+        while (skipBlankLines()) {
+
+            int start = lineStarts[line];
+            int end = lineEnds[line];
+            if (text.startsWith("Oldest interesting ", start)) {
+
+                message.setOldestInteresting(text.substring(start + 19, end).trim());
+
+            } else if (text.startsWith("Oldest active ", start)) {
+
+                message.setOldestActive(text.substring(start + 14, end).trim());
+
+            } else if (text.startsWith("Oldest snapshot ", start)) {
+
+                message.setOldestSnapshot(text.substring(start + 16, end).trim());
+
+            } else if (text.startsWith("Next transaction ", start)) {
+
+                message.setNextTransaction(text.substring(start + 17, end).trim());
+
+            } else if (!text.startsWith("Transaction counters:", start)) {
+
+                return;
+            }
+
+            line++;
+        }
+
+    }
+
+    private void splitLines() {
+
+        lineCount = 0;
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+
+            int end = text.indexOf('\n', start);
+            if (end == -1) {
+
+                end = length;
+            }
+
+            int next = end + 1;
+            while (start < end && text.charAt(start) <= ' ') {
+
+                start++;
+            }
+
+            while (end > start && text.charAt(end - 1) <= ' ') {
+
+                end--;
+            }
+
+            if (lineCount == lineStarts.length) {
+
+                lineStarts = grow(lineStarts);
+                lineEnds = grow(lineEnds);
+            }
+
+            lineStarts[lineCount] = start;
+            lineEnds[lineCount] = end;
+            lineCount++;
+
+            start = next;
+        }
+
+        // the trailing blank lines
+        while (lineCount > 0 && lineStarts[lineCount - 1] == lineEnds[lineCount - 1]) {
+
+            lineCount--;
+        }
+
+    }
+
+    /**
+     * Returns the offset of the connection details of the specified line,
+     * -1 if it is not a connection line.
+     */
+    private int connectionStart(int index) {
+
+        if (index >= lineCount || lineStarts[index] == lineEnds[index] || text.charAt(lineEnds[index] - 1) != ')') {
+
+            return -1;
+        }
+
+        int start = text.lastIndexOf(CONNECTION_PREFIX, lineEnds[index]);
+        return start >= lineStarts[index] ? start : -1;
+    }
+
+    private boolean isStatisticsLine(int index) {
+
+        return isParameterLine(index)
+                || isRecordsFetchedLine(index)
+                || isGlobalCountersLine(index)
+                || lineStartsWith(index, "Table");
+    }
+
+    /**
+     * param0 = integer, "1"
+     */
+    private boolean isParameterLine(int index) {
+
+        int start = lineStarts[index];
+        int end = lineEnds[index];
+        if (!text.startsWith("param", start)) {
+
+            return false;
+        }
+
+        int digitsEnd = start + 5;
+        while (digitsEnd < end && isDigit(text.charAt(digitsEnd))) {
+
+            digitsEnd++;
+        }
+
+        return digitsEnd > start + 5 && text.startsWith(" = ", digitsEnd);
+    }
+
+    private boolean isRecordsFetchedLine(int index) {
+
+        int start = lineStarts[index];
+        int end = lineEnds[index];
+        return end - start > RECORDS_FETCHED.length()
+                && isDigits(start, end - RECORDS_FETCHED.length())
+                && text.startsWith(RECORDS_FETCHED, end - RECORDS_FETCHED.length());
+    }
+
+    private boolean isGlobalCountersLine(int index) {
+
+        int start = lineStarts[index];
+        int end = lineEnds[index];
+        int digitsEnd = start;
+        while (digitsEnd < end && isDigit(text.charAt(digitsEnd))) {
+
+            digitsEnd++;
+        }
+
+        return digitsEnd > start && text.startsWith(" ms", digitsEnd)
+                && (digitsEnd + 3 == end || text.charAt(digitsEnd + 3) == ',');
+    }
+
+    private boolean isLineOf(int index, char c) {
+
+        int start = lineStarts[index];
+        int end = lineEnds[index];
+        if (start == end) {
+
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+
+            if (text.charAt(i) != c) {
+
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    private boolean lineStartsWith(int index, String prefix) {
+
+        return index < lineCount && lineEnds[index] - lineStarts[index] >= prefix.length()
+                && text.startsWith(prefix, lineStarts[index]);
+    }
+
+    /**
+     * Moves to the next non-blank line.
+     *
+     * @return false if there is none
+     */
+    private boolean skipBlankLines() {
+
+        while (line < lineCount && lineStarts[line] == lineEnds[line]) {
+
+            line++;
+        }
+
+        return line < lineCount;
+    }
+
+    private String lineText(int index) {
+
+        return text.substring(lineStarts[index], lineEnds[index]);
+    }
+
+    /**
+     * Returns the text from the specified line to the line before the
+     * specified end without the blank lines around, null if it is blank.
+     */
+    private String linesText(int from, int to) {
+
+        while (from < to && lineStarts[from] == lineEnds[from]) {
+
+            from++;
+        }
+
+        while (to > from && lineStarts[to - 1] == lineEnds[to - 1]) {
+
+            to--;
+        }
+
+        return from < to ? text.substring(lineStarts[from], lineEnds[to - 1]) : null;
+    }
+
+    /**
+     * Returns the offset of the part after the comma separated part
+     * starting at the specified offset, the end if it is the last one.
+     */
+    private int nextPart(int start, int end) {
+
+        int comma = indexOf(',', start, end);
+        return comma < end ? skipSpaces(comma + 1, end) : end;
+    }
+
+    private int partEnd(int start, int end) {
+
+        return indexOf(',', start, end);
+    }
+
+    /**
+     * Returns the offset of the first specified character before the specified end,
+     * the end if there is none.
+     */
+    private int indexOf(char c, int start, int end) {
+
+        int index = text.indexOf(c, start);
+        return index == -1 || index > end ? end : index;
+    }
+
+    private int skipSpaces(int index, int end) {
+
+        while (index < end && text.charAt(index) == ' ') {
+
+            index++;
+        }
+
+        return index;
+    }
+
+    private boolean isDigits(int start, int end) {
+
+        for (int i = start; i < end; i++) {
+
+            if (!isDigit(text.charAt(i))) {
+
+                return false;
+            }
+
+        }
+
+        return start < end;
+    }
+
+    private static boolean isDigit(char c) {
+
+        return c >= '0' && c <= '9';
+    }
+
+    private static int[] grow(int[] values) {
+
+        int[] grown = new int[values.length * 2];
+        System.arraycopy(values, 0, grown, 0, values.length);
+        return grown;
+    }
+
+}
@@ -185,6 +185,16 @@ public class DatabaseObjectNode extends DefaultMutableTreeNode {
         }
     }
 
+    /**
+     * Replaces this node's children with nodes for the objects
+     * already reloaded by the underlying database object.
+     */
+    public void repopulateChildren() throws DataSourceException {
+        removeAllChildren();
+        childrenRetrieved = false;
+        populateChildren();
+    }
+
     /**
      * Returns the children associated with this node.
      *
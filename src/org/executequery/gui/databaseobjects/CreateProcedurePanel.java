@@ -19,15 +19,12 @@ import org.executequery.gui.ActionContainer;
 import org.executequery.gui.browser.ColumnData;
 import org.executequery.gui.procedure.CreateProcedureFunctionPanel;
 import org.underworldlabs.jdbc.DataSourceException;
-import org.underworldlabs.util.MiscUtils;
+import org.underworldlabs.util.DynamicLibraryLoader;
 import org.underworldlabs.util.SQLUtils;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -94,19 +91,14 @@ public class CreateProcedurePanel extends CreateProcedureFunctionPanel
 
             PooledDatabaseMetaData poolMetaData = (PooledDatabaseMetaData) dmd;
             DatabaseMetaData dMetaData = poolMetaData.getInner();
-            URL[] urls;
-            Class clazzdb;
             Object odb;
-            urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-            ClassLoader cl = new URLClassLoader(urls, dMetaData.getClass().getClassLoader());
-            clazzdb = cl.loadClass("biz.redsoft.FBDatabaseMetadataImpl");
-            odb = clazzdb.newInstance();
+            odb = DynamicLibraryLoader.loadingObjectFromClassLoader(dMetaData, "FBDatabaseMetadataImpl");
             IFBDatabaseMetadata db = (IFBDatabaseMetadata) odb;
 
             fullProcedureBody = db.getProcedureSourceCode(dMetaData, this.procedure);
 
 
-        } catch (IllegalAccessException | InstantiationException | MalformedURLException | ClassNotFoundException | SQLException e) {
+        } catch (ClassNotFoundException | SQLException e) {
             e.printStackTrace();
         } finally {
             if (host != null)
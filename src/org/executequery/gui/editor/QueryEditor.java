@@ -673,6 +673,7 @@ public class QueryEditor extends DefaultTabView
      */
     public void executing() {
 
+        resultsPanel.cancelBackgroundFetches();
         popup.statementExecuting();
 
         setStopButtonEnabled(true);
@@ -797,7 +798,19 @@ public class QueryEditor extends DefaultTabView
      */
     public void setResultSet(ResultSet rset, String query) {
 
-        resultsPanel.setResultSet(rset, true, getMaxRecords(), query);
+        setResultSet(rset, query, false);
+    }
+
+    /**
+     * Sets the result set object.
+     *
+     * @param the executed result set
+     * @param the executed query of the result set
+     * @param whether to read the rows past the first page in the background
+     */
+    public void setResultSet(ResultSet rset, String query, boolean fetchInBackground) {
+
+        resultsPanel.setResultSet(rset, true, getMaxRecords(), query, fetchInBackground);
     }
 
     public void destroyTable() {
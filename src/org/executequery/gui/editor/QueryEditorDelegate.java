@@ -257,9 +257,9 @@ public class QueryEditorDelegate implements QueryDelegate {
         queryEditor.setResultText(result, type);
     }
 
-    public void setResultSet(ResultSet rs, String query) {
+    public void setResultSet(ResultSet rs, String query, boolean fetchInBackground) {
 
-        queryEditor.setResultSet(rs, query);
+        queryEditor.setResultSet(rs, query, fetchInBackground);
     }
 
     public void setStatusMessage(String text) {
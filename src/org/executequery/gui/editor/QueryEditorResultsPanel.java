@@ -26,6 +26,7 @@ import org.executequery.UserPreferencesManager;
 import org.executequery.databasemediators.QueryTypes;
 import org.executequery.gui.LoggingOutputPanel;
 import org.executequery.gui.resultset.RecordDataItem;
+import org.executequery.gui.resultset.ResultSetFetchListener;
 import org.executequery.gui.resultset.ResultSetTable;
 import org.executequery.gui.resultset.ResultSetTableModel;
 import org.executequery.localization.Bundles;
@@ -287,6 +288,40 @@ public class QueryEditorResultsPanel extends SimpleCloseTabbedPane
         setVisible(true);
     }
 
+    @Override
+    public void removeTabAt(int index) {
+
+        cancelBackgroundFetch(getComponentAt(index));
+        super.removeTabAt(index);
+    }
+
+    /**
+     * Stops the background fetches of the result set tabs - the next
+     * statement on the connection would close their result sets.
+     */
+    public void cancelBackgroundFetches() {
+
+        for (Component component : getComponents()) {
+
+            cancelBackgroundFetch(component);
+        }
+
+    }
+
+    private void cancelBackgroundFetch(Component component) {
+
+        if (component instanceof ResultSetPanel) {
+
+            ResultSetTableModel model = ((ResultSetPanel) component).getResultSetTableModel();
+            if (model != null) {
+
+                model.cancelBackgroundFetch();
+            }
+
+        }
+
+    }
+
     public boolean hasOutputPane() {
 
         return getResultSetTabCount() == (getTabCount() - 1);
@@ -360,7 +395,27 @@ public class QueryEditorResultsPanel extends SimpleCloseTabbedPane
      */
     public int setResultSet(ResultSet rset, boolean showRowNumber, int maxRecords, String query) {
 
-        ResultSetTableModel model = new ResultSetTableModel(rset, maxRecords, query, false);
+        return setResultSet(rset, showRowNumber, maxRecords, query, false);
+    }
+
+    /**
+     * Sets the result set object.
+     *
+     * @param rset              - the executed result set
+     * @param showRowNumber     - whether to return the result set row count
+     * @param maxRecords        - the maximum records to return
+     * @param query             - the executed query of the result set
+     * @param fetchInBackground - whether to read only the first page here and
+     *                          the remaining rows in the background - the result
+     *                          set and its statement are then closed when done
+     */
+    public int setResultSet(ResultSet rset, boolean showRowNumber, int maxRecords, String query, boolean fetchInBackground) {
+
+        ResultSetTableModel model = new ResultSetTableModel(null, maxRecords, query, false);
+        model.setFetchInBackground(fetchInBackground);
+        model.createTable(rset);
+
+        boolean moreRows = fetchInBackground && !model.isResultSetClose();
 
         int rowCount = getResultSetRowCount(model, showRowNumber);
         if (rowCount == 0) {
@@ -368,7 +423,7 @@ public class QueryEditorResultsPanel extends SimpleCloseTabbedPane
             return rowCount;
         }
 
-        if (rowCount == 1 && transposeSingleRowResultSets()) {
+        if (rowCount == 1 && !moreRows && transposeSingleRowResultSets()) {
 
             transposeRow(model, 0);
 
@@ -388,11 +443,47 @@ public class QueryEditorResultsPanel extends SimpleCloseTabbedPane
                 resultSetTableColumnResizingManager.reinstate(table);
             }
             addResultSetPanel(query, rowCount, panel);
+
+            if (moreRows) {
+
+                fetchInBackground(model, panel);
+            }
         }
 
         return rowCount;
     }
 
+    private void fetchInBackground(ResultSetTableModel model, final ResultSetPanel panel) {
+
+        model.fetchAllInBackground(new ResultSetFetchListener() {
+
+            @Override
+            public void fetchProgress(int rowCount, double rowsPerSecond) {
+
+                if (queryEditor != null && getSelectedComponent() == panel) {
+
+                    queryEditor.setLeftStatusText(SPACE + rowCount + ROWS_RETURNED
+                            + " - fetching " + Math.round(rowsPerSecond) + " rows/s");
+                }
+            }
+
+            @Override
+            public void fetchFinished(int rowCount, boolean cancelled, Throwable error) {
+
+                if (getSelectedComponent() == panel) {
+
+                    resetEditorRowCount(rowCount);
+                }
+
+                if (error != null) {
+
+                    setOutputMessage(SqlMessages.ERROR_MESSAGE, "Error fetching rows - " + error.getMessage(), false);
+                }
+            }
+
+        });
+    }
+
     private ResultSetPanel createResultSetPanel() {
 
         ResultSetPanel panel = new ResultSetPanel(this);
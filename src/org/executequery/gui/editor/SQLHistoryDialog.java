@@ -20,7 +20,6 @@
 
 package org.executequery.gui.editor;
 
-import org.executequery.Constants;
 import org.executequery.GUIUtilities;
 import org.executequery.gui.DefaultList;
 import org.executequery.gui.DefaultPanelButton;
@@ -42,8 +41,6 @@ import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.util.Vector;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * The History Dialog displays the executed SQL statement history
@@ -54,7 +51,9 @@ import java.util.regex.Pattern;
  * and clicking the SELECT button.<br>
  * The selected statement is displayed within the Query Editor that
  * initiated the frame.<br>
- * Selecting the CANCEL button closes the dialog.
+ * Selecting the CANCEL button closes the dialog.<br>
+ * The list may be narrowed to the statements with words starting
+ * with the words searched for and executed within a recent period.
  *
  * @author Takis Diakoumis
  */
@@ -62,6 +61,12 @@ public class SQLHistoryDialog extends AbstractBaseDialog
         implements ActionListener,
         ListSelectionListener {
 
+    private static final String[] PERIODS = {"Any time", "Last day", "Last 7 days", "Last 30 days"};
+
+    private static final int[] PERIOD_DAYS = {0, 1, 7, 30};
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
     private JList historyList;
 
     private Vector<String> data;
@@ -70,6 +75,8 @@ public class SQLHistoryDialog extends AbstractBaseDialog
 
     private JTextField searchField;
 
+    private JComboBox periodBox;
+
     private JCheckBox newEditorCheck;
 
     private SQLTextPane textPane;
@@ -144,6 +151,9 @@ public class SQLHistoryDialog extends AbstractBaseDialog
         searchField.addActionListener(this);
         JButton searchButton = createButton("Search", null);
 
+        periodBox = WidgetFactory.createComboBox(PERIODS);
+        periodBox.addActionListener(this);
+
         JPanel searchPanel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.gridx++;
@@ -155,6 +165,8 @@ public class SQLHistoryDialog extends AbstractBaseDialog
         searchPanel.add(searchField, gbc);
         gbc.gridx++;
         gbc.weightx = 0;
+        searchPanel.add(periodBox, gbc);
+        gbc.gridx++;
         gbc.insets.right = 0;
         searchPanel.add(searchButton, gbc);
 
@@ -279,30 +291,14 @@ public class SQLHistoryDialog extends AbstractBaseDialog
 
             insertAtCursorButton();
 
-        } else if (command.equals("Search") || e.getSource() == searchField) {
-
-            String text = searchField.getText();
-
-            if (MiscUtils.isNull(text)) {
-
-                return;
-            }
-
-            int start = historyList.getSelectedIndex();
-            if (start == -1 || start == data.size() - 1) {
-
-                start = 0;
-
-            } else {
-
-                start++;
-            }
+        } else if (command.equals("Search") || e.getSource() == searchField
+                || e.getSource() == periodBox) {
 
-            search(text, start);
+            search(searchField.getText());
 
         } else if (command.equals("Clear")) {
 
-            sqlCommandHistoryRepository().clearSqlCommandHistory(queryEditor.getSelectedConnection().getId());
+            sqlCommandHistoryRepository().clearSqlCommandHistory(connectionID());
             setHistoryData(new Vector<String>(0));
 
         } else {
@@ -318,23 +314,42 @@ public class SQLHistoryDialog extends AbstractBaseDialog
                 SqlCommandHistoryRepository.REPOSITORY_ID);
     }
 
-    private void search(String text, int start) {
-        Pattern pattern = Pattern.compile("\\b" + text,
-                Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(Constants.EMPTY);
+    private String connectionID() {
 
-        for (int i = start, k = data.size(); i < k; i++) {
+        if (queryEditor.getSelectedConnection() == null) {
 
-            matcher.reset(data.get(i));
+            return QueryEditorHistory.NULL_CONNECTION;
+        }
 
-            if (matcher.find()) {
-                historyList.setSelectedIndex(i);
-                scrollToSelection(i);
-                return;
-            }
+        return queryEditor.getSelectedConnection().getId();
+    }
+
+    /**
+     * Lists the statements matching the text executed within
+     * the selected period.
+     */
+    private void search(String text) {
+
+        long from = Long.MIN_VALUE;
+        if (periodBox.getSelectedIndex() > 0) {
+
+            from = System.currentTimeMillis() - PERIOD_DAYS[periodBox.getSelectedIndex()] * DAY;
+        }
+
+        Vector<String> found = sqlCommandHistoryRepository().searchSqlCommandHistory(
+                connectionID(), MiscUtils.isNull(text) ? "" : text, from, Long.MAX_VALUE);
+        setHistoryData(found);
+
+        if (found.isEmpty()) {
+
+            GUIUtilities.displayInformationMessage("Search string not found");
+
+        } else {
+
+            historyList.setSelectedIndex(0);
+            scrollToSelection(0);
         }
 
-        GUIUtilities.displayInformationMessage("Search string not found");
     }
 
     private void scrollToSelection(int i) {
@@ -0,0 +1,146 @@
+package org.executequery.gui.editor.autocomplete;
+
+import org.executequery.databasemediators.DatabaseConnection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The tables, views, procedures, functions and columns of a connection
+ * offered by the autocomplete of its editors.
+ * <p/>
+ * A catalog is loaded by the first editor needing it and shared by all
+ * the editors of the connection until the connection is closed.
+ */
+public class AutoCompleteCatalog {
+
+    private static final Map<DatabaseConnection, AutoCompleteCatalog> CATALOGS =
+            new HashMap<DatabaseConnection, AutoCompleteCatalog>();
+
+    private final AutoCompleteIndex index = new AutoCompleteIndex();
+
+    private final Map<String, List<AutoCompleteListItem>> columns =
+            new HashMap<String, List<AutoCompleteListItem>>();
+
+    private boolean loading;
+
+    private boolean loaded;
+
+    /**
+     * Returns the catalog of the specified connection.
+     */
+    public static synchronized AutoCompleteCatalog forConnection(DatabaseConnection databaseConnection) {
+
+        AutoCompleteCatalog catalog = CATALOGS.get(databaseConnection);
+        if (catalog == null) {
+
+            catalog = new AutoCompleteCatalog();
+            CATALOGS.put(databaseConnection, catalog);
+        }
+
+        return catalog;
+    }
+
+    /**
+     * Discards the catalog of the specified connection, the
+     * next editor needing it loads it again.
+     */
+    public static synchronized void release(DatabaseConnection databaseConnection) {
+
+        CATALOGS.remove(databaseConnection);
+    }
+
+    /**
+     * Returns whether the caller is to load the catalog - the
+     * catalog is loaded by one caller at a time.
+     */
+    synchronized boolean startLoading() {
+
+        if (loading || loaded) {
+
+            return false;
+        }
+
+        loading = true;
+        return true;
+    }
+
+    /**
+     * Ends the loading started, the items of an incomplete loading are discarded.
+     */
+    synchronized void loadingFinished(boolean complete) {
+
+        loading = false;
+        loaded = complete;
+
+        if (!complete) {
+
+            index.clear();
+            columns.clear();
+        }
+
+    }
+
+    synchronized boolean isLoading() {
+
+        return loading;
+    }
+
+    synchronized boolean needsLoading() {
+
+        return !loading && !loaded;
+    }
+
+    synchronized void addListItems(List<AutoCompleteListItem> items) {
+
+        List<AutoCompleteListItem> objects = new ArrayList<AutoCompleteListItem>(items.size());
+        for (AutoCompleteListItem item : items) {
+
+            if (item.isTableColumn()) {
+
+                String table = item.getParentName().toUpperCase();
+                List<AutoCompleteListItem> tableColumns = columns.get(table);
+                if (tableColumns == null) {
+
+                    tableColumns = new ArrayList<AutoCompleteListItem>();
+                    columns.put(table, tableColumns);
+                }
+                tableColumns.add(item);
+
+            } else {
+
+                objects.add(item);
+            }
+
+        }
+
+        index.add(objects);
+    }
+
+    /**
+     * Returns the objects whose name starts with the specified upper case prefix.
+     */
+    List<AutoCompleteListItem> itemsStartingWith(String prefix) {
+
+        return index.startingWith(prefix);
+    }
+
+    /**
+     * Returns the columns of the specified upper case table name,
+     * <code>null</code> if the catalog is not loaded or has no columns
+     * of the table - one created since the catalog was loaded.
+     */
+    synchronized List<AutoCompleteListItem> columnsForTable(String table) {
+
+        if (!loaded) {
+
+            return null;
+        }
+
+        List<AutoCompleteListItem> tableColumns = columns.get(table);
+        return tableColumns != null ? new ArrayList<AutoCompleteListItem>(tableColumns) : null;
+    }
+
+}
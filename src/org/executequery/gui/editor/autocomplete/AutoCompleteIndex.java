@@ -0,0 +1,150 @@
+package org.executequery.gui.editor.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Autocomplete items kept sorted by their upper case insertion value.
+ * <p/>
+ * The items added are sorted and merged with the others on the first lookup
+ * after them, a lookup is a binary search for the first item of the prefix.
+ */
+class AutoCompleteIndex {
+
+    private final List<AutoCompleteListItem> added = new ArrayList<AutoCompleteListItem>();
+
+    private AutoCompleteListItem[] items = new AutoCompleteListItem[0];
+
+    private String[] keys = new String[0];
+
+    synchronized void add(List<AutoCompleteListItem> listItems) {
+
+        added.addAll(listItems);
+    }
+
+    synchronized void clear() {
+
+        added.clear();
+        items = new AutoCompleteListItem[0];
+        keys = new String[0];
+    }
+
+    synchronized boolean isEmpty() {
+
+        return items.length == 0 && added.isEmpty();
+    }
+
+    /**
+     * Returns the items whose insertion value starts with the specified upper
+     * case prefix - the schema objects first, each part ordered by value.
+     */
+    synchronized List<AutoCompleteListItem> startingWith(String prefix) {
+
+        if (!added.isEmpty()) {
+
+            sort();
+        }
+
+        List<AutoCompleteListItem> schemaObjects = new ArrayList<AutoCompleteListItem>();
+        List<AutoCompleteListItem> others = new ArrayList<AutoCompleteListItem>();
+
+        for (int i = lowerBound(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+
+            if (items[i].isSchemaObject()) {
+
+                schemaObjects.add(items[i]);
+
+            } else {
+
+                others.add(items[i]);
+            }
+
+        }
+
+        schemaObjects.addAll(others);
+        return schemaObjects;
+    }
+
+    /**
+     * Sorts the items added and merges them with the sorted ones.
+     */
+    private void sort() {
+
+        Entry[] entries = new Entry[added.size()];
+        for (int i = 0; i < entries.length; i++) {
+
+            AutoCompleteListItem item = added.get(i);
+            entries[i] = new Entry(item.getInsertionValue().toUpperCase(), item);
+        }
+        added.clear();
+        Arrays.sort(entries);
+
+        AutoCompleteListItem[] mergedItems = new AutoCompleteListItem[items.length + entries.length];
+        String[] mergedKeys = new String[mergedItems.length];
+
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < mergedItems.length; k++) {
+
+            if (j == entries.length || (i < keys.length && keys[i].compareTo(entries[j].key) <= 0)) {
+
+                mergedItems[k] = items[i];
+                mergedKeys[k] = keys[i++];
+
+            } else {
+
+                mergedItems[k] = entries[j].item;
+                mergedKeys[k] = entries[j++].key;
+            }
+
+        }
+
+        items = mergedItems;
+        keys = mergedKeys;
+    }
+
+    /**
+     * Returns the index of the first key not less than the specified one.
+     */
+    private int lowerBound(String key) {
+
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+
+                low = middle + 1;
+
+            } else {
+
+                high = middle;
+            }
+
+        }
+
+        return low;
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        private final String key;
+
+        private final AutoCompleteListItem item;
+
+        Entry(String key, AutoCompleteListItem item) {
+
+            this.key = key;
+            this.item = item;
+        }
+
+        public int compareTo(Entry o) {
+
+            return key.compareTo(o.key);
+        }
+
+    }
+
+}
@@ -26,6 +26,7 @@ import org.executequery.databasemediators.DatabaseConnection;
 import org.executequery.databasemediators.DatabaseDriver;
 import org.executequery.databaseobjects.DatabaseHost;
 import org.executequery.databaseobjects.DatabaseSource;
+import org.executequery.databaseobjects.DatabaseTypeConverter;
 import org.executequery.databaseobjects.impl.ColumnInformation;
 import org.executequery.databaseobjects.impl.ColumnInformationFactory;
 import org.executequery.datasource.DefaultDriverLoader;
@@ -34,11 +35,8 @@ import org.executequery.gui.text.SQLTextPane;
 import org.executequery.log.Log;
 import org.executequery.repository.KeywordRepository;
 import org.executequery.repository.RepositoryCache;
-import org.underworldlabs.util.MiscUtils;
+import org.underworldlabs.util.DynamicLibraryLoader;
 
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.*;
 import java.util.*;
 
@@ -60,6 +58,8 @@ public class AutoCompleteSelectionsFactory {
 
     private List<AutoCompleteListItem> tables;
 
+    private boolean interrupted;
+
     public AutoCompleteSelectionsFactory(AutoCompletePopupProvider provider) {
         super();
         this.provider = provider;
@@ -69,6 +69,7 @@ public class AutoCompleteSelectionsFactory {
                       QueryEditor queryEditor) {
 
         tables = new ArrayList<AutoCompleteListItem>();
+        interrupted = false;
 
         List<AutoCompleteListItem> listSelections = new ArrayList<AutoCompleteListItem>();
         if (autoCompleteKeywords) {
@@ -101,22 +102,11 @@ public class AutoCompleteSelectionsFactory {
                         e.printStackTrace();
                     }
 
-                    URL[] urls = new URL[0];
-                    Class clazzdb = null;
                     Object odb = null;
                     try {
-                        urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-                        ClassLoader cl = new URLClassLoader(urls, connection.getClass().getClassLoader());
-                        clazzdb = cl.loadClass("biz.redsoft.FBDatabaseConnectionImpl");
-                        odb = clazzdb.newInstance();
+                        odb = DynamicLibraryLoader.loadingObjectFromClassLoader(connection, "FBDatabaseConnectionImpl");
                     } catch (ClassNotFoundException e) {
                         e.printStackTrace();
-                    } catch (IllegalAccessException e) {
-                        e.printStackTrace();
-                    } catch (InstantiationException e) {
-                        e.printStackTrace();
-                    } catch (MalformedURLException e) {
-                        e.printStackTrace();
                     }
 
                     IFBDatabaseConnection db = (IFBDatabaseConnection) odb;
@@ -138,7 +128,10 @@ public class AutoCompleteSelectionsFactory {
             if (autoCompleteSchema) {
 
                 databaseTablesForHost(databaseHost);
-//                databaseColumnsForTables(databaseHost, tables);
+                if (!interrupted) {
+
+                    databaseColumnsForHost(databaseHost);
+                }
                 databaseFunctionsAndProceduresForHost(databaseHost);
             }
 
@@ -150,6 +143,7 @@ public class AutoCompleteSelectionsFactory {
                       SQLTextPane queryEditor) {
 
         tables = new ArrayList<AutoCompleteListItem>();
+        interrupted = false;
 
         List<AutoCompleteListItem> listSelections = new ArrayList<AutoCompleteListItem>();
         if (autoCompleteKeywords) {
@@ -182,22 +176,11 @@ public class AutoCompleteSelectionsFactory {
                         e.printStackTrace();
                     }
 
-                    URL[] urls = new URL[0];
-                    Class clazzdb = null;
                     Object odb = null;
                     try {
-                        urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-                        ClassLoader cl = new URLClassLoader(urls, connection.getClass().getClassLoader());
-                        clazzdb = cl.loadClass("biz.redsoft.FBDatabaseConnectionImpl");
-                        odb = clazzdb.newInstance();
+                        odb = DynamicLibraryLoader.loadingObjectFromClassLoader(connection, "FBDatabaseConnectionImpl");
                     } catch (ClassNotFoundException e) {
                         e.printStackTrace();
-                    } catch (IllegalAccessException e) {
-                        e.printStackTrace();
-                    } catch (InstantiationException e) {
-                        e.printStackTrace();
-                    } catch (MalformedURLException e) {
-                        e.printStackTrace();
                     }
 
                     IFBDatabaseConnection db = (IFBDatabaseConnection) odb;
@@ -219,7 +202,10 @@ public class AutoCompleteSelectionsFactory {
             if (autoCompleteSchema) {
 
                 databaseTablesForHost(databaseHost);
-//                databaseColumnsForTables(databaseHost, tables);
+                if (!interrupted) {
+
+                    databaseColumnsForHost(databaseHost);
+                }
                 databaseFunctionsAndProceduresForHost(databaseHost);
             }
 
@@ -345,6 +331,7 @@ public class AutoCompleteSelectionsFactory {
                 try {
                     if (Thread.interrupted() || databaseMetaData.getConnection().isClosed()) {
 
+                        interrupted = true;
                         return;
                     }
                 } catch (SQLException e) {
@@ -433,6 +420,7 @@ public class AutoCompleteSelectionsFactory {
                     try {
                         if (Thread.interrupted() || databaseMetaData.getConnection().isClosed()) {
 
+                            interrupted = true;
                             return;
                         }
                     } catch (SQLException e) {
@@ -493,83 +481,121 @@ public class AutoCompleteSelectionsFactory {
 
     private ColumnInformationFactory columnInformationFactory = new ColumnInformationFactory();
 
-    private void databaseColumnsForTables(DatabaseHost databaseHost, List<AutoCompleteListItem> tables) {
+    private static final String FIREBIRD_COLUMNS_QUERY =
+            "SELECT RF.RDB$RELATION_NAME, RF.RDB$FIELD_NAME,\n" +
+                    "    F.RDB$FIELD_TYPE, F.RDB$FIELD_SUB_TYPE,\n" +
+                    "    COALESCE(F.RDB$CHARACTER_LENGTH, F.RDB$FIELD_PRECISION, F.RDB$FIELD_LENGTH),\n" +
+                    "    F.RDB$FIELD_SCALE,\n" +
+                    "    COALESCE(RF.RDB$NULL_FLAG, F.RDB$NULL_FLAG, 0)\n" +
+                    "FROM RDB$RELATION_FIELDS RF\n" +
+                    "JOIN RDB$FIELDS F ON RF.RDB$FIELD_SOURCE = F.RDB$FIELD_NAME\n" +
+                    "ORDER BY RF.RDB$RELATION_NAME, RF.RDB$FIELD_POSITION";
+
+    private static final int COLUMNS_INCREMENT = 500;
+
+    /**
+     * Adds the columns of all the tables of the host - with one query of the
+     * system tables on Firebird, otherwise with one meta data call.
+     */
+    private void databaseColumnsForHost(DatabaseHost databaseHost) {
 
         trace("Retrieving column names for tables for host [ " + databaseHost.getName() + " ]");
 
         ResultSet rs = null;
-        List<ColumnInformation> columns = new ArrayList<ColumnInformation>();
         List<AutoCompleteListItem> list = new ArrayList<AutoCompleteListItem>();
 
-        String catalog = databaseHost.getCatalogNameForQueries(defaultCatalogForHost(databaseHost));
-        String schema = databaseHost.getSchemaNameForQueries(defaultSchemaForHost(databaseHost));
-        DatabaseMetaData dmd = databaseHost.getDatabaseMetaData();
+        try {
 
-        for (int i = 0, n = tables.size(); i < n; i++) {
+            DatabaseMetaData dmd = databaseHost.getDatabaseMetaData();
+            Connection connection = dmd.getConnection();
+            boolean firebird = connection.unwrap(Connection.class).getClass().getName().contains("FBConnection");
 
-            try {
-                if (Thread.interrupted() || dmd.getConnection().isClosed()) {
+            if (firebird) {
 
-                    return;
-                }
-            } catch (SQLException e) {
-            }
+                rs = connection.createStatement().executeQuery(FIREBIRD_COLUMNS_QUERY);
 
-            AutoCompleteListItem table = tables.get(i);
-            if (table == null) {
+            } else {
 
-                continue;
+                String catalog = databaseHost.getCatalogNameForQueries(defaultCatalogForHost(databaseHost));
+                String schema = databaseHost.getSchemaNameForQueries(defaultSchemaForHost(databaseHost));
+                rs = dmd.getColumns(catalog, schema, null, null);
             }
 
-            trace("Retrieving column names for table [ " + table.getValue() + " ]");
+            while (rs.next()) {
 
-            try {
+                if (Thread.interrupted()) {
 
-                rs = dmd.getColumns(catalog, schema, table.getValue(), null);
-                while (rs.next()) {
+                    interrupted = true;
+                    return;
+                }
 
-                    String name = rs.getString(4);
-                    columns.add(columnInformationFactory.build(
-                            table.getValue(),
-                            name,
+                String table;
+                ColumnInformation column;
+                if (firebird) {
+
+                    // the size is part of the type name
+                    table = rs.getString(1).trim();
+                    column = columnInformationFactory.build(
+                            table,
+                            rs.getString(2).trim(),
+                            DatabaseTypeConverter.getTypeWithSize(rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6)),
+                            Types.OTHER,
+                            0,
+                            0,
+                            rs.getInt(7) == 1);
+
+                } else {
+
+                    table = rs.getString(3);
+                    column = columnInformationFactory.build(
+                            table,
+                            rs.getString(4),
                             rs.getString(6),
                             rs.getInt(5),
                             rs.getInt(7),
                             rs.getInt(9),
-                            rs.getInt(11) == DatabaseMetaData.columnNoNulls));
+                            rs.getInt(11) == DatabaseMetaData.columnNoNulls);
                 }
 
-                for (ColumnInformation column : columns) {
+                list.add(new AutoCompleteListItem(
+                        column.getName(),
+                        table,
+                        column.getDescription(),
+                        DATABASE_COLUMN_DESCRIPTION,
+                        AutoCompleteListItemType.DATABASE_TABLE_COLUMN));
+
+                if (list.size() >= COLUMNS_INCREMENT) {
 
-                    list.add(new AutoCompleteListItem(
-                            column.getName(),
-                            table.getValue(),
-                            column.getDescription(),
-                            DATABASE_COLUMN_DESCRIPTION,
-                            AutoCompleteListItemType.DATABASE_TABLE_COLUMN));
+                    provider.addListItems(list);
+                    list.clear();
                 }
 
-                provider.addListItems(list);
-                releaseResources(rs);
-                columns.clear();
-                list.clear();
+            }
 
-            } catch (Throwable e) {
+            provider.addListItems(list);
 
-                // don't want to break the editor here so just log and bail...
+        } catch (Throwable e) {
 
-                error("Error retrieving column data for table " + table.getDisplayValue() + " - driver returned: " + e.getMessage());
+            // don't want to break the editor here so just log and bail...
 
-            } finally {
+            error("Error retrieving column data for host " + databaseHost.getName() + " - driver returned: " + e.getMessage());
 
-                releaseResources(rs);
-            }
+        } finally {
 
+            releaseResources(rs);
         }
 
         trace("Finished retrieving column names for tables for host [ " + databaseHost.getName() + " ]");
     }
 
+    /**
+     * Returns whether the last build was stopped by an interrupt before it completed.
+     */
+    boolean wasInterrupted() {
+
+        return interrupted;
+    }
+
     private String defaultSchemaForHost(DatabaseHost databaseHost) {
 
         if (databaseHost.isConnected()) {
@@ -6,6 +6,7 @@ import org.executequery.databasemediators.DatabaseConnection;
 import org.executequery.databaseobjects.DatabaseHost;
 import org.executequery.databaseobjects.DatabaseObjectFactory;
 import org.executequery.databaseobjects.impl.DatabaseObjectFactoryImpl;
+import org.executequery.datasource.MetadataLoader;
 import org.executequery.gui.editor.ConnectionChangeListener;
 import org.executequery.gui.editor.QueryWithPosition;
 import org.executequery.gui.text.SQLTextPane;
@@ -35,6 +36,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -76,7 +79,17 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
 
     private DatabaseHost databaseHost;
 
-    private List<AutoCompleteListItem> autoCompleteListItems;
+    /**
+     * the keywords and system functions of this editor - the schema objects are in the connection catalog
+     */
+    private AutoCompleteIndex keywordItems;
+
+    private boolean listItemsLoaded;
+
+    /**
+     * the catalog this editor is loading, <code>null</code> if none
+     */
+    private AutoCompleteCatalog loadingCatalog;
 
     private boolean autoCompleteKeywords;
 
@@ -96,11 +109,10 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
         databaseObjectFactory = new DatabaseObjectFactoryImpl();
 
         setAutoCompleteOptionFlags();
-        autoCompleteListItems = new ArrayList<AutoCompleteListItem>();
+        keywordItems = new AutoCompleteIndex();
         queryEditorTextComponent().addFocusListener(this);
 
         autoCompletePopupAction = new AutoCompletePopupAction(this);
-        autoCompleteListItems = new ArrayList<AutoCompleteListItem>();
     }
 
     public void setAutoCompleteOptionFlags() {
@@ -442,7 +454,6 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
 
         trace("Building list of items starting with [ " + prefix + " ] from table list with size " + tables.size());
 
-        List<AutoCompleteListItem> searchList = autoCompleteListItems;
         String wordPrefix = prefix.trim().toUpperCase();
         String tableString = "";
 
@@ -455,14 +466,12 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
             wordPrefix = wordPrefix.substring(dotIndex + 1);
 
         } else if (wordPrefix.length() < MINIMUM_CHARS_FOR_DATABASE_LOOKUP /*&& !hasTables*/) {
-            return buildItemsStartingWithForList(
-                    selectionsFactory.buildKeywords(databaseHost, autoCompleteKeywords), tables, wordPrefix, false);
+            return keywordItems.startingWith(searchPattern(wordPrefix));
         }
 
         // try to get columns for table
         if (hasDotIndex) {
-            List<AutoCompleteListItem> itemsForTable =
-                    selectionsFactory.buildItemsForTable(databaseHost, tableString.toUpperCase());
+            List<AutoCompleteListItem> itemsForTable = itemsForTable(tableString.toUpperCase());
 
             if (!itemsForTable.isEmpty()) {
                 itemsForTable =
@@ -498,8 +507,7 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
                 if (sql92.contains(tableFromAlias.toUpperCase()))
                     continue;
 
-                List<AutoCompleteListItem> itemsForTable =
-                        selectionsFactory.buildItemsForTable(databaseHost, tableFromAlias.toUpperCase());
+                List<AutoCompleteListItem> itemsForTable = itemsForTable(tableFromAlias.toUpperCase());
 
                 if (!itemsForTable.isEmpty()) {
                     itemsForTable =
@@ -509,29 +517,82 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
             }
         }
 
-        List<AutoCompleteListItem> itemsStartingWith =
-                buildItemsStartingWithForList(searchList, tables, wordPrefix, hasDotIndex);
+        List<AutoCompleteListItem> itemsStartingWith = indexedItemsStartingWith(wordPrefix, hasDotIndex);
 
-        if (itemsStartingWith.isEmpty()) {
+        if (itemsStartingWith.isEmpty()) { // now bail...
+
+            noProposalsAvailable(itemsStartingWith);
+            return itemsStartingWith;
+        }
 
-            // do it one more time without the tables...
-            itemsStartingWith = buildItemsStartingWithForList(searchList, null, wordPrefix, hasDotIndex);
+        if (isBuildingList()) {
+
+            itemsStartingWith.add(0, buildingProposalsListItem());
+        }
+
+        return itemsStartingWith;
+    }
+
+    /**
+     * Returns the schema objects of the connection catalog followed by the
+     * keywords starting with the specified upper case prefix.
+     */
+    private List<AutoCompleteListItem> indexedItemsStartingWith(String prefix, boolean prefixHadAlias) {
+
+        String searchPattern = searchPattern(prefix);
+        List<AutoCompleteListItem> itemsStartingWith = new ArrayList<AutoCompleteListItem>();
+
+        if (databaseHost != null) {
+
+            for (AutoCompleteListItem item : catalog().itemsStartingWith(searchPattern)) {
+
+                if (!prefixHadAlias || !item.isTable()) {
+
+                    itemsStartingWith.add(item);
+                }
 
-            if (itemsStartingWith.isEmpty()) { // now bail...
-                noProposalsAvailable(itemsStartingWith);
             }
 
-            return itemsStartingWith;
         }
 
-        if (rebuildingList) {
+        if (!prefixHadAlias) {
 
-            itemsStartingWith.add(0, buildingProposalsListItem());
+            itemsStartingWith.addAll(keywordItems.startingWith(searchPattern));
         }
 
         return itemsStartingWith;
     }
 
+    /**
+     * Returns the columns of the specified upper case table name from the connection
+     * catalog, or from the database where the catalog is not loaded or has no such table.
+     */
+    private List<AutoCompleteListItem> itemsForTable(String table) {
+
+        List<AutoCompleteListItem> itemsForTable = databaseHost != null ? catalog().columnsForTable(table) : null;
+        if (itemsForTable == null) {
+
+            itemsForTable = selectionsFactory.buildItemsForTable(databaseHost, table);
+        }
+
+        return itemsForTable;
+    }
+
+    private AutoCompleteCatalog catalog() {
+
+        return AutoCompleteCatalog.forConnection(databaseHost.getDatabaseConnection());
+    }
+
+    private String searchPattern(String prefix) {
+
+        if (prefix.startsWith("(")) {
+
+            return prefix.substring(1);
+        }
+
+        return prefix;
+    }
+
     private DefaultAutoCompletePopupProvider.AutoCompleteListItemComparator autoCompleteListItemComparator = new DefaultAutoCompletePopupProvider.AutoCompleteListItemComparator();
 
     static class AutoCompleteListItemComparator implements Comparator<AutoCompleteListItem> {
@@ -585,7 +646,7 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
     private void noProposalsAvailable(List<AutoCompleteListItem> itemsStartingWith) {
 
         noProposals = true;
-        if (rebuildingList) {
+        if (isBuildingList()) {
 
             debug("Suggestions list still in progress");
             itemsStartingWith.add(buildingProposalsListItem());
@@ -796,12 +857,7 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
             boolean prefixHadAlias) {
 
 
-        String searchPattern = prefix;
-        if (prefix.startsWith("(")) {
-
-            searchPattern = prefix.substring(1);
-        }
-
+        String searchPattern = searchPattern(prefix);
         List<AutoCompleteListItem> itemsStartingWith = new ArrayList<AutoCompleteListItem>();
 
         if (items != null) {
@@ -833,11 +889,16 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
             worker.interrupt();
         }
 
-        if (autoCompleteListItems != null) {
+        if (loading != null) {
 
-            autoCompleteListItems.clear();
+            loading.cancel(true);
+            loading = null;
+            rebuildingList = false;
         }
 
+        keywordItems.clear();
+        listItemsLoaded = false;
+
         if (databaseConnection != null) {
 
             databaseHost = databaseObjectFactory.createDatabaseHost(databaseConnection);
@@ -867,20 +928,54 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
             databaseHost = databaseObjectFactory.createDatabaseHost(selectedConnection);
         }
 
-        selectionsFactory.build(databaseHost, autoCompleteKeywords, autoCompleteSchema, sqlTextPane);
+        // the schema objects are loaded once for all the editors of the connection
+        AutoCompleteCatalog catalog = databaseHost != null ? catalog() : null;
+        if (autoCompleteSchema && catalog != null && catalog.startLoading()) {
+
+            loadingCatalog = catalog;
+        }
+
+        keywordItems.clear();
+        try {
+
+            selectionsFactory.build(databaseHost, autoCompleteKeywords, loadingCatalog != null, sqlTextPane);
+
+        } finally {
 
+            if (loadingCatalog != null) {
+
+                loadingCatalog.loadingFinished(!selectionsFactory.wasInterrupted());
+                loadingCatalog = null;
+            }
+        }
+
+        listItemsLoaded = true;
         return true;
     }
 
     public void addListItems(List<AutoCompleteListItem> items) {
 
-        if (autoCompleteListItems == null) {
+        List<AutoCompleteListItem> keywords = new ArrayList<AutoCompleteListItem>();
+        List<AutoCompleteListItem> schemaObjects = new ArrayList<AutoCompleteListItem>();
+        for (AutoCompleteListItem item : items) {
+
+            if (item.isKeyword() || item.getType().isSystemFunction()) {
+
+                keywords.add(item);
+
+            } else {
+
+                schemaObjects.add(item);
+            }
+
+        }
+
+        keywordItems.add(keywords);
+        if (!schemaObjects.isEmpty() && loadingCatalog != null) {
 
-            autoCompleteListItems = new ArrayList<AutoCompleteListItem>();
+            loadingCatalog.addListItems(schemaObjects);
         }
 
-        autoCompleteListItems.addAll(items);
-//        Collections.sort(autoCompleteListItems, autoCompleteListItemComparatorByValue);
         reapplyIfVisible();
     }
 
@@ -903,10 +998,52 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
 
     private boolean rebuildingList;
     private org.underworldlabs.swing.util.SwingWorker worker;
+    private CompletableFuture<Void> loading;
 
     private void scheduleListItemLoad() {
 
-        if (rebuildingList || !autoCompleteListItems.isEmpty()) {
+        if (rebuildingList || (listItemsLoaded && !catalogNeedsLoading())) {
+
+            return;
+        }
+
+        // the schema objects are loaded after the connection tree nodes
+        MetadataLoader loader = connection != null ? MetadataLoader.forConnection(connection) : null;
+        if (loader != null) {
+
+            debug("Queueing suggestions list load");
+
+            rebuildingList = true;
+            final CompletableFuture<Void> load = loader.submit(MetadataLoader.AUTOCOMPLETE, new Runnable() {
+
+                public void run() {
+
+                    debug("Rebuilding suggestions list...");
+                    rebuildListSelectionsItems();
+                }
+
+            });
+            loading = load;
+            load.whenComplete(new BiConsumer<Void, Throwable>() {
+
+                public void accept(Void result, Throwable throwable) {
+
+                    SwingUtilities.invokeLater(new Runnable() {
+
+                        public void run() {
+
+                            // a load cancelled by a connection change is replaced
+                            if (loading == load) {
+
+                                loading = null;
+                                listItemLoadFinished();
+                            }
+                        }
+
+                    });
+                }
+
+            });
 
             return;
         }
@@ -932,19 +1069,7 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
 
             public void finished() {
 
-                try {
-
-                    rebuildingList = false;
-                    debug("Rebuilding suggestions list complete");
-
-                    // force
-                    resetCount = RESET_COUNT_THRESHOLD - 1;
-                    reapplyIfVisible();
-
-                } finally {
-
-                    popupMenu().done();
-                }
+                listItemLoadFinished();
             }
 
         };
@@ -953,9 +1078,39 @@ public class DefaultAutoCompletePopupProvider implements AutoCompletePopupProvid
         worker.start();
     }
 
+    private void listItemLoadFinished() {
+
+        try {
+
+            rebuildingList = false;
+            debug("Rebuilding suggestions list complete");
+
+            // force
+            resetCount = RESET_COUNT_THRESHOLD - 1;
+            reapplyIfVisible();
+
+        } finally {
+
+            popupMenu().done();
+        }
+    }
+
     public void focusLost(FocusEvent e) {
     }
 
+    /**
+     * Returns whether this editor or another editor of the connection is loading the suggestions.
+     */
+    private boolean isBuildingList() {
+
+        return rebuildingList || (databaseHost != null && catalog().isLoading());
+    }
+
+    private boolean catalogNeedsLoading() {
+
+        return autoCompleteSchema && databaseHost != null && catalog().needsLoading();
+    }
+
     static class AutoCompleteListItemComparatorByValue implements Comparator<AutoCompleteListItem> {
 
         public int compare(AutoCompleteListItem o1, AutoCompleteListItem o2) {
@@ -278,7 +278,10 @@ public class ErdExecuteSQL extends ErdPrintableDialog
         queryAnalyser.setTransactionIsolation(transactionLevel);
     }
 
-    public void setResultSet(ResultSet rs, String query) throws SQLException {
+    public void setResultSet(ResultSet rs, String query, boolean fetchInBackground) throws SQLException {
+
+        // the results are not displayed here
+        rs.close();
     }
 
     public boolean isLogEnabled() {
@@ -309,6 +309,30 @@ public abstract class AbstractImportExportWorker implements ImportExportWorker {
      */
     protected void prepareStatement(String table, Vector<?> columns) throws DataSourceException, SQLException {
 
+        String query = insertStatement(table, columns);
+
+        // make sure it was closed from a possible previous run
+        if (prepStmnt != null) {
+            try {
+                prepStmnt.close();
+            } catch (SQLException e) {
+            }
+        }
+
+        conn = getConnection();
+        conn.setAutoCommit(false);
+        prepStmnt = conn.prepareStatement(query, java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY);
+        prepStmnt.setFetchSize(fetchSizeForDatabaseProduct(conn.getMetaData()));
+    }
+
+    /**
+     * Returns the insert statement for an import process.
+     *
+     * @param table   - the database table name
+     * @param columns - the columns to insert
+     */
+    protected String insertStatement(String table, Vector<?> columns) throws DataSourceException, SQLException {
+
         // check the columns and retrieve if null
         if (columns == null) {
             columns = getColumns(table);
@@ -337,18 +361,7 @@ public abstract class AbstractImportExportWorker implements ImportExportWorker {
         }
         query.append(")");
 
-        // make sure it was closed from a possible previous run
-        if (prepStmnt != null) {
-            try {
-                prepStmnt.close();
-            } catch (SQLException e) {
-            }
-        }
-
-        conn = getConnection();
-        conn.setAutoCommit(false);
-        prepStmnt = conn.prepareStatement(query.toString(), java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY);
-        prepStmnt.setFetchSize(fetchSizeForDatabaseProduct(conn.getMetaData()));
+        return query.toString();
     }
 
     private int fetchSizeForDatabaseProduct(DatabaseMetaData metaData) throws SQLException {
@@ -421,6 +434,17 @@ public abstract class AbstractImportExportWorker implements ImportExportWorker {
                             int sqlType, boolean trim, DateFormat df)
             throws Exception {
 
+        setValue(prepStmnt, value, index, sqlType, trim, df);
+    }
+
+    /**
+     * Sets the specified value in the specified position for the
+     * specified java.sql.Type within the specified statement.
+     */
+    static void setValue(PreparedStatement prepStmnt, String value, int index,
+                         int sqlType, boolean trim, DateFormat df)
+            throws Exception {
+
         if (value == null) {
 
             prepStmnt.setNull(index, sqlType);
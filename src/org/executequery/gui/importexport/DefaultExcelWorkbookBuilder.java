@@ -39,10 +39,15 @@ public class DefaultExcelWorkbookBuilder implements ExcelWorkbookBuilder {
 
     private HSSFCellStyle defaultCellStyle;
 
+    private HSSFCellStyle headerCellStyle;
+
+    private ExcelTypedCells typedCells;
+
     public DefaultExcelWorkbookBuilder() {
 
         workbook = new HSSFWorkbook();
         defaultCellStyle = createStyle();
+        typedCells = new ExcelTypedCells(workbook);
     }
 
     public void reset() {
@@ -56,6 +61,9 @@ public class DefaultExcelWorkbookBuilder implements ExcelWorkbookBuilder {
         workbook.write(outputStream);
     }
 
+    public void dispose() {
+    }
+
     public void createSheet(String sheetName) {
 
         currentSheet = workbook.createSheet(sheetName);
@@ -66,6 +74,28 @@ public class DefaultExcelWorkbookBuilder implements ExcelWorkbookBuilder {
         fillRow(values, createRow(++currentRow), defaultCellStyle);
     }
 
+    public void addTypedRow(List<Object> values) {
+
+        HSSFRow row = createRow(++currentRow);
+        for (int i = 0, n = values.size(); i < n; i++) {
+
+            Object value = values.get(i);
+            if (value == null) {
+
+                continue;
+            }
+
+            HSSFCell cell = row.createCell(i);
+            if (!typedCells.setValue(cell, value)) {
+
+                cell.setCellStyle(defaultCellStyle);
+                cell.setCellValue(new HSSFRichTextString(value.toString()));
+            }
+
+        }
+
+    }
+
     public void addRowHeader(List<String> values) {
 
         if (currentRow > 0) {
@@ -73,13 +103,16 @@ public class DefaultExcelWorkbookBuilder implements ExcelWorkbookBuilder {
             currentRow++;
         }
 
-        HSSFFont font = createFont();
-        font.setBoldweight(HSSFFont.BOLDWEIGHT_BOLD);
+        if (headerCellStyle == null) {
 
-        HSSFCellStyle style = createStyle();
-        style.setFont(font);
+            HSSFFont font = createFont();
+            font.setBoldweight(HSSFFont.BOLDWEIGHT_BOLD);
+
+            headerCellStyle = createStyle();
+            headerCellStyle.setFont(font);
+        }
 
-        fillRow(values, createRow(currentRow), style);
+        fillRow(values, createRow(currentRow), headerCellStyle);
     }
 
     private HSSFRow createRow(int rowNumber) {
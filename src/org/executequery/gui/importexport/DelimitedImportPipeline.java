@@ -0,0 +1,805 @@
+package org.executequery.gui.importexport;
+
+import org.executequery.databasemediators.DatabaseConnection;
+import org.executequery.datasource.ConnectionManager;
+import org.executequery.gui.browser.ColumnData;
+import org.executequery.log.Log;
+import org.underworldlabs.util.DelimitedRecordReader;
+import org.underworldlabs.util.MiscUtils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports the rows of a delimited file into a table with separate
+ * reading, parsing and loading threads.
+ * <p/>
+ * The calling thread splits the file into chunks of records, the parser
+ * threads read the values of the insert statement parameters from the
+ * records and
+ * each loader thread inserts the rows with its own statement on its own
+ * connection - executing them in batches and committing its transaction
+ * after the commit size. The rows which can not be parsed or inserted are
+ * written to the reject file instead of stopping the import.
+ */
+class DelimitedImportPipeline {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final long QUEUE_TIMEOUT = 100;
+
+    private static final char QUOTE = '"';
+
+    private static final RecordChunk NO_MORE_RECORDS = new RecordChunk(0, new char[0], 0);
+
+    private static final List<Row> NO_MORE_ROWS = Collections.emptyList();
+
+    private final DatabaseConnection databaseConnection;
+
+    private final String insertStatement;
+
+    private final List<ColumnData> columns;
+
+    /**
+     * the statement parameter index of each value in a line, -1 if ignored
+     */
+    private final int[] parameterIndexes;
+
+    private final String delimiter;
+
+    private final int loaderCount;
+
+    private final int parserCount;
+
+    private boolean trimWhitespace;
+
+    private DateFormat dateFormat;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private int commitSize;
+
+    private boolean haltOnError;
+
+    private File rejectFile;
+
+    private String header;
+
+    private BlockingQueue<RecordChunk> recordQueue;
+
+    private BlockingQueue<List<Row>> rowQueue;
+
+    private volatile boolean stopped;
+
+    private volatile boolean halted;
+
+    private final AtomicInteger runningParsers = new AtomicInteger();
+
+    private final AtomicLong recordCount = new AtomicLong();
+
+    private final AtomicLong insertCount = new AtomicLong();
+
+    private final AtomicLong errorCount = new AtomicLong();
+
+    private final List<String> errors = new ArrayList<String>();
+
+    private Writer rejectWriter;
+
+    /**
+     * @param insertStatement  the insert statement with a parameter for each column
+     * @param columns          the columns in the order of the statement parameters
+     * @param parameterIndexes the parameter index of each value in a line, -1 if ignored
+     * @param delimiter        the value delimiter
+     * @param loaderCount      the number of loader threads and connections
+     */
+    DelimitedImportPipeline(DatabaseConnection databaseConnection, String insertStatement,
+                            List<ColumnData> columns, int[] parameterIndexes,
+                            String delimiter, int loaderCount) {
+
+        this.databaseConnection = databaseConnection;
+        this.insertStatement = insertStatement;
+        this.columns = columns;
+        this.parameterIndexes = parameterIndexes;
+        this.delimiter = delimiter;
+        this.loaderCount = loaderCount;
+        this.parserCount = Math.max(1, Math.min(loaderCount, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    void setTrimWhitespace(boolean trimWhitespace) {
+        this.trimWhitespace = trimWhitespace;
+    }
+
+    void setDateFormat(DateFormat dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+    /**
+     * Sets the number of rows after which each loader commits its
+     * transaction, 0 or less to commit at the end of the file only.
+     */
+    void setCommitSize(int commitSize) {
+
+        this.commitSize = commitSize;
+        if (commitSize > 0) {
+
+            batchSize = Math.min(DEFAULT_BATCH_SIZE, commitSize);
+        }
+    }
+
+    void setHaltOnError(boolean haltOnError) {
+        this.haltOnError = haltOnError;
+    }
+
+    /**
+     * Sets the file the rejected lines are written to, preceded
+     * by the specified header line if not <code>null</code>.
+     */
+    void setRejectFile(File rejectFile, String header) {
+
+        this.rejectFile = rejectFile;
+        this.header = header;
+    }
+
+    /**
+     * Imports the records read from the specified reader.
+     *
+     * @param records  the reader positioned at the first record to import
+     * @param fileSize the file length for the progress display
+     * @param progress the progress display
+     */
+    void run(DelimitedRecordReader records, long fileSize,
+             ImportExportProgressPanel progress) throws Exception {
+
+        recordQueue = new ArrayBlockingQueue<RecordChunk>(parserCount * 2);
+        rowQueue = new ArrayBlockingQueue<List<Row>>(loaderCount * 2);
+        runningParsers.set(parserCount);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parserCount + loaderCount, new ThreadFactory() {
+
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "DelimitedImport-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+
+        });
+
+        try {
+
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < loaderCount; i++) {
+
+                futures.add(executor.submit(new Loader()));
+            }
+
+            for (int i = 0; i < parserCount; i++) {
+
+                futures.add(executor.submit(new Parser()));
+            }
+
+            read(records, fileSize, progress);
+            for (Future<Void> future : futures) {
+
+                try {
+
+                    future.get();
+
+                } catch (ExecutionException e) {
+
+                    stopped = true;
+                    Throwable cause = e.getCause();
+                    throw (cause instanceof Exception) ? (Exception) cause : e;
+                }
+
+            }
+
+        } finally {
+
+            // the loaders roll back and close their connections when stopped
+            stopped = true;
+            executor.shutdownNow();
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+
+                Log.warning("Delimited import threads did not stop in time");
+            }
+
+            closeRejectFile();
+        }
+
+    }
+
+    /**
+     * Returns the number of records read.
+     */
+    long getRecordCount() {
+        return recordCount.get();
+    }
+
+    /**
+     * Returns the number of rows inserted and committed.
+     */
+    long getInsertCount() {
+        return insertCount.get();
+    }
+
+    /**
+     * Returns the number of rejected lines.
+     */
+    long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * Returns the messages of the first rejected lines.
+     */
+    List<String> getErrors() {
+
+        synchronized (errors) {
+
+            return new ArrayList<String>(errors);
+        }
+    }
+
+    /**
+     * Returns whether the import was stopped on an error.
+     */
+    boolean isHalted() {
+        return halted;
+    }
+
+    File getRejectFile() {
+        return rejectFile;
+    }
+
+    private void read(DelimitedRecordReader records, long fileSize,
+                      ImportExportProgressPanel progress) throws IOException, InterruptedException {
+
+        // the records are only split here and parsed again by the parser threads
+        records.setParseFields(false);
+
+        StringBuilder chunk = new StringBuilder();
+        int chunkRecords = 0;
+        int firstLine = 0;
+        long readLength = 0;
+        int progressStatus = 10;
+
+        while (!stopped && records.next()) {
+
+            if (Thread.interrupted()) {
+
+                throw new InterruptedException();
+            }
+
+            if (chunkRecords == 0) {
+
+                firstLine = records.getLineNumber();
+            }
+
+            records.appendRecordText(chunk);
+            chunk.append('\n');
+            chunkRecords++;
+            if (chunkRecords == CHUNK_SIZE) {
+
+                if (!put(recordQueue, createChunk(firstLine, chunk))) {
+
+                    return;
+                }
+
+                chunk.setLength(0);
+                chunkRecords = 0;
+            }
+
+            readLength += records.getRecordLength() + 1;
+            if (fileSize > 0 && readLength * 100 / fileSize >= progressStatus) {
+
+                progress.setProgressStatus(progressStatus);
+                progressStatus += 10;
+            }
+
+        }
+
+        if (chunkRecords > 0 && !put(recordQueue, createChunk(firstLine, chunk))) {
+
+            return;
+        }
+
+        for (int i = 0; i < parserCount; i++) {
+
+            if (!put(recordQueue, NO_MORE_RECORDS)) {
+
+                return;
+            }
+
+        }
+
+    }
+
+    private static RecordChunk createChunk(int firstLine, StringBuilder text) {
+
+        char[] chars = new char[text.length()];
+        text.getChars(0, chars.length, chars, 0);
+        return new RecordChunk(firstLine, chars, chars.length);
+    }
+
+    /**
+     * Adds the specified element to the queue waiting for the space.
+     *
+     * @return false if the import was stopped meanwhile
+     */
+    private <T> boolean put(BlockingQueue<T> queue, T element) throws InterruptedException {
+
+        while (!queue.offer(element, QUEUE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+
+            if (stopped) {
+
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    /**
+     * Retrieves the next element of the queue waiting for it.
+     *
+     * @return the element or <code>null</code> if the import was stopped meanwhile
+     */
+    private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+
+        T element;
+        while ((element = queue.poll(QUEUE_TIMEOUT, TimeUnit.MILLISECONDS)) == null) {
+
+            if (stopped) {
+
+                return null;
+            }
+
+        }
+
+        return element;
+    }
+
+    private void reject(int lineNumber, String line, String message) {
+
+        errorCount.incrementAndGet();
+        synchronized (errors) {
+
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+
+                errors.add("Line " + lineNumber + ": " + message);
+            }
+
+            if (rejectFile != null) {
+
+                try {
+
+                    if (rejectWriter == null) {
+
+                        rejectWriter = new BufferedWriter(new FileWriter(rejectFile));
+                        if (header != null) {
+
+                            rejectWriter.write(header);
+                            rejectWriter.write('\n');
+                        }
+
+                    }
+
+                    rejectWriter.write(line);
+                    rejectWriter.write('\n');
+
+                } catch (IOException e) {
+
+                    Log.error("Error writing the rejected line " + lineNumber, e);
+                }
+
+            }
+
+        }
+
+        if (haltOnError) {
+
+            halted = true;
+            stopped = true;
+        }
+
+    }
+
+    private void reject(Row row, Exception e) {
+
+        reject(row.lineNumber, row.getLine(), "[ " + MiscUtils.getExceptionName(e) + " ] " + e.getMessage());
+    }
+
+    private void closeRejectFile() {
+
+        synchronized (errors) {
+
+            if (rejectWriter != null) {
+
+                try {
+
+                    rejectWriter.close();
+
+                } catch (IOException e) {
+
+                    Log.error("Error closing the reject file", e);
+                }
+
+                rejectWriter = null;
+            }
+
+        }
+
+    }
+
+    private static final class RecordChunk {
+
+        private final int firstLine;
+
+        private final char[] chars;
+
+        private final int length;
+
+        RecordChunk(int firstLine, char[] chars, int length) {
+
+            this.firstLine = firstLine;
+            this.chars = chars;
+            this.length = length;
+        }
+
+    }
+
+    private static final class Row {
+
+        private final int lineNumber;
+
+        private final char[] source;
+
+        private final int start;
+
+        private final int length;
+
+        private final String[] values;
+
+        Row(int lineNumber, char[] source, int start, int length, String[] values) {
+
+            this.lineNumber = lineNumber;
+            this.source = source;
+            this.start = start;
+            this.length = length;
+            this.values = values;
+        }
+
+        /**
+         * Returns the text of the record - created for the rejected rows only.
+         */
+        String getLine() {
+
+            return new String(source, start, length);
+        }
+
+    }
+
+    private final class Parser implements Callable<Void> {
+
+        @Override
+        public Void call() throws Exception {
+
+            try {
+
+                RecordChunk chunk;
+                while ((chunk = take(recordQueue)) != null && chunk != NO_MORE_RECORDS) {
+
+                    List<Row> rows = new ArrayList<Row>(CHUNK_SIZE);
+
+                    DelimitedRecordReader records =
+                            new DelimitedRecordReader(chunk.chars, chunk.length, delimiter, QUOTE);
+                    records.setFirstLineNumber(chunk.firstLine);
+
+                    while (records.next()) {
+
+                        recordCount.incrementAndGet();
+                        if (records.isBlank()) {
+
+                            reject(records.getLineNumber(), "", "Line contains no delimited values");
+                            continue;
+                        }
+
+                        Row row = new Row(records.getLineNumber(), chunk.chars,
+                                records.getRecordStart(), records.getRecordLength(), values(records));
+
+                        // a missing last value is null
+                        if (records.getFieldCount() >= parameterIndexes.length - 1) {
+
+                            rows.add(row);
+
+                        } else {
+
+                            reject(row.lineNumber, row.getLine(), "Insufficient number of column values");
+                        }
+
+                    }
+
+                    if (!put(rowQueue, rows)) {
+
+                        break;
+                    }
+
+                }
+
+            } finally {
+
+                if (runningParsers.decrementAndGet() == 0) {
+
+                    for (int i = 0; i < loaderCount; i++) {
+
+                        if (!put(rowQueue, NO_MORE_ROWS)) {
+
+                            break;
+                        }
+
+                    }
+
+                }
+
+            }
+
+            return null;
+        }
+
+        /**
+         * Returns the values of the statement parameters of the current record.
+         */
+        private String[] values(DelimitedRecordReader records) {
+
+            String[] values = new String[columns.size()];
+            for (int i = 0, n = Math.min(records.getFieldCount(), parameterIndexes.length); i < n; i++) {
+
+                int parameterIndex = parameterIndexes[i];
+                if (parameterIndex != -1 && !records.isBlank(i)) {
+
+                    values[parameterIndex] = records.getString(i);
+                }
+
+            }
+
+            return values;
+        }
+
+    }
+
+    private final class Loader implements Callable<Void> {
+
+        private final DateFormat loaderDateFormat =
+                (dateFormat != null) ? (DateFormat) dateFormat.clone() : null;
+
+        private final List<Row> batch = new ArrayList<Row>(batchSize);
+
+        @Override
+        public Void call() throws Exception {
+
+            Connection connection = null;
+            PreparedStatement statement = null;
+            boolean completed = false;
+
+            try {
+
+                connection = ConnectionManager.getTemporaryConnection(databaseConnection);
+                connection.setAutoCommit(false);
+                statement = connection.prepareStatement(insertStatement);
+
+                int uncommitted = 0;
+                List<Row> rows;
+                while ((rows = take(rowQueue)) != null && rows != NO_MORE_ROWS) {
+
+                    for (Row row : rows) {
+
+                        if (stopped) {
+
+                            return null;
+                        }
+
+                        if (bind(statement, row)) {
+
+                            statement.addBatch();
+                            batch.add(row);
+                        }
+
+                        if (batch.size() >= batchSize) {
+
+                            uncommitted += executeBatch(statement);
+                            if (commitSize > 0 && uncommitted >= commitSize) {
+
+                                connection.commit();
+                                insertCount.addAndGet(uncommitted);
+                                uncommitted = 0;
+                            }
+
+                        }
+
+                    }
+
+                }
+
+                if (rows == null) {
+
+                    return null;
+                }
+
+                uncommitted += executeBatch(statement);
+                if (!stopped) {
+
+                    connection.commit();
+                    insertCount.addAndGet(uncommitted);
+                    completed = true;
+                }
+
+            } catch (Exception e) {
+
+                // the other stages would wait for this loader
+                stopped = true;
+                throw e;
+
+            } finally {
+
+                if (connection != null) {
+
+                    if (!completed) {
+
+                        try {
+
+                            connection.rollback();
+
+                        } catch (SQLException e) {
+
+                            Log.error("Error rolling back the import transaction", e);
+                        }
+
+                    }
+
+                    if (statement != null) {
+
+                        try {
+
+                            statement.close();
+
+                        } catch (SQLException e) {
+
+                            Log.error("Error closing the import statement", e);
+                        }
+
+                    }
+
+                    ConnectionManager.close(databaseConnection, connection);
+                }
+
+            }
+
+            return null;
+        }
+
+        private boolean bind(PreparedStatement statement, Row row) throws SQLException {
+
+            try {
+
+                for (int i = 0, n = columns.size(); i < n; i++) {
+
+                    AbstractImportExportWorker.setValue(statement, row.values[i], i + 1,
+                            columns.get(i).getSQLType(), trimWhitespace, loaderDateFormat);
+                }
+
+                return true;
+
+            } catch (Exception e) {
+
+                statement.clearParameters();
+                reject(row, e);
+                return false;
+            }
+
+        }
+
+        /**
+         * Executes the current batch inserting the rows the driver
+         * failed to execute in it one by one.
+         *
+         * @return the number of rows inserted
+         */
+        private int executeBatch(PreparedStatement statement) throws SQLException {
+
+            if (batch.isEmpty()) {
+
+                return 0;
+            }
+
+            int inserted = 0;
+            List<Row> failed = new ArrayList<Row>();
+            try {
+
+                statement.executeBatch();
+                inserted = batch.size();
+
+            } catch (BatchUpdateException e) {
+
+                // the rows after the failed one may not have been executed
+                int[] counts = e.getUpdateCounts();
+                for (int i = 0, n = batch.size(); i < n; i++) {
+
+                    if (counts == null || i >= counts.length || counts[i] == Statement.EXECUTE_FAILED) {
+
+                        failed.add(batch.get(i));
+
+                    } else {
+
+                        inserted++;
+                    }
+
+                }
+
+                statement.clearBatch();
+
+            } finally {
+
+                batch.clear();
+            }
+
+            for (Row row : failed) {
+
+                if (stopped) {
+
+                    break;
+                }
+
+                if (bind(statement, row)) {
+
+                    try {
+
+                        statement.executeUpdate();
+                        inserted++;
+
+                    } catch (SQLException e) {
+
+                        reject(row, e);
+                    }
+
+                }
+
+            }
+
+            return inserted;
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package org.executequery.gui.importexport;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.util.Date;
+
+/**
+ * Writes the numbers and dates of a typed row to the cells of a workbook,
+ * with the date and time styles created once for the workbook.
+ * <p/>
+ * A number the cell can not hold exactly as a double - a long beyond
+ * 2^53 or a decimal of more than 15 significant digits - is left to be
+ * written as text so its digits are not rounded.
+ */
+final class ExcelTypedCells {
+
+    private static final long MAX_EXACT_LONG = 1L << 53;
+
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final CellStyle dateStyle;
+
+    private final CellStyle timeStyle;
+
+    private final CellStyle timestampStyle;
+
+    ExcelTypedCells(Workbook workbook) {
+
+        dateStyle = createDataFormatStyle(workbook, "yyyy-mm-dd");
+        timeStyle = createDataFormatStyle(workbook, "hh:mm:ss");
+        timestampStyle = createDataFormatStyle(workbook, "yyyy-mm-dd hh:mm:ss");
+    }
+
+    /**
+     * Sets the specified number or date as the value of the cell.
+     *
+     * @return false if the value is to be written as text
+     */
+    boolean setValue(Cell cell, Object value) {
+
+        if (value instanceof Number) {
+
+            Number number = (Number) value;
+            if (!isExactDouble(number)) {
+
+                return false;
+            }
+
+            cell.setCellValue(number.doubleValue());
+            return true;
+
+        } else if (value instanceof Date) {
+
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(dateStyle((Date) value));
+            return true;
+        }
+
+        return false;
+    }
+
+    private static boolean isExactDouble(Number number) {
+
+        if (number instanceof Double || number instanceof Float
+                || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+
+            return true;
+
+        } else if (number instanceof Long) {
+
+            long value = number.longValue();
+            return value <= MAX_EXACT_LONG && value >= -MAX_EXACT_LONG;
+
+        } else if (number instanceof BigInteger) {
+
+            return ((BigInteger) number).bitLength() <= 53;
+        }
+
+        BigDecimal decimal = (number instanceof BigDecimal)
+                ? (BigDecimal) number
+                : new BigDecimal(number.toString());
+        return decimal.stripTrailingZeros().precision() <= MAX_EXACT_DIGITS;
+    }
+
+    private CellStyle dateStyle(Date value) {
+
+        if (value instanceof Time) {
+
+            return timeStyle;
+
+        } else if (value instanceof java.sql.Date) {
+
+            return dateStyle;
+        }
+
+        // timestamps and other dates
+        return timestampStyle;
+    }
+
+    private static CellStyle createDataFormatStyle(Workbook workbook, String format) {
+
+        CellStyle style = workbook.createCellStyle();
+        style.setDataFormat(workbook.createDataFormat().getFormat(format));
+        return style;
+    }
+
+}
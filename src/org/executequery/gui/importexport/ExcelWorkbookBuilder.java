@@ -37,8 +37,20 @@ public interface ExcelWorkbookBuilder {
 
     void addRow(List<String> values);
 
+    /**
+     * Adds a row of the specified values - numbers and dates are written
+     * as typed cells, <code>null</code> values are left empty and any
+     * other values are written as text.
+     */
+    void addTypedRow(List<Object> values);
+
     void writeTo(OutputStream outputStream) throws IOException;
 
+    /**
+     * Releases any resources held by the workbook once written.
+     */
+    void dispose();
+
 }
 
 
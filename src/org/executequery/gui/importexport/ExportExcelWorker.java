@@ -30,7 +30,9 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
@@ -41,6 +43,13 @@ import java.util.Vector;
 public class ExportExcelWorker extends AbstractImportExportWorker
         implements Constants {
 
+    /**
+     * The number of data rows of an .xls sheet
+     */
+    private static final int MAX_XLS_ROWS = 65535;
+
+    private static final String XLSX_EXTENSION = ".xlsx";
+
     /**
      * The <code>SwingWorker</code> object for this process
      */
@@ -108,6 +117,7 @@ public class ExportExcelWorker extends AbstractImportExportWorker
         int totalRecordCount = 0;
 
         FileOutputStream outputStream = null;
+        ExcelWorkbookBuilder builder = null;
 
         try {
 
@@ -125,8 +135,6 @@ public class ExportExcelWorker extends AbstractImportExportWorker
             int recordCount = 0;
             int totalRecords = 0;
 
-            ExcelWorkbookBuilder builder = createExcelWorkbookBuilder();
-
             String[][] sheetNames = _parent.getSheetNameValues();
 
             // ----------------------------------------
@@ -134,11 +142,13 @@ public class ExportExcelWorker extends AbstractImportExportWorker
             // ----------------------------------------
 
             List<String> values = new ArrayList<String>();
+            List<Object> rowValues = new ArrayList<Object>();
+
+            boolean filePerTable = isSingleTable || fileFormat == ImportExportDataProcess.MULTIPLE_FILE;
 
             for (int i = 0; i < tablesArray.length; i++) {
 
                 values.clear();
-                builder.reset();
 
                 recordCount = 0;
 
@@ -184,8 +194,21 @@ public class ExportExcelWorker extends AbstractImportExportWorker
                 Vector<?> columns = getColumns(tableName);
                 columnCount = columns.size();
 
-                // initialise the output stream
-                outputStream = createOutputStream(exportFile);
+                // initialise the output stream and workbook for each file
+                if (builder == null || filePerTable) {
+
+                    if (builder != null) {
+
+                        builder.dispose();
+                    }
+
+                    builder = createExcelWorkbookBuilder(exportFile);
+                    outputStream = createOutputStream(exportFile);
+                }
+
+                builder.reset();
+
+                int maxRecords = isStreamingWorkbook(exportFile) ? -1 : MAX_XLS_ROWS;
 
                 String sheetName = tablesArray[i];
                 if (!isSingleTable) {
@@ -199,6 +222,7 @@ public class ExportExcelWorker extends AbstractImportExportWorker
 
                 // retrieve the result set
                 rset = getResultSet(tableName, columns);
+                int[] columnTypes = getColumnTypes(rset, columnCount);
 
                 if (_parent.includeColumnNames()) {
 
@@ -210,8 +234,15 @@ public class ExportExcelWorker extends AbstractImportExportWorker
                     builder.addRowHeader(values);
                 }
 
+                boolean truncated = false;
                 while (rset.next()) {
 
+                    if (recordCount == maxRecords) {
+
+                        truncated = true;
+                        break;
+                    }
+
                     if (Thread.interrupted()) {
                         rset.close();
                         rset = null;
@@ -220,15 +251,14 @@ public class ExportExcelWorker extends AbstractImportExportWorker
                         throw new InterruptedException();
                     }
 
-                    values.clear();
+                    rowValues.clear();
 
                     for (int j = 0; j < columnCount; j++) {
 
-                        String value = rset.getString(j + 1);
-                        values.add(!rset.wasNull() ? value : EMPTY);
+                        rowValues.add(getValue(rset, j + 1, columnTypes[j]));
                     }
 
-                    builder.addRow(values);
+                    builder.addTypedRow(rowValues);
 
                     recordCount++;
                     totalRecordCount++;
@@ -238,9 +268,19 @@ public class ExportExcelWorker extends AbstractImportExportWorker
 
                 rset.close();
 
-                if (isSingleTable || fileFormat == ImportExportDataProcess.MULTIPLE_FILE) {
+                if (truncated) {
+
+                    outputBuffer.append("The table has more records than an .xls sheet can hold - only the first ");
+                    outputBuffer.append(MAX_XLS_ROWS);
+                    outputBuffer.append(" were exported. Export to an .xlsx file to include all of them");
+                    appendProgressWarningText(outputBuffer);
+                }
+
+                if (filePerTable) {
 
                     builder.writeTo(outputStream);
+                    outputStream.close();
+                    outputStream = null;
                 }
 
                 setProgressStatus(totalRecords);
@@ -253,7 +293,7 @@ public class ExportExcelWorker extends AbstractImportExportWorker
 
             }
 
-            if (!isSingleTable && fileFormat == ImportExportDataProcess.SINGLE_FILE) {
+            if (!filePerTable && builder != null) {
 
                 builder.writeTo(outputStream);
 
@@ -300,6 +340,10 @@ public class ExportExcelWorker extends AbstractImportExportWorker
                 }
             }
 
+            if (builder != null) {
+                builder.dispose();
+            }
+
             finish();
             setTableCount(tableCount);
             setRecordCount(totalRecordCount + errorCount);
@@ -314,11 +358,84 @@ public class ExportExcelWorker extends AbstractImportExportWorker
         return new FileOutputStream(path, false);
     }
 
-    private ExcelWorkbookBuilder createExcelWorkbookBuilder() {
+    private ExcelWorkbookBuilder createExcelWorkbookBuilder(File file) {
+
+        if (isStreamingWorkbook(file)) {
+
+            return new StreamingExcelWorkbookBuilder();
+        }
 
         return new DefaultExcelWorkbookBuilder();
     }
 
+    /**
+     * Returns whether the specified file is an XLSX workbook, which is
+     * written as a stream and not limited to the rows of an .xls sheet.
+     */
+    private boolean isStreamingWorkbook(File file) {
+
+        return file.getName().toLowerCase().endsWith(XLSX_EXTENSION);
+    }
+
+    private int[] getColumnTypes(ResultSet rset, int columnCount) throws SQLException {
+
+        ResultSetMetaData metaData = rset.getMetaData();
+
+        int[] columnTypes = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+
+            columnTypes[i] = metaData.getColumnType(i + 1);
+        }
+
+        return columnTypes;
+    }
+
+    /**
+     * Returns the value of the specified column as a number or date
+     * for the numeric and date/time types, otherwise as a string.
+     */
+    private Object getValue(ResultSet rset, int index, int columnType) throws SQLException {
+
+        Object value;
+        switch (columnType) {
+
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                value = rset.getLong(index);
+                break;
+
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                value = rset.getDouble(index);
+                break;
+
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                value = rset.getBigDecimal(index);
+                break;
+
+            case Types.DATE:
+                value = rset.getDate(index);
+                break;
+
+            case Types.TIME:
+                value = rset.getTime(index);
+                break;
+
+            case Types.TIMESTAMP:
+                value = rset.getTimestamp(index);
+                break;
+
+            default:
+                value = rset.getString(index);
+        }
+
+        return !rset.wasNull() ? value : null;
+    }
+
     private void logException(Throwable e) {
         if (Log.isDebugEnabled()) {
             Log.debug("Error on Excel export.", e);
@@ -25,10 +25,9 @@ import org.executequery.GUIUtilities;
 import org.executequery.gui.browser.ColumnData;
 import org.executequery.log.Log;
 import org.underworldlabs.swing.util.SwingWorker;
-import org.underworldlabs.util.MiscUtils;
+import org.underworldlabs.util.DelimitedRecordReader;
 
 import javax.swing.*;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
@@ -37,8 +36,6 @@ import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * @author Takis Diakoumis
@@ -134,8 +131,11 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
         int rollbackSize = getParent().getRollbackSize();
         int rollbackCount = 0;
 
+        // the number of parallel loaders, each with its own connection
+        int loaderCount = getParent().getLoaderThreadCount();
+
         FileReader fileReader = null;
-        BufferedReader reader = null;
+        DelimitedRecordReader reader = null;
         DateFormat dateFormat = null;
 
         try {
@@ -217,48 +217,6 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
             // record the start time
             start();
 
-            // setup the regex matcher for delims
-
-            // ----------------------------------------------------------------
-            // below was the original pattern from oreilly book.
-            // discovered issues when parsing values with quotes
-            // in them - not only around them.
-            /*
-            String regex =
-                    "(?:^|\\" +
-                    delim +
-                    ") (?: \" ( (?> [^\"]*+ ) (?> \"\" [^\"]*+ )*+ ) \" | ( [^\"\\" +
-                    delim + "]*+ ) )";
-            Matcher matcher = Pattern.compile(regex, Pattern.COMMENTS).matcher("");
-            Matcher qMatcher = Pattern.compile("\"\"", Pattern.COMMENTS).matcher("");
-            */
-            // ----------------------------------------------------------------
-
-            // modified above to regex below
-            // added the look-ahead after the close quote
-            // and removed the quote from the last regex pattern
-
-            String escapedDelim = escapeDelim(delim);
-
-            String regex =
-                    "(?:^|" +
-                            escapedDelim +
-                            ") (?: \" ( (?> [^\"]*+ ) (?> \"\" [^\"]*+ )*+ ) \"(?=" +
-                            escapedDelim +
-                            "?) | ( [^" +
-                            escapedDelim + "]*+ ) )";
-
-            // ----------------------------------------------------------------
-            // changed above to the following - seems to work for now
-            // regex pattern in full - where <delim> is the delimiter to use
-            //      \"([^\"]+?)\"<delim>?|([^<delim>]+)<delim>?|<delim>
-            //
-            // fixed oreilly one - not running this one
-            // ----------------------------------------------------------------
-
-            Matcher matcher = Pattern.compile(regex, Pattern.COMMENTS).matcher("");
-            Matcher qMatcher = Pattern.compile("\"\"", Pattern.COMMENTS).matcher("");
-
             // ----------------------------------------
             // --- begin looping through the tables ---
             // ----------------------------------------
@@ -267,7 +225,6 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
             conn = getConnection();
             conn.setAutoCommit(false);
 
-            int currentRowLength = 0;
             boolean insertLine = false;
 
             // the number of columns actually available in the file
@@ -302,7 +259,7 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
 
                 // setup the reader objects
                 fileReader = new FileReader(inputFile);
-                reader = new BufferedReader(fileReader);
+                reader = new DelimitedRecordReader(fileReader, delim, '"');
 
                 // retrieve the columns to be imported (or all)
                 Vector<ColumnData> columns = getColumns(dto.getTableName());
@@ -333,10 +290,13 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
                         boundVariables.put(columns.get(k), VARIABLE_NOT_BOUND);
                     }
 
-                    row = reader.readLine();
-                    lineNumber++;
+                    String[] _columns = null;
+                    if (reader.next()) {
+                        lineNumber = reader.getLineNumber();
+                        row = reader.getRecordText();
+                        _columns = reader.getValues();
+                    }
 
-                    String[] _columns = MiscUtils.splitSeparatedValues(row, delim);
                     if (_columns != null && _columns.length > 0) {
 
                         filesColumnCount = _columns.length;
@@ -449,8 +409,10 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
                 progressStatus = 10;
                 progressCheck = (int) (fileSize / progressStatus);
 
-                // prepare the statement
-                prepareStatement(dto.getTableName(), columns);
+                // prepare the statement - the parallel loaders prepare their own
+                if (loaderCount <= 1) {
+                    prepareStatement(dto.getTableName(), columns);
+                }
 
                 if (parsingDates && dateFormat == null) {
 
@@ -490,12 +452,51 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
 
                 }
 
+                if (loaderCount > 1) {
+
+                    DelimitedImportPipeline pipeline = new DelimitedImportPipeline(
+                            getParent().getDatabaseConnection(),
+                            insertStatement(dto.getTableName(), columns),
+                            columns,
+                            parameterIndexes(filesColumnCount, ignoredIndexes, columnCount),
+                            delim,
+                            loaderCount);
+
+                    pipeline.setTrimWhitespace(trimWhitespace);
+                    pipeline.setDateFormat(dateFormat);
+                    pipeline.setCommitSize(rollbackSize);
+                    pipeline.setHaltOnError(haltOnError);
+                    pipeline.setRejectFile(new File(inputFile.getPath() + ".rejected"), hasColumnNames ? row : null);
+
+                    appendProgressText("Importing with " + loaderCount + " loader threads...");
+                    pipeline.run(reader, fileSize, progress);
+
+                    tableRowCount = (int) pipeline.getRecordCount();
+                    tableInsertCount = (int) pipeline.getInsertCount();
+                    totalRecordCount += tableRowCount;
+                    totalInsertCount += tableInsertCount;
+                    errorCount += (int) pipeline.getErrorCount();
+
+                    printRejectedRows(pipeline);
+                    printTableResult(tableRowCount, tableInsertCount, dto.getTableName());
+                    setProgressStatus(100);
+                    hasDate = false;
+
+                    if (pipeline.isHalted()) {
+                        processResult = FAILED;
+                        getParent().cancelTransfer();
+                        throw new InterruptedException();
+                    }
+
+                    continue;
+                }
+
                 rowLength = 0;
 
-                while ((row = reader.readLine()) != null) {
+                while (reader.next()) {
 
                     insertLine = true;
-                    lineNumber++;
+                    lineNumber = reader.getLineNumber();
                     tableRowCount++;
                     totalRecordCount++;
 
@@ -509,9 +510,7 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
                         throw new InterruptedException();
                     }
 
-                    currentRowLength = row.length();
-
-                    if (currentRowLength == 0) {
+                    if (reader.isBlank()) {
 
                         outputBuffer.append("Line ");
                         outputBuffer.append(lineNumber);
@@ -531,7 +530,7 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
                         }
                     }
 
-                    rowLength += currentRowLength;
+                    rowLength += reader.getRecordLength();
                     if (progressCheck < rowLength) {
 
                         setProgressStatus(progressStatus);
@@ -539,32 +538,12 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
                         rowLength = 0;
                     }
 
-                    // reset matcher with current row
-                    matcher.reset(row);
-
-                    int index = 0;
-                    int lastIndex = -1;
+                    int fieldCount = reader.getFieldCount();
                     int loopIgnoredCount = 0;
 
-                    //Log.debug(row);
-
                     for (int j = 0; j < filesColumnCount; j++) {
 
-                        if (matcher.find(index)) {
-
-                            String first = matcher.group(2);
-
-                            if (first != null) {
-
-                                value = first;
-
-                            } else {
-
-                                qMatcher.reset(matcher.group(1));
-                                value = qMatcher.replaceAll("\"");
-                            }
-
-                            index = matcher.end();
+                        if (j < fieldCount) {
 
                             // check if its an ignored column
                             if (ignoredCount > 0) {
@@ -577,58 +556,35 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
 
                             }
 
-                        } else {
-
-                            // not enough delims check
-                            if (j < (filesColumnCount - 1)
-                                    && index > (currentRowLength - 1)) {
+                            value = reader.isBlank(j) ? null : reader.getString(j);
 
-                                outputBuffer.append("Insufficient number of column ");
-                                outputBuffer.append("values provided at line ");
-                                outputBuffer.append(lineNumber);
-                                appendProgressErrorText(outputBuffer);
+                        } else if (j < (filesColumnCount - 1)) {
 
-                                int yesNo = GUIUtilities.displayYesNoDialog(
-                                        "Insufficient number of values provided from line " +
-                                                lineNumber + ".\n" +
-                                                "Do you wish to continue?",
-                                        "Warning");
-
-                                if (yesNo == JOptionPane.YES_OPTION) {
+                            // not enough delims check
+                            outputBuffer.append("Insufficient number of column ");
+                            outputBuffer.append("values provided at line ");
+                            outputBuffer.append(lineNumber);
+                            appendProgressErrorText(outputBuffer);
 
-                                    insertLine = false;
-                                    break;
+                            int yesNo = GUIUtilities.displayYesNoDialog(
+                                    "Insufficient number of values provided from line " +
+                                            lineNumber + ".\n" +
+                                            "Do you wish to continue?",
+                                    "Warning");
 
-                                } else {
+                            if (yesNo == JOptionPane.YES_OPTION) {
 
-                                    throw new InterruptedException();
-                                }
+                                insertLine = false;
+                                break;
 
                             } else {
 
-                                // check if we're on a delim the matcher didn't pick up
-
-                                int delimLength = delim.length();
-
-                                if (row.substring(index, index + delimLength).equals(delim)) {
-
-                                    // increment index
-                                    index++;
-                                    // assign as null value
-                                    value = null;
-                                }
-
+                                throw new InterruptedException();
                             }
 
-                        }
-
-                        // check if we landed on the same index - likely null value
-                        if (index == lastIndex) {
-                            index++;
-                        }
-                        lastIndex = index;
+                        } else {
 
-                        if (value != null && value.trim().length() == 0) {
+                            // a missing last value is null
                             value = null;
                         }
 
@@ -692,7 +648,7 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
                         // the column names from the first row
                         if (hasColumnNames) {
 
-                            index = 0;
+                            int index = 0;
                             // check all variables are bound - insert NULL otherwise
 
                             for (Map.Entry<ColumnData, String> entry : boundVariables.entrySet()) {
@@ -857,7 +813,7 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
 
             // commit the last remaining block or where
             // set to commit at the end of all files
-            if (rollbackSize != ImportExportDataProcess.COMMIT_END_OF_FILE) {
+            if (loaderCount <= 1 && rollbackSize != ImportExportDataProcess.COMMIT_END_OF_FILE) {
                 setProgressStatus(100);
                 boolean doCommit = true;
                 if (errorCount > 0 && errorCount != totalRecordCount) {
@@ -959,19 +915,6 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
         return processResult;
     }
 
-    private String escapeDelim(String delim) {
-
-        String escape = "\\";
-
-        StringBuilder sb = new StringBuilder();
-        for (char i : delim.toCharArray()) {
-
-            sb.append(escape).append(i);
-        }
-
-        return sb.toString();
-    }
-
     private void logException(Throwable e) {
         if (Log.isDebugEnabled()) {
             Log.debug("Error on delimited import.", e);
@@ -987,6 +930,52 @@ public class ImportDelimitedWorker extends AbstractImportExportWorker {
         return false;
     }
 
+    /**
+     * Returns the statement parameter index of each value
+     * in a line of the file, -1 for the ignored values.
+     */
+    private int[] parameterIndexes(int filesColumnCount, List<Integer> ignoredIndexes, int columnCount) {
+        int[] parameterIndexes = new int[filesColumnCount];
+        int ignoredCount = 0;
+        for (int j = 0; j < filesColumnCount; j++) {
+            if (ignoredIndexes != null && isIndexIgnored(ignoredIndexes, j)) {
+                parameterIndexes[j] = -1;
+                ignoredCount++;
+            } else {
+                int index = j - ignoredCount;
+                parameterIndexes[j] = (index < columnCount) ? index : -1;
+            }
+        }
+        return parameterIndexes;
+    }
+
+    /**
+     * Prints the first errors of a parallel import and the reject file.
+     */
+    private void printRejectedRows(DelimitedImportPipeline pipeline) {
+        long rejectedCount = pipeline.getErrorCount();
+        if (rejectedCount == 0) {
+            return;
+        }
+
+        List<String> errors = pipeline.getErrors();
+        for (String error : errors) {
+            outputBuffer.append(error).append('\n');
+        }
+
+        if (rejectedCount > errors.size()) {
+            outputBuffer.append("... ");
+            outputBuffer.append(rejectedCount - errors.size());
+            outputBuffer.append(" more\n");
+        }
+
+        outputBuffer.append("Rejected rows: ");
+        outputBuffer.append(rejectedCount);
+        outputBuffer.append(" - written to ");
+        outputBuffer.append(pipeline.getRejectFile().getAbsolutePath());
+        appendProgressErrorText(outputBuffer);
+    }
+
     private int getIndexOfColumn(Vector<ColumnData> columns, ColumnData cd) {
         for (int i = 0, n = columns.size(); i < n; i++) {
             if (columns.get(i) == cd) {
@@ -320,6 +320,14 @@ public interface ImportExportDataProcess {
      */
     boolean trimWhitespace();
 
+    /**
+     * Returns the number of threads inserting the imported rows,
+     * each with its own connection and transaction.
+     *
+     * @return the loader thread count, 1 for a single threaded import
+     */
+    int getLoaderThreadCount();
+
     /**
      * Returns the dialog container for this process.
      *
@@ -296,6 +296,10 @@ public class ImportExportDelimitedPanel extends WizardProcessPanel
         return fourthPanel.trimWhitespace();
     }
 
+    public int getLoaderThreadCount() {
+        return fourthPanel.getLoaderThreadCount();
+    }
+
     /**
      * <p>Begins an import process.
      */
@@ -48,6 +48,11 @@ public class ImportExportDelimitedPanel_4 extends JPanel
      */
     private JComboBox rollbackCombo;
 
+    /**
+     * The loader thread count combo box
+     */
+    private JComboBox loaderThreadsCombo;
+
     private JCheckBox applyQuotesCheck;
 
     /**
@@ -115,6 +120,13 @@ public class ImportExportDelimitedPanel_4 extends JPanel
         rollbackCombo.setSelectedIndex(2);
         rollbackCombo.addActionListener(this);
 
+        JLabel loaderThreadsLabel = new JLabel("Loader Threads:");
+
+        String[] loaderThreads = {"1", "2", "4", "8"};
+        loaderThreadsCombo = WidgetFactory.createComboBox(loaderThreads);
+        loaderThreadsCombo.setToolTipText("Import with several connections in parallel, " +
+                "the rejected rows are written to the <file>.rejected file");
+
         batchCheck = new JCheckBox("Run as a batch process");
         trimCheck = new JCheckBox("Trim whitespace");
         applyQuotesCheck = new JCheckBox("Use double quotes for char/varchar/longvarchar columns", true);
@@ -124,6 +136,7 @@ public class ImportExportDelimitedPanel_4 extends JPanel
         delimCombo.setPreferredSize(comboDim);
         errorCombo.setPreferredSize(comboDim);
         rollbackCombo.setPreferredSize(comboDim);
+        loaderThreadsCombo.setPreferredSize(comboDim);
 
         JLabel instructLabel = new JLabel("Enter any particulars of the data files " +
                 "and select transfer options.");
@@ -159,6 +172,13 @@ public class ImportExportDelimitedPanel_4 extends JPanel
         gbc.insets.left = 20;
         add(rollbackLabel, gbc);
         gbc.gridy++;
+        add(loaderThreadsLabel, gbc);
+        gbc.gridx = 1;
+        gbc.insets.left = 0;
+        add(loaderThreadsCombo, gbc);
+        gbc.gridx = 0;
+        gbc.insets.left = 20;
+        gbc.gridy++;
         gbc.weightx = 1.0;
         gbc.weighty = 1.0;
         gbc.gridwidth = GridBagConstraints.REMAINDER;
@@ -193,6 +213,8 @@ public class ImportExportDelimitedPanel_4 extends JPanel
             rollbackCombo.setOpaque(false);
             rollbackCombo.setEnabled(false);
             rollbackLabel.setEnabled(false);
+            loaderThreadsCombo.setEnabled(false);
+            loaderThreadsLabel.setEnabled(false);
             batchCheck.setEnabled(false);
         }
 
@@ -227,6 +249,19 @@ public class ImportExportDelimitedPanel_4 extends JPanel
         }
     }
 
+    /**
+     * Retrieves the number of threads inserting the imported rows.
+     *
+     * @return the loader thread count
+     */
+    public int getLoaderThreadCount() {
+        if (!loaderThreadsCombo.isEnabled()) {
+            return 1;
+        }
+
+        return Integer.parseInt((String) loaderThreadsCombo.getSelectedItem());
+    }
+
     /**
      * <p>Retrieves the action on an error occuring
      * during the import/export process.
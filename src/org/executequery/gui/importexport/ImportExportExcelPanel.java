@@ -372,6 +372,10 @@ public class ImportExportExcelPanel extends WizardProcessPanel
         return false;
     }
 
+    public int getLoaderThreadCount() {
+        return 1;
+    }
+
     // returns single or multiple table export
     public int getTableTransferType() {
         return firstPanel.getTableTransferType();
@@ -352,7 +352,8 @@ public class ImportExportPanel_3 extends JPanel {
                 }
 
                 if (defaultExtension != null &&
-                        !defaultExtension.equalsIgnoreCase(fileExtension)) {
+                        !defaultExtension.equalsIgnoreCase(fileExtension) &&
+                        !(transferFormat == ImportExportDataProcess.EXCEL && ".xlsx".equalsIgnoreCase(fileExtension))) {
                     value += defaultExtension;
                 }
 
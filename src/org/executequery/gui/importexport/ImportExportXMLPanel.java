@@ -190,6 +190,10 @@ public class ImportExportXMLPanel extends WizardProcessPanel
         return false;
     }
 
+    public int getLoaderThreadCount() {
+        return 1;
+    }
+
     public boolean isExport() {
 
         int type = getTransferType();
@@ -0,0 +1,147 @@
+package org.executequery.gui.importexport;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Builds an XLSX workbook keeping only the last rows of the current
+ * sheet in memory - the rows before are written to a temporary file.
+ * <p/>
+ * The cell styles are created once per workbook and shared by all cells.
+ * A builder writes a single workbook, it is not to be used after
+ * <code>writeTo</code> other than to be disposed.
+ */
+public class StreamingExcelWorkbookBuilder implements ExcelWorkbookBuilder {
+
+    /**
+     * the number of rows kept in memory
+     */
+    public static final int DEFAULT_ROW_WINDOW = 100;
+
+    /**
+     * the maximum length of a cell text
+     */
+    private static final int MAX_TEXT_LENGTH = 32767;
+
+    private int currentRow;
+
+    private final SXSSFWorkbook workbook;
+
+    private Sheet currentSheet;
+
+    private final CellStyle headerStyle;
+
+    private final ExcelTypedCells typedCells;
+
+    public StreamingExcelWorkbookBuilder() {
+
+        this(DEFAULT_ROW_WINDOW);
+    }
+
+    public StreamingExcelWorkbookBuilder(int rowWindow) {
+
+        workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+
+        Font font = workbook.createFont();
+        font.setBoldweight(Font.BOLDWEIGHT_BOLD);
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(font);
+
+        typedCells = new ExcelTypedCells(workbook);
+    }
+
+    public void reset() {
+
+        currentRow = 0;
+        currentSheet = null;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+
+        workbook.write(outputStream);
+    }
+
+    public void dispose() {
+
+        workbook.dispose();
+    }
+
+    public void createSheet(String sheetName) {
+
+        currentSheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(sheetName));
+    }
+
+    public void addRow(List<String> values) {
+
+        Row row = createRow(++currentRow);
+        for (int i = 0, n = values.size(); i < n; i++) {
+
+            setText(row.createCell(i), values.get(i));
+        }
+
+    }
+
+    public void addTypedRow(List<Object> values) {
+
+        Row row = createRow(++currentRow);
+        for (int i = 0, n = values.size(); i < n; i++) {
+
+            Object value = values.get(i);
+            if (value == null) {
+
+                continue;
+            }
+
+            Cell cell = row.createCell(i);
+            if (!typedCells.setValue(cell, value)) {
+
+                setText(cell, value.toString());
+            }
+
+        }
+
+    }
+
+    public void addRowHeader(List<String> values) {
+
+        if (currentRow > 0) {
+
+            currentRow++;
+        }
+
+        Row row = createRow(currentRow);
+        for (int i = 0, n = values.size(); i < n; i++) {
+
+            Cell cell = row.createCell(i);
+            cell.setCellStyle(headerStyle);
+            setText(cell, values.get(i));
+        }
+
+    }
+
+    private Row createRow(int rowNumber) {
+
+        return currentSheet.createRow(rowNumber);
+    }
+
+    private void setText(Cell cell, String value) {
+
+        if (value.length() > MAX_TEXT_LENGTH) {
+
+            value = value.substring(0, MAX_TEXT_LENGTH);
+        }
+
+        cell.setCellValue(value);
+    }
+
+}
@@ -69,6 +69,13 @@ public class PropertiesConns extends AbstractPropertiesBasePanel {
                 bundledString("Connection.shutdown.timeout"),
                 Integer.valueOf(SystemProperties.getProperty("user", key))));
 
+        key = "connection.keepalive.interval";
+        list.add(new UserPreference(
+                UserPreference.INTEGER_TYPE,
+                key,
+                bundledString("Connection.keepalive.interval"),
+                Integer.valueOf(SystemProperties.getProperty("user", key))));
+
         key = "startup.connection.name";
         list.add(new UserPreference(
                 UserPreference.STRING_TYPE,
@@ -77,6 +84,54 @@ public class PropertiesConns extends AbstractPropertiesBasePanel {
                 SystemProperties.getProperty("user", key),
                 connectionNames()));
 
+        list.add(new UserPreference(
+                UserPreference.CATEGORY_TYPE,
+                null,
+                bundledString("Connection.pool"),
+                null));
+
+        key = "connection.usepool";
+        list.add(new UserPreference(
+                UserPreference.BOOLEAN_TYPE,
+                key,
+                bundledString("Connection.pool.use"),
+                Boolean.valueOf(SystemProperties.getProperty("user", key))));
+
+        key = "connection.pool.maximum";
+        list.add(new UserPreference(
+                UserPreference.INTEGER_TYPE,
+                key,
+                bundledString("Connection.pool.maximum"),
+                Integer.valueOf(SystemProperties.getProperty("user", key))));
+
+        key = "connection.pool.checkout.timeout";
+        list.add(new UserPreference(
+                UserPreference.INTEGER_TYPE,
+                key,
+                bundledString("Connection.pool.checkout.timeout"),
+                Integer.valueOf(SystemProperties.getProperty("user", key))));
+
+        key = "connection.pool.idle.timeout";
+        list.add(new UserPreference(
+                UserPreference.INTEGER_TYPE,
+                key,
+                bundledString("Connection.pool.idle.timeout"),
+                Integer.valueOf(SystemProperties.getProperty("user", key))));
+
+        key = "connection.pool.max.lifetime";
+        list.add(new UserPreference(
+                UserPreference.INTEGER_TYPE,
+                key,
+                bundledString("Connection.pool.max.lifetime"),
+                Integer.valueOf(SystemProperties.getProperty("user", key))));
+
+        key = "connection.pool.validate";
+        list.add(new UserPreference(
+                UserPreference.BOOLEAN_TYPE,
+                key,
+                bundledString("Connection.pool.validate"),
+                Boolean.valueOf(SystemProperties.getProperty("user", key))));
+
         UserPreference[] preferences =
                 list.toArray(new UserPreference[list.size()]);
         preferencesPanel = new SimplePreferencesPanel(preferences);
@@ -154,6 +154,13 @@ public class PropertiesResultSetTableGeneral extends AbstractPropertiesBasePanel
                 bundledString("FetchSize"),
                 Integer.valueOf(stringUserProperty(key))));
 
+        key = "results.table.columnar.storage";
+        list.add(new UserPreference(
+                UserPreference.BOOLEAN_TYPE,
+                key,
+                bundledString("UseColumnarStorageForQueryResults"),
+                Boolean.valueOf(stringUserProperty(key))));
+
         UserPreference[] preferences =
                 list.toArray(new UserPreference[list.size()]);
         preferencesPanel = new SimplePreferencesPanel(preferences);
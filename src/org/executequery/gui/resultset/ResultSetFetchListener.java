@@ -0,0 +1,26 @@
+package org.executequery.gui.resultset;
+
+/**
+ * Listener of the background result set fetch of the table model.
+ * All methods are called on the event dispatch thread.
+ */
+public interface ResultSetFetchListener {
+
+    /**
+     * Called after each batch of rows has been added to the model.
+     *
+     * @param rowCount      the total row count of the model
+     * @param rowsPerSecond the fetch rate since the fetch started
+     */
+    void fetchProgress(int rowCount, double rowsPerSecond);
+
+    /**
+     * Called when the fetch has completed, was cancelled or failed.
+     *
+     * @param rowCount  the total row count of the model
+     * @param cancelled whether the fetch was cancelled before the result set end
+     * @param error     the fetch error or <code>null</code>
+     */
+    void fetchFinished(int rowCount, boolean cancelled, Throwable error);
+
+}
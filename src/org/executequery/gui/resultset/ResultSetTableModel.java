@@ -30,21 +30,21 @@ import org.executequery.databasemediators.spi.DefaultStatementExecutor;
 import org.executequery.databasemediators.spi.StatementExecutor;
 import org.executequery.gui.ErrorMessagePublisher;
 import org.executequery.gui.browser.ColumnData;
+import org.executequery.gui.resultset.columnar.ColumnarResultSetData;
+import org.executequery.gui.resultset.columnar.RecordDataItemColumnVector;
 import org.executequery.gui.table.CreateTableSQLSyntax;
 import org.executequery.log.Log;
 import org.executequery.sql.SqlStatementResult;
 import org.executequery.util.UserProperties;
 import org.underworldlabs.jdbc.DataSourceException;
 import org.underworldlabs.swing.table.AbstractSortableTableModel;
+import org.underworldlabs.util.DynamicLibraryLoader;
 import org.underworldlabs.util.MiscUtils;
 import org.underworldlabs.util.SystemProperties;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.*;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -81,6 +81,16 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
      */
     private List<List<RecordDataItem>> tableData;
 
+    /**
+     * Whether the rows are held in the columnar storage
+     */
+    private boolean columnarStorage;
+
+    /**
+     * The columnar table values - same instance as tableData where used
+     */
+    private ColumnarResultSetData columnarData;
+
     /**
      * result set meta data model
      */
@@ -96,6 +106,12 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
 
     boolean isTable;
 
+    /**
+     * Query results only - createTable reads the first page and leaves
+     * the result set open for fetchAllInBackground to read the rest.
+     */
+    private boolean fetchInBackground;
+
     public ResultSetTableModel(boolean isTable) {
 
         this(null, -1, isTable);
@@ -123,6 +139,7 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
         recordDataItemFactory = new RecordDataItemFactory();
 
         holdMetaData = UserProperties.getInstance().getBooleanProperty("editor.results.metadata");
+        columnarStorage = !isTable && UserProperties.getInstance().getBooleanProperty("results.table.columnar.storage");
 
         if (resultSet != null) {
 
@@ -160,6 +177,10 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
         return query;
     }
 
+    public void setFetchInBackground(boolean fetchInBackground) {
+        this.fetchInBackground = fetchInBackground;
+    }
+
     public synchronized void createTable(ResultSet resultSet) {
         createTable(resultSet, null);
     }
@@ -179,6 +200,7 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
             return;
         }
 
+        boolean leaveOpen = false;
         try {
             resetMetaData();
             ResultSetMetaData rsmd = resultSet.getMetaData();
@@ -202,11 +224,26 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
             }
             interrupted = false;
 
+            if (columnarStorage) {
+
+                columnarData = new ColumnarResultSetData(columnHeaders, new RecordDataItemColumnVector.ItemReader() {
+
+                    @Override
+                    public RecordDataItem read(ResultSet resultSet, int column) throws SQLException {
+
+                        return createRecordDataItem(resultSet, column, columnHeaders.get(column - 1));
+                    }
+
+                });
+                tableData = columnarData;
+            }
+
             if (holdMetaData) {
 
                 setMetaDataVectors(rsmd);
             }
             getDataForTable(resultSet, count, columnDataList);
+            leaveOpen = fetchInBackground && !rsClose;
 
         } catch (SQLException e) {
 
@@ -239,7 +276,7 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
             }
 
         } finally {
-            if (!isTable) {
+            if (!isTable && !leaveOpen) {
                 if (resultSet != null) {
 
                 try {
@@ -263,8 +300,11 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
 
     private boolean fetchAll = false;
     private boolean cancelled = false;
+    private StreamingResultSetFetcher streamingFetcher;
 
     public synchronized void getDataForTable(ResultSet resultSet, int count, List<ColumnData> columnDataList) throws SQLException, InterruptedException {
+        cancelBackgroundFetch();
+        streamingFetcher = null;
         recordCount = 0;
         this.columnDataList = columnDataList;
         long time = System.currentTimeMillis();
@@ -276,7 +316,16 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
             for (int i = 0; i < fetchSize && !rsClose; i++) {
                 fetchOneRecord(resultSet, count);
             }
-        else if (maxRecords > 0) {
+        else if (fetchInBackground) {
+            int firstPage = Math.max(1, maxRecords > 0 ? Math.min(maxRecords, fetchSize) : fetchSize);
+            for (int i = 0; i < firstPage && !rsClose; i++) {
+                fetchOneRecord(resultSet, count);
+            }
+            if (!rsClose && recordCount == maxRecords) {
+                resultSet.close();
+                rsClose = true;
+            }
+        } else if (maxRecords > 0) {
             for (int i = 0; i < maxRecords && !rsClose; i++) {
                 fetchOneRecord(resultSet, count);
             }
@@ -286,6 +335,11 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
 
             Log.trace("Finished populating table model - " + recordCount + " rows - [ "
                     + MiscUtils.formatDuration(System.currentTimeMillis() - time) + "]");
+
+            if (columnarData != null) {
+
+                Log.trace("Columnar table model storage - ~" + columnarData.estimatedBytesPerRow() + " bytes per row");
+            }
         }
 
         fireTableStructureChanged();
@@ -300,7 +354,43 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
         return rsClose;
     }
 
+    /**
+     * Fetches all remaining rows of the open result set on a background
+     * thread adding them to the model in batches as they arrive.
+     */
+    public void fetchAllInBackground(ResultSetFetchListener listener) {
+
+        if (rsClose || rs == null || isBackgroundFetchRunning()) {
+
+            return;
+        }
+
+        int rowLimit = fetchInBackground && maxRecords > 0 ? maxRecords - recordCount : -1;
+        streamingFetcher = new StreamingResultSetFetcher(this, rs, count, fetchSize, rowLimit, listener);
+        streamingFetcher.start();
+    }
+
+    public boolean isBackgroundFetchRunning() {
+
+        return streamingFetcher != null && streamingFetcher.isRunning();
+    }
+
+    /**
+     * Stops the background fetch keeping the rows fetched so far.
+     * The result set is left open so that the fetch may be continued.
+     */
+    public void cancelBackgroundFetch() {
+
+        if (streamingFetcher != null) {
+
+            streamingFetcher.cancel();
+        }
+    }
+
     public void fetchMoreData() {
+        if (isBackgroundFetchRunning()) {
+            return;
+        }
         if (!rsClose)
             try {
                 if (fetchAll) {
@@ -514,176 +604,246 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
 
     private void addingRecord(ResultSet resultSet, int count) throws SQLException, InterruptedException {
 
+        if (interrupted || Thread.interrupted()) {
 
-            if (interrupted || Thread.interrupted()) {
-
-                throw new InterruptedException();
-            }
+            throw new InterruptedException();
+        }
 
-            recordCount++;
-            List<RecordDataItem> rowData = new ArrayList<RecordDataItem>(count);
+        recordCount++;
+        if (columnarData != null) {
 
             for (int i = 1; i <= count; i++) {
 
                 zeroBaseIndex = i - 1;
+                columnarData.getColumn(zeroBaseIndex).append(resultSet, i);
+            }
 
-                ResultSetColumnHeader header = columnHeaders.get(zeroBaseIndex);
-                RecordDataItem value = recordDataItemFactory.create(header);
+            columnarData.rowAppended();
+            return;
+        }
 
-                try {
+        tableData.add(readRow(resultSet, count));
+    }
 
-                    int dataType = header.getDataType();
-                    switch (dataType) {
-
-                        // some drivers (informix for example)
-                        // was noticed to return the hashcode from
-                        // getObject for -1 data types (eg. longvarchar).
-                        // force string for these - others stick with
-                        // getObject() for default value formatting
-
-                        case Types.CHAR:
-                        case Types.VARCHAR:
-                            value.setValue(resultSet.getString(i));
-                            break;
-                        case Types.DATE:
-                            value.setValue(resultSet.getDate(i));
-                            break;
-                        case Types.TIME:
-                            value.setValue(resultSet.getTime(i));
-                            break;
-                        case Types.TIMESTAMP:
-                            value.setValue(resultSet.getTimestamp(i));
-                            break;
-                        case Types.LONGVARCHAR:
-                        case Types.CLOB:
-                            Clob clob = resultSet.getClob(i);
-                            if (clob != null && clob.getClass().getName().contains("org.firebirdsql.jdbc")) {
-                                URL[] urls = new URL[0];
-                                Class clazzdb = null;
-                                Object odb = null;
-                                try {
-                                    urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-                                    ClassLoader cl = new URLClassLoader(urls, resultSet.getStatement().getConnection().getClass().getClassLoader());
-                                    clazzdb = cl.loadClass("biz.redsoft.FBClobImpl");
-                                    odb = clazzdb.newInstance();
-                                } catch (ClassNotFoundException e) {
-                                    e.printStackTrace();
-                                } catch (IllegalAccessException e) {
-                                    e.printStackTrace();
-                                } catch (InstantiationException e) {
-                                    e.printStackTrace();
-                                } catch (MalformedURLException e) {
-                                    e.printStackTrace();
-                                }
+    /**
+     * Builds the record data items of the current result set row.
+     */
+    List<RecordDataItem> readRow(ResultSet resultSet, int count) throws SQLException {
 
-                                IFBClob ifbClob = (IFBClob) odb;
-                                ifbClob.detach(clob);
-                                value.setValue(ifbClob);
-                            } else {
-                                value.setValue(clob);
-                            }
-                            if (columnDataList != null) {
-                                ((ClobRecordDataItem) value).setCharset(columnDataList.get(i - 1).getCharset());
-                            } else ((ClobRecordDataItem) value).setCharset(CreateTableSQLSyntax.NONE);
-                            break;
-                        case Types.LONGVARBINARY:
-                        case Types.VARBINARY:
-                        case Types.BINARY:
-                            value.setValue(resultSet.getBytes(i));
-                            break;
-                        case Types.BLOB:
-                            Blob blob = resultSet.getBlob(i);
-                            if (blob != null && blob.getClass().getName().contains("org.firebirdsql.jdbc")) {
-                                URL[] urls = new URL[0];
-                                Class clazzdb = null;
-                                Object odb = null;
-                                try {
-                                    urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-                                    ClassLoader cl = new URLClassLoader(urls, resultSet.getStatement().getConnection().getClass().getClassLoader());
-                                    clazzdb = cl.loadClass("biz.redsoft.FBBlobImpl");
-                                    odb = clazzdb.newInstance();
-                                } catch (ClassNotFoundException e) {
-                                    e.printStackTrace();
-                                } catch (IllegalAccessException e) {
-                                    e.printStackTrace();
-                                } catch (InstantiationException e) {
-                                    e.printStackTrace();
-                                } catch (MalformedURLException e) {
-                                    e.printStackTrace();
-                                }
+        List<RecordDataItem> rowData = new ArrayList<RecordDataItem>(count);
+        for (int i = 1; i <= count; i++) {
 
-                                IFBBlob ifbBlob = (IFBBlob) odb;
-                                ifbBlob.detach(blob);
-                                value.setValue(ifbBlob);
-                            } else {
-                                value.setValue(blob);
-                            }
-                            break;
-                        case Types.BIT:
-                        case Types.TINYINT:
-                        case Types.SMALLINT:
-                        case Types.INTEGER:
-                        case Types.BIGINT:
-                        case Types.FLOAT:
-                        case Types.REAL:
-                        case Types.DOUBLE:
-                        case Types.NUMERIC:
-                        case Types.DECIMAL:
-                        case Types.NULL:
-                        case Types.OTHER:
-                        case Types.JAVA_OBJECT:
-                        case Types.DISTINCT:
-                        case Types.STRUCT:
-                        case Types.ARRAY:
-                        case Types.REF:
-                        case Types.DATALINK:
-                        case Types.BOOLEAN:
-                        case Types.ROWID:
-                        case Types.NCHAR:
-                        case Types.NVARCHAR:
-                        case Types.LONGNVARCHAR:
-                        case Types.NCLOB:
-                        case Types.SQLXML:
-
-                            // use getObject for all other known types
-
-                            value.setValue(resultSet.getObject(i));
-                            break;
-
-                        default:
-
-                            // otherwise try as string
-
-                            asStringOrObject(value, resultSet, i);
-                            break;
-                    }
+            rowData.add(createRecordDataItem(resultSet, i, columnHeaders.get(i - 1)));
+        }
 
-                } catch (Exception e) {
+        return rowData;
+    }
+
+    /**
+     * Adds the rows read by the background fetch - called on the event dispatch thread.
+     */
+    void appendRows(StreamingResultSetFetcher fetcher, List<List<RecordDataItem>> rows) {
+
+        if (fetcher != streamingFetcher) {
+
+            // rows of a result set replaced in the meantime
+            return;
+        }
+
+        int firstRow = tableData.size();
+        if (columnarData != null) {
+
+            for (List<RecordDataItem> row : rows) {
+
+                columnarData.appendRow(row);
+            }
 
-                    try {
+        } else {
 
-                        // ... and on dump, resort to string
-                        value.setValue(resultSet.getString(i));
+            tableData.addAll(rows);
+        }
+        recordCount += rows.size();
+
+        fireTableRowsInserted(firstRow, tableData.size() - 1);
+    }
 
-                    } catch (SQLException sqlException) {
+    void backgroundFetchFinished(StreamingResultSetFetcher fetcher, boolean completed) {
 
-                        // catch-all SQLException - yes, this is hideous
+        if (fetchInBackground) {
 
-                        // noticed with invalid date formatted values in mysql
+            // query results are not fetched any further -
+            // release the statement whatever ended the fetch
+            closeResultSetAndStatement(fetcher.getResultSet());
+            if (fetcher == streamingFetcher) {
 
-                        value.setValue("<Error - " + sqlException.getMessage() + ">");
+                rsClose = true;
+            }
+
+        } else if (fetcher == streamingFetcher && completed) {
+
+            try {
+
+                rs.close();
+
+            } catch (SQLException e) {
+
+                Log.debug("Error closing result set - " + e.getMessage());
+            }
+            rsClose = true;
+        }
+    }
+
+    private void closeResultSetAndStatement(ResultSet resultSet) {
+
+        try {
+
+            Statement statement = resultSet.getStatement();
+            resultSet.close();
+
+            if (statement != null && !statement.isClosed()) {
+
+                statement.close();
+            }
+
+        } catch (SQLException e) {
+
+            Log.debug("Error closing result set - " + e.getMessage());
+        }
+    }
+
+    private RecordDataItem createRecordDataItem(ResultSet resultSet, int column, ResultSetColumnHeader header) throws SQLException {
+
+        RecordDataItem value = recordDataItemFactory.create(header);
+
+        try {
+
+            int dataType = header.getDataType();
+            switch (dataType) {
+
+                // some drivers (informix for example)
+                // was noticed to return the hashcode from
+                // getObject for -1 data types (eg. longvarchar).
+                // force string for these - others stick with
+                // getObject() for default value formatting
+
+                case Types.CHAR:
+                case Types.VARCHAR:
+                    value.setValue(resultSet.getString(column));
+                    break;
+                case Types.DATE:
+                    value.setValue(resultSet.getDate(column));
+                    break;
+                case Types.TIME:
+                    value.setValue(resultSet.getTime(column));
+                    break;
+                case Types.TIMESTAMP:
+                    value.setValue(resultSet.getTimestamp(column));
+                    break;
+                case Types.LONGVARCHAR:
+                case Types.CLOB:
+                    Clob clob = resultSet.getClob(column);
+                    if (clob != null && clob.getClass().getName().contains("org.firebirdsql.jdbc")) {
+                        Object odb = null;
+                        try {
+                            odb = DynamicLibraryLoader.loadingObjectFromClassLoader(clob, "FBClobImpl");
+                        } catch (ClassNotFoundException e) {
+                            e.printStackTrace();
+                        }
+
+                        IFBClob ifbClob = (IFBClob) odb;
+                        ifbClob.detach(clob);
+                        value.setValue(ifbClob);
+                    } else {
+                        value.setValue(clob);
                     }
-                }
+                    if (columnDataList != null) {
+                        ((ClobRecordDataItem) value).setCharset(columnDataList.get(column - 1).getCharset());
+                    } else ((ClobRecordDataItem) value).setCharset(CreateTableSQLSyntax.NONE);
+                    break;
+                case Types.LONGVARBINARY:
+                case Types.VARBINARY:
+                case Types.BINARY:
+                    value.setValue(resultSet.getBytes(column));
+                    break;
+                case Types.BLOB:
+                    Blob blob = resultSet.getBlob(column);
+                    if (blob != null && blob.getClass().getName().contains("org.firebirdsql.jdbc")) {
+                        Object odb = null;
+                        try {
+                            odb = DynamicLibraryLoader.loadingObjectFromClassLoader(blob, "FBBlobImpl");
+                        } catch (ClassNotFoundException e) {
+                            e.printStackTrace();
+                        }
+
+                        IFBBlob ifbBlob = (IFBBlob) odb;
+                        ifbBlob.detach(blob);
+                        value.setValue(ifbBlob);
+                    } else {
+                        value.setValue(blob);
+                    }
+                    break;
+                case Types.BIT:
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                case Types.FLOAT:
+                case Types.REAL:
+                case Types.DOUBLE:
+                case Types.NUMERIC:
+                case Types.DECIMAL:
+                case Types.NULL:
+                case Types.OTHER:
+                case Types.JAVA_OBJECT:
+                case Types.DISTINCT:
+                case Types.STRUCT:
+                case Types.ARRAY:
+                case Types.REF:
+                case Types.DATALINK:
+                case Types.BOOLEAN:
+                case Types.ROWID:
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                case Types.LONGNVARCHAR:
+                case Types.NCLOB:
+                case Types.SQLXML:
+
+                    // use getObject for all other known types
+
+                    value.setValue(resultSet.getObject(column));
+                    break;
 
-                if (resultSet.wasNull()) {
+                default:
 
-                    value.setNull();
-                }
+                    // otherwise try as string
+
+                    asStringOrObject(value, resultSet, column);
+                    break;
+            }
+
+        } catch (Exception e) {
+
+            try {
+
+                // ... and on dump, resort to string
+                value.setValue(resultSet.getString(column));
+
+            } catch (SQLException sqlException) {
+
+                // catch-all SQLException - yes, this is hideous
+
+                // noticed with invalid date formatted values in mysql
 
-                rowData.add(value);
+                value.setValue("<Error - " + sqlException.getMessage() + ">");
             }
+        }
+
+        if (resultSet.wasNull()) {
 
-            tableData.add(rowData);
+            value.setNull();
+        }
+
+        return value;
     }
 
     public void cancelFetch() {
@@ -693,6 +853,7 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
     public void interrupt() {
 
         interrupted = true;
+        cancelBackgroundFetch();
     }
 
     public void setHoldMetaData(boolean holdMetaData) {
@@ -882,10 +1043,34 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
         return tableData.get(row);
     }
 
+    /**
+     * Returns the row data to be changed - with the columnar storage
+     * the row items are kept from now on so the changes are not lost.
+     */
+    private List<RecordDataItem> getRowDataForUpdate(int row) {
+
+        if (columnarData != null) {
+
+            return columnarData.pin(row);
+        }
+
+        return tableData.get(row);
+    }
+
+    private RecordDataItem recordDataItemAt(int row, int column) {
+
+        if (columnarData != null) {
+
+            return columnarData.getItem(row, column);
+        }
+
+        return tableData.get(row).get(column);
+    }
+
     @Override
     public void setValueAt(Object value, int row, int column) {
 
-        List<RecordDataItem> rowData = tableData.get(row);
+        List<RecordDataItem> rowData = getRowDataForUpdate(row);
         if (column < rowData.size()) {
 
             try {
@@ -929,10 +1114,9 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
 
         if (row < tableData.size()) {
 
-            List<RecordDataItem> rowData = tableData.get(row);
-            if (column < rowData.size()) {
+            if (column < columnHeaders.size()) {
 
-                return rowData.get(asVisibleColumnIndex(column));
+                return recordDataItemAt(row, asVisibleColumnIndex(column));
             }
         }
 
@@ -953,7 +1137,7 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
 
     @Override
     public boolean isCellEditable(int row, int column) {
-        RecordDataItem recordDataItem = tableData.get(row).get(asVisibleColumnIndex(column));
+        RecordDataItem recordDataItem = recordDataItemAt(row, asVisibleColumnIndex(column));
 
         if (!visibleColumnHeaders.get(column).isEditable()) {
             return recordDataItem.isNew() && cellsEditable;
@@ -1019,7 +1203,7 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
 
     public void deleteRow(int rowNumber) {
         if (rowNumber >= 0 && rowNumber < tableData.size()) {
-            List<RecordDataItem> row = tableData.get(rowNumber);
+            List<RecordDataItem> row = getRowDataForUpdate(rowNumber);
             if (row.get(0).isNew()) {
                 deletedRow = tableData.get(rowNumber);
                 tableData.remove(rowNumber);
@@ -1056,7 +1240,7 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
             return String.class;
         }
 
-        RecordDataItem recordDataItem = tableData.get(0).get(column);
+        RecordDataItem recordDataItem = recordDataItemAt(0, column);
         if (recordDataItem.isDisplayValueNull()) {
 
             return String.class;
@@ -1108,6 +1292,7 @@ public class ResultSetTableModel extends AbstractSortableTableModel {
     }
 
     public void closeResultSet() throws SQLException {
+        cancelBackgroundFetch();
         if (rs != null && !rs.isClosed())
             rs.close();
     }
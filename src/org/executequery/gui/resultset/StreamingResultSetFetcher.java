@@ -0,0 +1,229 @@
+package org.executequery.gui.resultset;
+
+import org.executequery.log.Log;
+import org.underworldlabs.swing.util.SwingWorker;
+
+import javax.swing.*;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the remaining rows of a result set on a worker thread and
+ * publishes them to the table model in batches on the event dispatch thread.
+ * <p/>
+ * The first batch is kept small so the first rows show up immediately,
+ * following batches are closed by size or age. The number of batches waiting
+ * for the event dispatch thread is bounded - the reader blocks when the
+ * UI falls behind. The fetch stops after the row limit if one is given.
+ */
+class StreamingResultSetFetcher {
+
+    private static final int MAX_PENDING_BATCHES = 8;
+
+    private static final int MAX_BATCH_SIZE = 5000;
+
+    private static final long MAX_BATCH_AGE = 200;
+
+    private final ResultSetTableModel model;
+
+    private final ResultSet resultSet;
+
+    private final int columnCount;
+
+    private final int firstBatchSize;
+
+    private final int rowLimit;
+
+    private final ResultSetFetchListener listener;
+
+    private final BlockingQueue<List<List<RecordDataItem>>> pendingBatches;
+
+    private final AtomicBoolean publishScheduled;
+
+    private volatile boolean cancelled;
+
+    private volatile boolean running;
+
+    private long startTime;
+
+    private int fetchedRows;
+
+    private SwingWorker worker;
+
+    StreamingResultSetFetcher(ResultSetTableModel model, ResultSet resultSet, int columnCount,
+                              int firstBatchSize, int rowLimit, ResultSetFetchListener listener) {
+
+        this.model = model;
+        this.resultSet = resultSet;
+        this.columnCount = columnCount;
+        this.firstBatchSize = Math.max(1, firstBatchSize);
+        this.rowLimit = rowLimit;
+        this.listener = listener;
+
+        pendingBatches = new ArrayBlockingQueue<List<List<RecordDataItem>>>(MAX_PENDING_BATCHES);
+        publishScheduled = new AtomicBoolean();
+    }
+
+    void start() {
+
+        running = true;
+        startTime = System.currentTimeMillis();
+
+        worker = new SwingWorker() {
+
+            @Override
+            public Object construct() {
+
+                return fetch();
+            }
+
+            @Override
+            public void finished() {
+
+                fetchFinished((Throwable) get());
+            }
+
+        };
+        worker.start();
+    }
+
+    void cancel() {
+
+        cancelled = true;
+    }
+
+    boolean isRunning() {
+
+        return running;
+    }
+
+    ResultSet getResultSet() {
+
+        return resultSet;
+    }
+
+    /**
+     * Reads the rows - runs on the worker thread and returns the fetch error if any.
+     */
+    private Throwable fetch() {
+
+        try {
+
+            int batchSize = firstBatchSize;
+            List<List<RecordDataItem>> batch = new ArrayList<List<RecordDataItem>>(batchSize);
+            long batchStart = System.currentTimeMillis();
+
+            int rowsRead = 0;
+            while (!cancelled && (rowLimit < 0 || rowsRead < rowLimit) && resultSet.next()) {
+
+                rowsRead++;
+                batch.add(model.readRow(resultSet, columnCount));
+                if (batch.size() >= batchSize || System.currentTimeMillis() - batchStart >= MAX_BATCH_AGE) {
+
+                    publish(batch);
+
+                    batchSize = MAX_BATCH_SIZE;
+                    batch = new ArrayList<List<RecordDataItem>>(batchSize);
+                    batchStart = System.currentTimeMillis();
+                }
+
+            }
+
+            if (!batch.isEmpty()) {
+
+                publish(batch);
+            }
+
+            return null;
+
+        } catch (InterruptedException e) {
+
+            cancelled = true;
+            return null;
+
+        } catch (Exception e) {
+
+            if (cancelled) {
+
+                Log.debug("Background fetch stopped after cancel - " + e.getMessage());
+                return null;
+            }
+
+            return e;
+        }
+    }
+
+    private void publish(List<List<RecordDataItem>> batch) throws InterruptedException {
+
+        pendingBatches.put(batch);
+        if (publishScheduled.compareAndSet(false, true)) {
+
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    publishPending();
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds the pending batches to the model - runs on the event dispatch thread.
+     */
+    private void publishPending() {
+
+        publishScheduled.set(false);
+
+        List<List<List<RecordDataItem>>> batches = new ArrayList<List<List<RecordDataItem>>>(MAX_PENDING_BATCHES);
+        pendingBatches.drainTo(batches);
+        if (batches.isEmpty()) {
+
+            return;
+        }
+
+        List<List<RecordDataItem>> rows = new ArrayList<List<RecordDataItem>>();
+        for (List<List<RecordDataItem>> batch : batches) {
+
+            rows.addAll(batch);
+        }
+
+        fetchedRows += rows.size();
+        model.appendRows(this, rows);
+
+        if (listener != null) {
+
+            listener.fetchProgress(model.getRowCount(), rowsPerSecond());
+        }
+    }
+
+    private void fetchFinished(Throwable error) {
+
+        // the worker may have put batches after the last scheduled publish ran
+        publishPending();
+
+        running = false;
+        model.backgroundFetchFinished(this, !cancelled && error == null);
+
+        if (Log.isTraceEnabled()) {
+
+            Log.trace("Background fetch finished - " + fetchedRows + " rows - "
+                    + Math.round(rowsPerSecond()) + " rows/s");
+        }
+
+        if (listener != null) {
+
+            listener.fetchFinished(model.getRowCount(), cancelled, error);
+        }
+    }
+
+    private double rowsPerSecond() {
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        return fetchedRows * 1000d / elapsed;
+    }
+
+}
@@ -0,0 +1,221 @@
+package org.executequery.gui.resultset.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base column vector of the columnar result set storage.
+ * Holds the null bitmap and values which could not be read
+ * in the native column form (driver errors, conversion failures).
+ */
+public abstract class AbstractColumnVector {
+
+    protected static final int DEFAULT_CAPACITY = 64;
+
+    private final BitSet nulls;
+
+    private Map<Integer, Object> exceptionalValues;
+
+    protected int size;
+
+    protected AbstractColumnVector() {
+
+        nulls = new BitSet();
+    }
+
+    /**
+     * Reads the value at the specified result set column into the next row of this vector.
+     */
+    public void append(ResultSet resultSet, int column) {
+
+        ensureCapacity(size + 1);
+        try {
+
+            readValue(resultSet, column, size);
+            if (resultSet.wasNull()) {
+
+                nulls.set(size);
+            }
+
+        } catch (Exception e) {
+
+            try {
+
+                // ... and on dump, resort to string
+                setExceptionalValue(size, resultSet.getString(column));
+
+            } catch (SQLException sqlException) {
+
+                setExceptionalValue(size, "<Error - " + sqlException.getMessage() + ">");
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Appends the specified value - a value of an unexpected type is kept as is.
+     */
+    public void appendValue(Object value) {
+
+        ensureCapacity(size + 1);
+        if (value == null) {
+
+            nulls.set(size);
+
+        } else {
+
+            try {
+
+                setValue(size, value);
+
+            } catch (ClassCastException e) {
+
+                setExceptionalValue(size, value);
+            }
+
+        }
+        size++;
+    }
+
+    public Object getValue(int row) {
+
+        if (exceptionalValues != null && exceptionalValues.containsKey(row)) {
+
+            return exceptionalValues.get(row);
+        }
+
+        if (isNull(row)) {
+
+            return null;
+        }
+
+        return valueAt(row);
+    }
+
+    public boolean isNull(int row) {
+
+        return nulls.get(row);
+    }
+
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Inserts an empty (null) row at the specified row moving
+     * the following rows one position up.
+     */
+    public void insertNull(int row) {
+
+        ensureCapacity(size + 1);
+        int moved = size - row;
+        if (moved > 0) {
+
+            open(row, moved);
+            for (int i = size; i > row; i--) {
+
+                nulls.set(i, nulls.get(i - 1));
+            }
+        }
+        nulls.set(row);
+
+        shiftExceptionalValues(row, 1);
+        size++;
+    }
+
+    public void remove(int row) {
+
+        int moved = size - row - 1;
+        if (moved > 0) {
+
+            shift(row, moved);
+            for (int i = row; i < size - 1; i++) {
+
+                nulls.set(i, nulls.get(i + 1));
+            }
+        }
+        nulls.clear(size - 1);
+
+        if (exceptionalValues != null) {
+
+            exceptionalValues.remove(row);
+        }
+        shiftExceptionalValues(row + 1, -1);
+
+        size--;
+    }
+
+    /**
+     * Moves the exceptional values from the specified row on by the specified offset.
+     */
+    private void shiftExceptionalValues(int fromRow, int offset) {
+
+        if (exceptionalValues == null) {
+
+            return;
+        }
+
+        Map<Integer, Object> shifted = new HashMap<Integer, Object>();
+        for (Map.Entry<Integer, Object> entry : exceptionalValues.entrySet()) {
+
+            int index = entry.getKey();
+            shifted.put(index < fromRow ? index : index + offset, entry.getValue());
+        }
+        exceptionalValues = shifted;
+    }
+
+    public void clear() {
+
+        nulls.clear();
+        exceptionalValues = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the approximate heap size of this vector in bytes.
+     */
+    public long estimatedBytes() {
+
+        return (nulls.size() >> 3) + dataBytes();
+    }
+
+    protected void setExceptionalValue(int row, Object value) {
+
+        if (exceptionalValues == null) {
+
+            exceptionalValues = new HashMap<Integer, Object>();
+        }
+        exceptionalValues.put(row, value);
+    }
+
+    protected int newCapacity(int currentCapacity, int minCapacity) {
+
+        int capacity = Math.max(DEFAULT_CAPACITY, currentCapacity + (currentCapacity >> 1));
+        return Math.max(capacity, minCapacity);
+    }
+
+    protected abstract void readValue(ResultSet resultSet, int column, int row) throws SQLException;
+
+    protected abstract void setValue(int row, Object value);
+
+    protected abstract Object valueAt(int row);
+
+    protected abstract void ensureCapacity(int minCapacity);
+
+    /**
+     * Moves <code>count</code> values starting after <code>row</code> one position down.
+     */
+    protected abstract void shift(int row, int count);
+
+    /**
+     * Moves <code>count</code> values starting at <code>row</code> one position up.
+     */
+    protected abstract void open(int row, int count);
+
+    protected abstract long dataBytes();
+
+}
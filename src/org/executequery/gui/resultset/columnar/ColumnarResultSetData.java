@@ -0,0 +1,325 @@
+package org.executequery.gui.resultset.columnar;
+
+import org.executequery.gui.resultset.RecordDataItem;
+import org.executequery.gui.resultset.RecordDataItemFactory;
+import org.executequery.gui.resultset.ResultSetColumnHeader;
+
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar storage of the result set table model rows.
+ * <p/>
+ * Values of the INTEGER, BIGINT, DOUBLE, DATE, TIME and TIMESTAMP columns are held
+ * in primitive vectors, CHAR and VARCHAR values are dictionary encoded. Record data
+ * items for these columns are created on request only - rows being edited
+ * are pinned so that the changes made to their items are kept.
+ * Columns of all other types keep their record data items as before.
+ */
+public class ColumnarResultSetData extends AbstractList<List<RecordDataItem>> {
+
+    private final List<ResultSetColumnHeader> columnHeaders;
+
+    private final AbstractColumnVector[] columns;
+
+    private final RecordDataItemFactory recordDataItemFactory;
+
+    private final Map<Integer, List<RecordDataItem>> pinnedRows;
+
+    private int rowCount;
+
+    /**
+     * Creates the storage of the rows of the specified columns, the values
+     * of the columns without a primitive vector are read by the item reader.
+     */
+    public ColumnarResultSetData(List<ResultSetColumnHeader> columnHeaders,
+                                 RecordDataItemColumnVector.ItemReader itemReader) {
+
+        this.columnHeaders = new ArrayList<ResultSetColumnHeader>(columnHeaders);
+        this.recordDataItemFactory = new RecordDataItemFactory();
+        this.pinnedRows = new HashMap<Integer, List<RecordDataItem>>();
+
+        columns = new AbstractColumnVector[columnHeaders.size()];
+        for (int i = 0; i < columns.length; i++) {
+
+            columns[i] = createColumnVector(columnHeaders.get(i).getDataType(), itemReader);
+        }
+    }
+
+    /**
+     * Returns whether values of the specified type are stored in a primitive vector.
+     */
+    public static boolean isColumnarType(int dataType) {
+
+        switch (dataType) {
+
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DOUBLE:
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+            case Types.CHAR:
+            case Types.VARCHAR:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    private AbstractColumnVector createColumnVector(int dataType, RecordDataItemColumnVector.ItemReader itemReader) {
+
+        switch (dataType) {
+
+            case Types.INTEGER:
+                return new IntColumnVector();
+
+            case Types.BIGINT:
+                return new LongColumnVector();
+
+            case Types.DOUBLE:
+                return new DoubleColumnVector();
+
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return new DateColumnVector(dataType);
+
+            case Types.CHAR:
+            case Types.VARCHAR:
+                return new DictionaryStringColumnVector();
+
+            default:
+                return new RecordDataItemColumnVector(itemReader);
+        }
+    }
+
+    /**
+     * Returns the vector of the specified (zero based) column. Vectors
+     * are filled by the table model with one value per column and then
+     * completed with {@link #rowAppended()}.
+     */
+    public AbstractColumnVector getColumn(int column) {
+
+        return columns[column];
+    }
+
+    public void rowAppended() {
+
+        rowCount++;
+    }
+
+    /**
+     * Appends the values of the specified row built as record data items.
+     */
+    public void appendRow(List<RecordDataItem> rowData) {
+
+        for (int i = 0; i < columns.length; i++) {
+
+            AbstractColumnVector vector = columns[i];
+            if (vector instanceof RecordDataItemColumnVector) {
+
+                ((RecordDataItemColumnVector) vector).append(rowData.get(i));
+
+            } else {
+
+                vector.appendValue(rowData.get(i).getValue());
+            }
+
+        }
+
+        rowCount++;
+        modCount++;
+    }
+
+    /**
+     * Returns the record data item of the specified cell. For the rows not
+     * pinned the item is created for this request only.
+     */
+    public RecordDataItem getItem(int row, int column) {
+
+        List<RecordDataItem> pinnedRow = pinnedRows.get(row);
+        if (pinnedRow != null) {
+
+            return pinnedRow.get(column);
+        }
+
+        return createItem(row, column);
+    }
+
+    /**
+     * Materializes the specified row and keeps its items for all
+     * subsequent requests so that the changes made to them are not lost.
+     */
+    public List<RecordDataItem> pin(int row) {
+
+        List<RecordDataItem> pinnedRow = pinnedRows.get(row);
+        if (pinnedRow == null) {
+
+            pinnedRow = createRow(row);
+            pinnedRows.put(row, pinnedRow);
+        }
+
+        return pinnedRow;
+    }
+
+    public boolean isPinned(int row) {
+
+        return pinnedRows.containsKey(row);
+    }
+
+    private List<RecordDataItem> createRow(int row) {
+
+        List<RecordDataItem> rowData = new ArrayList<RecordDataItem>(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+
+            rowData.add(createItem(row, i));
+        }
+
+        return rowData;
+    }
+
+    private RecordDataItem createItem(int row, int column) {
+
+        AbstractColumnVector vector = columns[column];
+        if (vector instanceof RecordDataItemColumnVector) {
+
+            return ((RecordDataItemColumnVector) vector).getItem(row);
+        }
+
+        RecordDataItem item = recordDataItemFactory.create(columnHeaders.get(column));
+        item.setValue(vector.getValue(row));
+
+        return item;
+    }
+
+    @Override
+    public List<RecordDataItem> get(int row) {
+
+        rangeCheck(row);
+        List<RecordDataItem> pinnedRow = pinnedRows.get(row);
+        if (pinnedRow != null) {
+
+            return pinnedRow;
+        }
+
+        return createRow(row);
+    }
+
+    @Override
+    public int size() {
+
+        return rowCount;
+    }
+
+    /**
+     * Inserts the specified row pinned, the rows from the
+     * specified index on are moved one position up.
+     */
+    @Override
+    public void add(int index, List<RecordDataItem> rowData) {
+
+        if (index < 0 || index > rowCount) {
+
+            throw new IndexOutOfBoundsException("Row: " + index + ", Size: " + rowCount);
+        }
+
+        for (int i = 0; i < columns.length; i++) {
+
+            AbstractColumnVector vector = columns[i];
+            if (vector instanceof RecordDataItemColumnVector) {
+
+                ((RecordDataItemColumnVector) vector).insert(index, rowData.get(i));
+
+            } else {
+
+                vector.insertNull(index);
+            }
+
+        }
+
+        shiftPinnedRows(index, 1);
+        pinnedRows.put(index, rowData);
+        rowCount++;
+        modCount++;
+    }
+
+    @Override
+    public List<RecordDataItem> remove(int row) {
+
+        rangeCheck(row);
+        List<RecordDataItem> removed = get(row);
+        for (AbstractColumnVector vector : columns) {
+
+            vector.remove(row);
+        }
+
+        pinnedRows.remove(row);
+        shiftPinnedRows(row + 1, -1);
+
+        rowCount--;
+        modCount++;
+
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+
+        for (AbstractColumnVector vector : columns) {
+
+            vector.clear();
+        }
+        pinnedRows.clear();
+        rowCount = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the approximate heap size held per row.
+     */
+    public long estimatedBytesPerRow() {
+
+        if (rowCount == 0) {
+
+            return 0;
+        }
+
+        long bytes = 0;
+        for (AbstractColumnVector vector : columns) {
+
+            bytes += vector.estimatedBytes();
+        }
+
+        return bytes / rowCount;
+    }
+
+    /**
+     * Moves the pinned rows from the specified row on by the specified offset.
+     */
+    private void shiftPinnedRows(int fromRow, int offset) {
+
+        Map<Integer, List<RecordDataItem>> shifted = new HashMap<Integer, List<RecordDataItem>>();
+        for (Map.Entry<Integer, List<RecordDataItem>> entry : pinnedRows.entrySet()) {
+
+            int index = entry.getKey();
+            shifted.put(index < fromRow ? index : index + offset, entry.getValue());
+        }
+        pinnedRows.clear();
+        pinnedRows.putAll(shifted);
+    }
+
+    private void rangeCheck(int row) {
+
+        if (row < 0 || row >= rowCount) {
+
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + rowCount);
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.executequery.gui.resultset.columnar;
+
+import java.sql.*;
+import java.util.Arrays;
+
+/**
+ * Column vector for DATE, TIME and TIMESTAMP values stored as epoch milliseconds
+ * (and nanoseconds for TIMESTAMP).
+ */
+public class DateColumnVector extends AbstractColumnVector {
+
+    private final int dataType;
+
+    private long[] millis = new long[0];
+
+    private int[] nanos;
+
+    public DateColumnVector(int dataType) {
+
+        this.dataType = dataType;
+        if (dataType == Types.TIMESTAMP) {
+
+            nanos = new int[0];
+        }
+    }
+
+    @Override
+    protected void readValue(ResultSet resultSet, int column, int row) throws SQLException {
+
+        java.util.Date value;
+        switch (dataType) {
+
+            case Types.DATE:
+                value = resultSet.getDate(column);
+                break;
+
+            case Types.TIME:
+                value = resultSet.getTime(column);
+                break;
+
+            default:
+                Timestamp timestamp = resultSet.getTimestamp(column);
+                if (timestamp != null) {
+
+                    nanos[row] = timestamp.getNanos();
+                }
+                value = timestamp;
+                break;
+        }
+
+        if (value != null) {
+
+            millis[row] = value.getTime();
+        }
+    }
+
+    @Override
+    protected void setValue(int row, Object value) {
+
+        java.util.Date date = (java.util.Date) value;
+        millis[row] = date.getTime();
+        if (nanos != null) {
+
+            nanos[row] = ((Timestamp) date).getNanos();
+        }
+    }
+
+    @Override
+    protected Object valueAt(int row) {
+
+        switch (dataType) {
+
+            case Types.DATE:
+                return new Date(millis[row]);
+
+            case Types.TIME:
+                return new Time(millis[row]);
+
+            default:
+                Timestamp timestamp = new Timestamp(millis[row]);
+                timestamp.setNanos(nanos[row]);
+                return timestamp;
+        }
+    }
+
+    @Override
+    protected void ensureCapacity(int minCapacity) {
+
+        if (minCapacity > millis.length) {
+
+            int capacity = newCapacity(millis.length, minCapacity);
+            millis = Arrays.copyOf(millis, capacity);
+            if (nanos != null) {
+
+                nanos = Arrays.copyOf(nanos, capacity);
+            }
+        }
+    }
+
+    @Override
+    protected void shift(int row, int count) {
+
+        System.arraycopy(millis, row + 1, millis, row, count);
+        if (nanos != null) {
+
+            System.arraycopy(nanos, row + 1, nanos, row, count);
+        }
+    }
+
+    @Override
+    protected void open(int row, int count) {
+
+        System.arraycopy(millis, row, millis, row + 1, count);
+        if (nanos != null) {
+
+            System.arraycopy(nanos, row, nanos, row + 1, count);
+        }
+    }
+
+    @Override
+    protected long dataBytes() {
+
+        return 8L * millis.length + (nanos != null ? 4L * nanos.length : 0);
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.executequery.gui.resultset.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoded column vector for CHAR and VARCHAR values.
+ * <p/>
+ * Each row holds a code into the list of distinct values. When the column
+ * turns out to be of high cardinality the dictionary lookup is dropped and
+ * new values are appended as is so the map does not outgrow the data.
+ */
+public class DictionaryStringColumnVector extends AbstractColumnVector {
+
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private int[] codes = new int[0];
+
+    private List<String> dictionary;
+
+    private Map<String, Integer> dictionaryIndex;
+
+    private long dictionaryChars;
+
+    public DictionaryStringColumnVector() {
+
+        dictionary = new ArrayList<String>();
+        dictionaryIndex = new HashMap<String, Integer>();
+    }
+
+    @Override
+    protected void readValue(ResultSet resultSet, int column, int row) throws SQLException {
+
+        String value = resultSet.getString(column);
+        if (value != null) {
+
+            codes[row] = encode(value);
+        }
+    }
+
+    @Override
+    protected void setValue(int row, Object value) {
+
+        codes[row] = encode((String) value);
+    }
+
+    private int encode(String value) {
+
+        if (dictionaryIndex != null) {
+
+            Integer code = dictionaryIndex.get(value);
+            if (code != null) {
+
+                return code;
+            }
+
+            if (dictionary.size() >= MAX_DICTIONARY_SIZE && dictionary.size() > size / 2) {
+
+                dictionaryIndex = null;
+            }
+        }
+
+        int code = dictionary.size();
+        dictionary.add(value);
+        dictionaryChars += value.length();
+        if (dictionaryIndex != null) {
+
+            dictionaryIndex.put(value, code);
+        }
+
+        return code;
+    }
+
+    @Override
+    protected Object valueAt(int row) {
+
+        return dictionary.get(codes[row]);
+    }
+
+    /**
+     * Returns the number of distinct values held by the dictionary.
+     */
+    public int getDictionarySize() {
+
+        return dictionary.size();
+    }
+
+    @Override
+    public void clear() {
+
+        super.clear();
+        dictionary.clear();
+        dictionaryIndex = new HashMap<String, Integer>();
+        dictionaryChars = 0;
+    }
+
+    @Override
+    protected void ensureCapacity(int minCapacity) {
+
+        if (minCapacity > codes.length) {
+
+            codes = Arrays.copyOf(codes, newCapacity(codes.length, minCapacity));
+        }
+    }
+
+    @Override
+    protected void shift(int row, int count) {
+
+        System.arraycopy(codes, row + 1, codes, row, count);
+    }
+
+    @Override
+    protected void open(int row, int count) {
+
+        System.arraycopy(codes, row, codes, row + 1, count);
+    }
+
+    @Override
+    protected long dataBytes() {
+
+        // string header and array header per distinct value, map entry where indexed
+        long bytes = 4L * codes.length + 2 * dictionaryChars + 56L * dictionary.size();
+        if (dictionaryIndex != null) {
+
+            bytes += 48L * dictionaryIndex.size();
+        }
+        return bytes;
+    }
+
+}
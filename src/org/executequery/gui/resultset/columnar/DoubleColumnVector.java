@@ -0,0 +1,59 @@
+package org.executequery.gui.resultset.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column vector for DOUBLE values.
+ */
+public class DoubleColumnVector extends AbstractColumnVector {
+
+    private double[] values = new double[0];
+
+    @Override
+    protected void readValue(ResultSet resultSet, int column, int row) throws SQLException {
+
+        values[row] = resultSet.getDouble(column);
+    }
+
+    @Override
+    protected void setValue(int row, Object value) {
+
+        values[row] = (Double) value;
+    }
+
+    @Override
+    protected Object valueAt(int row) {
+
+        return Double.valueOf(values[row]);
+    }
+
+    @Override
+    protected void ensureCapacity(int minCapacity) {
+
+        if (minCapacity > values.length) {
+
+            values = Arrays.copyOf(values, newCapacity(values.length, minCapacity));
+        }
+    }
+
+    @Override
+    protected void shift(int row, int count) {
+
+        System.arraycopy(values, row + 1, values, row, count);
+    }
+
+    @Override
+    protected void open(int row, int count) {
+
+        System.arraycopy(values, row, values, row + 1, count);
+    }
+
+    @Override
+    protected long dataBytes() {
+
+        return 8L * values.length;
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.executequery.gui.resultset.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column vector for BIGINT values.
+ */
+public class LongColumnVector extends AbstractColumnVector {
+
+    private long[] values = new long[0];
+
+    @Override
+    protected void readValue(ResultSet resultSet, int column, int row) throws SQLException {
+
+        values[row] = resultSet.getLong(column);
+    }
+
+    @Override
+    protected void setValue(int row, Object value) {
+
+        values[row] = (Long) value;
+    }
+
+    @Override
+    protected Object valueAt(int row) {
+
+        return Long.valueOf(values[row]);
+    }
+
+    @Override
+    protected void ensureCapacity(int minCapacity) {
+
+        if (minCapacity > values.length) {
+
+            values = Arrays.copyOf(values, newCapacity(values.length, minCapacity));
+        }
+    }
+
+    @Override
+    protected void shift(int row, int count) {
+
+        System.arraycopy(values, row + 1, values, row, count);
+    }
+
+    @Override
+    protected void open(int row, int count) {
+
+        System.arraycopy(values, row, values, row + 1, count);
+    }
+
+    @Override
+    protected long dataBytes() {
+
+        return 8L * values.length;
+    }
+
+}
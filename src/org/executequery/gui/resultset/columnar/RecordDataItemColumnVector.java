@@ -0,0 +1,118 @@
+package org.executequery.gui.resultset.columnar;
+
+import org.executequery.gui.resultset.RecordDataItem;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column vector keeping fully built record data items for the column types
+ * without a primitive representation (LOBs, arrays, NUMERIC etc.).
+ */
+public class RecordDataItemColumnVector extends AbstractColumnVector {
+
+    /**
+     * Builds the record data item of a result set value.
+     */
+    public interface ItemReader {
+
+        RecordDataItem read(ResultSet resultSet, int column) throws SQLException;
+    }
+
+    /**
+     * approximate size of a simple record data item with a boxed value
+     */
+    private static final int ITEM_BYTES = 96;
+
+    private final ItemReader itemReader;
+
+    private RecordDataItem[] items = new RecordDataItem[0];
+
+    public RecordDataItemColumnVector(ItemReader itemReader) {
+
+        this.itemReader = itemReader;
+    }
+
+    public void append(RecordDataItem item) {
+
+        ensureCapacity(size + 1);
+        items[size] = item;
+        size++;
+    }
+
+    public RecordDataItem getItem(int row) {
+
+        return items[row];
+    }
+
+    /**
+     * Inserts the specified item at the specified row moving
+     * the following rows one position up.
+     */
+    public void insert(int row, RecordDataItem item) {
+
+        insertNull(row);
+        items[row] = item;
+    }
+
+    @Override
+    public void remove(int row) {
+
+        super.remove(row);
+        items[size] = null;
+    }
+
+    @Override
+    public void clear() {
+
+        Arrays.fill(items, 0, size, null);
+        super.clear();
+    }
+
+    @Override
+    protected void readValue(ResultSet resultSet, int column, int row) throws SQLException {
+
+        items[row] = itemReader.read(resultSet, column);
+    }
+
+    @Override
+    protected void setValue(int row, Object value) {
+
+        items[row] = (RecordDataItem) value;
+    }
+
+    @Override
+    protected Object valueAt(int row) {
+
+        return items[row];
+    }
+
+    @Override
+    protected void ensureCapacity(int minCapacity) {
+
+        if (minCapacity > items.length) {
+
+            items = Arrays.copyOf(items, newCapacity(items.length, minCapacity));
+        }
+    }
+
+    @Override
+    protected void shift(int row, int count) {
+
+        System.arraycopy(items, row + 1, items, row, count);
+    }
+
+    @Override
+    protected void open(int row, int count) {
+
+        System.arraycopy(items, row, items, row + 1, count);
+    }
+
+    @Override
+    protected long dataBytes() {
+
+        return 8L * items.length + ITEM_BYTES * (long) size;
+    }
+
+}
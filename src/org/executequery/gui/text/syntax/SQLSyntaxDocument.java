@@ -26,7 +26,7 @@ import org.executequery.sql.SqlMessages;
 
 import javax.swing.text.*;
 import java.awt.*;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Vector;
 import java.util.regex.Matcher;
@@ -63,11 +63,6 @@ public class SQLSyntaxDocument extends DefaultStyledDocument
      */
     private int insertMode;
 
-    /**
-     * tracks string literal entries (quotes)
-     */
-    private List<Token> stringTokens;
-
     /* syntax matchers */
     private TokenMatcher[] matchers;
 
@@ -86,7 +81,6 @@ public class SQLSyntaxDocument extends DefaultStyledDocument
         initStyles(false);
 
         braceTokens = new Vector<Token>();
-        stringTokens = new ArrayList<Token>();
 
         this.textComponent = textComponent;
 
@@ -237,23 +231,21 @@ public class SQLSyntaxDocument extends DefaultStyledDocument
                 return;
             }
 
-            String text = getText(0, length);
             char charAtOffset = 0;
             char charBeforeOffset = 0;
 
             if (offset > 0) {
-                charBeforeOffset = text.charAt(offset - 1);
+                charBeforeOffset = getText(offset - 1, 1).charAt(0);
             }
 
             if (offset < length) {
-                charAtOffset = text.charAt(offset);
+                charAtOffset = getText(offset, 1).charAt(0);
             }
 
             int matchOffset = -1;
             if (isBrace(charAtOffset)) {
                 matchOffset = getMatchingBraceOffset(offset,
-                        charAtOffset,
-                        text);
+                        charAtOffset);
                 if (matchOffset == -1) {
                     applyErrorBrace(offset, charAtOffset);
                     return;
@@ -261,8 +253,7 @@ public class SQLSyntaxDocument extends DefaultStyledDocument
             } else if (isBrace(charBeforeOffset)) {
                 offset--;
                 matchOffset = getMatchingBraceOffset(offset,
-                        charBeforeOffset,
-                        text);
+                        charBeforeOffset);
                 if (matchOffset == -1) {
                     applyErrorBrace(offset, charBeforeOffset);
                     return;
@@ -284,40 +275,44 @@ public class SQLSyntaxDocument extends DefaultStyledDocument
 
     }
 
-    private int getMatchingBraceOffset(int offset, char brace, String text) {
+    /**
+     * The number of characters read at a time when scanning for a matching brace
+     */
+    private static final int BRACE_SCAN_CHUNK = 4096;
+
+    private final Segment braceSegment = new Segment();
+
+    private int getMatchingBraceOffset(int offset, char brace)
+            throws BadLocationException {
+
         int thisBraceCount = 0;
         int matchingBraceCount = 0;
         char braceMatch = getMatchingBrace(brace);
-        char[] chars = text.toCharArray();
 
-        if (isOpenBrace(brace)) {
+        // the text is read in chunks from the brace in the scan direction
+        int length = getLength();
+        int step = isOpenBrace(brace) ? 1 : -1;
+        int chunkStart = 0;
+        int chunkEnd = 0;
 
-            for (int i = offset; i < chars.length; i++) {
-                if (chars[i] == brace) {
-                    thisBraceCount++;
-                } else if (chars[i] == braceMatch) {
-                    matchingBraceCount++;
-                }
+        for (int i = offset; i >= 0 && i < length; i += step) {
 
-                if (thisBraceCount == matchingBraceCount) {
-                    return i;
-                }
+            if (i < chunkStart || i >= chunkEnd) {
+                chunkStart = step > 0 ? i : Math.max(0, i - BRACE_SCAN_CHUNK + 1);
+                chunkEnd = Math.min(length, chunkStart + BRACE_SCAN_CHUNK);
+                getText(chunkStart, chunkEnd - chunkStart, braceSegment);
             }
 
-        } else {
-
-            for (int i = offset; i >= 0; i--) {
-                if (chars[i] == brace) {
-                    thisBraceCount++;
-                } else if (chars[i] == braceMatch) {
-                    matchingBraceCount++;
-                }
-
-                if (thisBraceCount == matchingBraceCount) {
-                    return i;
-                }
+            char c = braceSegment.array[braceSegment.offset + i - chunkStart];
+            if (c == brace) {
+                thisBraceCount++;
+            } else if (c == braceMatch) {
+                matchingBraceCount++;
             }
 
+            if (thisBraceCount == matchingBraceCount) {
+                return i;
+            }
         }
 
         return -1;
@@ -464,314 +459,272 @@ public class SQLSyntaxDocument extends DefaultStyledDocument
     }
 
     /**
-     * Mulit-line comment tokens from the last scan
+     * Lexer states at the start of a line
+     */
+    private static final int NORMAL_STATE = 0;
+    private static final int COMMENT_STATE = 1;
+    private static final int STRING_STATE = 2;
+
+    /**
+     * The lexer state at the start of each line
+     */
+    private int[] lineStates = new int[64];
+
+    /**
+     * The number of lines the states are kept for
+     */
+    private int lineCount = 1;
+
+    /**
+     * The style types of the characters of the line being lexed
+     */
+    private int[] lineStyles = new int[256];
+
+    /**
+     * The style runs to apply as start, length and style type triples
      */
-    private List<Token> multiLineComments = new ArrayList<Token>();
+    private int[] styleRuns = new int[96];
+    private int styleRunCount;
+
+    private final Segment lineSegment = new Segment();
 
+    /**
+     * Re-lexes the lines from the one at the specified offset - the
+     * lexing continues past the changed lines until the start state
+     * of a line is the one kept from the last time. The styles of
+     * the lexed lines are applied once all are lexed.
+     */
     private void processChangedLines(int offset, int length)
             throws BadLocationException {
 
-        int documentLength = getLength();
-        if (documentLength == 0) {
+        int startLine = rootElement.getElementIndex(offset);
+        updateLineStates(startLine);
+
+        if (getLength() == 0) {
             return;
         }
 
-        int tokenStart = -1;
-        int tokenEnd = 0;
-        int endOffset = offset + length;
-        String content = getText(0, documentLength);
-
-        // scan for multi-line comments
-        List<Token> tokens = new ArrayList<Token>();
-        while ((tokenStart = content.indexOf(OPEN_COMMENT, tokenEnd)) != -1) {
-
-            tokenEnd = content.indexOf(CLOSE_COMMENT, tokenStart);
+        int endLine = rootElement.getElementIndex(offset + length);
 
-            if (tokenEnd != -1) {
+        styleRunCount = 0;
+        int state = lineStates[startLine];
+        for (int i = startLine; i < lineCount; i++) {
 
-                tokenEnd += 2;
+            if (i > endLine && lineStates[i] == state) {
+                break;
             }
 
-            tokens.add(new Token(tokenStart, tokenEnd));
+            lineStates[i] = state;
+            state = lexLine(rootElement.getElement(i), state);
+        }
+
+        applyStyleRuns();
+    }
 
-            if (tokenEnd == -1) {
+    /**
+     * Moves the kept line states after the specified line by the
+     * number of lines added or removed since the last update.
+     */
+    private void updateLineStates(int line) {
 
-                break;
-            }
+        int count = rootElement.getElementCount();
+        int delta = count - lineCount;
 
+        if (count > lineStates.length) {
+            lineStates = Arrays.copyOf(lineStates, Math.max(count, lineStates.length * 2));
         }
 
-        // scan the lines for highlighting
-        scanLines(offset, length, content, documentLength, tokens);
+        if (delta != 0 && line + 1 < lineCount) {
+            int from = delta > 0 ? line + 1 : line + 1 - delta;
+            System.arraycopy(lineStates, from, lineStates, from + delta, lineCount - from);
+        }
 
-        // scan multi comment tokens for apply/reapply
-        boolean applyStyle = true;
-        int tokenCount = tokens.size();
-        int lastTokenCount = multiLineComments.size();
-
-        // check for multi-line comments that do not exist anymore
-        for (int j = 0; j < lastTokenCount; j++) {
-            Token lastToken = multiLineComments.get(j);
-            tokenStart = lastToken.getStartIndex();
-            tokenEnd = lastToken.getEndIndex();
-
-            applyStyle = true;
-
-            for (int i = 0; i < tokenCount; i++) {
-                Token token = tokens.get(i);
-                if (token.equals(lastToken)) {
-                    applyStyle = false;
-                    break;
-                }
-            }
+        lineCount = count;
+    }
 
-            // reapply the styles to the portion from the last
-            // scan that no longer exists
-            if (applyStyle) {
+    /**
+     * Lexes the specified line adding its style runs.
+     *
+     * @return the lexer state at the end of the line
+     */
+    private int lexLine(Element element, int state) throws BadLocationException {
 
-                // if end was -1 set to the end of the document
-                if (tokenEnd == -1) {
-                    tokenEnd = documentLength - 1;
-                }
+        int lineStart = element.getStartOffset();
+        int lineEnd = Math.min(element.getEndOffset() - 1, getLength());
+        int length = lineEnd - lineStart;
 
-                scanLines(tokenStart, tokenEnd - tokenStart,
-                        content, documentLength, tokens);
-            }
+        getText(lineStart, length, lineSegment);
+        if (length > lineStyles.length) {
+            lineStyles = new int[Math.max(length, lineStyles.length * 2)];
         }
+        Arrays.fill(lineStyles, 0, length, WORD);
 
-        // apply multi-line comment style where it did not exist before
-        for (int i = 0; i < tokenCount; i++) {
-            Token token = tokens.get(i);
-            tokenStart = token.getStartIndex();
-            tokenEnd = token.getEndIndex();
-
-            // if we have a dangling open comment
-            // apply to the rest of the document
-            if (token.getEndIndex() == -1) {
-                setCharacterAttributes(tokenStart,
-                        content.length() - tokenStart,
-                        styles[COMMENT],
-                        false);
-                break;
+        // strings and comments are lexed over the matcher styles
+        for (int i = 0; i < matchers.length; i++) {
+            if (matchers[i] != null
+                    && i != STRING_MATCH && i != SINGLE_LINE_COMMENT_MATCH) {
+                applyMatcher(matchers[i], lineSegment);
             }
+        }
 
-            applyStyle = true;
+        int i = 0;
+        while (i < length) {
 
-            // check the last multiline comments
-            for (int j = 0; j < lastTokenCount; j++) {
-                Token lastToken = multiLineComments.get(j);
+            if (state == COMMENT_STATE) {
 
-                // check if the current token existed in the last scan
-                if (lastToken.equals(token)) {
-                    // style not applied if it did
-                    applyStyle = false;
-                    break;
-                }
-                // where previously there was no close comment tag
-                // reapply to the rest of the text from the current end
-                else if (lastToken.getEndIndex() == -1) {
-                    applyStyle = false;
-                    // rescan that section that was previously still open
-                    scanLines(tokenEnd, documentLength - tokenEnd,
-                            content, documentLength, tokens);
-                    break;
+                int end = indexOfCloseComment(lineSegment, i);
+                if (end != -1) {
+                    state = NORMAL_STATE;
+                } else {
+                    end = length;
                 }
+                Arrays.fill(lineStyles, i, end, COMMENT);
+                i = end;
 
-            }
+            } else if (state == STRING_STATE) {
+
+                int end = indexOfCloseQuote(lineSegment, i);
+                if (end != -1) {
+                    state = NORMAL_STATE;
+                } else {
+                    end = length;
+                }
+                Arrays.fill(lineStyles, i, end, STRING);
+                i = end;
 
-            // check for the tokens intersecting the current offset
-            // and reapply to cover the comment correctly regardless 
-            // of the current state of the apply flag
-            if (token.intersects(offset, endOffset)) {
-                setCharacterAttributes(tokenStart,
-                        token.getLength(),
-                        styles[COMMENT],
-                        false);
             } else {
-                if (applyStyle) {
-
-                    // if we have a close tag
-                    if (tokenEnd > 0) {
-                        setCharacterAttributes(tokenStart,
-                                token.getLength(),
-                                styles[COMMENT],
-                                false);
-                    }
-                    // otherwise set style to the 
-                    // remainder of the document
-                    else {
-                        setCharacterAttributes(tokenStart,
-                                content.length() - tokenStart,
-                                styles[COMMENT],
-                                false);
-                    }
 
+                char c = lineSegment.charAt(i);
+                char next = i + 1 < length ? lineSegment.charAt(i + 1) : 0;
+
+                if (c == '\'') {
+                    lineStyles[i++] = STRING;
+                    state = STRING_STATE;
+                } else if (c == '/' && next == '*') {
+                    lineStyles[i++] = COMMENT;
+                    lineStyles[i++] = COMMENT;
+                    state = COMMENT_STATE;
+                } else if (c == '-' && next == '-') {
+                    Arrays.fill(lineStyles, i, length, SINGLE_LINE_COMMENT);
+                    i = length;
+                } else {
+                    i++;
                 }
+
             }
 
         }
 
-        // reassign the multi-line comments list
-        multiLineComments = tokens;
-    }
+        for (int j = 0; j < length; j++) {
+            addStyleRun(lineStart + j, lineStyles[j]);
+        }
 
-    private void scanLines(int offset, int length,
-                           String content, int documentLength, List<Token> tokens) {
+        // the line end is styled as what continues on the next line
+        if (lineEnd < getLength()) {
+            addStyleRun(lineEnd, state == COMMENT_STATE ? COMMENT
+                    : state == STRING_STATE ? STRING : WORD);
+        }
 
-        // The lines affected by the latest document update
-        int startLine = rootElement.getElementIndex(offset);
-        int endLine = rootElement.getElementIndex(offset + length);
+        return state;
+    }
 
-        boolean applyStyle = true;
-        int tokenCount = tokens.size();
+    private void applyMatcher(TokenMatcher tokenMatcher, CharSequence text) {
 
-        for (int i = startLine; i <= endLine; i++) {
-            Element element = rootElement.getElement(i);
-            int startOffset = element.getStartOffset();
-            int endOffset = element.getEndOffset() - 1;
+        Matcher matcher = tokenMatcher.getMatcher();
+        int type = tokenMatcher.getType();
 
-            if (endOffset < 0) {
-                endOffset = 0;
-            }
+        matcher.reset(text);
+        while (matcher.find()) {
+            Arrays.fill(lineStyles, matcher.start(), matcher.end(), type);
+        }
+        matcher.reset(Constants.EMPTY);
+    }
 
-            applyStyle = true;
-            for (int j = 0; j < tokenCount; j++) {
-                Token token = tokens.get(j);
-                if (token.contains(startOffset, endOffset)) {
-                    applyStyle = false;
-                    break;
-                }
-            }
+    /**
+     * Returns the offset after the close comment at or after the specified one, -1 if there is none.
+     */
+    private int indexOfCloseComment(CharSequence text, int from) {
 
-            if (applyStyle) {
-                String textSnippet = content.substring(startOffset, endOffset);
-                applySyntaxColours(textSnippet,
-                        startOffset,
-                        endOffset,
-                        documentLength);
+        for (int i = from, n = text.length() - 1; i < n; i++) {
+            if (text.charAt(i) == '*' && text.charAt(i + 1) == '/') {
+                return i + 2;
             }
         }
+        return -1;
     }
 
-    private void applySyntaxColours(String text,
-                                    int startOffset,
-                                    int endOffset,
-                                    int contentLength) {
-
-        int lineLength = endOffset - startOffset;
-//        if (endOffset >= contentLength) {
-//            endOffset = contentLength - 1;
-//        }
-
-        // set the plain style
-        setCharacterAttributes(startOffset, lineLength, styles[WORD], false);
-
-        for (int i = 0; i < matchers.length; i++) {
-            if (matchers[i] != null) { // check case keywords not initialised
-                applyHighlights(i,
-                        text,
-                        startOffset,
-                        matchers[i].getMatcher(),
-                        matchers[i].getStyle(),
-                        (i == SINGLE_LINE_COMMENT_MATCH));
+    /**
+     * Returns the offset after the close quote at or after the specified one - doubled
+     * quotes are part of the string - -1 if there is none.
+     */
+    private int indexOfCloseQuote(CharSequence text, int from) {
+
+        for (int i = from, n = text.length(); i < n; i++) {
+            if (text.charAt(i) == '\'') {
+                if (i + 1 < n && text.charAt(i + 1) == '\'') {
+                    i++;
+                } else {
+                    return i + 1;
+                }
             }
         }
-
+        return -1;
     }
 
-    private void applyHighlights(int matcherType,
-                                 String text,
-                                 int startOffset,
-                                 Matcher matcher,
-                                 Style style,
-                                 boolean replace) {
+    /**
+     * Adds the style of the character at the specified offset to the runs to apply.
+     */
+    private void addStyleRun(int offset, int type) {
 
-        if (matcherType == STRING_MATCH) {
-            stringTokens.clear();
+        if (styleRunCount > 0) {
+            int last = (styleRunCount - 1) * 3;
+            if (styleRuns[last + 2] == type && styleRuns[last] + styleRuns[last + 1] == offset) {
+                styleRuns[last + 1]++;
+                return;
+            }
         }
 
-        int start = 0;
-        int end = 0;
-        int realStart = 0;
-        int realEnd = 0;
-
-        boolean applyStyle = true;
-        matcher.reset(text);
-
-        // the string token count for when we are not
-        // processing string tokens
-        int stringTokenCount = stringTokens.size();
-
-        int length = text.length();
-        int matcherStart = 0;
-        while (matcher.find(matcherStart)) {
-            start = matcher.start();
-            end = matcher.end();
+        int index = styleRunCount * 3;
+        if (index == styleRuns.length) {
+            styleRuns = Arrays.copyOf(styleRuns, styleRuns.length * 2);
+        }
+        styleRuns[index] = offset;
+        styleRuns[index + 1] = 1;
+        styleRuns[index + 2] = type;
+        styleRunCount++;
+    }
 
-            realStart = start + startOffset;
-            realEnd = end + startOffset;
+    /**
+     * Applies the style runs of the lexed lines, a run is
+     * skipped where the text already has its style.
+     */
+    private void applyStyleRuns() {
 
-            applyStyle = true;
+        for (int i = 0, n = styleRunCount * 3; i < n; i += 3) {
 
-            // if this is a string mather add to the cache
-            if (matcherType == STRING_MATCH) {
-                stringTokens.add(new Token(realStart, realEnd));
-            }
-            // compare against string cache to apply
-            else if (matcherType == SINGLE_LINE_COMMENT_MATCH) {
-                if (stringTokenCount > 0) {
-                    /*
-                    Log.debug("text: " +text);
-                    Log.debug("length: " +text.length());
-                    Log.debug("string tokens: "+stringTokenCount);
-                    Log.debug("start: " +startOffset);
-                    Log.debug("realStart: " + realStart + 
-                            " realEnd: "+realEnd);
-                    */
-
-                    // check we are not within a string literal
-                    for (int i = 0; i < stringTokenCount; i++) {
-                        Token token = stringTokens.get(i);
-                        int tokenStart = token.getStartIndex();
-                        int tokenEnd = token.getEndIndex();
-
-                        if (realStart > tokenEnd) {
-                            continue;
-                        }
-
-                        //Log.debug(token);
-
-                        if (realStart < tokenStart) {
-                            applyStyle = true;
-                            break;
-                        }
-
-                        if (realStart > tokenStart && realStart < tokenEnd) {
-                            // set the end to the end of the string
-                            // token for the matcher reset
-                            end = token.getEndIndex() - startOffset;
-                            applyStyle = false;
-                            break;
-                        }
+            int start = styleRuns[i];
+            int length = styleRuns[i + 1];
+            Style style = styles[styleRuns[i + 2]];
 
-                    }
-                }
+            if (!hasStyle(start, length, style)) {
+                setCharacterAttributes(start, length, style, true);
             }
+        }
+        styleRunCount = 0;
+    }
 
-            if (applyStyle) {
-                setCharacterAttributes(realStart,
-                        end - start,
-                        style,
-                        replace);
-            }
+    private boolean hasStyle(int start, int length, Style style) {
 
-            matcherStart = end + 1;
-            if (matcherStart > length) {
-                break;
+        int end = start + length;
+        int offset = start;
+        while (offset < end) {
+            Element element = getCharacterElement(offset);
+            if (!element.getAttributes().isEqual(style)) {
+                return false;
             }
-
+            offset = element.getEndOffset();
         }
-        matcher.reset(Constants.EMPTY);
+        return true;
     }
 
     public String getNameDBObjectFromPosition(int position, String text) {
@@ -785,10 +738,6 @@ public class SQLSyntaxDocument extends DefaultStyledDocument
         boolean applyStyle = true;
         matcher.reset(text);
 
-        // the string token count for when we are not
-        // processing string tokens
-        int stringTokenCount = stringTokens.size();
-
         int length = text.length();
         int matcherStart = 0;
         while (matcher.find(matcherStart)) {
@@ -23,12 +23,14 @@ package org.executequery.listeners;
 import org.executequery.GUIUtilities;
 import org.executequery.components.StatusBarPanel;
 import org.executequery.databaseobjects.NamedObject;
+import org.executequery.databaseobjects.impl.SchemaSnapshot;
 import org.executequery.datasource.ConnectionManager;
 import org.executequery.event.ApplicationEvent;
 import org.executequery.event.ConnectionEvent;
 import org.executequery.event.ConnectionListener;
 import org.executequery.gui.browser.ConnectionsTreePanel;
 import org.executequery.gui.browser.nodes.DatabaseObjectNode;
+import org.executequery.gui.editor.autocomplete.AutoCompleteCatalog;
 import org.executequery.localization.Bundles;
 import org.executequery.log.Log;
 import org.underworldlabs.jdbc.DataSourceException;
@@ -65,6 +67,8 @@ public class DefaultConnectionListener implements ConnectionListener {
     public void disconnected(ConnectionEvent connectionEvent) {
 
         updateStatusBarDataSourceCounter();
+        AutoCompleteCatalog.release(connectionEvent.getDatabaseConnection());
+        SchemaSnapshot.release(connectionEvent.getDatabaseConnection());
     }
 
     public boolean canHandleEvent(ApplicationEvent event) {
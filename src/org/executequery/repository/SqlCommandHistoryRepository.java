@@ -35,6 +35,13 @@ public interface SqlCommandHistoryRepository extends Repository {
 
     Vector<String> getSqlCommandHistory(String connectionID);
 
+    /**
+     * Returns the statements executed on the connection between the
+     * specified times with a word starting with each word of the text,
+     * most recent first.
+     */
+    Vector<String> searchSqlCommandHistory(String connectionID, String text, long from, long to);
+
 }
 
 
@@ -28,106 +28,139 @@ import org.underworldlabs.util.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Vector;
 
 public class SqlCommandHistoryRepositoryImpl implements SqlCommandHistoryRepository {
 
     private static final String FILE_PATH = "sql-command.history";
 
+    private static final String JOURNAL_FILE_PATH = "sql-command.journal";
+
     private UserSettingsProperties settings;
 
-    public void addSqlCommand(String query, String connectionID) {
+    private final Map<String, SqlHistoryJournal> journals = new HashMap<String, SqlHistoryJournal>();
 
-        if (!hasQueryAtZero(query, connectionID)) {
+    public synchronized void addSqlCommand(String query, String connectionID) {
 
-            final Vector<String> history = getSqlCommandHistory(connectionID);
+        try {
 
-            int size = history.size();
-            if (size == maxHistoryCount()) {
+            journal(connectionID).add(query, System.currentTimeMillis(), maxHistoryCount());
 
-                history.remove(size - 1);
-            }
+        } catch (IOException e) {
+
+            if (Log.isDebugEnabled()) {
 
-            history.add(0, query);
+                Log.debug("IO error storing SQL command history.", e);
+            }
 
-            writeHistory(history, connectionID);
         }
+
     }
 
-    private boolean hasQueryAtZero(String query, String connectionID) {
+    private int maxHistoryCount() {
 
-        final Vector<String> history = getSqlCommandHistory(connectionID);
+        return UserProperties.getInstance().getIntProperty("editor.history.count");
+    }
 
-        if (history.isEmpty()) {
+    public synchronized void clearSqlCommandHistory(String connectionID) {
 
-            return false;
-        }
+        try {
 
-        String queryAtZero = history.get(0);
+            journal(connectionID).clear();
 
-        return (queryAtZero.compareTo(query) == 0);
-    }
+        } catch (IOException e) {
 
-    private int maxHistoryCount() {
+            if (Log.isDebugEnabled()) {
 
-        return UserProperties.getInstance().getIntProperty("editor.history.count");
-    }
+                Log.debug("IO error storing SQL command history.", e);
+            }
 
-    public void clearSqlCommandHistory(String connectionID) {
+        }
 
-        writeHistory(new Vector<String>(0), connectionID);
     }
 
-    @SuppressWarnings("unchecked")
-    public Vector<String> getSqlCommandHistory(String connectionID) {
+    public synchronized Vector<String> getSqlCommandHistory(String connectionID) {
 
-        try {
+        return journal(connectionID).getQueries();
+    }
+
+    public synchronized Vector<String> searchSqlCommandHistory(
+            String connectionID, String text, long from, long to) {
 
-            File file = new File(filePath(connectionID));
+        return journal(connectionID).search(text, from, to);
+    }
 
-            if (!file.exists()) {
+    /**
+     * Returns the journal of the connection read on first use, a history
+     * file of an earlier version is moved into the journal and deleted
+     * once the journal is rewritten with its statements.
+     */
+    private SqlHistoryJournal journal(String connectionID) {
 
-                return emptyHistory();
+        SqlHistoryJournal journal = journals.get(connectionID);
+        if (journal == null) {
 
-            } else {
+            journal = new SqlHistoryJournal(new File(filePath(connectionID, JOURNAL_FILE_PATH)));
+            try {
 
-                Object object = FileUtils.readObject(file);
+                journal.load(maxHistoryCount());
 
-                if (object == null || !(object instanceof Vector)) {
+                File file = new File(filePath(connectionID, FILE_PATH));
+                if (file.exists()) {
 
-                    return emptyHistory();
+                    // the statements were executed at the latest when the file was
+                    // last written, the time is 0 and so unknown if it can not be read
+                    long time = file.lastModified();
 
-                } else {
+                    Vector<String> history = readHistory(file);
+                    Collections.reverse(history);
 
-                    return (Vector<String>) object;
+                    journal.addEarlier(history, time, maxHistoryCount());
+                    file.delete();
                 }
-            }
 
-        } catch (IOException e) {
+            } catch (IOException e) {
 
-            if (Log.isDebugEnabled()) {
+                if (Log.isDebugEnabled()) {
+
+                    Log.debug("IO error opening SQL command history.", e);
+                }
 
-                Log.debug("IO error opening SQL command history.", e);
             }
 
-            return emptyHistory();
+            journals.put(connectionID, journal);
         }
 
+        return journal;
     }
 
-    private void writeHistory(Vector<String> history, String connectionID) {
+    @SuppressWarnings("unchecked")
+    private Vector<String> readHistory(File file) {
 
         try {
 
-            FileUtils.writeObject(history, filePath(connectionID));
+            Object object = FileUtils.readObject(file);
+
+            if (object == null || !(object instanceof Vector)) {
+
+                return emptyHistory();
+
+            } else {
+
+                return (Vector<String>) object;
+            }
 
         } catch (IOException e) {
 
             if (Log.isDebugEnabled()) {
 
-                Log.debug("IO error storing SQL command history.", e);
+                Log.debug("IO error opening SQL command history.", e);
             }
 
+            return emptyHistory();
         }
 
     }
@@ -137,7 +170,7 @@ public class SqlCommandHistoryRepositoryImpl implements SqlCommandHistoryReposit
         return new Vector<String>();
     }
 
-    private String filePath(String connectionID) {
+    private String filePath(String connectionID, String fileName) {
 
         if (settings == null) {
 
@@ -148,7 +181,7 @@ public class SqlCommandHistoryRepositoryImpl implements SqlCommandHistoryReposit
         if (!f_dir.exists()) {
             f_dir.mkdirs();
         }
-        return dir + connectionID + "." + FILE_PATH;
+        return dir + connectionID + "." + fileName;
     }
 
     public String getId() {
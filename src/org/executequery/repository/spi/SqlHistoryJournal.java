@@ -0,0 +1,444 @@
+package org.executequery.repository.spi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.Vector;
+
+/**
+ * The executed statements of one connection kept in an append-only
+ * journal file.
+ * <p/>
+ * Each execution appends a single record to the journal. The statements
+ * are held in memory once read, a statement executed again replacing its
+ * earlier entry, with an index of the words of the statements to search
+ * them without reading each one. The journal is rewritten with only the
+ * current entries once most of its records are replaced ones.
+ */
+class SqlHistoryJournal {
+
+    private static final byte ADD = 1;
+
+    /**
+     * the time of the entries moved from a history file of an earlier
+     * version without execution times - such entries match any period
+     */
+    static final long UNKNOWN_TIME = 0;
+
+    private static final int COMPACT_MIN_RECORDS = 256;
+
+    private final File file;
+
+    /**
+     * the current entries by statement, oldest first
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+    /**
+     * the entries by id, null where replaced or removed
+     */
+    private final List<Entry> entriesById = new ArrayList<Entry>();
+
+    /**
+     * the ids of the entries containing each word in ascending order,
+     * including those of entries replaced since the last compaction
+     */
+    private final TreeMap<String, IdList> index = new TreeMap<String, IdList>();
+
+    private int records;
+
+    SqlHistoryJournal(File file) {
+
+        this.file = file;
+    }
+
+    /**
+     * Reads the journal, a record partly written is dropped
+     * by rewriting the journal.
+     */
+    void load(int maxCount) throws IOException {
+
+        if (!file.exists()) {
+
+            return;
+        }
+
+        boolean complete = true;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+
+            while (true) {
+
+                int type = in.read();
+                if (type == -1) {
+
+                    break;
+                }
+
+                long time = in.readLong();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+
+                if (type == ADD) {
+
+                    put(new String(bytes, StandardCharsets.UTF_8), time, maxCount);
+                }
+                records++;
+            }
+
+        } catch (EOFException e) {
+
+            complete = false;
+
+        } finally {
+
+            in.close();
+        }
+
+        if (!complete || needsCompaction()) {
+
+            compact();
+        }
+
+    }
+
+    /**
+     * Adds the statement as the most recent.
+     */
+    void add(String query, long time, int maxCount) throws IOException {
+
+        put(query, time, maxCount);
+        append(query, time);
+
+        if (needsCompaction()) {
+
+            compact();
+        }
+
+    }
+
+    /**
+     * Adds the statements of an earlier history before the current ones
+     * and rewrites the journal - the journal file is replaced only once
+     * the new one is written in full.
+     *
+     * @param queries the statements oldest first
+     */
+    void addEarlier(List<String> queries, long time, int maxCount) throws IOException {
+
+        Collection<Entry> current = new ArrayList<Entry>(entries.values());
+        entries.clear();
+        entriesById.clear();
+        index.clear();
+
+        for (String query : queries) {
+
+            put(query, time, maxCount);
+        }
+
+        for (Entry entry : current) {
+
+            put(entry.query, entry.time, maxCount);
+        }
+
+        compact();
+    }
+
+    /**
+     * Removes all statements and empties the journal.
+     */
+    void clear() throws IOException {
+
+        entries.clear();
+        entriesById.clear();
+        index.clear();
+        compact();
+    }
+
+    /**
+     * Returns the statements most recent first.
+     */
+    Vector<String> getQueries() {
+
+        Vector<String> queries = new Vector<String>(entries.size());
+        for (int id = entriesById.size() - 1; id >= 0; id--) {
+
+            Entry entry = entriesById.get(id);
+            if (entry != null) {
+
+                queries.add(entry.query);
+            }
+
+        }
+
+        return queries;
+    }
+
+    /**
+     * Returns the statements executed between the specified times, or at
+     * an unknown time, with a word starting with each word of the text,
+     * most recent first.
+     * Text without words matches statements containing it.
+     */
+    Vector<String> search(String text, long from, long to) {
+
+        Set<String> words = words(text);
+
+        BitSet ids = null;
+        for (String word : words) {
+
+            BitSet wordIds = new BitSet();
+            SortedMap<String, IdList> prefixed = index.subMap(word, word + Character.MAX_VALUE);
+            for (IdList prefixIds : prefixed.values()) {
+
+                for (int i = 0; i < prefixIds.size; i++) {
+
+                    wordIds.set(prefixIds.ids[i]);
+                }
+
+            }
+
+            if (ids == null) {
+
+                ids = wordIds;
+
+            } else {
+
+                ids.and(wordIds);
+            }
+
+        }
+
+        Vector<String> queries = new Vector<String>();
+        for (int id = entriesById.size() - 1; id >= 0; id--) {
+
+            if (ids != null) {
+
+                id = ids.previousSetBit(id);
+                if (id < 0) {
+
+                    break;
+                }
+
+            }
+
+            Entry entry = entriesById.get(id);
+            if (entry != null && (entry.time == UNKNOWN_TIME || entry.time >= from && entry.time <= to)
+                    && (ids != null || entry.query.toLowerCase().contains(text.toLowerCase()))) {
+
+                queries.add(entry.query);
+            }
+
+        }
+
+        return queries;
+    }
+
+    private void put(String query, long time, int maxCount) {
+
+        Entry entry = entries.remove(query);
+        if (entry != null) {
+
+            remove(entry);
+        }
+
+        entry = new Entry(entriesById.size(), query, time);
+        entries.put(query, entry);
+        entriesById.add(entry);
+        for (String word : words(query)) {
+
+            IdList ids = index.get(word);
+            if (ids == null) {
+
+                ids = new IdList();
+                index.put(word, ids);
+            }
+            ids.add(entry.id);
+        }
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > Math.max(maxCount, 1)) {
+
+            remove(eldest.next());
+            eldest.remove();
+        }
+
+    }
+
+    private void remove(Entry entry) {
+
+        // the index keeps the id until the journal is compacted
+        entriesById.set(entry.id, null);
+    }
+
+    private boolean needsCompaction() {
+
+        return records > COMPACT_MIN_RECORDS && records > entries.size() * 2;
+    }
+
+    private void append(String query, long time) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(query.length() + 16);
+        writeRecord(new DataOutputStream(bytes), query, time);
+
+        FileOutputStream out = new FileOutputStream(file, true);
+        try {
+
+            out.write(bytes.toByteArray());
+
+        } finally {
+
+            out.close();
+        }
+
+        records++;
+    }
+
+    /**
+     * Rewrites the journal with the current entries, renumbering them.
+     */
+    private void compact() throws IOException {
+
+        Collection<Entry> current = new ArrayList<Entry>(entries.values());
+
+        File compacted = new File(file.getPath() + ".tmp");
+        try {
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compacted)));
+            try {
+
+                for (Entry entry : current) {
+
+                    writeRecord(out, entry.query, entry.time);
+                }
+
+            } finally {
+
+                out.close();
+            }
+
+        } catch (IOException e) {
+
+            compacted.delete();
+            throw e;
+        }
+
+        try {
+
+            Files.move(compacted.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (AtomicMoveNotSupportedException e) {
+
+            Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // the entries are renumbered once the journal is replaced
+        entries.clear();
+        entriesById.clear();
+        index.clear();
+        for (Entry entry : current) {
+
+            put(entry.query, entry.time, Integer.MAX_VALUE);
+        }
+
+        records = current.size();
+    }
+
+    private static void writeRecord(DataOutputStream out, String query, long time) throws IOException {
+
+        byte[] bytes = query.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(ADD);
+        out.writeLong(time);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Returns the distinct words of the text in lower case.
+     */
+    static Set<String> words(String text) {
+
+        Set<String> words = new LinkedHashSet<String>();
+
+        int start = -1;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+
+            boolean wordChar = i < n && isWordChar(text.charAt(i));
+            if (wordChar && start < 0) {
+
+                start = i;
+
+            } else if (!wordChar && start >= 0) {
+
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+
+        }
+
+        return words;
+    }
+
+    private static boolean isWordChar(char c) {
+
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static class IdList {
+
+        int[] ids = new int[2];
+
+        int size;
+
+        void add(int id) {
+
+            if (size == ids.length) {
+
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+    }
+
+    private static class Entry {
+
+        final int id;
+
+        final String query;
+
+        final long time;
+
+        Entry(int id, String query, long time) {
+
+            this.id = id;
+            this.query = query;
+            this.time = time;
+        }
+
+    }
+
+}
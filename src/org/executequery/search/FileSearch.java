@@ -21,15 +21,49 @@
 package org.executequery.search;
 
 import org.executequery.GUIUtilities;
+import org.executequery.log.Log;
 import org.underworldlabs.swing.util.SwingWorker;
 
+import javax.swing.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
+ * Searches the files of a path for text, replacing it if requested.
+ * <p/>
+ * The directories are walked on the search worker, each file found being
+ * searched on a work-stealing pool as it is visited and its result added
+ * to the view. Files of a size above {@link #MAPPED_FILE_SIZE} are
+ * memory-mapped and searched a window of characters at a time rather
+ * than read into the heap.
+ *
  * @author Takis Diakoumis
  */
 public class FileSearch {
@@ -39,6 +73,33 @@ public class FileSearch {
      */
     public static final String WILDCARD = "*";
 
+    /**
+     * The size from which files searched are memory-mapped
+     */
+    private static final long MAPPED_FILE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The size of the regions of a file mapped at a time
+     */
+    private static final long MAPPED_REGION_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The number of characters of a mapped file searched at a time
+     */
+    private static final int WINDOW_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The number of characters of a window searched again with the next
+     * one for the matches across the two, and kept before those for
+     * look-behinds
+     */
+    private static final int WINDOW_OVERLAP = 64 * 1024;
+
+    /**
+     * The maximum size of the files text is replaced in
+     */
+    private static final long MAX_REPLACED_FILE_SIZE = Integer.MAX_VALUE - 8;
+
     /**
      * Worker thread
      */
@@ -47,14 +108,18 @@ public class FileSearch {
      * The results vector
      */
     private Vector searchResults;
+    /**
+     * Whether an update of the view with the results is pending
+     */
+    private boolean resultsUpdatePending;
     /**
      * Total find count
      */
-    private int totalFindCount;
+    private final AtomicInteger totalFindCount = new AtomicInteger();
     /**
      * Total file count
      */
-    private int fileCount;
+    private final AtomicInteger fileCount = new AtomicInteger();
 
     // --------------------------------------
     // -------- Saved search details --------
@@ -107,6 +172,15 @@ public class FileSearch {
      * Whether to use regex matching
      */
     private static boolean usingRegex;
+    /**
+     * The comma separated name patterns of the files
+     * and directories to skip
+     */
+    private static String skipPatterns;
+    /**
+     * The maximum size of the files searched, 0 for any size
+     */
+    private static long maxFileSize;
     /**
      * The search view GUI object
      */
@@ -122,6 +196,16 @@ public class FileSearch {
      */
     private Pattern pattern;
 
+    /**
+     * The search text when searched for without a pattern
+     */
+    private String literalText;
+
+    /**
+     * The name patterns of the files and directories skipped
+     */
+    private List<PathMatcher> skipMatchers;
+
     public FileSearch(FileSearchView searchView) {
         this.searchView = searchView;
 
@@ -137,20 +221,26 @@ public class FileSearch {
 
     }
 
-    private void addToList(File file) {
+    private synchronized void addToList(Object result) {
         if (searchResults == null) {
             searchResults = new Vector();
         }
-        searchResults.add(file);
-        searchView.setListData(searchResults);
+        searchResults.add(result);
+
+        // results found together are shown with one update of the view
+        if (!resultsUpdatePending) {
+            resultsUpdatePending = true;
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run() {
+                    searchView.setListData(resultsSnapshot());
+                }
+            });
+        }
     }
 
-    private void addToList(String text) {
-        if (searchResults == null) {
-            searchResults = new Vector();
-        }
-        searchResults.add(text);
-        searchView.setListData(searchResults);
+    private synchronized Vector resultsSnapshot() {
+        resultsUpdatePending = false;
+        return new Vector(searchResults);
     }
 
     public void doSearch() {
@@ -166,7 +256,8 @@ public class FileSearch {
             }
 
             public void finished() {
-                searchView.setListData(searchResults);
+                sortResults();
+                searchView.setListData(resultsSnapshot());
                 searchView.finished();
 
                 if (replacingText) {
@@ -178,6 +269,7 @@ public class FileSearch {
                 }
 
                 pattern = null;
+                literalText = null;
                 GUIUtilities.scheduleGC();
             }
         };
@@ -186,106 +278,344 @@ public class FileSearch {
 
     private String startFind(File file) {
 
-        if (file.isDirectory()) {
+        if (!compilePattern()) {
+            return "done";
+        }
+        skipMatchers = skipMatchers();
 
-            File[] files = file.listFiles();
-            for (int i = 0; i < files.length; i++) {
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
 
-                if (files[i].isDirectory()) {
+            if (!file.isDirectory()) {
+                submit(pool, file.toPath());
 
-                    if (searchingSubdirs) {
-                        startFind(files[i]);
-                    } else {
-                        continue;
-                    }
+            } else {
 
-                } else {
+                final Path root = file.toPath();
+                int depth = searchingSubdirs ? Integer.MAX_VALUE : 1;
+                Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), depth, new SimpleFileVisitor<Path>() {
 
-                    if (!searchExtension.equals(WILDCARD)) {
-                        if (!files[i].getName().endsWith(searchExtension)) {
-                            continue;
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        if (!dir.equals(root) && isSkipped(dir)) {
+                            return FileVisitResult.SKIP_SUBTREE;
                         }
+                        return FileVisitResult.CONTINUE;
                     }
 
-                    fileCount++;
-                    searchFile(files[i]);
-                }
+                    public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile() && isSearched(path, attrs.size())) {
+                            submit(pool, path);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    public FileVisitResult visitFileFailed(Path path, IOException e) {
+                        Log.debug("Unable to search " + path + ": " + e.getMessage());
+                        return FileVisitResult.CONTINUE;
+                    }
 
+                });
             }
 
-        } else {
-            fileCount++;
-            searchFile(file);
+        } catch (IOException e) {
+            Log.error("Error searching files in " + file, e);
+        }
+
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
         }
 
         return "done";
 
     }
 
+    private void submit(ForkJoinPool pool, final Path path) {
+        fileCount.incrementAndGet();
+        pool.execute(new Runnable() {
+            public void run() {
+                searchFile(path.toFile());
+            }
+        });
+    }
+
+    private boolean isSearched(Path path, long size) {
+
+        if (!searchExtension.equals(WILDCARD)
+                && !path.getFileName().toString().endsWith(searchExtension)) {
+            return false;
+        }
+
+        if (maxFileSize > 0 && size > maxFileSize) {
+            return false;
+        }
+
+        return !isSkipped(path);
+    }
+
+    private boolean isSkipped(Path path) {
+
+        Path name = path.getFileName();
+        for (PathMatcher matcher : skipMatchers) {
+            if (name != null && matcher.matches(name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private List<PathMatcher> skipMatchers() {
+
+        List<PathMatcher> matchers = new ArrayList<PathMatcher>();
+        if (skipPatterns != null) {
+
+            for (String skipPattern : skipPatterns.split(",")) {
+
+                skipPattern = skipPattern.trim();
+                if (skipPattern.length() > 0) {
+                    matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + skipPattern));
+                }
+            }
+
+        }
+
+        return matchers;
+    }
+
+    /**
+     * Compiles the search pattern once for all files searched, text searched
+     * for as is without whole words is counted without a pattern.
+     *
+     * @return whether the pattern is valid
+     */
+    private boolean compilePattern() {
+
+        literalText = null;
+        if (!usingRegex && !findWholeWords && !replacingText && searchText.indexOf(' ') == -1) {
+            literalText = searchText;
+        }
+
+        try {
+
+            String regexPattern = null;
+            if (!usingRegex) {
+                regexPattern = TextAreaSearch.formatRegularExpression(searchText,
+                        findWholeWords);
+            } else {
+                regexPattern = searchText;
+            }
+
+            if (matchingCase) {
+                pattern = Pattern.compile(regexPattern);
+            } else {
+                pattern = Pattern.compile(regexPattern, Pattern.CASE_INSENSITIVE);
+            }
+            return true;
+
+        } catch (PatternSyntaxException pExc) {
+            if (usingRegex) {
+                GUIUtilities.displayErrorMessage(
+                        "The regular expression search pattern is invalid.");
+            }
+            return false;
+        }
+
+    }
+
     private void searchFile(File file) {
 
-        Matcher matcher = null;
-        StringBuffer fileText = readFile(file);
+        try {
+
+            long size = file.length();
+            if (replacingText) {
+                replaceInFile(file, size);
+
+            } else {
+
+                int findCount = size >= MAPPED_FILE_SIZE ? countMapped(file, size) : count(readFile(file));
+                if (findCount > 0) {
+                    addToList(file);
+                }
+                totalFindCount.addAndGet(findCount);
+            }
+
+        } catch (IOException e) {
+            skipped(file, e.getMessage(), e);
+        }
+
+    }
+
+    private int count(CharSequence fileText) {
+
+        if (literalText != null) {
+            return countLiteral(fileText, literalText, matchingCase);
+        }
+
+        int findCount = 0;
+        Matcher matcher = pattern.matcher(fileText);
+        while (matcher.find()) {
+            findCount++;
+        }
+        return findCount;
+    }
+
+    private void replaceInFile(File file, long size) throws IOException {
+
+        // the text replaced is held in memory as a whole
+        if (size > MAX_REPLACED_FILE_SIZE) {
+            skipped(file, "the file is too large to replace text in", null);
+            return;
+        }
 
         int findCount = 0;
+        Matcher matcher = pattern.matcher(readFile(file));
+        while (matcher.find()) {
+            findCount++;
+        }
 
+        if (findCount > 0) {
+            addToList("Replaced " + findCount + " occurrences in " + file.getAbsolutePath());
+            writeFile(file, matcher.replaceAll(replaceText));
+        }
+        totalFindCount.addAndGet(findCount);
+    }
+
+    /**
+     * Counts the matches of the pattern in the file mapped a region at a
+     * time, the regions decoded into a window of characters searched with
+     * the characters kept from the previous window. A match is to be
+     * shorter than {@link #WINDOW_OVERLAP} characters to be found across
+     * two windows.
+     */
+    private int countMapped(File file, long size) throws IOException {
+
+        CharsetDecoder decoder = Charset.defaultCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        WindowSearch search = new WindowSearch(pattern);
+        CharBuffer window = CharBuffer.allocate(WINDOW_SIZE);
+
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
         try {
 
-            if (pattern == null) {
-                String regexPattern = null;
-                if (!usingRegex) {
-                    regexPattern = TextAreaSearch.formatRegularExpression(searchText,
-                            findWholeWords);
-                } else {
-                    regexPattern = searchText;
+            long position = 0;
+            while (position < size) {
+
+                long regionSize = Math.min(MAPPED_REGION_SIZE, size - position);
+                boolean endOfFile = position + regionSize == size;
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+
+                while (decoder.decode(region, window, endOfFile).isOverflow()) {
+                    search.search(window, false);
                 }
 
-                if (matchingCase) {
-                    pattern = Pattern.compile(regexPattern);
-                } else {
-                    pattern = Pattern.compile(regexPattern, Pattern.CASE_INSENSITIVE);
+                // the bytes of a character split by the end of the region are decoded with the next one
+                position += region.position();
+                if (endOfFile) {
+                    break;
                 }
-                regexPattern = null;
             }
 
-            matcher = pattern.matcher(fileText);
-            while (matcher.find()) {
-                findCount++;
+            while (decoder.flush(window).isOverflow()) {
+                search.search(window, false);
             }
+            search.search(window, true);
 
-            if (findCount > 0) {
+        } finally {
+            channel.close();
+        }
 
-                if (!replacingText) {
-                    addToList(file);
-                } else {
-                    String text = "Replaced " + findCount + " occurrences in " +
-                            file.getAbsolutePath();
-                    addToList(text);
-                }
+        return search.count;
+    }
+
+    private void skipped(File file, String reason, Throwable e) {
+
+        String message = "Unable to search " + file.getAbsolutePath() + ": " + reason;
+        if (e != null) {
+            Log.warning(message, e);
+        } else {
+            Log.warning(message);
+        }
+        addToList(message);
+    }
+
+    /**
+     * Counts the occurrences of the text, a match starting
+     * after the end of the previous match. Case is ignored for
+     * the US-ASCII letters only, as by the search pattern
+     * compiled without <code>UNICODE_CASE</code>.
+     */
+    static int countLiteral(CharSequence fileText, String text, boolean matchCase) {
+
+        int count = 0;
+        int length = text.length();
+        int last = fileText.length() - length;
+        char first = text.charAt(0);
+        char firstUpper = toUpperCaseAscii(first);
+        char firstLower = toLowerCaseAscii(first);
+
+        for (int i = 0; i <= last; i++) {
+
+            char c = fileText.charAt(i);
+            if (matchCase ? c != first : c != firstUpper && c != firstLower) {
+                continue;
             }
 
-            if (replacingText) {
-                String newText = matcher.replaceAll(replaceText);
-                writeFile(file, newText);
+            if (regionMatches(fileText, i, text, matchCase)) {
+                count++;
+                i += length - 1;
             }
-            totalFindCount += findCount;
-        } catch (PatternSyntaxException pExc) {
-            if (usingRegex) {
-                GUIUtilities.displayErrorMessage(
-                        "The regular expression search pattern is invalid.");
+        }
+
+        return count;
+    }
+
+    private static boolean regionMatches(CharSequence fileText, int offset, String text, boolean matchCase) {
+
+        for (int j = 1, n = text.length(); j < n; j++) {
+
+            char c1 = fileText.charAt(offset + j);
+            char c2 = text.charAt(j);
+            if (c1 != c2 && (matchCase || toLowerCaseAscii(c1) != toLowerCaseAscii(c2))) {
+                return false;
             }
         }
 
+        return true;
+    }
+
+    private static char toUpperCaseAscii(char c) {
+        return (c >= 'a' && c <= 'z') ? (char) (c - ('a' - 'A')) : c;
+    }
+
+    private static char toLowerCaseAscii(char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private void sortResults() {
+        synchronized (this) {
+            Collections.sort(searchResults, new Comparator<Object>() {
+                public int compare(Object o1, Object o2) {
+                    return o1.toString().compareTo(o2.toString());
+                }
+            });
+        }
     }
 
     private void writeFile(File file, String text) {
         PrintWriter writer = null;
         try {
             writer = new PrintWriter(new FileWriter(file, false), true);
-            writer.println(text);
+            writer.print(text);
             writer.close();
         } catch (IOException e) {
-            e.printStackTrace();
+            Log.error("Unable to replace text in " + file.getAbsolutePath(), e);
+            addToList("Unable to replace text in " + file.getAbsolutePath() + ": " + e.getMessage());
         } finally {
             if (writer != null) {
                 writer.close();
@@ -293,33 +623,12 @@ public class FileSearch {
         }
     }
 
-    private StringBuffer readFile(File file) {
-        StringBuffer sb = null;
-        String text = null;
-
-        try {
-            FileInputStream input = new FileInputStream(file);
-            BufferedReader reader = new BufferedReader(new InputStreamReader(input));
-            sb = new StringBuffer(10000);
-
-            char newLine = '\n';
-
-            while ((text = reader.readLine()) != null) {
-                sb.append(text).append(newLine);
-            }
+    /**
+     * Returns the text of the file decoded with the default charset.
+     */
+    private CharSequence readFile(File file) throws IOException {
 
-            reader.close();
-            input.close();
-            return sb;
-        } catch (OutOfMemoryError e) {
-            e.printStackTrace();
-            sb = null;
-            text = null;
-            return null;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
+        return Charset.defaultCharset().decode(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
     }
 
     private void addToValues(Vector values, String text) {
@@ -333,16 +642,22 @@ public class FileSearch {
     }
 
     private void clearResults() {
-        totalFindCount = 0;
-        fileCount = 0;
+        totalFindCount.set(0);
+        fileCount.set(0);
 
-        if (searchResults == null) {
-            searchResults = new Vector();
+        synchronized (this) {
+            if (searchResults == null) {
+                searchResults = new Vector();
+            }
+            searchResults.clear();
         }
 
-        searchResults.clear();
-        searchView.setListData(searchResults);
-        searchView.setResultsSummary("");
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+                searchView.setListData(resultsSnapshot());
+                searchView.setResultsSummary("");
+            }
+        });
     }
 
     public void setSearchText(String _searchText) {
@@ -415,6 +730,22 @@ public class FileSearch {
         usingRegex = _usingRegex;
     }
 
+    public String getSkipPatterns() {
+        return skipPatterns;
+    }
+
+    public void setSkipPatterns(String _skipPatterns) {
+        skipPatterns = _skipPatterns;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(long _maxFileSize) {
+        maxFileSize = _maxFileSize;
+    }
+
     public boolean isMatchingCase() {
         return matchingCase;
     }
@@ -441,6 +772,59 @@ public class FileSearch {
         return pathValues;
     }
 
+    /**
+     * Counts the matches of a pattern in the successive windows of the
+     * characters of a file.
+     */
+    private static final class WindowSearch {
+
+        private final Matcher matcher;
+
+        /**
+         * the offset in the window to search from
+         */
+        private int from;
+
+        private int count;
+
+        WindowSearch(Pattern pattern) {
+            matcher = pattern.matcher("");
+            matcher.useTransparentBounds(true);
+            matcher.useAnchoringBounds(false);
+        }
+
+        /**
+         * Counts the matches starting before the characters kept for the next
+         * window, or before the end of the last one, and keeps the characters
+         * searched again with the next window preceded by the ones a
+         * look-behind may need.
+         */
+        void search(CharBuffer window, boolean last) {
+
+            window.flip();
+            int length = window.length();
+            int searchEnd = last ? length : Math.max(from, length - WINDOW_OVERLAP);
+            int matchEnd = from;
+
+            matcher.reset(window);
+            matcher.region(from, length);
+            while (matcher.find() && matcher.start() < searchEnd) {
+                count++;
+                matchEnd = matcher.end();
+            }
+
+            if (last) {
+                return;
+            }
+
+            int kept = Math.max(0, searchEnd - WINDOW_OVERLAP);
+            from = Math.max(searchEnd, matchEnd) - kept;
+            window.position(kept);
+            window.compact();
+        }
+
+    }
+
 }
 
 
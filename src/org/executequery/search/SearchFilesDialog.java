@@ -27,6 +27,7 @@ import org.executequery.gui.WidgetFactory;
 import org.executequery.localization.Bundles;
 import org.underworldlabs.swing.AbstractBaseDialog;
 import org.underworldlabs.swing.DisabledField;
+import org.underworldlabs.swing.NumberTextField;
 
 import javax.swing.*;
 import java.awt.*;
@@ -76,6 +77,14 @@ public class SearchFilesDialog extends AbstractBaseDialog implements FileSearchV
      * The use regex check box
      */
     private JCheckBox regexCheck;
+    /**
+     * The skipped file and directory names field
+     */
+    private JTextField skipField;
+    /**
+     * The maximum file size field
+     */
+    private NumberTextField maxSizeField;
 
     /**
      * The results area scroller
@@ -120,6 +129,10 @@ public class SearchFilesDialog extends AbstractBaseDialog implements FileSearchV
         searchSubdirsCheck = new JCheckBox("Search Subdirectories", true);
         replaceCheck = new JCheckBox("Replace:");
         regexCheck = new JCheckBox("Regular expressions");
+        skipField = WidgetFactory.createTextField();
+        skipField.setToolTipText("Comma separated names of the files and directories to skip, such as .git, *.bak");
+        maxSizeField = new NumberTextField();
+        maxSizeField.setToolTipText("The maximum size in KB of the files searched, empty for any size");
 
         findTextArea = new JTextArea();
         findTextArea.setLineWrap(true);
@@ -227,6 +240,27 @@ public class SearchFilesDialog extends AbstractBaseDialog implements FileSearchV
         gbc.gridx = 1;
         gbc.insets.left = 20;
         optionsPanel.add(regexCheck, gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.insets.left = 5;
+        optionsPanel.add(new JLabel("Skip:"), gbc);
+        gbc.gridx = 1;
+        gbc.weightx = 1.0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.insets.left = 20;
+        optionsPanel.add(skipField, gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.weightx = 0;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.insets.left = 5;
+        optionsPanel.add(new JLabel("Max file size (KB):"), gbc);
+        gbc.gridx = 1;
+        gbc.weightx = 1.0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.insets.left = 20;
+        optionsPanel.add(maxSizeField, gbc);
+        gbc.weightx = 0;
 
         gbc.gridy = 4;
         gbc.gridx = 0;
@@ -439,6 +473,8 @@ public class SearchFilesDialog extends AbstractBaseDialog implements FileSearchV
             fileSearch.setReplacingText(replacingText);
             fileSearch.setSearchingSubdirs(searchSubdirsCheck.isSelected());
             fileSearch.setMatchingCase(matchCaseCheck.isSelected());
+            fileSearch.setSkipPatterns(skipField.getText());
+            fileSearch.setMaxFileSize(maxSizeField.getValue() * 1024L);
 
             fileSearch.doSearch();
 
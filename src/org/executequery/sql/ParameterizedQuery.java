@@ -0,0 +1,463 @@
+package org.executequery.sql;
+
+import org.executequery.databasemediators.QueryTypes;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * INSERT, UPDATE or DELETE statement with its literal values
+ * replaced by parameters, so that statements differing only in
+ * their values share the same SQL text and prepared statement.
+ * <p/>
+ * Only the literals whose parameter type is known from their position
+ * are replaced - the items of a VALUES or IN list and the right side of a
+ * top level comparison or assignment. The values are bound as strings
+ * and converted by the driver to the parameter type. Comments are
+ * left out of the parameterized SQL text.
+ */
+final class ParameterizedQuery {
+
+    private static final Set<String> COMPARISON_OPERATORS =
+            new HashSet<String>(Arrays.asList("=", "<>", "!=", "^=", "~=", "<", ">", "<=", ">="));
+
+    private static final Set<String> TWO_CHARACTER_SYMBOLS =
+            new HashSet<String>(Arrays.asList("<>", "!=", "^=", "~=", "<=", ">=", "||", "!<", "!>", "^<", "^>"));
+
+    private static final int TOP_LEVEL = 0;
+
+    private static final int VALUE_LIST = 1;
+
+    private static final int OTHER_PARENTHESES = 2;
+
+    private final String sql;
+
+    private final List<String> values;
+
+    private ParameterizedQuery(String sql, List<String> values) {
+
+        this.sql = sql;
+        this.values = values;
+    }
+
+    /**
+     * Returns the SQL text with the replaced literals as parameters.
+     */
+    String getSql() {
+
+        return sql;
+    }
+
+    /**
+     * Sets the literal values as the parameters of the specified statement.
+     */
+    void bind(PreparedStatement statement) throws SQLException {
+
+        for (int i = 0, n = values.size(); i < n; i++) {
+
+            statement.setString(i + 1, values.get(i));
+        }
+
+    }
+
+    /**
+     * Returns the parameterized form of the specified query or
+     * <code>null</code> if the query can not be executed in a batch.
+     */
+    static ParameterizedQuery parse(DerivedQuery query) {
+
+        int type = query.getQueryType();
+        if (type != QueryTypes.INSERT && type != QueryTypes.UPDATE && type != QueryTypes.DELETE) {
+
+            return null;
+        }
+
+        String text = query.getQueryWithoutComments();
+        if (text == null) {
+
+            text = query.getDerivedQuery();
+        }
+
+        List<Token> tokens = tokenize(text);
+        if (tokens == null) {
+
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(text.length());
+        List<String> values = new ArrayList<String>();
+        Deque<Integer> parentheses = new ArrayDeque<Integer>();
+
+        for (int i = 0, n = tokens.size(); i < n; i++) {
+
+            Token token = tokens.get(i);
+            if (token.kind == Token.WORD && token.text.equalsIgnoreCase("returning")) {
+
+                // the statements returning values can not be batched
+                return null;
+            }
+
+            if (i > 0 && token.spaceBefore) {
+
+                sb.append(' ');
+            }
+
+            if ((token.kind == Token.STRING || token.kind == Token.NUMBER)
+                    && isParameterPosition(tokens, i, parentheses.isEmpty() ? TOP_LEVEL : parentheses.peek())) {
+
+                sb.append('?');
+                values.add(token.value);
+                continue;
+            }
+
+            sb.append(token.text);
+            if (token.kind == Token.SYMBOL) {
+
+                if ("(".equals(token.text)) {
+
+                    Token previous = (i > 0) ? tokens.get(i - 1) : null;
+                    boolean valueList = previous != null && previous.kind == Token.WORD
+                            && (previous.text.equalsIgnoreCase("values") || previous.text.equalsIgnoreCase("in"));
+
+                    parentheses.push(valueList ? VALUE_LIST : OTHER_PARENTHESES);
+
+                } else if (")".equals(token.text)) {
+
+                    if (parentheses.isEmpty()) {
+
+                        return null;
+                    }
+
+                    parentheses.pop();
+                }
+
+            }
+
+        }
+
+        return new ParameterizedQuery(sb.toString(), values);
+    }
+
+    private static boolean isParameterPosition(List<Token> tokens, int index, int context) {
+
+        Token previous = (index > 0) ? tokens.get(index - 1) : null;
+        Token next = (index + 1 < tokens.size()) ? tokens.get(index + 1) : null;
+        if (previous == null || previous.kind != Token.SYMBOL) {
+
+            return false;
+        }
+
+        if (context == VALUE_LIST) {
+
+            return ("(".equals(previous.text) || ",".equals(previous.text))
+                    && next != null && next.kind == Token.SYMBOL
+                    && (",".equals(next.text) || ")".equals(next.text));
+        }
+
+        if (context == TOP_LEVEL && COMPARISON_OPERATORS.contains(previous.text)) {
+
+            return next == null
+                    || (next.kind == Token.SYMBOL && ",".equals(next.text))
+                    || (next.kind == Token.WORD && (next.text.equalsIgnoreCase("where")
+                    || next.text.equalsIgnoreCase("and") || next.text.equalsIgnoreCase("or")));
+        }
+
+        return false;
+    }
+
+    private static List<Token> tokenize(String text) {
+
+        List<Token> tokens = new ArrayList<Token>();
+
+        boolean space = false;
+        int i = 0;
+        int n = text.length();
+        while (i < n) {
+
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+
+                space = true;
+                i++;
+                continue;
+            }
+
+            if (c == '-' && i + 1 < n && text.charAt(i + 1) == '-') {
+
+                while (i < n && text.charAt(i) != '\n') {
+
+                    i++;
+                }
+
+                space = true;
+                continue;
+            }
+
+            if (c == '/' && i + 1 < n && text.charAt(i + 1) == '*') {
+
+                int end = text.indexOf("*/", i + 2);
+                if (end == -1) {
+
+                    return null;
+                }
+
+                i = end + 2;
+                space = true;
+                continue;
+            }
+
+            int start = i;
+            Token previous = tokens.isEmpty() ? null : tokens.get(tokens.size() - 1);
+
+            if (isWordStart(c)) {
+
+                while (i < n && isWordPart(text.charAt(i))) {
+
+                    i++;
+                }
+
+                if (i < n && text.charAt(i) == '\'') {
+
+                    // x'..', n'..', q'..' and character set introducers
+                    i = text.substring(start, i).equalsIgnoreCase("q")
+                            ? skipAlternativeQuotedString(text, i)
+                            : skipQuoted(text, i, '\'');
+
+                    if (i == -1) {
+
+                        return null;
+                    }
+
+                    tokens.add(new Token(Token.OTHER, text.substring(start, i), null, space));
+
+                } else {
+
+                    tokens.add(new Token(Token.WORD, text.substring(start, i), null, space));
+                }
+
+            } else if (c == '\'') {
+
+                i = skipQuoted(text, i, '\'');
+                if (i == -1) {
+
+                    return null;
+                }
+
+                String literal = text.substring(start, i);
+                String value = literal.substring(1, literal.length() - 1).replace("''", "'");
+                tokens.add(new Token(Token.STRING, literal, value, space));
+
+            } else if (c == '"') {
+
+                i = skipQuoted(text, i, '"');
+                if (i == -1) {
+
+                    return null;
+                }
+
+                tokens.add(new Token(Token.OTHER, text.substring(start, i), null, space));
+
+            } else if (isNumberStart(text, i) || ((c == '-' || c == '+')
+                    && isNumberStart(text, i + 1) && isSignedNumberPosition(previous))) {
+
+                i = skipNumber(text, i + ((c == '-' || c == '+') ? 1 : 0));
+                if (i < n && (isWordPart(text.charAt(i)) || text.charAt(i) == '.')) {
+
+                    return null;
+                }
+
+                String literal = text.substring(start, i);
+                boolean exponent = literal.indexOf('e') != -1 || literal.indexOf('E') != -1;
+                tokens.add(new Token(exponent ? Token.OTHER : Token.NUMBER, literal, literal, space));
+
+            } else if (c == '?' || c == ':') {
+
+                // already parameterized
+                return null;
+
+            } else {
+
+                i++;
+                if (i < n && TWO_CHARACTER_SYMBOLS.contains(text.substring(start, i + 1))) {
+
+                    i++;
+                }
+
+                tokens.add(new Token(Token.SYMBOL, text.substring(start, i), null, space));
+            }
+
+            space = false;
+        }
+
+        return tokens;
+    }
+
+    private static boolean isSignedNumberPosition(Token previous) {
+
+        return previous != null && previous.kind == Token.SYMBOL
+                && ("(".equals(previous.text) || ",".equals(previous.text)
+                || COMPARISON_OPERATORS.contains(previous.text));
+    }
+
+    private static boolean isWordStart(char c) {
+
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isWordPart(char c) {
+
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static boolean isNumberStart(String text, int index) {
+
+        if (index >= text.length()) {
+
+            return false;
+        }
+
+        char c = text.charAt(index);
+        return Character.isDigit(c)
+                || (c == '.' && index + 1 < text.length() && Character.isDigit(text.charAt(index + 1)));
+    }
+
+    private static int skipNumber(String text, int index) {
+
+        int n = text.length();
+        while (index < n && Character.isDigit(text.charAt(index))) {
+
+            index++;
+        }
+
+        if (index < n && text.charAt(index) == '.') {
+
+            index++;
+            while (index < n && Character.isDigit(text.charAt(index))) {
+
+                index++;
+            }
+
+        }
+
+        if (index < n && (text.charAt(index) == 'e' || text.charAt(index) == 'E')) {
+
+            int exponent = index + 1;
+            if (exponent < n && (text.charAt(exponent) == '-' || text.charAt(exponent) == '+')) {
+
+                exponent++;
+            }
+
+            if (exponent < n && Character.isDigit(text.charAt(exponent))) {
+
+                index = exponent;
+                while (index < n && Character.isDigit(text.charAt(index))) {
+
+                    index++;
+                }
+
+            }
+
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index after the closing quote of the quoted text at the
+     * specified index or -1 if it is not closed. Doubled quotes are skipped.
+     */
+    private static int skipQuoted(String text, int index, char quote) {
+
+        int n = text.length();
+        int i = index + 1;
+        while (i < n) {
+
+            if (text.charAt(i) == quote) {
+
+                if (i + 1 < n && text.charAt(i + 1) == quote) {
+
+                    i += 2;
+                    continue;
+                }
+
+                return i + 1;
+            }
+
+            i++;
+        }
+
+        return -1;
+    }
+
+    private static int skipAlternativeQuotedString(String text, int index) {
+
+        // q'<start> ... <end>'
+        if (index + 1 >= text.length()) {
+
+            return -1;
+        }
+
+        char start = text.charAt(index + 1);
+        char end;
+        switch (start) {
+            case '(':
+                end = ')';
+                break;
+            case '[':
+                end = ']';
+                break;
+            case '{':
+                end = '}';
+                break;
+            case '<':
+                end = '>';
+                break;
+            default:
+                end = start;
+        }
+
+        int close = text.indexOf(end + "'", index + 2);
+        return (close == -1) ? -1 : close + 2;
+    }
+
+    private static final class Token {
+
+        static final int WORD = 0;
+
+        static final int SYMBOL = 1;
+
+        static final int STRING = 2;
+
+        static final int NUMBER = 3;
+
+        /**
+         * quoted identifiers and the literals which are kept in the SQL text
+         */
+        static final int OTHER = 4;
+
+        final int kind;
+
+        final String text;
+
+        final String value;
+
+        final boolean spaceBefore;
+
+        Token(int kind, String text, String value, boolean spaceBefore) {
+
+            this.kind = kind;
+            this.text = text;
+            this.value = value;
+            this.spaceBefore = spaceBefore;
+        }
+
+    }
+
+}
@@ -87,11 +87,16 @@ public interface QueryDelegate {
     /**
      * Sets the table results to the specified
      * <code>ResultSet</code> object for display.
+     * <p/>
+     * With fetchInBackground set the delegate may return having read the
+     * first rows only. The result set is then left open and the delegate
+     * closes it and its statement once the remaining rows are read.
      *
      * @param the table results to display
      * @param the executed query of the result set
+     * @param whether the rows may be read in the background
      */
-    void setResultSet(ResultSet rs, String query) throws SQLException;
+    void setResultSet(ResultSet rs, String query, boolean fetchInBackground) throws SQLException;
 
     /**
      * Adds the specified SQL statement to the statement
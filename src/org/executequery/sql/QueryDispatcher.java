@@ -53,9 +53,6 @@ import org.underworldlabs.util.DynamicLibraryLoader;
 import org.underworldlabs.util.MiscUtils;
 import org.underworldlabs.util.SystemProperties;
 
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -540,7 +537,7 @@ public class QueryDispatcher {
 
                     } else {
 
-                        setResultSet(rset, sql);
+                        setResultSet(rset, sql, true);
                     }
 
                 } else {
@@ -706,7 +703,9 @@ public class QueryDispatcher {
 
                         printPlan(rset);
 
-                        setResultSet(rset, query.getOriginalQuery());
+                        // rows of an earlier query would be cut off by the next one
+                        boolean lastQuery = query == queries.get(queries.size() - 1);
+                        setResultSet(rset, query.getOriginalQuery(), lastQuery);
 
                         printExecutionPlan(before, after);
                     }
@@ -1002,7 +1001,7 @@ public class QueryDispatcher {
 
                             printPlan(rset);
 
-                            setResultSet(rset, query.getOriginalQuery());
+                            setResultSet(rset, query.getOriginalQuery(), false);
 
                             printExecutionPlan(before, after);
                         }
@@ -1275,22 +1274,11 @@ public class QueryDispatcher {
                 e.printStackTrace();
             }
 
-            URL[] urls = new URL[0];
-            Class clazzdb = null;
             Object odb = null;
             try {
-                urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-                ClassLoader cl = new URLClassLoader(urls, connection.getClass().getClassLoader());
-                clazzdb = cl.loadClass("biz.redsoft.FBDatabasePerformanceImpl");
-                odb = clazzdb.newInstance();
+                odb = DynamicLibraryLoader.loadingObjectFromClassLoader(connection, "FBDatabasePerformanceImpl");
             } catch (ClassNotFoundException e) {
                 e.printStackTrace();
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
-            } catch (InstantiationException e) {
-                e.printStackTrace();
-            } catch (MalformedURLException e) {
-                e.printStackTrace();
             }
 
             IFBDatabasePerformance db = (IFBDatabasePerformance) odb;
@@ -1330,22 +1318,11 @@ public class QueryDispatcher {
                     e.printStackTrace();
                 }
 
-                URL[] urls = new URL[0];
-                Class clazzdb = null;
                 Object odb = null;
                 try {
-                    urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-                    ClassLoader cl = new URLClassLoader(urls, resultSet.getClass().getClassLoader());
-                    clazzdb = cl.loadClass("biz.redsoft.FBDatabasePerformanceImpl");
-                    odb = clazzdb.newInstance();
+                    odb = DynamicLibraryLoader.loadingObjectFromClassLoader(resultSet, "FBDatabasePerformanceImpl");
                 } catch (ClassNotFoundException e) {
                     e.printStackTrace();
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
-                } catch (InstantiationException e) {
-                    e.printStackTrace();
-                } catch (MalformedURLException e) {
-                    e.printStackTrace();
                 }
 
                 IFBDatabasePerformance db = (IFBDatabasePerformance) odb;
@@ -1381,22 +1358,11 @@ public class QueryDispatcher {
                     e.printStackTrace();
                 }
 
-                URL[] urls = new URL[0];
-                Class clazzdb = null;
                 Object odb = null;
                 try {
-                    urls = MiscUtils.loadURLs("./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
-                    ClassLoader cl = new URLClassLoader(urls, statement.getClass().getClassLoader());
-                    clazzdb = cl.loadClass("biz.redsoft.FBDatabasePerformanceImpl");
-                    odb = clazzdb.newInstance();
+                    odb = DynamicLibraryLoader.loadingObjectFromClassLoader(statement, "FBDatabasePerformanceImpl");
                 } catch (ClassNotFoundException e) {
                     e.printStackTrace();
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
-                } catch (InstantiationException e) {
-                    e.printStackTrace();
-                } catch (MalformedURLException e) {
-                    e.printStackTrace();
                 }
 
                 IFBDatabasePerformance db = (IFBDatabasePerformance) odb;
@@ -1604,7 +1570,7 @@ public class QueryDispatcher {
         });
     }
 
-    private void setResultSet(final ResultSet rs, final String query) {
+    private void setResultSet(final ResultSet rs, final String query, final boolean fetchInBackground) {
 /*
         ThreadUtils.invokeAndWait(new Runnable() {
             public void run() {
@@ -1617,7 +1583,12 @@ public class QueryDispatcher {
         });
 */
         try {
-            delegate.setResultSet(rs, query);
+            delegate.setResultSet(rs, query, fetchInBackground);
+            if (fetchInBackground && !rs.isClosed()) {
+
+                // the delegate reads the remaining rows and closes the statement
+                querySender.detachStatement();
+            }
         } catch (SQLException e) {
             processException(e);
         }
@@ -0,0 +1,309 @@
+package org.executequery.sql;
+
+import org.executequery.databasemediators.spi.DefaultStatementExecutor;
+import org.underworldlabs.util.MiscUtils;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Executes consecutive INSERT, UPDATE and DELETE statements of a script
+ * which differ only in their literal values as JDBC batches of one
+ * prepared statement.
+ * <p/>
+ * The batch is executed when the statement shape changes, the batch
+ * size is reached or a statement which can not be batched is to be
+ * executed - the prepared statement holds the connection, so it is
+ * closed before any other statement runs. The statements the driver
+ * could not execute in the batch are executed one by one with the
+ * usual error handling of the script.
+ */
+class ScriptBatchExecutor {
+
+    /**
+     * Executes a single statement of the script with its error handling.
+     */
+    interface StatementExecutor {
+
+        int execute(DerivedQuery query) throws SQLException;
+
+    }
+
+    private final DefaultStatementExecutor querySender;
+
+    private final StatementExecutor statementExecutor;
+
+    private final ExecutionController executionController;
+
+    private final int batchSize;
+
+    private final int commitInterval;
+
+    private final List<DerivedQuery> pending;
+
+    /**
+     * the statement shapes the driver failed to prepare
+     */
+    private final Set<String> unprepared = new HashSet<String>();
+
+    private PreparedStatement statement;
+
+    private String statementSql;
+
+    private int executedSinceCommit;
+
+    private int updateCount;
+
+    private int executedCount;
+
+    private long executionNanos;
+
+    /**
+     * @param batchSize      the maximum number of statements in a batch
+     * @param commitInterval the number of batched statements after which
+     *                       the transaction is committed, 0 to never commit
+     */
+    ScriptBatchExecutor(DefaultStatementExecutor querySender, StatementExecutor statementExecutor,
+                        ExecutionController executionController, int batchSize, int commitInterval) {
+
+        this.querySender = querySender;
+        this.statementExecutor = statementExecutor;
+        this.executionController = executionController;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+        this.pending = new ArrayList<DerivedQuery>(batchSize);
+    }
+
+    /**
+     * Adds the specified query to the current batch.
+     *
+     * @return false if the query can not be batched, it is not executed then
+     */
+    boolean add(DerivedQuery query) throws SQLException {
+
+        ParameterizedQuery parameterizedQuery = ParameterizedQuery.parse(query);
+        if (parameterizedQuery == null || unprepared.contains(parameterizedQuery.getSql())) {
+
+            return false;
+        }
+
+        String sql = parameterizedQuery.getSql();
+        if (statement != null && !sql.equals(statementSql)) {
+
+            finish();
+        }
+
+        if (statement == null) {
+
+            try {
+
+                statement = querySender.getPreparedStatement(sql);
+
+            } catch (SQLException e) {
+
+                unprepared.add(sql);
+                return false;
+            }
+
+            if (statement == null) {
+
+                return false;
+            }
+
+            statementSql = sql;
+        }
+
+        try {
+
+            parameterizedQuery.bind(statement);
+
+        } catch (SQLException e) {
+
+            // a value not convertible to the parameter type is left to the server
+            finish();
+            updateCount += statementExecutor.execute(query);
+            return true;
+        }
+
+        statement.addBatch();
+        pending.add(query);
+        if (pending.size() >= batchSize) {
+
+            executeBatch();
+        }
+
+        return true;
+    }
+
+    /**
+     * Executes the current batch and closes its statement.
+     */
+    void finish() throws SQLException {
+
+        try {
+
+            executeBatch();
+
+        } finally {
+
+            closeStatement();
+        }
+
+    }
+
+    /**
+     * Discards the statements not executed yet and closes the batch statement.
+     */
+    void close() throws SQLException {
+
+        pending.clear();
+        closeStatement();
+    }
+
+    /**
+     * Returns the total number of records affected by the batched statements.
+     */
+    int getUpdateCount() {
+
+        return updateCount;
+    }
+
+    /**
+     * Returns the number of statements executed in batches.
+     */
+    int getExecutedCount() {
+
+        return executedCount;
+    }
+
+    /**
+     * Returns the number of statements executed in batches per second.
+     */
+    long getStatementsPerSecond() {
+
+        return executionNanos > 0 ? Math.round(executedCount * 1000000000d / executionNanos) : 0;
+    }
+
+    private void executeBatch() throws SQLException {
+
+        if (pending.isEmpty()) {
+
+            return;
+        }
+
+        int size = pending.size();
+        List<DerivedQuery> failed = new ArrayList<DerivedQuery>();
+        long start = System.nanoTime();
+
+        try {
+
+            addUpdateCounts(statement.executeBatch(), size);
+
+        } catch (BatchUpdateException e) {
+
+            // the statements after the failed one may not have been executed
+            int[] counts = e.getUpdateCounts();
+            addUpdateCounts(counts, size);
+            for (int i = 0; i < size; i++) {
+
+                if (counts == null || i >= counts.length || counts[i] == Statement.EXECUTE_FAILED) {
+
+                    failed.add(pending.get(i));
+                }
+
+            }
+
+        } catch (SQLException e) {
+
+            failed.addAll(pending);
+
+        } finally {
+
+            pending.clear();
+        }
+
+        long duration = System.nanoTime() - start;
+        executionNanos += duration;
+        int executed = size - failed.size();
+        executedCount += executed;
+
+        if (executionController.logOutput()) {
+
+            executionController.message("Executed batch of " + executed + " statements: " + statementSql
+                    + "\nDuration: " + MiscUtils.formatDuration(duration / 1000000));
+        }
+
+        if (!failed.isEmpty()) {
+
+            closeStatement();
+            for (DerivedQuery query : failed) {
+
+                updateCount += statementExecutor.execute(query);
+            }
+
+        }
+
+        executedSinceCommit += size;
+        if (commitInterval > 0 && executedSinceCommit >= commitInterval) {
+
+            Connection connection = querySender.getConnection();
+            if (connection != null && !connection.getAutoCommit()) {
+
+                connection.commit();
+                if (executionController.logOutput()) {
+
+                    executionController.message("Commit complete");
+                }
+
+            }
+
+            executedSinceCommit = 0;
+        }
+
+    }
+
+    private void addUpdateCounts(int[] counts, int size) {
+
+        if (counts == null) {
+
+            return;
+        }
+
+        for (int i = 0, n = Math.min(counts.length, size); i < n; i++) {
+
+            // SUCCESS_NO_INFO and EXECUTE_FAILED are negative
+            if (counts[i] > 0) {
+
+                updateCount += counts[i];
+            }
+
+        }
+
+    }
+
+    private void closeStatement() throws SQLException {
+
+        if (statement != null) {
+
+            try {
+
+                statement.close();
+
+            } finally {
+
+                statement = null;
+                statementSql = null;
+            }
+
+        }
+
+    }
+
+}
@@ -33,6 +33,9 @@ import org.executequery.log.Log;
 import org.underworldlabs.util.MiscUtils;
 
 import javax.resource.ResourceException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -40,8 +43,6 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -60,6 +61,15 @@ public class SqlScriptRunner {
 
     boolean needCloseDatabase;
 
+    private int batchSize;
+
+    private int commitInterval;
+
+    /**
+     * the number of statements executed on their own
+     */
+    private int executedCount;
+
     public SqlScriptRunner(ExecutionController executionController) {
 
         super();
@@ -74,65 +84,83 @@ public class SqlScriptRunner {
     public SqlStatementResult execute(DatabaseConnection databaseConnection,
                                       String script, ActionOnError actionOnError) {
 
+        return execute(databaseConnection, new StringReader(script), actionOnError);
+    }
+
+    /**
+     * Sets the consecutive INSERT, UPDATE and DELETE statements differing only
+     * in their values to be executed in JDBC batches.
+     *
+     * @param batchSize      the maximum number of statements in a batch,
+     *                       batching is disabled if less than 2
+     * @param commitInterval the number of batched statements after which
+     *                       the transaction is committed, 0 to never commit
+     */
+    public void setBatchOptions(int batchSize, int commitInterval) {
+
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Executes the script read from the specified reader. The queries are
+     * read and executed one at a time, the reader is closed when done.
+     */
+    public SqlStatementResult execute(DatabaseConnection databaseConnection,
+                                      Reader script, final ActionOnError actionOnError) {
+
         int count = 0;
         int result = 0;
 
-        PreparedStatement statement = null;
         SqlStatementResult sqlStatementResult = new SqlStatementResult();
+        StreamingQueryTokenizer queryTokenizer = new StreamingQueryTokenizer(script);
+        ScriptBatchExecutor batchExecutor = null;
         needCloseDatabase = false;
         querySender = new DefaultStatementExecutor();
+        executedCount = 0;
 
         try {
 
             cancel = false;
 
-            executionController.message("Scanning and tokenizing queries...");
-            QueryTokenizer queryTokenizer = new QueryTokenizer();
-            //List<DerivedQuery> queries =
-
             close();
             if (databaseConnection != null) {
                 querySender.setDatabaseConnection(databaseConnection);
             }
 
-            List<DerivedQuery> executableQueries = new ArrayList<DerivedQuery>();
-            DerivedQuery createDBQuery = null;
-            String sqlDialect = "3";
-            String delimiter = ";";
-            //queries.clear();
+            if (batchSize > 1) {
+
+                batchExecutor = new ScriptBatchExecutor(querySender, new ScriptBatchExecutor.StatementExecutor() {
+
+                    @Override
+                    public int execute(DerivedQuery query) throws SQLException {
+
+                        return executeStatement(query, actionOnError);
+                    }
 
+                }, executionController, batchSize, commitInterval);
+            }
 
+            DerivedQuery createDBQuery = null;
+            String sqlDialect = "3";
 
-            //executionController.message("Found " + executableQueries.size() + " executable queries");
             executionController.message("Executing...");
 
             /*if (connection == null)
                 throw new SQLException("There is no connection. Select a connection from the available connections " +
                         "list or add a database creation statement.");*/
 
-            long start = 0L;
-            long end = 0L;
-            int thisResult = 0;
-            boolean logOutput = executionController.logOutput();
-            int startIndex = 0;
-            String lowQuery = script.toLowerCase();
-            executionController.message("Start extracting comments and String constants");
-            queryTokenizer.extractTokens(script);
-            executionController.message("Finish extracting comments and String constants");
-            while (script!=null &&!script.isEmpty()) {
-                QueryTokenizer.QueryTokenized fquery=queryTokenizer.tokenizeFirstQuery(script,lowQuery,startIndex,delimiter);
-                script= fquery.script;
-                delimiter = fquery.delimiter;
-                DerivedQuery query =  fquery.query;
-                lowQuery = fquery.lowScript;
-                startIndex = fquery.startIndex;
-                if(query==null||!query.isExecutable())
+            DerivedQuery query;
+            while ((query = queryTokenizer.next()) != null) {
+                if (!query.isExecutable())
                     continue;
                 if (shouldNotContinue()) {
 
                     throw new InterruptedException();
                 }
                 if (query.getQueryType() == QueryTypes.CREATE_DATABASE) {
+                    if (batchExecutor != null)
+                        batchExecutor.finish();
                     createDBQuery = query;
                     localDataSource = createDatabase(createDBQuery, sqlDialect);
                     connection = localDataSource.getConnection();
@@ -151,64 +179,35 @@ public class SqlScriptRunner {
                         sqlDialect = matcher.group().trim();
                     continue;
                 }
-                String derivedQuery = query.getDerivedQuery();
-                try {
 
-                    count++;
+                count++;
+                if (batchExecutor != null) {
 
-                    if (logOutput) {
+                    if (batchExecutor.add(query)) {
 
-                        executionController.message("Executing query " + count + ":");
-                        executionController.queryMessage(query.getDerivedQuery());
-                    }
-
-                    statement = querySender.getPreparedStatement(derivedQuery);
-                    start = System.currentTimeMillis();
-                    sqlStatementResult = querySender.execute(query.getQueryType(), statement);
-                    if (sqlStatementResult.isException())
-                        if (sqlStatementResult.getSqlException() != null)
-                            throw sqlStatementResult.getSqlException();
-                    result += sqlStatementResult.getUpdateCount();
-
-                } catch (SQLException e) {
-
-                    executionController.errorMessage("Error executing statement:");
-                    executionController.actionMessage(derivedQuery);
-
-                    if (actionOnError != ActionOnError.CONTINUE) {
-
-                        throw e;
-
-                    } else {
-
-                        executionController.errorMessage(e.getMessage());
-                    }
-
-                } finally {
-
-                    if (statement != null && !statement.isClosed()) {
-
-                        try {
-                            statement.close();
-                        } catch (SQLException e) {
-                            e.printStackTrace();
-                        }
+                        continue;
                     }
 
+                    // the batch holds the connection until its statement is closed
+                    batchExecutor.finish();
                 }
 
-                end = System.currentTimeMillis();
-                if (logOutput) {
+                result += executeStatement(query, actionOnError);
+            }
 
-                    executionController.message("Records affected: " + thisResult + "\nDuration: " + MiscUtils.formatDuration(end - start));
-                }
+            if (batchExecutor != null) {
 
+                batchExecutor.finish();
             }
 
         } catch (SQLException e) {
 
             sqlStatementResult.setSqlException(e);
 
+        } catch (IOException e) {
+
+            sqlStatementResult.setOtherException(e);
+
         } catch (InterruptedException e) {
 
             sqlStatementResult.setOtherException(e);
@@ -218,6 +217,23 @@ public class SqlScriptRunner {
             sqlStatementResult.setOtherException(e);
 
         } finally {
+            if (batchExecutor != null) {
+                try {
+                    batchExecutor.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+                result += batchExecutor.getUpdateCount();
+                if (batchExecutor.getExecutedCount() > 0) {
+                    executionController.message("Statements executed in batches: " + batchExecutor.getExecutedCount()
+                            + " (" + batchExecutor.getStatementsPerSecond() + " statements/s)");
+                }
+            }
+            try {
+                queryTokenizer.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
             if (needCloseDatabase) {
                 try {
                     localDataSource.close();
@@ -234,6 +250,74 @@ public class SqlScriptRunner {
         return sqlStatementResult;
     }
 
+    /**
+     * Executes the specified query on its own.
+     *
+     * @return the number of records affected
+     * @throws SQLException if the query fails and the script should be halted
+     */
+    private int executeStatement(DerivedQuery query, ActionOnError actionOnError) throws SQLException {
+
+        String derivedQuery = query.getDerivedQuery();
+        boolean logOutput = executionController.logOutput();
+        int updateCount = 0;
+        long start = System.currentTimeMillis();
+
+        PreparedStatement statement = null;
+        try {
+
+            executedCount++;
+
+            if (logOutput) {
+
+                executionController.message("Executing query " + executedCount + ":");
+                executionController.queryMessage(derivedQuery);
+            }
+
+            statement = querySender.getPreparedStatement(derivedQuery);
+            start = System.currentTimeMillis();
+            SqlStatementResult sqlStatementResult = querySender.execute(query.getQueryType(), statement);
+            if (sqlStatementResult.isException())
+                if (sqlStatementResult.getSqlException() != null)
+                    throw sqlStatementResult.getSqlException();
+            updateCount = sqlStatementResult.getUpdateCount();
+
+        } catch (SQLException e) {
+
+            executionController.errorMessage("Error executing statement:");
+            executionController.actionMessage(derivedQuery);
+
+            if (actionOnError != ActionOnError.CONTINUE) {
+
+                throw e;
+
+            } else {
+
+                executionController.errorMessage(e.getMessage());
+            }
+
+        } finally {
+
+            if (statement != null && !statement.isClosed()) {
+
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+
+        }
+
+        long end = System.currentTimeMillis();
+        if (logOutput) {
+
+            executionController.message("Records affected: " + Math.max(updateCount, 0) + "\nDuration: " + MiscUtils.formatDuration(end - start));
+        }
+
+        return updateCount;
+    }
+
     public boolean isNeedCloseDatabase() {
         return needCloseDatabase;
     }
@@ -0,0 +1,436 @@
+package org.executequery.sql;
+
+import org.underworldlabs.util.InterruptedException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a script read from a character stream into queries.
+ * <p/>
+ * The script is scanned once with a single cursor over a fixed size buffer,
+ * so only the query being built is held in memory. Quoted strings and
+ * identifiers, comments, <code>SET TERM</code> and the <code>;</code>
+ * inside BEGIN ... END blocks and DECLARE VARIABLE clauses are recognised
+ * as the script is read.
+ */
+public class StreamingQueryTokenizer implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern SET_TERM_PATTERN =
+            Pattern.compile("set\\s+term\\s+(\\S+)", Pattern.CASE_INSENSITIVE);
+
+    private static final String DEFAULT_DELIMITER = ";";
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private boolean endOfStream;
+
+    private String delimiter = DEFAULT_DELIMITER;
+
+    private final StringBuilder query = new StringBuilder();
+
+    private final StringBuilder queryWithoutComments = new StringBuilder();
+
+    private final StringBuilder word = new StringBuilder();
+
+    /**
+     * the BEGIN ... END nesting level of the current query
+     */
+    private int blockDepth;
+
+    /**
+     * whether the query is within a DECLARE clause of a PSQL header
+     */
+    private boolean inDeclareClause;
+
+    private boolean queryStarted;
+
+    public StreamingQueryTokenizer(Reader reader) {
+
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the current query delimiter.
+     */
+    public String getDelimiter() {
+
+        return delimiter;
+    }
+
+    /**
+     * Reads the next query of the script.
+     *
+     * @return the next query or <code>null</code> at the end of the script
+     */
+    public DerivedQuery next() throws IOException {
+
+        while (true) {
+
+            if (Thread.interrupted()) {
+
+                throw new InterruptedException();
+            }
+
+            boolean delimited = readQuery();
+            if (!delimited && query.length() == 0) {
+
+                return null;
+            }
+
+            String noComments = queryWithoutComments.toString().trim();
+            if (noComments.isEmpty()) {
+
+                if (!delimited) {
+
+                    return null;
+                }
+
+                resetQuery();
+                continue;
+            }
+
+            Matcher matcher = SET_TERM_PATTERN.matcher(noComments);
+            if (matcher.matches()) {
+
+                delimiter = matcher.group(1);
+                resetQuery();
+                continue;
+            }
+
+            DerivedQuery derivedQuery = new DerivedQuery(query.toString());
+            derivedQuery.setQueryWithoutComments(noComments);
+            resetQuery();
+
+            return derivedQuery;
+        }
+
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        reader.close();
+    }
+
+    private void resetQuery() {
+
+        query.setLength(0);
+        queryWithoutComments.setLength(0);
+        word.setLength(0);
+        blockDepth = 0;
+        inDeclareClause = false;
+        queryStarted = false;
+    }
+
+    /**
+     * Reads the characters of the current query up to the delimiter.
+     *
+     * @return true if the delimiter was found, false at the end of the script
+     */
+    private boolean readQuery() throws IOException {
+
+        boolean defaultDelimiter = DEFAULT_DELIMITER.equals(delimiter);
+
+        int c;
+        while ((c = peek(0)) != -1) {
+
+            char ch = (char) c;
+            if (isWordPart(ch)) {
+
+                if (word.length() == 0 && (ch == 'q' || ch == 'Q') && peek(1) == '\'') {
+
+                    readAlternativeQuotedString();
+                    continue;
+                }
+
+                word.append(ch);
+                append(ch);
+                position++;
+                continue;
+            }
+
+            if (word.length() > 0) {
+
+                wordRead();
+            }
+
+            if (ch == '\'' || ch == '"') {
+
+                readQuoted(ch);
+
+            } else if (ch == '-' && peek(1) == '-') {
+
+                readSingleLineComment();
+
+            } else if (ch == '/' && peek(1) == '*') {
+
+                readMultiLineComment();
+
+            } else if (startsWithDelimiter()) {
+
+                position += delimiter.length();
+                if (defaultDelimiter && (blockDepth > 0 || inDeclareClause)) {
+
+                    // ';' terminates a statement within a block or a declaration
+                    appendDelimiter();
+                    inDeclareClause = false;
+                    continue;
+                }
+
+                return true;
+
+            } else {
+
+                append(ch);
+                position++;
+            }
+
+        }
+
+        if (word.length() > 0) {
+
+            wordRead();
+        }
+
+        return false;
+    }
+
+    private void wordRead() {
+
+        if (DEFAULT_DELIMITER.equals(delimiter)) {
+
+            if (equalsWord("begin") || equalsWord("case")) {
+
+                blockDepth++;
+
+            } else if (equalsWord("end") && blockDepth > 0) {
+
+                blockDepth--;
+
+            } else if (queryStarted && blockDepth == 0 && equalsWord("declare")) {
+
+                // a leading DECLARE is a statement (DECLARE EXTERNAL FUNCTION, ...)
+                inDeclareClause = true;
+            }
+
+        }
+
+        queryStarted = true;
+        word.setLength(0);
+    }
+
+    private boolean equalsWord(String keyword) {
+
+        int length = keyword.length();
+        if (word.length() != length) {
+
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+
+            if (Character.toLowerCase(word.charAt(i)) != keyword.charAt(i)) {
+
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    private void readQuoted(char quote) throws IOException {
+
+        append(quote);
+        position++;
+        queryStarted = true;
+
+        int c;
+        while ((c = peek(0)) != -1) {
+
+            append((char) c);
+            position++;
+
+            // a doubled quote is read as two adjacent quoted parts
+            if (c == quote) {
+
+                return;
+            }
+
+        }
+
+    }
+
+    private void readAlternativeQuotedString() throws IOException {
+
+        // q'<start> ... <end>'
+        append((char) peek(0));
+        append('\'');
+        position += 2;
+        queryStarted = true;
+
+        int start = peek(0);
+        if (start == -1) {
+
+            return;
+        }
+
+        char end = closingQuoteCharacter((char) start);
+        append((char) start);
+        position++;
+
+        int c;
+        while ((c = peek(0)) != -1) {
+
+            append((char) c);
+            position++;
+
+            if (c == end && peek(0) == '\'') {
+
+                append('\'');
+                position++;
+                return;
+            }
+
+        }
+
+    }
+
+    private char closingQuoteCharacter(char start) {
+
+        switch (start) {
+            case '(':
+                return ')';
+            case '[':
+                return ']';
+            case '{':
+                return '}';
+            case '<':
+                return '>';
+            default:
+                return start;
+        }
+    }
+
+    private void readSingleLineComment() throws IOException {
+
+        int c;
+        while ((c = peek(0)) != -1 && c != '\n' && c != '\r') {
+
+            query.append((char) c);
+            position++;
+        }
+
+    }
+
+    private void readMultiLineComment() throws IOException {
+
+        query.append("/*");
+        position += 2;
+
+        int c;
+        while ((c = peek(0)) != -1) {
+
+            query.append((char) c);
+            position++;
+
+            if (c == '*' && peek(0) == '/') {
+
+                query.append('/');
+                position++;
+                break;
+            }
+
+        }
+
+        // keep the tokens around the comment apart
+        queryWithoutComments.append(' ');
+    }
+
+    private boolean startsWithDelimiter() throws IOException {
+
+        for (int i = 0, n = delimiter.length(); i < n; i++) {
+
+            if (peek(i) != delimiter.charAt(i)) {
+
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    private void append(char c) {
+
+        query.append(c);
+        queryWithoutComments.append(c);
+    }
+
+    private void appendDelimiter() {
+
+        query.append(delimiter);
+        queryWithoutComments.append(delimiter);
+    }
+
+    private boolean isWordPart(char c) {
+
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * Returns the character at the specified offset from the cursor
+     * without moving it, or -1 if the script ends before.
+     */
+    private int peek(int offset) throws IOException {
+
+        if (position + offset >= limit && !fill(offset + 1)) {
+
+            return -1;
+        }
+
+        return buffer[position + offset];
+    }
+
+    private boolean fill(int required) throws IOException {
+
+        if (endOfStream) {
+
+            return false;
+        }
+
+        if (position > 0) {
+
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        while (limit < required) {
+
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+
+                endOfStream = true;
+                return false;
+            }
+
+            limit += read;
+        }
+
+        return true;
+    }
+
+}
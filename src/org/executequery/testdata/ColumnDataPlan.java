@@ -0,0 +1,58 @@
+package org.executequery.testdata;
+
+/**
+ * A column of a planned table and the generator of its values.
+ */
+public class ColumnDataPlan {
+
+    private final TableDataPlan table;
+
+    private final String name;
+
+    private final ColumnGenerator generator;
+
+    private final boolean blob;
+
+    private final long seed;
+
+    ColumnDataPlan(TableDataPlan table, String name, ColumnGenerator generator, boolean blob, long planSeed) {
+
+        this.table = table;
+        this.name = name;
+        this.generator = generator;
+        this.blob = blob;
+        this.seed = SeededRandom.seed(planSeed, (table.getName() + "." + name).hashCode());
+    }
+
+    public TableDataPlan getTable() {
+
+        return table;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public ColumnGenerator getGenerator() {
+
+        return generator;
+    }
+
+    /**
+     * Returns whether values are loaded as blobs.
+     */
+    public boolean isBlob() {
+
+        return blob;
+    }
+
+    /**
+     * Returns the seed of the value of the specified row.
+     */
+    long seed(long row) {
+
+        return SeededRandom.seed(seed, row);
+    }
+
+}
@@ -0,0 +1,391 @@
+package org.executequery.testdata;
+
+import org.underworldlabs.jdbc.DataSourceException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the values of a column.
+ * <p/>
+ * A generator is a function of the row number and a random source seeded
+ * for the row and column, so it may be called for any row on any thread
+ * and returns the same value for the same seed.
+ */
+public abstract class ColumnGenerator {
+
+    /**
+     * the most values read from a table not generated
+     */
+    public static final int MAX_REFERENCED_VALUES = 1000000;
+
+    /**
+     * Returns the value of the specified row.
+     *
+     * @param row    the row number from 0
+     * @param random the random source seeded for the row and column
+     */
+    public abstract Object generate(long row, SeededRandom random);
+
+    /**
+     * Reads what the generator needs from the database before the first
+     * value of the table is generated.
+     */
+    void prepare(Connection connection) throws SQLException {
+    }
+
+    /**
+     * Returns the planned table the values are taken from, null if none.
+     */
+    TableDataPlan getReferencedTable() {
+
+        return null;
+    }
+
+    // random values
+
+    public static ColumnGenerator numbers(final String type, final long min, final long max) {
+
+        checkRange(min <= max);
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                return integer(type, random.nextLong(min, max));
+            }
+        };
+    }
+
+    public static ColumnGenerator decimals(final double min, final double max, int scale) {
+
+        checkRange(min <= max);
+        final double power = Math.pow(10, scale);
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                return Math.round((min + random.nextDouble() * (max - min)) * power) / power;
+            }
+        };
+    }
+
+    public static ColumnGenerator dates(LocalDate min, LocalDate max) {
+
+        final long minDay = min.toEpochDay();
+        final long maxDay = max.toEpochDay();
+        checkRange(minDay <= maxDay);
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                return Date.valueOf(LocalDate.ofEpochDay(random.nextLong(minDay, maxDay)));
+            }
+        };
+    }
+
+    public static ColumnGenerator times(LocalTime min, LocalTime max) {
+
+        final long minNanos = min.toNanoOfDay();
+        final long maxNanos = max.toNanoOfDay();
+        checkRange(minNanos <= maxNanos);
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                return Time.valueOf(LocalTime.ofNanoOfDay(random.nextLong(minNanos, maxNanos)));
+            }
+        };
+    }
+
+    public static ColumnGenerator timestamps(LocalDateTime min, LocalDateTime max) {
+
+        final long minMillis = Timestamp.valueOf(min).getTime();
+        final long maxMillis = Timestamp.valueOf(max).getTime();
+        checkRange(minMillis <= maxMillis);
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                return new Timestamp(random.nextLong(minMillis, maxMillis));
+            }
+        };
+    }
+
+    /**
+     * Returns strings of the specified symbols, the printable
+     * ASCII characters if null or empty.
+     */
+    public static ColumnGenerator strings(final int minLength, final int maxLength, String symbols) {
+
+        checkRange(minLength <= maxLength);
+        if (symbols == null || symbols.length() == 0) {
+
+            StringBuilder sb = new StringBuilder();
+            for (char c = ' '; c < 127; c++) {
+
+                sb.append(c);
+            }
+            symbols = sb.toString();
+        }
+
+        final char[] chars = symbols.toCharArray();
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                char[] value = new char[(int) random.nextLong(minLength, maxLength)];
+                for (int i = 0; i < value.length; i++) {
+                    value[i] = chars[random.nextInt(chars.length)];
+                }
+                return new String(value);
+            }
+        };
+    }
+
+    public static ColumnGenerator bytes(final int minLength, final int maxLength, final int minByte, final int maxByte) {
+
+        checkRange(minLength <= maxLength && minByte <= maxByte);
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                byte[] value = new byte[(int) random.nextLong(minLength, maxLength)];
+                for (int i = 0; i < value.length; i++) {
+                    value[i] = (byte) random.nextLong(minByte, maxByte);
+                }
+                return value;
+            }
+        };
+    }
+
+    public static ColumnGenerator booleans() {
+
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                return random.nextBoolean();
+            }
+        };
+    }
+
+    // sequences
+
+    public static ColumnGenerator sequence(final String type, final long start, final long step) {
+
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                return integer(type, start + row * step);
+            }
+        };
+    }
+
+    public static ColumnGenerator sequence(final double start, final double step) {
+
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                return start + row * step;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of dates, times or timestamps as the specified
+     * type adding the period and duration for each row.
+     */
+    public static ColumnGenerator sequence(final String type, final LocalDateTime start,
+                                           final Period period, final Duration duration) {
+
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom random) {
+                LocalDateTime value = start
+                        .plusYears(period.getYears() * row)
+                        .plusMonths(period.getMonths() * row)
+                        .plusDays(period.getDays() * row)
+                        .plus(duration.multipliedBy(row));
+                if (type.contentEquals("DATE")) {
+                    return Date.valueOf(value.toLocalDate());
+                }
+                if (type.contentEquals("TIME")) {
+                    return Time.valueOf(value.toLocalTime());
+                }
+                return Timestamp.valueOf(value);
+            }
+        };
+    }
+
+    // lists
+
+    /**
+     * Returns the specified values in order or at random.
+     */
+    public static ColumnGenerator list(final Object[] values, final boolean random) {
+
+        if (values.length == 0) {
+
+            throw new DataSourceException("The list of values is empty.");
+        }
+
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom seeded) {
+                return values[random ? seeded.nextInt(values.length) : (int) (row % values.length)];
+            }
+        };
+    }
+
+    /**
+     * Returns the contents of the specified files in order or at random.
+     */
+    public static ColumnGenerator files(final File[] files, final boolean random) {
+
+        if (files.length == 0) {
+
+            throw new DataSourceException("The list of files is empty.");
+        }
+
+        return new ColumnGenerator() {
+            public Object generate(long row, SeededRandom seeded) {
+                File file = files[random ? seeded.nextInt(files.length) : (int) (row % files.length)];
+                try {
+                    return Files.readAllBytes(file.toPath());
+                } catch (IOException e) {
+                    throw new DataSourceException(e);
+                }
+            }
+        };
+    }
+
+    // references
+
+    /**
+     * Returns values of the specified column of a planned table - the
+     * values the column is generated with for its rows.
+     */
+    public static ColumnGenerator reference(final ColumnDataPlan column) {
+
+        return reference(column, null);
+    }
+
+    /**
+     * Returns values of the specified column of a planned table, the
+     * referenced row chosen by the key so the columns of a key with the
+     * same value take their values from the same row.
+     */
+    public static ColumnGenerator reference(final ColumnDataPlan column, final Long key) {
+
+        return new ColumnGenerator() {
+
+            private final ThreadLocal<SeededRandom> columnRandom = new ThreadLocal<SeededRandom>() {
+                protected SeededRandom initialValue() {
+                    return new SeededRandom();
+                }
+            };
+
+            public Object generate(long row, SeededRandom random) {
+                SeededRandom referencedRandom = columnRandom.get();
+                if (key != null) {
+                    referencedRandom.reset(SeededRandom.seed(key, row));
+                    random = referencedRandom;
+                }
+                long referencedRow = random.nextLong(0, column.getTable().getRowCount() - 1);
+                referencedRandom.reset(column.seed(referencedRow));
+                return column.getGenerator().generate(referencedRow, referencedRandom);
+            }
+
+            TableDataPlan getReferencedTable() {
+                return column.getTable();
+            }
+
+        };
+    }
+
+    /**
+     * Returns values read from the specified column of a table not
+     * generated, at most the specified number of values.
+     */
+    public static ColumnGenerator reference(final String table, final String column, int maxValues) {
+
+        final int count = Math.max(1, Math.min(maxValues, MAX_REFERENCED_VALUES));
+        return new ColumnGenerator() {
+
+            private Object[] values;
+
+            void prepare(Connection connection) throws SQLException {
+
+                List<Object> read = new ArrayList<Object>();
+                Statement statement = connection.createStatement();
+                try {
+
+                    statement.setMaxRows(count);
+                    ResultSet rs = statement.executeQuery("select first " + count + " \"" + column
+                            + "\" from \"" + table + "\" where \"" + column + "\" is not null");
+                    while (rs.next() && read.size() < count) {
+                        read.add(rs.getObject(1));
+                    }
+                    rs.close();
+
+                } finally {
+                    statement.close();
+                }
+
+                if (read.isEmpty()) {
+                    throw new DataSourceException("There are no values in " + table + "." + column);
+                }
+                values = read.toArray();
+            }
+
+            public Object generate(long row, SeededRandom random) {
+                return values[random.nextInt(values.length)];
+            }
+
+        };
+    }
+
+    /**
+     * Returns null for the specified share of the rows.
+     */
+    public static ColumnGenerator nullable(final ColumnGenerator generator, final double nullRatio) {
+
+        return new ColumnGenerator() {
+
+            public Object generate(long row, SeededRandom random) {
+                if (random.nextDouble() < nullRatio) {
+                    return null;
+                }
+                return generator.generate(row, random);
+            }
+
+            void prepare(Connection connection) throws SQLException {
+                generator.prepare(connection);
+            }
+
+            TableDataPlan getReferencedTable() {
+                return generator.getReferencedTable();
+            }
+
+        };
+    }
+
+    private static Object integer(String type, long value) {
+
+        if (type.contentEquals("SMALLINT")) {
+
+            return (short) value;
+
+        } else if (type.contentEquals("INTEGER")) {
+
+            return (int) value;
+        }
+
+        return value;
+    }
+
+    private static void checkRange(boolean valid) {
+
+        if (!valid) {
+
+            throw new DataSourceException("minimum greater than maximum");
+        }
+
+    }
+
+}
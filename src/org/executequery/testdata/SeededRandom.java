@@ -0,0 +1,93 @@
+package org.executequery.testdata;
+
+/**
+ * A random source reseeded for each value generated - the SplitMix64
+ * sequence, so the value of a row and column depends only on its seed
+ * and not on the thread or order it is generated in.
+ */
+public final class SeededRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public SeededRandom() {
+
+        this(0);
+    }
+
+    public SeededRandom(long seed) {
+
+        state = seed;
+    }
+
+    public void reset(long seed) {
+
+        state = seed;
+    }
+
+    public long nextLong() {
+
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Returns a value between the specified bounds inclusive.
+     */
+    public long nextLong(long min, long max) {
+
+        if (min > max) {
+
+            throw new IllegalArgumentException("minimum " + min + " greater than maximum " + max);
+        }
+
+        long range = max - min + 1;
+        if (range > 0) {
+
+            return min + Math.floorMod(nextLong(), range);
+        }
+
+        // the range overflows a long
+        long value = nextLong();
+        while (value < min || value > max) {
+
+            value = nextLong();
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns a value from 0 inclusive to the specified bound exclusive.
+     */
+    public int nextInt(int bound) {
+
+        return (int) Math.floorMod(nextLong(), (long) bound);
+    }
+
+    public double nextDouble() {
+
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public boolean nextBoolean() {
+
+        return nextLong() < 0;
+    }
+
+    /**
+     * Returns the seed of the value identified by the two specified values.
+     */
+    public static long seed(long seed, long value) {
+
+        return mix(seed ^ mix(value + GOLDEN_GAMMA));
+    }
+
+    private static long mix(long z) {
+
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
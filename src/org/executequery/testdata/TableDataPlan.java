@@ -0,0 +1,111 @@
+package org.executequery.testdata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A table of a test data plan - the number of rows to insert
+ * and the columns to generate.
+ */
+public class TableDataPlan {
+
+    private final TestDataPlan plan;
+
+    private final String name;
+
+    private final long rowCount;
+
+    private final List<ColumnDataPlan> columns = new ArrayList<ColumnDataPlan>();
+
+    private final Set<TableDataPlan> dependencies = new LinkedHashSet<TableDataPlan>();
+
+    TableDataPlan(TestDataPlan plan, String name, long rowCount) {
+
+        this.plan = plan;
+        this.name = name;
+        this.rowCount = rowCount;
+    }
+
+    public ColumnDataPlan addColumn(String column, ColumnGenerator generator) {
+
+        return addColumn(column, generator, false);
+    }
+
+    public ColumnDataPlan addColumn(String column, ColumnGenerator generator, boolean blob) {
+
+        ColumnDataPlan columnPlan = new ColumnDataPlan(this, column, generator, blob, plan.getSeed());
+        columns.add(columnPlan);
+
+        TableDataPlan referenced = generator.getReferencedTable();
+        if (referenced != null && referenced != this) {
+
+            dependsOn(referenced);
+        }
+
+        return columnPlan;
+    }
+
+    /**
+     * Loads this table after the specified one.
+     */
+    public void dependsOn(TableDataPlan table) {
+
+        dependencies.add(table);
+    }
+
+    public ColumnDataPlan getColumn(String column) {
+
+        for (ColumnDataPlan columnPlan : columns) {
+
+            if (columnPlan.getName().contentEquals(column)) {
+
+                return columnPlan;
+            }
+
+        }
+
+        return null;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public long getRowCount() {
+
+        return rowCount;
+    }
+
+    public List<ColumnDataPlan> getColumns() {
+
+        return Collections.unmodifiableList(columns);
+    }
+
+    Set<TableDataPlan> getDependencies() {
+
+        return dependencies;
+    }
+
+    public String getInsertSQL() {
+
+        StringBuilder sql = new StringBuilder("INSERT INTO \"").append(name).append("\" (");
+        StringBuilder values = new StringBuilder(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+
+            if (i > 0) {
+
+                sql.append(",");
+                values.append(",");
+            }
+            sql.append("\"").append(columns.get(i).getName()).append("\"");
+            values.append("?");
+        }
+
+        return sql.append(values).append(")").toString();
+    }
+
+}
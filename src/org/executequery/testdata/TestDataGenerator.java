@@ -0,0 +1,701 @@
+package org.executequery.testdata;
+
+import biz.redsoft.IFBBatch;
+import biz.redsoft.IFBBatchCompletionState;
+import biz.redsoft.IFBDatabaseConnection;
+import org.executequery.databasemediators.DatabaseConnection;
+import org.executequery.datasource.ConnectionManager;
+import org.executequery.log.Log;
+import org.underworldlabs.jdbc.DataSourceException;
+import org.underworldlabs.util.DynamicLibraryLoader;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the tables of a test data plan.
+ * <p/>
+ * The tables are loaded level by level in the order of their
+ * dependencies, the tables of a level at the same time, each over its
+ * own connection. The rows of a table are generated in blocks of a batch
+ * on a pool of threads shared by the tables and inserted in order as
+ * batches, through the Firebird batch API where the driver supports it.
+ */
+public class TestDataGenerator {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    public static final int DEFAULT_COMMIT_SIZE = 100000;
+
+    /**
+     * the state of a failed row in a batch completion state
+     */
+    private static final int BATCH_EXECUTE_FAILED = -1;
+
+    /**
+     * Receives the progress of the generation, called on the loading threads.
+     */
+    public interface Listener {
+
+        void tableStarted(TableDataPlan table);
+
+        /**
+         * @param inserted the rows of the table executed so far
+         * @param failed   the rows of the table failed so far
+         */
+        void rowsInserted(TableDataPlan table, long inserted, long failed);
+
+        /**
+         * Receives the states of each batch executed when printed.
+         */
+        void batchExecuted(TableDataPlan table, String states);
+
+        /**
+         * @param inserted the rows of the table committed
+         * @param failed   the rows of the table failed
+         */
+        void tableFinished(TableDataPlan table, long inserted, long failed, long millis);
+
+    }
+
+    private final DatabaseConnection databaseConnection;
+
+    private final TestDataPlan plan;
+
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private int commitSize = DEFAULT_COMMIT_SIZE;
+
+    private boolean useBatchAPI = true;
+
+    private boolean stopOnError;
+
+    private boolean printBatchStates;
+
+    private Listener listener;
+
+    private ExecutorService generators;
+
+    private volatile boolean stopped;
+
+    private volatile boolean cancelled;
+
+    public TestDataGenerator(DatabaseConnection databaseConnection, TestDataPlan plan) {
+
+        this.databaseConnection = databaseConnection;
+        this.plan = plan;
+    }
+
+    /**
+     * Sets the number of threads generating values.
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Sets the number of rows after which each table commits its
+     * transaction, 0 or less to commit at the end of the table only.
+     */
+    public void setCommitSize(int commitSize) {
+        this.commitSize = commitSize;
+    }
+
+    /**
+     * Sets whether rows are inserted through the Firebird batch API when
+     * the driver supports it or through JDBC batches only.
+     */
+    public void setUseBatchAPI(boolean useBatchAPI) {
+        this.useBatchAPI = useBatchAPI;
+    }
+
+    public void setStopOnError(boolean stopOnError) {
+        this.stopOnError = stopOnError;
+    }
+
+    /**
+     * Sets whether the states of each Firebird batch are
+     * printed to the listener.
+     */
+    public void setPrintBatchStates(boolean printBatchStates) {
+        this.printBatchStates = printBatchStates;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops the generation, the rows of each table since its
+     * last commit are not inserted.
+     */
+    public void cancel() {
+        cancelled = true;
+        stopped = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Fills the tables of the plan.
+     */
+    public void run() throws Exception {
+
+        stopped = false;
+        cancelled = false;
+        List<List<TableDataPlan>> levels = plan.getLevels();
+
+        generators = Executors.newFixedThreadPool(threadCount, threadFactory("TestDataGenerator"));
+        ExecutorService loaders = Executors.newCachedThreadPool(threadFactory("TestDataLoader"));
+        try {
+
+            for (List<TableDataPlan> level : levels) {
+
+                List<Future<Void>> futures = new ArrayList<Future<Void>>();
+                for (TableDataPlan table : level) {
+
+                    futures.add(loaders.submit(new TableLoader(table)));
+                }
+
+                for (Future<Void> future : futures) {
+
+                    try {
+
+                        future.get();
+
+                    } catch (ExecutionException e) {
+
+                        stopped = true;
+                        Throwable cause = e.getCause();
+                        throw (cause instanceof Exception) ? (Exception) cause : e;
+                    }
+
+                }
+
+                if (stopped) {
+
+                    break;
+                }
+
+            }
+
+        } finally {
+
+            // the loaders roll back and close their connections when stopped
+            stopped = true;
+            loaders.shutdownNow();
+            generators.shutdownNow();
+            if (!loaders.awaitTermination(30, TimeUnit.SECONDS)) {
+
+                Log.warning("Test data loading threads did not stop in time");
+            }
+
+        }
+
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+
+        return new ThreadFactory() {
+
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+
+        };
+    }
+
+    /**
+     * Generates the values of a block of rows.
+     */
+    private static final class BlockGenerator implements Callable<Object[][]> {
+
+        private final List<ColumnDataPlan> columns;
+
+        private final long firstRow;
+
+        private final int rowCount;
+
+        BlockGenerator(List<ColumnDataPlan> columns, long firstRow, int rowCount) {
+
+            this.columns = columns;
+            this.firstRow = firstRow;
+            this.rowCount = rowCount;
+        }
+
+        @Override
+        public Object[][] call() {
+
+            SeededRandom random = new SeededRandom();
+            Object[][] rows = new Object[rowCount][columns.size()];
+            for (int i = 0; i < rowCount; i++) {
+
+                long row = firstRow + i;
+                for (int c = 0, n = columns.size(); c < n; c++) {
+
+                    ColumnDataPlan column = columns.get(c);
+                    random.reset(column.seed(row));
+                    rows[i][c] = column.getGenerator().generate(row, random);
+                }
+
+            }
+
+            return rows;
+        }
+
+    }
+
+    private final class TableLoader implements Callable<Void> {
+
+        private final TableDataPlan table;
+
+        private final List<ColumnDataPlan> columns;
+
+        TableLoader(TableDataPlan table) {
+
+            this.table = table;
+            this.columns = table.getColumns();
+        }
+
+        @Override
+        public Void call() throws Exception {
+
+            long startTime = System.currentTimeMillis();
+            if (listener != null) {
+
+                listener.tableStarted(table);
+            }
+
+            Connection connection = null;
+            RowSink sink = null;
+            boolean completed = false;
+            ArrayDeque<Future<Object[][]>> blocks = new ArrayDeque<Future<Object[][]>>();
+
+            long inserted = 0;
+            long committed = 0;
+            long failed = 0;
+            try {
+
+                if (columns.isEmpty()) {
+
+                    throw new DataSourceException("no columns planned for table " + table.getName());
+                }
+
+                connection = ConnectionManager.getTemporaryConnection(databaseConnection);
+                connection.setAutoCommit(false);
+                for (ColumnDataPlan column : columns) {
+
+                    column.getGenerator().prepare(connection);
+                }
+                sink = createSink(connection);
+
+                // generate a few blocks ahead of the one inserted
+                int window = threadCount * 2;
+                long nextRow = 0;
+                long insertedRow = 0;
+                long uncommitted = 0;
+                while (!stopped) {
+
+                    while (blocks.size() < window && nextRow < table.getRowCount()) {
+
+                        int size = (int) Math.min(batchSize, table.getRowCount() - nextRow);
+                        blocks.add(generators.submit(new BlockGenerator(columns, nextRow, size)));
+                        nextRow += size;
+                    }
+
+                    Future<Object[][]> block = blocks.poll();
+                    if (block == null) {
+
+                        break;
+                    }
+
+                    Object[][] rows = get(block);
+                    for (Object[] row : rows) {
+
+                        for (int c = 0; c < row.length; c++) {
+
+                            sink.setValue(c + 1, row[c], columns.get(c).isBlob());
+                        }
+                        sink.addRow();
+                    }
+
+                    int blockFailed = sink.execute(rows.length);
+                    if (listener != null && sink.getStates() != null) {
+
+                        listener.batchExecuted(table, sink.getStates());
+                    }
+
+                    inserted += rows.length - blockFailed;
+                    failed += blockFailed;
+                    if (blockFailed > 0 && stopOnError) {
+
+                        throw new DataSourceException(blockFailed + " rows of table " + table.getName()
+                                + " failed to insert from row " + insertedRow);
+                    }
+
+                    insertedRow += rows.length;
+                    uncommitted += rows.length;
+                    if (commitSize > 0 && uncommitted >= commitSize && insertedRow < table.getRowCount()) {
+
+                        sink.commit(false);
+                        committed = inserted;
+                        uncommitted = 0;
+                    }
+
+                    if (listener != null) {
+
+                        listener.rowsInserted(table, inserted, failed);
+                    }
+
+                }
+
+                if (!stopped) {
+
+                    sink.commit(true);
+                    committed = inserted;
+                    completed = true;
+                }
+
+            } catch (Exception e) {
+
+                // the other tables of the level would be loaded in vain
+                stopped = true;
+                throw e;
+
+            } finally {
+
+                for (Future<Object[][]> block : blocks) {
+
+                    block.cancel(true);
+                }
+
+                if (connection != null) {
+
+                    if (!completed) {
+
+                        try {
+
+                            if (sink != null) {
+
+                                sink.rollback();
+
+                            } else {
+
+                                connection.rollback();
+                            }
+
+                        } catch (SQLException e) {
+
+                            Log.error("Error rolling back the test data transaction", e);
+                        }
+
+                    }
+
+                    if (sink != null) {
+
+                        try {
+
+                            sink.close();
+
+                        } catch (SQLException e) {
+
+                            Log.error("Error closing the test data statement", e);
+                        }
+
+                    }
+
+                    ConnectionManager.close(databaseConnection, connection);
+                }
+
+                if (listener != null) {
+
+                    listener.tableFinished(table, committed, failed, System.currentTimeMillis() - startTime);
+                }
+
+            }
+
+            return null;
+        }
+
+        private Object[][] get(Future<Object[][]> block) throws Exception {
+
+            try {
+
+                return block.get();
+
+            } catch (ExecutionException e) {
+
+                Throwable cause = e.getCause();
+                throw (cause instanceof Exception) ? (Exception) cause : e;
+            }
+
+        }
+
+        private RowSink createSink(Connection connection) throws SQLException {
+
+            String sql = table.getInsertSQL();
+            Connection fbConnection = connection.unwrap(Connection.class);
+            if (useBatchAPI && fbConnection.getClass().getName().contains("FBConnection")) {
+
+                try {
+
+                    IFBDatabaseConnection db = (IFBDatabaseConnection) DynamicLibraryLoader
+                            .loadingObjectFromClassLoader(fbConnection, "FBDatabaseConnectionImpl4");
+                    db.setConnection(fbConnection);
+                    return new BatchSink(db.createBatch(sql), printBatchStates);
+
+                } catch (ClassNotFoundException e) {
+
+                    Log.warning("Firebird batch API not available, using JDBC batches: " + e.getMessage());
+                }
+
+            }
+
+            return new StatementSink(connection, connection.prepareStatement(sql));
+        }
+
+    }
+
+    /**
+     * Receives the rows of a table.
+     */
+    private interface RowSink {
+
+        void setValue(int index, Object value, boolean blob) throws SQLException;
+
+        void addRow() throws SQLException;
+
+        /**
+         * Executes the rows added since the last execution.
+         *
+         * @return the number of rows failed
+         */
+        int execute(int rowCount) throws SQLException;
+
+        /**
+         * Returns the printed states of the last execution, null if not printed.
+         */
+        String getStates();
+
+        /**
+         * Commits the rows executed, starting a new transaction unless last.
+         */
+        void commit(boolean last) throws SQLException;
+
+        void rollback() throws SQLException;
+
+        void close() throws SQLException;
+
+    }
+
+    private static final class BatchSink implements RowSink {
+
+        private final IFBBatch batch;
+
+        private final boolean printStates;
+
+        private String states;
+
+        BatchSink(IFBBatch batch, boolean printStates) {
+
+            this.batch = batch;
+            this.printStates = printStates;
+        }
+
+        @Override
+        public void setValue(int index, Object value, boolean blob) throws SQLException {
+
+            if (blob && value != null) {
+
+                byte[] bytes = (byte[]) value;
+                batch.addBlob(index, bytes.length == 0 ? new byte[1] : bytes);
+
+            } else {
+
+                batch.setObject(index, value);
+            }
+
+        }
+
+        @Override
+        public void addRow() throws SQLException {
+
+            batch.addBatch();
+        }
+
+        @Override
+        public int execute(int rowCount) throws SQLException {
+
+            IFBBatchCompletionState completionState = batch.execute();
+            if (printStates) {
+
+                states = completionState.printAllStates();
+            }
+
+            int failed = 0;
+            for (int state : completionState.getAllStates()) {
+
+                if (state == BATCH_EXECUTE_FAILED) {
+
+                    failed++;
+                }
+
+            }
+
+            return failed;
+        }
+
+        @Override
+        public String getStates() {
+
+            return states;
+        }
+
+        /**
+         * The batch runs in a transaction of its own rather than
+         * in the transaction of the connection.
+         */
+        @Override
+        public void commit(boolean last) throws SQLException {
+
+            batch.commit();
+            if (!last) {
+
+                batch.startTransaction();
+            }
+
+        }
+
+        @Override
+        public void rollback() throws SQLException {
+
+            batch.rollback();
+        }
+
+        @Override
+        public void close() throws SQLException {
+
+            try {
+
+                batch.cancel();
+
+            } finally {
+
+                batch.release();
+            }
+
+        }
+
+    }
+
+    private static final class StatementSink implements RowSink {
+
+        private final Connection connection;
+
+        private final PreparedStatement statement;
+
+        StatementSink(Connection connection, PreparedStatement statement) {
+
+            this.connection = connection;
+            this.statement = statement;
+        }
+
+        @Override
+        public void setValue(int index, Object value, boolean blob) throws SQLException {
+
+            statement.setObject(index, value);
+        }
+
+        @Override
+        public void addRow() throws SQLException {
+
+            statement.addBatch();
+        }
+
+        @Override
+        public int execute(int rowCount) throws SQLException {
+
+            try {
+
+                statement.executeBatch();
+                return 0;
+
+            } catch (BatchUpdateException e) {
+
+                // the rows after the failed one may not have been executed
+                int executed = 0;
+                int[] counts = e.getUpdateCounts();
+                if (counts != null) {
+
+                    for (int count : counts) {
+
+                        if (count != Statement.EXECUTE_FAILED) {
+
+                            executed++;
+                        }
+
+                    }
+
+                }
+
+                statement.clearBatch();
+                return rowCount - executed;
+            }
+
+        }
+
+        @Override
+        public String getStates() {
+
+            return null;
+        }
+
+        @Override
+        public void commit(boolean last) throws SQLException {
+
+            connection.commit();
+        }
+
+        @Override
+        public void rollback() throws SQLException {
+
+            connection.rollback();
+        }
+
+        @Override
+        public void close() throws SQLException {
+
+            statement.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.executequery.testdata;
+
+import org.underworldlabs.jdbc.DataSourceException;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The tables to fill with test data and the generators of their columns.
+ * <p/>
+ * Every value is generated from the seed of the plan, the table, column
+ * and row, so a plan generates the same data each time it is run.
+ */
+public class TestDataPlan {
+
+    private static final String FOREIGN_KEYS_QUERY =
+            "select rc.RDB$CONSTRAINT_NAME, rc.RDB$RELATION_NAME, s.RDB$FIELD_NAME,\n" +
+                    "prc.RDB$RELATION_NAME, ps.RDB$FIELD_NAME\n" +
+                    "from RDB$RELATION_CONSTRAINTS rc\n" +
+                    "join RDB$REF_CONSTRAINTS ref on ref.RDB$CONSTRAINT_NAME = rc.RDB$CONSTRAINT_NAME\n" +
+                    "join RDB$RELATION_CONSTRAINTS prc on prc.RDB$CONSTRAINT_NAME = ref.RDB$CONST_NAME_UQ\n" +
+                    "join RDB$INDEX_SEGMENTS s on s.RDB$INDEX_NAME = rc.RDB$INDEX_NAME\n" +
+                    "join RDB$INDEX_SEGMENTS ps on ps.RDB$INDEX_NAME = prc.RDB$INDEX_NAME\n" +
+                    "and ps.RDB$FIELD_POSITION = s.RDB$FIELD_POSITION\n" +
+                    "where rc.RDB$CONSTRAINT_TYPE = 'FOREIGN KEY'";
+
+    private final long seed;
+
+    private final Map<String, TableDataPlan> tables = new LinkedHashMap<String, TableDataPlan>();
+
+    public TestDataPlan(long seed) {
+
+        this.seed = seed;
+    }
+
+    public TableDataPlan addTable(String table, long rowCount) {
+
+        if (rowCount <= 0) {
+
+            throw new DataSourceException("The number of rows of table " + table + " must be greater than zero");
+        }
+
+        if (tables.containsKey(table)) {
+
+            throw new DataSourceException("Table " + table + " is already planned");
+        }
+
+        TableDataPlan tablePlan = new TableDataPlan(this, table, rowCount);
+        tables.put(table, tablePlan);
+        return tablePlan;
+    }
+
+    public TableDataPlan getTable(String table) {
+
+        return tables.get(table);
+    }
+
+    public List<TableDataPlan> getTables() {
+
+        return new ArrayList<TableDataPlan>(tables.values());
+    }
+
+    public long getSeed() {
+
+        return seed;
+    }
+
+    /**
+     * Reads the foreign keys between the planned tables, loading each
+     * referencing table after the referenced one and generating the
+     * referencing columns not planned from the referenced columns.
+     */
+    public void addForeignKeys(Connection connection) throws SQLException {
+
+        Statement statement = connection.createStatement();
+        try {
+
+            ResultSet rs = statement.executeQuery(FOREIGN_KEYS_QUERY);
+            while (rs.next()) {
+
+                String constraint = rs.getString(1).trim();
+                TableDataPlan table = tables.get(rs.getString(2).trim());
+                String column = rs.getString(3).trim();
+                TableDataPlan referenced = tables.get(rs.getString(4).trim());
+                String referencedColumn = rs.getString(5).trim();
+
+                if (table == null || referenced == null || table == referenced) {
+
+                    continue;
+                }
+
+                table.dependsOn(referenced);
+                ColumnDataPlan referencedPlan = referenced.getColumn(referencedColumn);
+                if (table.getColumn(column) == null && referencedPlan != null) {
+
+                    long key = SeededRandom.seed(seed, (table.getName() + "." + constraint).hashCode());
+                    table.addColumn(column, ColumnGenerator.reference(referencedPlan, key), referencedPlan.isBlob());
+                }
+
+            }
+            rs.close();
+
+        } finally {
+
+            statement.close();
+        }
+
+    }
+
+    /**
+     * Returns the tables in the order they are loaded - each level
+     * holding the tables depending only on those of earlier levels.
+     */
+    public List<List<TableDataPlan>> getLevels() {
+
+        List<List<TableDataPlan>> levels = new ArrayList<List<TableDataPlan>>();
+        List<TableDataPlan> remaining = new ArrayList<TableDataPlan>(tables.values());
+        List<TableDataPlan> loaded = new ArrayList<TableDataPlan>();
+
+        while (!remaining.isEmpty()) {
+
+            List<TableDataPlan> level = new ArrayList<TableDataPlan>();
+            for (TableDataPlan table : remaining) {
+
+                if (loaded.containsAll(table.getDependencies())) {
+
+                    level.add(table);
+                }
+
+            }
+
+            if (level.isEmpty()) {
+
+                List<String> names = new ArrayList<String>();
+                for (TableDataPlan table : remaining) {
+
+                    names.add(table.getName());
+                }
+                throw new DataSourceException("Cyclic dependencies between tables " + names);
+            }
+
+            remaining.removeAll(level);
+            loaded.addAll(level);
+            levels.add(Collections.unmodifiableList(level));
+        }
+
+        return levels;
+    }
+
+}
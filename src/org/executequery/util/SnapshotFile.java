@@ -0,0 +1,137 @@
+package org.executequery.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The gzipped binary file format of the schema snapshots - a magic
+ * number and version followed by the contents written by the caller.
+ * <p/>
+ * A file is written to a temporary file first and moved over the
+ * previous one, so an interrupted write never leaves a truncated file.
+ */
+public final class SnapshotFile {
+
+    /**
+     * Writes the contents of a snapshot file.
+     */
+    public interface Contents {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes the specified contents with the magic number and version
+     * to the specified file, replacing it if it exists.
+     */
+    public static void write(File file, int magic, int version, Contents contents) throws IOException {
+
+        File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        try {
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(temp))));
+            try {
+
+                out.writeInt(magic);
+                out.writeInt(version);
+                contents.write(out);
+
+            } finally {
+
+                out.close();
+            }
+
+            try {
+
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            } catch (AtomicMoveNotSupportedException e) {
+
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } finally {
+
+            temp.delete();
+        }
+
+    }
+
+    /**
+     * Opens the specified file to read the contents following the
+     * magic number and version.
+     *
+     * @throws IOException if the file is not of the specified magic number and version
+     */
+    public static DataInputStream open(File file, int magic, int version) throws IOException {
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))));
+        try {
+
+            if (in.readInt() != magic || in.readInt() != version) {
+
+                throw new IOException("Not a snapshot of this version: " + file);
+            }
+
+            return in;
+
+        } catch (IOException e) {
+
+            in.close();
+            throw e;
+        }
+
+    }
+
+    /**
+     * Reads a string written by {@link #writeString} - sources may be
+     * longer than <code>writeUTF</code> allows.
+     */
+    public static String readString(DataInputStream in) throws IOException {
+
+        int length = in.readInt();
+        if (length < 0) {
+
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the specified string, which may be null.
+     */
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+
+        if (value == null) {
+
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+}
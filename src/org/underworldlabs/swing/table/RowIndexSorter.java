@@ -0,0 +1,358 @@
+package org.underworldlabs.swing.table;
+
+import javax.swing.table.TableModel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sorts the row indexes of a table model by one or more columns.
+ * <p/>
+ * The values of each sorted column are read from the model once and
+ * replaced by their rank among the distinct values of the column - the
+ * numbers and dates with a radix sort of their primitive keys, the distinct
+ * strings with a parallel sort. The row indexes are then sorted by the ranks
+ * of the columns with a stable counting sort for each column, from the
+ * last sorted column to the first.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class RowIndexSorter {
+
+    private static final int RADIX_BITS = 16;
+
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private final int rowCount;
+
+    /**
+     * the ranks of each sorted column's values, 0 for null
+     */
+    private final int[][] ranks;
+
+    /**
+     * the highest rank of each sorted column
+     */
+    private final int[] rankCounts;
+
+    private final int[] directions;
+
+    /**
+     * Creates a sorter ranking the values of the specified columns.
+     *
+     * @param tableModel  the model sorted
+     * @param columns     the sorted columns in sorting order
+     * @param directions  the direction of each sorted column
+     * @param comparators the comparators by column class
+     */
+    RowIndexSorter(TableModel tableModel, int[] columns, int[] directions, Map comparators) {
+
+        this.directions = directions;
+
+        rowCount = tableModel.getRowCount();
+        ranks = new int[columns.length][];
+        rankCounts = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+
+            ranks[i] = new int[rowCount];
+            rankCounts[i] = rank(tableModel, columns[i], comparators, ranks[i]);
+        }
+
+    }
+
+    /**
+     * Returns the model row indexes in sorted order - rows with
+     * equal values keep their model order.
+     */
+    int[] sort() {
+
+        int[] rows = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+
+            rows[i] = i;
+        }
+
+        int[] buffer = new int[rowCount];
+        for (int i = ranks.length - 1; i >= 0; i--) {
+
+            countingSort(rows, buffer, ranks[i], rankCounts[i], directions[i] == TableSorter.DESCENDING);
+
+            int[] sorted = buffer;
+            buffer = rows;
+            rows = sorted;
+        }
+
+        return rows;
+    }
+
+    private void countingSort(int[] rows, int[] sorted, int[] rowRanks, int rankCount, boolean descending) {
+
+        int[] offsets = new int[rankCount + 2];
+        for (int row : rows) {
+
+            offsets[key(rowRanks[row], rankCount, descending) + 1]++;
+        }
+
+        for (int i = 1; i < offsets.length; i++) {
+
+            offsets[i] += offsets[i - 1];
+        }
+
+        for (int row : rows) {
+
+            sorted[offsets[key(rowRanks[row], rankCount, descending)]++] = row;
+        }
+
+    }
+
+    private static int key(int rank, int rankCount, boolean descending) {
+
+        return descending ? rankCount - rank : rank;
+    }
+
+    // ranks
+
+    /**
+     * Fills the specified array with the ranks of the column values,
+     * null values rank 0 - below any other value.
+     *
+     * @return the highest rank
+     */
+    private static int rank(TableModel tableModel, int column, Map comparators, int[] ranks) {
+
+        Object[] values = new Object[ranks.length];
+        for (int row = 0; row < values.length; row++) {
+
+            values[row] = valueToCompare(tableModel.getValueAt(row, column));
+        }
+
+        Class type = tableModel.getColumnClass(column);
+        Comparator comparator = (Comparator) comparators.get(type);
+        if (comparator != null) {
+
+            return rankObjects(values, comparator, ranks);
+        }
+
+        if (type == Date.class) {
+
+            long[] keys = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+
+                // values of another type are before any date
+                keys[i] = values[i] instanceof Date ? ((Date) values[i]).getTime() : -1;
+            }
+            return rankLongs(values, keys, ranks);
+
+        } else if (type == Boolean.class && allInstancesOf(values, Boolean.class)) {
+
+            long[] keys = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+
+                keys[i] = Boolean.TRUE.equals(values[i]) ? 1 : 0;
+            }
+            return rankLongs(values, keys, ranks);
+
+        } else if (type != String.class && allInstancesOf(values, Number.class)) {
+
+            long[] keys = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+
+                if (values[i] != null) {
+
+                    keys[i] = sortableBits(((Number) values[i]).doubleValue());
+                }
+
+            }
+            return rankLongs(values, keys, ranks);
+        }
+
+        return rankStrings(values, ranks);
+    }
+
+    /**
+     * Returns the bits of the specified double ordered as
+     * <code>Double.compare</code> orders the doubles.
+     */
+    private static long sortableBits(double value) {
+
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static int rankLongs(Object[] values, long[] keys, int[] ranks) {
+
+        int count = 0;
+        int[] rows = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+
+            if (values[i] != null) {
+
+                rows[count++] = i;
+            }
+
+        }
+
+        rows = radixSort(rows, count, keys);
+
+        int rank = 0;
+        for (int i = 0; i < count; i++) {
+
+            if (i == 0 || keys[rows[i - 1]] != keys[rows[i]]) {
+
+                rank++;
+            }
+            ranks[rows[i]] = rank;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Sorts the first rows of the specified array by their signed keys
+     * 16 bits at a time - a pass is skipped where all keys have the
+     * same bits.
+     *
+     * @return the array holding the sorted rows
+     */
+    private static int[] radixSort(int[] rows, int count, long[] keys) {
+
+        if (count == 0) {
+
+            return rows;
+        }
+
+        int[] buffer = new int[rows.length];
+        int[] offsets = new int[RADIX + 1];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < count; i++) {
+
+                offsets[digit(keys[rows[i]], shift) + 1]++;
+            }
+
+            if (offsets[digit(keys[rows[0]], shift) + 1] == count) {
+
+                continue;
+            }
+
+            for (int i = 1; i < offsets.length; i++) {
+
+                offsets[i] += offsets[i - 1];
+            }
+
+            for (int i = 0; i < count; i++) {
+
+                int row = rows[i];
+                buffer[offsets[digit(keys[row], shift)]++] = row;
+            }
+
+            int[] sorted = buffer;
+            buffer = rows;
+            rows = sorted;
+        }
+
+        return rows;
+    }
+
+    private static int digit(long key, int shift) {
+
+        // the sign bit flipped for the top digit to order negative keys first
+        return (int) (((key ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1));
+    }
+
+    private static int rankStrings(Object[] values, int[] ranks) {
+
+        // each row is first given the id of its distinct value
+        Map<String, Integer> ids = new HashMap<String, Integer>();
+        for (int i = 0; i < values.length; i++) {
+
+            if (values[i] != null) {
+
+                String value = values[i].toString();
+                Integer id = ids.get(value != null ? value : "");
+                if (id == null) {
+
+                    id = ids.size() + 1;
+                    ids.put(value != null ? value : "", id);
+                }
+                ranks[i] = id;
+            }
+
+        }
+
+        String[] distinct = ids.keySet().toArray(new String[ids.size()]);
+        Arrays.parallelSort(distinct);
+
+        int[] idRanks = new int[distinct.length + 1];
+        for (int i = 0; i < distinct.length; i++) {
+
+            idRanks[ids.get(distinct[i])] = i + 1;
+        }
+
+        for (int i = 0; i < ranks.length; i++) {
+
+            ranks[i] = idRanks[ranks[i]];
+        }
+
+        return distinct.length;
+    }
+
+    private static int rankObjects(final Object[] values, final Comparator comparator, int[] ranks) {
+
+        Integer[] rows = new Integer[values.length];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+
+            if (values[i] != null) {
+
+                rows[count++] = i;
+            }
+
+        }
+
+        Arrays.parallelSort(rows, 0, count, new Comparator<Integer>() {
+            public int compare(Integer row1, Integer row2) {
+                return comparator.compare(values[row1], values[row2]);
+            }
+        });
+
+        int rank = 0;
+        for (int i = 0; i < count; i++) {
+
+            if (i == 0 || comparator.compare(values[rows[i - 1]], values[rows[i]]) != 0) {
+
+                rank++;
+            }
+            ranks[rows[i]] = rank;
+        }
+
+        return rank;
+    }
+
+    private static Object valueToCompare(Object object) {
+
+        if (object instanceof TableCellValue) {
+
+            object = ((TableCellValue) object).getValue();
+        }
+
+        return object;
+    }
+
+    private static boolean allInstancesOf(Object[] values, Class type) {
+
+        for (Object value : values) {
+
+            if (value != null && !type.isInstance(value)) {
+
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+}
@@ -114,7 +114,7 @@ public class TableSorter extends AbstractTableModel {
         }
     };
 
-    private Row[] viewToModel;
+    private int[] viewToModel;
     private int[] modelToView;
 
     private JTableHeader tableHeader;
@@ -229,6 +229,15 @@ public class TableSorter extends AbstractTableModel {
         }
     }
 
+    /**
+     * Sorts the rows again by the current sorting columns.
+     */
+    public void resort() {
+        if (isSorting()) {
+            sortingStatusChanged();
+        }
+    }
+
     public void setSortingStatus(int column, int status) {
         Directive directive = getDirective(column);
         if (directive != EMPTY_DIRECTIVE) {
@@ -291,21 +300,34 @@ public class TableSorter extends AbstractTableModel {
         return LEXICAL_COMPARATOR;
     }
 
-    private Row[] getViewToModel() {
+    private int[] getViewToModel() {
 
         if (viewToModel == null) {
 
             int tableModelRowCount = tableModel.getRowCount();
 
-            viewToModel = new Row[tableModelRowCount];
-            for (int row = 0; row < tableModelRowCount; row++) {
+            if (isSorting()) {
 
-                viewToModel[row] = new Row(row);
-            }
+                int[] columns = new int[sortingColumns.size()];
+                int[] directions = new int[columns.length];
+                for (int i = 0; i < columns.length; i++) {
 
-            if (isSorting()) {
+                    Directive directive = (Directive) sortingColumns.get(i);
+                    columns[i] = directive.column;
+                    directions[i] = directive.direction;
+                }
+
+                viewToModel = new RowIndexSorter(tableModel, columns, directions, columnComparators)
+                        .sort();
+
+            } else {
+
+                viewToModel = new int[tableModelRowCount];
+                for (int row = 0; row < tableModelRowCount; row++) {
+
+                    viewToModel[row] = row;
+                }
 
-                Arrays.sort(viewToModel);
             }
 
         }
@@ -315,12 +337,12 @@ public class TableSorter extends AbstractTableModel {
 
     public int modelIndex(int viewIndex) {
 
-        Row[] rows = getViewToModel();
+        int[] rows = getViewToModel();
         if (viewIndex >= rows.length) {
             return -1;
         }
 
-        return rows[viewIndex].modelIndex;
+        return rows[viewIndex];
     }
 
     private int[] getModelToView() {
@@ -406,192 +428,6 @@ public class TableSorter extends AbstractTableModel {
 
     // Helper classes
 
-    private class Row implements Comparable {
-
-        private int modelIndex;
-
-        public Row(int index) {
-
-            this.modelIndex = index;
-        }
-
-        public int compareTo(Object o) {
-
-            int row1 = modelIndex;
-            int row2 = ((Row) o).modelIndex;
-
-            for (Iterator it = sortingColumns.iterator(); it.hasNext(); ) {
-
-                Directive directive = (Directive) it.next();
-
-                int column = directive.column;
-
-                Object o1 = valueToCompareFromModel(row1, column);
-                Object o2 = valueToCompareFromModel(row2, column);
-
-                int comparison = 0;
-
-                // Define null less than everything, except null.
-                if (o1 == null && o2 == null) {
-
-                    comparison = 0;
-
-                } else if (o1 == null) {
-
-                    comparison = -1;
-
-                } else if (o2 == null) {
-
-                    comparison = 1;
-
-                } else {
-
-                    Class type = tableModel.getColumnClass(column);
-
-                    if (columnComparators.containsKey(type)) {
-
-                        comparison = ((Comparator) columnComparators.get(type)).compare(o1, o2);
-
-                    } else {
-
-                        comparison = compareByColumn(type, o1, o2);
-                        //  comparison = getComparator(column).compare(o1, o2);
-                    }
-
-                }
-
-                if (comparison != 0) {
-
-                    return directive.direction == DESCENDING ? -comparison : comparison;
-                }
-
-            }
-
-            return 0;
-        }
-
-        private int compareByColumn(Class type, Object o1, Object o2) {
-
-            if (type.getSuperclass() == java.lang.Number.class) {
-
-                return compareAsNumber(o1, o2);
-
-            } else if (type == java.util.Date.class) {
-
-                return compareAsDate(o1, o2);
-
-            } else if (type == String.class) {
-
-                return compareAsString(o1, o2);
-
-            } else if (type == Boolean.class) {
-
-                return compareAsBoolean(o1, o2);
-
-            } else {
-
-                try {
-
-                    return compareAsNumber(o1, o2);
-
-                } catch (ClassCastException e) {
-
-                    return compareAsString(o1, o2);
-                }
-
-            }
-
-        }
-
-        private int compareAsNumber(Object o1, Object o2) {
-
-            Number n1 = (Number) o1;
-            double d1 = n1.doubleValue();
-            Number n2 = (Number) o2;
-            double d2 = n2.doubleValue();
-
-            if (d1 < d2)
-                return -1;
-            else if (d1 > d2)
-                return 1;
-            else
-                return 0;
-        }
-
-        private int compareAsDate(Object o1, Object o2) {
-
-            long n1 = -1;
-            try {
-                Date d1 = (Date) o1;
-                n1 = d1.getTime();
-            } catch (ClassCastException e) {
-            }
-
-            long n2 = -1;
-            try {
-                Date d2 = (Date) o2;
-                n2 = d2.getTime();
-            } catch (ClassCastException e) {
-            }
-
-            if (n1 < n2)
-                return -1;
-            else if (n1 > n2)
-                return 1;
-            else
-                return 0;
-        }
-
-        private int compareAsString(Object o1, Object o2) {
-
-            try {
-
-                String s1 = o1.toString();
-                String s2 = o2.toString();
-                int result = s1.compareTo(s2);
-
-                if (result < 0)
-                    return -1;
-                else if (result > 0)
-                    return 1;
-                else
-                    return 0;
-
-            } catch (ClassCastException e) {
-
-                return 0;
-            }
-        }
-
-        private int compareAsBoolean(Object o1, Object o2) {
-
-            Boolean bool1 = (Boolean) o1;
-            boolean b1 = bool1.booleanValue();
-            Boolean bool2 = (Boolean) o2;
-            boolean b2 = bool2.booleanValue();
-
-            if (b1 == b2)
-                return 0;
-            else if (b1) // Define false < true
-                return 1;
-            else
-                return -1;
-        }
-
-        private Object valueToCompareFromModel(int row, int column) {
-
-            Object object = tableModel.getValueAt(row, column);
-
-            if (object instanceof TableCellValue) {
-
-                object = ((TableCellValue) object).getValue();
-            }
-
-            return object;
-        }
-
-    } // class Row
-
     private class TableModelHandler implements TableModelListener {
 
         public void tableChanged(TableModelEvent e) {
@@ -0,0 +1,467 @@
+package org.underworldlabs.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the records of delimited text (CSV as described in RFC 4180).
+ * <p/>
+ * The text is scanned once by a small state machine over a character
+ * buffer. A field starting with the quote character may contain the
+ * delimiter, line breaks and doubled quotes; a quote within an unquoted
+ * field is read as is. The values of a record are kept in a reusable
+ * character array and strings are created only when requested.
+ */
+public class DelimitedRecordReader implements Closeable {
+
+    /**
+     * the quote character to read quoted fields as unquoted
+     */
+    public static final int NO_QUOTE = -1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int FIELD_START = 0;
+
+    private static final int UNQUOTED = 1;
+
+    private static final int QUOTED = 2;
+
+    private static final int QUOTE_IN_QUOTED = 3;
+
+    private final Reader reader;
+
+    private final char[] delimiter;
+
+    private final int quote;
+
+    private char[] buffer;
+
+    private int position;
+
+    private int limit;
+
+    private boolean endOfStream;
+
+    private boolean parseFields = true;
+
+    private char[] fieldChars = new char[256];
+
+    private int fieldLength;
+
+    private int[] fieldStarts = new int[16];
+
+    private int[] fieldEnds = new int[16];
+
+    private int fieldCount;
+
+    private char[] recordChars = new char[256];
+
+    private int recordLength;
+
+    private int recordStart;
+
+    private int lineNumber;
+
+    private int recordLineNumber;
+
+    /**
+     * Creates a reader of the records read from the specified reader.
+     *
+     * @param reader    the source of the text
+     * @param delimiter the field delimiter
+     * @param quote     the quote character or <code>NO_QUOTE</code>
+     */
+    public DelimitedRecordReader(Reader reader, String delimiter, int quote) {
+
+        this.reader = reader;
+        this.delimiter = delimiter.toCharArray();
+        this.quote = quote;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Creates a reader of the records of the specified characters.
+     */
+    public DelimitedRecordReader(char[] chars, int length, String delimiter, int quote) {
+
+        this.reader = null;
+        this.delimiter = delimiter.toCharArray();
+        this.quote = quote;
+        this.buffer = chars;
+        this.limit = length;
+        this.endOfStream = true;
+    }
+
+    /**
+     * Sets whether the field values are to be read, otherwise only
+     * the record boundaries and text are - false to split the text
+     * into records parsed elsewhere.
+     */
+    public void setParseFields(boolean parseFields) {
+
+        this.parseFields = parseFields;
+    }
+
+    /**
+     * Sets the line number of the next line read.
+     */
+    public void setFirstLineNumber(int firstLineNumber) {
+
+        this.lineNumber = firstLineNumber - 1;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return false at the end of the text
+     */
+    public boolean next() throws IOException {
+
+        if (peek(0) == -1) {
+
+            return false;
+        }
+
+        fieldCount = 0;
+        fieldLength = 0;
+        recordLength = 0;
+        recordStart = position;
+        recordLineNumber = lineNumber + 1;
+        startField();
+
+        int state = FIELD_START;
+        while (true) {
+
+            int c = peek(0);
+            if (c == -1) {
+
+                endField();
+                lineNumber++;
+                return true;
+            }
+
+            char ch = (char) c;
+            switch (state) {
+
+                case QUOTED:
+
+                    if (c == quote) {
+
+                        state = QUOTE_IN_QUOTED;
+
+                    } else {
+
+                        if (ch == '\n' || (ch == '\r' && peek(1) != '\n')) {
+
+                            lineNumber++;
+                        }
+
+                        appendField(ch);
+                    }
+
+                    appendRecord(ch);
+                    position++;
+                    continue;
+
+                case QUOTE_IN_QUOTED:
+
+                    if (c == quote) {
+
+                        // doubled quote
+                        appendField(ch);
+                        appendRecord(ch);
+                        position++;
+                        state = QUOTED;
+                        continue;
+                    }
+
+                    // the closing quote, the rest of the field is read as unquoted
+                    state = UNQUOTED;
+                    continue;
+
+                default:
+
+                    if (ch == '\n' || ch == '\r') {
+
+                        position++;
+                        if (ch == '\r' && peek(0) == '\n') {
+
+                            position++;
+                        }
+
+                        endField();
+                        lineNumber++;
+                        return true;
+                    }
+
+                    if (isDelimiter(ch)) {
+
+                        for (char d : delimiter) {
+
+                            appendRecord(d);
+                        }
+
+                        position += delimiter.length;
+                        endField();
+                        startField();
+                        state = FIELD_START;
+                        continue;
+                    }
+
+                    if (state == FIELD_START && c == quote) {
+
+                        state = QUOTED;
+
+                    } else {
+
+                        appendField(ch);
+                        state = UNQUOTED;
+                    }
+
+                    appendRecord(ch);
+                    position++;
+            }
+
+        }
+
+    }
+
+    /**
+     * Returns the number of fields of the current record.
+     */
+    public int getFieldCount() {
+
+        return fieldCount;
+    }
+
+    /**
+     * Returns the value of the specified field of the current record.
+     */
+    public String getString(int index) {
+
+        return new String(fieldChars, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    /**
+     * Returns the values of the current record.
+     */
+    public String[] getValues() {
+
+        String[] values = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+
+            values[i] = getString(i);
+        }
+
+        return values;
+    }
+
+    /**
+     * Returns whether the specified field of the current record
+     * is empty or contains whitespace only.
+     */
+    public boolean isBlank(int index) {
+
+        for (int i = fieldStarts[index], n = fieldEnds[index]; i < n; i++) {
+
+            if (!Character.isWhitespace(fieldChars[i])) {
+
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether the current record is an empty line.
+     */
+    public boolean isBlank() {
+
+        return recordLength == 0;
+    }
+
+    /**
+     * Returns the number of the line the current record starts at.
+     */
+    public int getLineNumber() {
+
+        return recordLineNumber;
+    }
+
+    /**
+     * Returns the length of the text of the current record
+     * without the line break.
+     */
+    public int getRecordLength() {
+
+        return recordLength;
+    }
+
+    /**
+     * Returns the offset of the current record within the characters of
+     * a reader created for a character array - the record text is the
+     * record length characters from there.
+     */
+    public int getRecordStart() {
+
+        return recordStart;
+    }
+
+    /**
+     * Returns the text of the current record without the line break.
+     */
+    public String getRecordText() {
+
+        return new String(recordChars, 0, recordLength);
+    }
+
+    /**
+     * Appends the text of the current record without the line break.
+     */
+    public void appendRecordText(StringBuilder sb) {
+
+        sb.append(recordChars, 0, recordLength);
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (reader != null) {
+
+            reader.close();
+        }
+
+    }
+
+    private boolean isDelimiter(char c) throws IOException {
+
+        if (c != delimiter[0]) {
+
+            return false;
+        }
+
+        for (int i = 1; i < delimiter.length; i++) {
+
+            if (peek(i) != delimiter[i]) {
+
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    private void startField() {
+
+        if (!parseFields) {
+
+            return;
+        }
+
+        if (fieldCount == fieldStarts.length) {
+
+            fieldStarts = grow(fieldStarts);
+            fieldEnds = grow(fieldEnds);
+        }
+
+        fieldStarts[fieldCount] = fieldLength;
+    }
+
+    private void endField() {
+
+        if (parseFields) {
+
+            fieldEnds[fieldCount] = fieldLength;
+        }
+
+        fieldCount++;
+    }
+
+    private void appendField(char c) {
+
+        if (!parseFields) {
+
+            return;
+        }
+
+        if (fieldLength == fieldChars.length) {
+
+            fieldChars = grow(fieldChars);
+        }
+
+        fieldChars[fieldLength++] = c;
+    }
+
+    private void appendRecord(char c) {
+
+        if (recordLength == recordChars.length) {
+
+            recordChars = grow(recordChars);
+        }
+
+        recordChars[recordLength++] = c;
+    }
+
+    private static char[] grow(char[] chars) {
+
+        char[] grown = new char[chars.length * 2];
+        System.arraycopy(chars, 0, grown, 0, chars.length);
+        return grown;
+    }
+
+    private static int[] grow(int[] values) {
+
+        int[] grown = new int[values.length * 2];
+        System.arraycopy(values, 0, grown, 0, values.length);
+        return grown;
+    }
+
+    /**
+     * Returns the character at the specified offset from the cursor
+     * without moving it, or -1 if the text ends before.
+     */
+    private int peek(int offset) throws IOException {
+
+        if (position + offset >= limit && !fill(offset + 1)) {
+
+            return -1;
+        }
+
+        return buffer[position + offset];
+    }
+
+    private boolean fill(int required) throws IOException {
+
+        if (endOfStream) {
+
+            return false;
+        }
+
+        if (position > 0) {
+
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        while (limit < required) {
+
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+
+                endOfStream = true;
+                return false;
+            }
+
+            limit += read;
+        }
+
+        return true;
+    }
+
+}
@@ -83,28 +83,18 @@ public class DynamicLibraryLoader extends URLClassLoader {
 
     public static Object loadingObjectFromClassLoader(Object unwrapObject, String shortClassName)
             throws ClassNotFoundException {
-        return loadingObjectFromClassLoader(unwrapObject, "biz.redsoft."
-                + shortClassName, "./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar");
+        return loadingObjectFromClassLoader(unwrapObject, PluginBridgeRegistry.PLUGIN_PACKAGE
+                + shortClassName, PluginBridgeRegistry.PLUGIN_JAR_PATH);
     }
 
     public static Object loadingObjectFromClassLoader(Object unwrapObject, String className, String jarPath)
             throws ClassNotFoundException {
 
-        URL[] urls;
-        Class clazzdb;
         Object odb = null;
         try {
-            urls = MiscUtils.loadURLs(jarPath);
-            ClassLoader cl = new URLClassLoader(urls, unwrapObject.getClass().getClassLoader());
-            clazzdb = cl.loadClass(className);
-            odb = clazzdb.newInstance();
+            odb = PluginBridgeRegistry.newInstance(unwrapObject.getClass().getClassLoader(), className, jarPath);
         } catch (Exception e) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("Error loading class ");
-            sb.append(className);
-            sb.append(" from ");
-            sb.append(jarPath);
-            throw new ClassNotFoundException(sb.toString(), e.getCause());
+            throw loadingException(className, jarPath, e);
         }
 
         return odb;
@@ -112,39 +102,39 @@ public class DynamicLibraryLoader extends URLClassLoader {
 
     public static Object loadingObjectFromClassLoaderWithParams(Object unwrapObject, String shortClassName, Parameter... params)
             throws ClassNotFoundException {
-        return loadingObjectFromClassLoaderWithParams(unwrapObject, "biz.redsoft."
-                + shortClassName, "./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar", params);
+        return loadingObjectFromClassLoaderWithParams(unwrapObject, PluginBridgeRegistry.PLUGIN_PACKAGE
+                + shortClassName, PluginBridgeRegistry.PLUGIN_JAR_PATH, params);
     }
 
     public static Object loadingObjectFromClassLoaderWithParams(Object unwrapObject, String className, String jarPath, Parameter... params)
             throws ClassNotFoundException {
 
-        URL[] urls;
-        Class clazzdb;
         Object odb = null;
         try {
-            urls = MiscUtils.loadURLs(jarPath);
-            ClassLoader cl = new URLClassLoader(urls, unwrapObject.getClass().getClassLoader());
-            clazzdb = cl.loadClass(className);
             Class<?>[] types = new Class<?>[params.length];
             Object[] parameters = new Object[params.length];
             for (int i = 0; i < params.length; i++) {
                 types[i] = params[i].type;
                 parameters[i] = params[i].parameter;
             }
-            odb = clazzdb.getConstructor(types).newInstance(parameters);
+            odb = PluginBridgeRegistry.newInstance(
+                    unwrapObject.getClass().getClassLoader(), className, jarPath, types, parameters);
         } catch (Exception e) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("Error loading class ");
-            sb.append(className);
-            sb.append(" from ");
-            sb.append(jarPath);
-            throw new ClassNotFoundException(sb.toString(), e.getCause());
+            throw loadingException(className, jarPath, e);
         }
 
         return odb;
     }
 
+    private static ClassNotFoundException loadingException(String className, String jarPath, Exception e) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Error loading class ");
+        sb.append(className);
+        sb.append(" from ");
+        sb.append(jarPath);
+        return new ClassNotFoundException(sb.toString(), e.getCause());
+    }
+
     public static class Parameter {
         private Class<?> type;
         private Object parameter;
@@ -0,0 +1,216 @@
+package org.underworldlabs.util;
+
+import org.executequery.log.Log;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.MalformedURLException;
+import java.net.URLClassLoader;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the plugin (fbplugin-impl) class loaders and constructors.
+ * <p/>
+ * The plugin classes must be loaded by a class loader which is a child of the
+ * loader of the driver classes they bridge to. The class loader is created once
+ * per driver class loader and plugin jar path, the constructors of the loaded
+ * classes are resolved once and kept with it, so that instantiating a plugin
+ * object (a BLOB value for each fetched row for example) is a plain constructor call.
+ */
+public final class PluginBridgeRegistry {
+
+    public static final String PLUGIN_PACKAGE = "biz.redsoft.";
+
+    public static final String PLUGIN_JAR_PATH = "./lib/fbplugin-impl.jar;../lib/fbplugin-impl.jar";
+
+    private static final Class<?>[] NO_PARAMETER_TYPES = new Class<?>[0];
+
+    private static final ConcurrentMap<LoaderKey, PluginClassLoader> CLASS_LOADERS =
+            new ConcurrentHashMap<LoaderKey, PluginClassLoader>();
+
+    private PluginBridgeRegistry() {
+    }
+
+    /**
+     * Creates a new instance of the specified plugin class using its default constructor.
+     *
+     * @param parent    the class loader of the driver classes
+     * @param className the fully qualified plugin class name
+     * @param jarPath   the ';' separated plugin jar paths
+     */
+    public static Object newInstance(ClassLoader parent, String className, String jarPath) throws Exception {
+
+        return newInstance(parent, className, jarPath, NO_PARAMETER_TYPES, new Object[0]);
+    }
+
+    /**
+     * Creates a new instance of the specified plugin class using the
+     * constructor with the specified parameter types.
+     */
+    public static Object newInstance(ClassLoader parent, String className, String jarPath,
+                                     Class<?>[] parameterTypes, Object[] parameters) throws Exception {
+
+        return classLoader(parent, jarPath).constructor(className, parameterTypes).newInstance(parameters);
+    }
+
+    /**
+     * Returns the plugin class loaded by the class loader cached for the
+     * specified driver class loader and plugin jar path.
+     */
+    public static Class<?> loadClass(ClassLoader parent, String className, String jarPath)
+            throws ClassNotFoundException, MalformedURLException {
+
+        return classLoader(parent, jarPath).loadClass(className);
+    }
+
+    /**
+     * Releases and closes the plugin class loaders created for
+     * the specified driver class loader.
+     */
+    public static void release(ClassLoader parent) {
+
+        for (Iterator<Map.Entry<LoaderKey, PluginClassLoader>> i = CLASS_LOADERS.entrySet().iterator(); i.hasNext(); ) {
+
+            Map.Entry<LoaderKey, PluginClassLoader> entry = i.next();
+            if (entry.getKey().parent == parent) {
+
+                i.remove();
+                entry.getValue().close();
+            }
+
+        }
+
+    }
+
+    private static PluginClassLoader classLoader(ClassLoader parent, String jarPath) throws MalformedURLException {
+
+        LoaderKey key = new LoaderKey(parent, jarPath);
+        PluginClassLoader classLoader = CLASS_LOADERS.get(key);
+        if (classLoader == null) {
+
+            PluginClassLoader newClassLoader =
+                    new PluginClassLoader(new URLClassLoader(MiscUtils.loadURLs(jarPath), parent));
+
+            classLoader = CLASS_LOADERS.putIfAbsent(key, newClassLoader);
+            if (classLoader == null) {
+
+                classLoader = newClassLoader;
+
+            } else {
+
+                // another thread registered its loader first
+                newClassLoader.close();
+            }
+
+        }
+
+        return classLoader;
+    }
+
+    private static final class PluginClassLoader {
+
+        private final URLClassLoader classLoader;
+
+        private final Map<String, Constructor<?>> constructors;
+
+        PluginClassLoader(URLClassLoader classLoader) {
+
+            this.classLoader = classLoader;
+            this.constructors = new ConcurrentHashMap<String, Constructor<?>>();
+        }
+
+        Class<?> loadClass(String className) throws ClassNotFoundException {
+
+            return classLoader.loadClass(className);
+        }
+
+        Constructor<?> constructor(String className, Class<?>[] parameterTypes)
+                throws ClassNotFoundException, NoSuchMethodException {
+
+            String key = constructorKey(className, parameterTypes);
+            Constructor<?> constructor = constructors.get(key);
+            if (constructor == null) {
+
+                constructor = loadClass(className).getConstructor(parameterTypes);
+                constructors.put(key, constructor);
+            }
+
+            return constructor;
+        }
+
+        /**
+         * Closes the class loader releasing the plugin jar files it holds open.
+         */
+        void close() {
+
+            constructors.clear();
+            try {
+
+                classLoader.close();
+
+            } catch (IOException e) {
+
+                Log.debug("Error closing the plugin class loader - " + e.getMessage());
+            }
+
+        }
+
+        private String constructorKey(String className, Class<?>[] parameterTypes) {
+
+            if (parameterTypes.length == 0) {
+
+                return className;
+            }
+
+            StringBuilder sb = new StringBuilder(className);
+            for (Class<?> parameterType : parameterTypes) {
+
+                sb.append(',').append(parameterType.getName());
+            }
+
+            return sb.toString();
+        }
+
+    }
+
+    private static final class LoaderKey {
+
+        private final ClassLoader parent;
+
+        private final String jarPath;
+
+        LoaderKey(ClassLoader parent, String jarPath) {
+
+            this.parent = parent;
+            this.jarPath = jarPath;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (this == obj) {
+
+                return true;
+            }
+
+            if (!(obj instanceof LoaderKey)) {
+
+                return false;
+            }
+
+            LoaderKey other = (LoaderKey) obj;
+            return parent == other.parent && jarPath.equals(other.jarPath);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return 31 * System.identityHashCode(parent) + jarPath.hashCode();
+        }
+
+    }
+
+}
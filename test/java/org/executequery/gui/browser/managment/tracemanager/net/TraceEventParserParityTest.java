@@ -0,0 +1,200 @@
+package org.executequery.gui.browser.managment.tracemanager.net;
+
+import org.executequery.gui.browser.managment.tracemanager.TraceEventSplitter;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the messages filled by the trace event parser against the
+ * ones filled by the RedTrace grammar for the events of sample logs.
+ * <p/>
+ * A field read by the grammar is to be read the same by the event
+ * parser, ignoring the line breaks the grammar keeps around a value.
+ * The event parser may read a field the grammar misses - the grammar
+ * does not know the client process of the service events or the
+ * counters following an unplanned statement, for example.
+ */
+public class TraceEventParserParityTest {
+
+    static final String[] SAMPLE_LOGS = {"trace-database.log", "trace-services.log"};
+
+    @Test
+    public void parsesTheSampleEventsAsTheGrammar() throws IOException {
+
+        int recognised = 0;
+        for (String sampleLog : SAMPLE_LOGS) {
+
+            for (String event : readEvents(sampleLog)) {
+
+                LogMessage parsed = new LogMessage();
+                parsed.setBody(event);
+                if (!TraceEventParser.parse(event, parsed)) {
+
+                    continue;
+                }
+
+                LogMessage expected = new LogMessage();
+                expected.setBody(event);
+                expected.parseWithGrammar(event);
+
+                assertSameFields(sampleLog, event, expected, parsed);
+                recognised++;
+            }
+
+        }
+
+        assertTrue("no sample event was recognised by the event parser", recognised > 0);
+    }
+
+    @Test
+    public void fallsBackToTheGrammarForUnknownEvents() throws IOException {
+
+        for (String event : readEvents("trace-services.log")) {
+
+            if (event.contains(" PRIVILEGES_CHANGE\n")) {
+
+                assertFalse(TraceEventParser.parse(event, new LogMessage()));
+
+                LogMessage message = new LogMessage(event);
+                assertEquals("PRIVILEGES_CHANGE", message.getTypeEvent());
+                assertEquals("RDB$ADMIN", message.getGrantor());
+                assertEquals("REPORTS", message.getPrivilegeUsername());
+                return;
+            }
+
+        }
+
+        throw new AssertionError("no PRIVILEGES_CHANGE event in the sample log");
+    }
+
+    private static void assertSameFields(String sampleLog, String event, LogMessage expected, LogMessage parsed) {
+
+        String header = event.substring(0, event.indexOf('\n'));
+        for (Field field : LogMessage.class.getDeclaredFields()) {
+
+            if (Modifier.isStatic(field.getModifiers())) {
+
+                continue;
+            }
+
+            Object expectedValue = valueOf(field, expected);
+            if (expectedValue == null || isKnownGrammarDefect(header, field.getName(), expectedValue)) {
+
+                continue;
+            }
+
+            String message = sampleLog + ": " + header + " - " + field.getName();
+            Object parsedValue = valueOf(field, parsed);
+            assertNotNull(message, parsedValue);
+            assertEquals(message, normalized(expectedValue), normalized(parsedValue));
+        }
+
+    }
+
+    /**
+     * Returns whether the grammar is known to misread the specified
+     * field of the event: it expects no location after
+     * <code>ERROR AT</code>, reading the location as the database and
+     * the connection as the message, and it keeps the table counters
+     * in the text of a statement without a plan or parameters.
+     */
+    private static boolean isKnownGrammarDefect(String header, String field, Object expectedValue) {
+
+        if (header.contains(" ERROR AT ") || header.contains(" WARNING AT ")) {
+
+            return field.equals("database") || field.equals("errorMessage");
+        }
+
+        return field.equals("statementText") && expectedValue.toString().contains("\n*****");
+    }
+
+    private static Object valueOf(Field field, LogMessage message) {
+
+        try {
+
+            field.setAccessible(true);
+            return field.get(message);
+
+        } catch (IllegalAccessException e) {
+
+            throw new AssertionError(e);
+        }
+
+    }
+
+    private static Object normalized(Object value) {
+
+        return (value instanceof String) ? ((String) value).trim() : value;
+    }
+
+    /**
+     * Returns the event texts of the specified sample log split as
+     * the trace manager splits them.
+     */
+    static List<String> readEvents(String sampleLog) throws IOException {
+
+        final List<String> events = new ArrayList<String>();
+        TraceEventSplitter splitter = new TraceEventSplitter(new TraceEventSplitter.Listener() {
+
+            @Override
+            public void eventRead(String event, int type) {
+
+                if (type == TraceEventSplitter.LOG_MESSAGE) {
+
+                    events.add(event);
+                }
+            }
+
+            @Override
+            public void sessionStarted(int sessionId) {
+            }
+
+            @Override
+            public void sessionStopped(int sessionId) {
+            }
+
+        });
+
+        splitter.append(CharBuffer.wrap(readResource(sampleLog)));
+        splitter.flush();
+        return events;
+    }
+
+    private static String readResource(String name) throws IOException {
+
+        InputStream in = TraceEventParserParityTest.class.getResourceAsStream(name);
+        assertNotNull("missing sample log " + name, in);
+        try {
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+
+                out.write(buffer, 0, read);
+            }
+
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        } finally {
+
+            in.close();
+        }
+
+    }
+
+}
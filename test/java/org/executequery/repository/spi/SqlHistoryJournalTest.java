@@ -0,0 +1,221 @@
+package org.executequery.repository.spi;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the statements read back from the journal - after a record
+ * partly written, a compaction and the move of an earlier history - and
+ * the statements found by the word prefixes and times of a search.
+ */
+public class SqlHistoryJournalTest {
+
+    private static final int MAX_COUNT = 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsBackTheAddedStatements() throws IOException {
+
+        File file = folder.newFile();
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        journal.add("select 1 from t", 10, MAX_COUNT);
+        journal.add("select '\u00e9\n\u20ac' from t", 20, MAX_COUNT);
+        journal.add("update t set a = 1", 30, MAX_COUNT);
+
+        SqlHistoryJournal read = load(file);
+        assertEquals(Arrays.asList("update t set a = 1", "select '\u00e9\n\u20ac' from t", "select 1 from t"),
+                read.getQueries());
+        assertEquals(Arrays.asList("select '\u00e9\n\u20ac' from t"), read.search("select", 15, 25));
+    }
+
+    @Test
+    public void dropsARecordPartlyWritten() throws IOException {
+
+        File file = folder.newFile();
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        journal.add("select 1 from t", 10, MAX_COUNT);
+        long length = file.length();
+        journal.add("select 2 from t", 20, MAX_COUNT);
+
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+
+            out.setLength(file.length() - 3);
+
+        } finally {
+
+            out.close();
+        }
+
+        SqlHistoryJournal read = load(file);
+        assertEquals(Arrays.asList("select 1 from t"), read.getQueries());
+        assertEquals(length, file.length());
+
+        read.add("select 3 from t", 30, MAX_COUNT);
+        assertEquals(Arrays.asList("select 3 from t", "select 1 from t"), load(file).getQueries());
+    }
+
+    @Test
+    public void keepsOneEntryForEachStatement() throws IOException {
+
+        File file = folder.newFile();
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        journal.add("select 1 from t", 10, MAX_COUNT);
+        journal.add("select 2 from t", 20, MAX_COUNT);
+        journal.add("select 1 from t", 30, MAX_COUNT);
+
+        assertEquals(Arrays.asList("select 1 from t", "select 2 from t"), journal.getQueries());
+        assertEquals(Arrays.asList("select 1 from t", "select 2 from t"), load(file).getQueries());
+
+        // the index still holds the id of the replaced entry
+        assertEquals(Arrays.asList("select 1 from t"), journal.search("1", 0, Long.MAX_VALUE));
+        assertEquals(Collections.<String>emptyList(), journal.search("select", 5, 15));
+    }
+
+    @Test
+    public void keepsTheMostRecentStatements() throws IOException {
+
+        File file = folder.newFile();
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        for (int i = 0; i < 5; i++) {
+
+            journal.add("select " + i + " from t", i, 3);
+        }
+
+        assertEquals(Arrays.asList("select 4 from t", "select 3 from t", "select 2 from t"), journal.getQueries());
+        assertEquals(journal.getQueries(), load(file, 3).getQueries());
+    }
+
+    @Test
+    public void compactsTheReplacedRecords() throws IOException {
+
+        File file = folder.newFile();
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        for (int i = 0; i < 1000; i++) {
+
+            journal.add("select " + (i % 10) + " from t", i, MAX_COUNT);
+        }
+
+        // at most twice the records of the current entries past the minimum
+        assertTrue(file.length() < 300 * recordLength("select 0 from t"));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        List<String> queries = journal.getQueries();
+        assertEquals(10, queries.size());
+        assertEquals("select 9 from t", queries.get(0));
+        assertEquals(queries, load(file).getQueries());
+        assertEquals(Arrays.asList("select 5 from t"), journal.search("5", 995, 995));
+    }
+
+    @Test
+    public void searchesByThePrefixesOfTheWords() throws IOException {
+
+        SqlHistoryJournal journal = new SqlHistoryJournal(folder.newFile());
+        journal.add("select name from customers", 10, MAX_COUNT);
+        journal.add("select id from orders where customer_id = 1", 20, MAX_COUNT);
+        journal.add("delete from customer_notes", 30, MAX_COUNT);
+
+        assertEquals(Arrays.asList("delete from customer_notes", "select id from orders where customer_id = 1",
+                "select name from customers"), journal.search("CUSTOMER", 0, Long.MAX_VALUE));
+        assertEquals(Arrays.asList("select id from orders where customer_id = 1", "select name from customers"),
+                journal.search("sel cust", 0, Long.MAX_VALUE));
+        assertEquals(Arrays.asList("select name from customers"), journal.search("sel cust", 0, 15));
+        assertEquals(Collections.<String>emptyList(), journal.search("ustomer", 0, Long.MAX_VALUE));
+
+        // text without words is searched within the statements
+        assertEquals(Arrays.asList("select id from orders where customer_id = 1"),
+                journal.search(" = ", 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void addsEarlierStatementsBeforeTheCurrentOnes() throws IOException {
+
+        File file = folder.newFile();
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        journal.add("select 2 from t", 20, MAX_COUNT);
+        journal.add("select 3 from t", 30, MAX_COUNT);
+
+        journal.addEarlier(Arrays.asList("select 1 from t", "select 3 from t"),
+                SqlHistoryJournal.UNKNOWN_TIME, MAX_COUNT);
+
+        List<String> expected = Arrays.asList("select 3 from t", "select 2 from t", "select 1 from t");
+        assertEquals(expected, journal.getQueries());
+        assertEquals(expected, load(file).getQueries());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        // statements of an unknown time match any period
+        assertEquals(Arrays.asList("select 1 from t"), journal.search("select", 100, 200));
+    }
+
+    @Test
+    public void keepsTheJournalWhenTheEarlierStatementsCanNotBeWritten() throws IOException {
+
+        File file = folder.newFile();
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        journal.add("select 2 from t", 20, MAX_COUNT);
+        long length = file.length();
+
+        // the directory in place of the temporary journal fails the rewrite
+        File compacted = new File(file.getPath() + ".tmp");
+        assertTrue(compacted.mkdir());
+        try {
+
+            journal.addEarlier(Arrays.asList("select 1 from t"), SqlHistoryJournal.UNKNOWN_TIME, MAX_COUNT);
+            fail("the rewrite should have failed");
+
+        } catch (IOException e) {
+
+            // expected
+        }
+
+        assertEquals(length, file.length());
+        assertEquals(Arrays.asList("select 2 from t"), load(file).getQueries());
+    }
+
+    @Test
+    public void emptiesTheJournalWhenCleared() throws IOException {
+
+        File file = folder.newFile();
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        journal.add("select 1 from t", 10, MAX_COUNT);
+        journal.clear();
+
+        assertTrue(journal.getQueries().isEmpty());
+        assertEquals(0, file.length());
+        assertTrue(load(file).getQueries().isEmpty());
+    }
+
+    private static SqlHistoryJournal load(File file) throws IOException {
+
+        return load(file, MAX_COUNT);
+    }
+
+    private static SqlHistoryJournal load(File file, int maxCount) throws IOException {
+
+        SqlHistoryJournal journal = new SqlHistoryJournal(file);
+        journal.load(maxCount);
+        return journal;
+    }
+
+    private static long recordLength(String query) {
+
+        // type, time, length and the UTF-8 bytes
+        return 1 + 8 + 4 + query.length();
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.executequery.sql;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks the literals replaced by parameters in the statements of a
+ * script, the values bound for them and the statements left unbatched.
+ */
+public class ParameterizedQueryTest {
+
+    @Test
+    public void replacesTheValuesListItems() throws SQLException {
+
+        assertParameterized("insert into t (a, b, c) values (1, 'x', -2.5)",
+                "insert into t (a, b, c) values (?, ?, ?)", "1", "x", "-2.5");
+    }
+
+    @Test
+    public void replacesTheTopLevelComparisonsAndAssignments() throws SQLException {
+
+        assertParameterized("update t set a = 1, b = 'x' where id = 5 and c <> 'y'",
+                "update t set a = ?, b = ? where id = ? and c <> ?", "1", "x", "5", "y");
+
+        assertParameterized("delete from t where id in (1, 2, 3)",
+                "delete from t where id in (?, ?, ?)", "1", "2", "3");
+    }
+
+    @Test
+    public void unescapesTheDoubledQuotesOfStringValues() throws SQLException {
+
+        assertParameterized("insert into t values ('it''s', '')",
+                "insert into t values (?, ?)", "it's", "");
+    }
+
+    @Test
+    public void keepsTheLiteralsOfUnknownType() throws SQLException {
+
+        // function arguments, expressions, exponents, hex and quoted identifiers
+        assertParameterized("insert into \"T 1\" values (upper('a'), 1e3, x'FF', 7)",
+                "insert into \"T 1\" values (upper('a'), 1e3, x'FF', ?)", "7");
+
+        assertParameterized("update t set a = 1 + 2 where b = 'x'",
+                "update t set a = 1 + 2 where b = ?", "x");
+    }
+
+    @Test
+    public void leavesTheCommentsOut() throws SQLException {
+
+        assertParameterized("insert /* the 'first' row */ into t values (1) -- id = 2",
+                "insert into t values (?)", "1");
+
+        assertParameterized("update t set a = 1 -- a = 'x'\nwhere id = 3",
+                "update t set a = ? where id = ?", "1", "3");
+    }
+
+    @Test
+    public void sharesTheTextOfStatementsDifferingInTheirValues() {
+
+        assertEquals(parse("insert into t values (1, 'a')").getSql(),
+                parse("insert into t values (2, 'b')").getSql());
+    }
+
+    @Test
+    public void doesNotBatchParameterizedOrUnsupportedStatements() {
+
+        assertNull(parse("insert into t values (?, 1)"));
+        assertNull(parse("update t set a = :a where id = 1"));
+        assertNull(parse("insert into t values (1) returning id"));
+        assertNull(parse("insert into t values ('not closed)"));
+        assertNull(parse("insert into t values (1) /* not closed"));
+        assertNull(parse("select a from t where id = 1"));
+    }
+
+    private static void assertParameterized(String sql, String expectedSql, String... expectedValues)
+            throws SQLException {
+
+        ParameterizedQuery query = parse(sql);
+        assertNotNull(sql, query);
+        assertEquals(expectedSql, query.getSql());
+        assertEquals(Arrays.asList(expectedValues), boundValues(query));
+    }
+
+    private static ParameterizedQuery parse(String sql) {
+
+        return ParameterizedQuery.parse(new DerivedQuery(sql));
+    }
+
+    private static List<String> boundValues(ParameterizedQuery query) throws SQLException {
+
+        final List<String> values = new ArrayList<String>();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                ParameterizedQueryTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+
+                        if (method.getName().equals("setString")) {
+
+                            assertEquals(values.size() + 1, args[0]);
+                            values.add((String) args[1]);
+                            return null;
+                        }
+
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+
+                });
+
+        query.bind(statement);
+        return values;
+    }
+
+}
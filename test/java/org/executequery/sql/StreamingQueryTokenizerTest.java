@@ -0,0 +1,233 @@
+package org.executequery.sql;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the queries read by the streaming tokenizer against the ones the
+ * script runner split with {@link QueryTokenizer} before - delimiters,
+ * comments, quoted strings, PSQL blocks and SET TERM.
+ */
+public class StreamingQueryTokenizerTest {
+
+    @Test
+    public void splitsAtTheDelimiters() throws IOException {
+
+        assertSameQueries("select 1 from t;\ninsert into t values (1);\r\nupdate t set a = 2;");
+        assertSameQueries("select 1 from t;;\n;select 2 from t;\n");
+        assertSameQueries("select 1 from t; select 2 from t");
+    }
+
+    @Test
+    public void skipsTheDelimitersOfComments() throws IOException {
+
+        assertSameQueries("-- first; comment\nselect 1 from t; /* block; comment */ select 2 from t;\n"
+                + "select 3 from t -- trailing; \n;");
+        assertSameQueries("select 1 -- it's\nfrom t; /* it's */ select 2 /* ; */ from t;");
+        assertSameQueries("/* only;\n a comment */;\n-- and another;\nselect 1 from t;");
+    }
+
+    @Test
+    public void skipsTheDelimitersOfQuotedStrings() throws IOException {
+
+        assertSameQueries("insert into t values ('a;b');\nselect 'it''s; here' from t; select 2 from t;");
+        assertSameQueries("insert into t values ('');\ninsert into t values ('''');");
+    }
+
+    @Test
+    public void keepsTheStatementsOfBlocksTogether() throws IOException {
+
+        assertSameQueries("create procedure p as begin insert into t values (1); end;\nselect 1 from t;");
+        assertSameQueries("execute block as declare variable x integer; begin x = 1; end;\nselect 1 from t;");
+        assertSameQueries("create trigger tr for t before insert as begin if (1 = 1) then begin "
+                + "new.a = 1; end end;\nselect case when a = 1 then 'x' end from t;");
+    }
+
+    @Test
+    public void switchesTheDelimiterWithSetTerm() throws IOException {
+
+        // the runner's splitter failed on SET TERM, the editor's one handles it
+        assertSameQueriesAsEditor("set term ^ ;\ncreate procedure p as begin insert into t values (1); end^\n"
+                + "set term ; ^\nselect 1 from t;");
+        assertSameQueriesAsEditor("SET TERM ^;\nselect 1 from t^\n-- select 2;\nselect 3 from t^\n"
+                + "SET TERM ;^\nselect 4 from t;");
+    }
+
+    @Test
+    public void readsQueriesAcrossTheBufferBoundary() throws IOException {
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 100 * 1024; i++) {
+
+            sb.append("/* row ").append(i).append("; */\n")
+                    .append("insert into t values (").append(i).append(", 'a''").append(i).append("');\n");
+        }
+
+        assertSameQueries(sb.toString());
+
+        // past the runner's splitter - delimiters within the strings following comments
+        sb.setLength(0);
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; sb.length() < 100 * 1024; i++) {
+
+            String query = "-- row " + i + ";\ninsert into t values (" + i + ", 'a;''" + i + "')";
+            sb.append(query).append(";\n");
+            expected.add(query);
+        }
+
+        assertEquals(expected, originalQueries(streamedQueries(sb.toString())));
+    }
+
+    @Test
+    public void skipsTheDelimitersOfQuotedIdentifiers() throws IOException {
+
+        // the runner's splitter only knew single quoted strings
+        assertEquals(Arrays.asList("select \"a;b\" from t", "select 2 from t"),
+                originalQueries(streamedQueries("select \"a;b\" from t; select 2 from t;")));
+    }
+
+    @Test
+    public void skipsTheDelimitersOfStringsAfterLineComments() throws IOException {
+
+        // the runner's splitter lost the strings after the second line comment
+        assertEquals(Arrays.asList("-- row 0;\nselect 'a;0' from t", "-- row 1;\nselect 'a;1' from t"),
+                originalQueries(streamedQueries("-- row 0;\nselect 'a;0' from t;\n-- row 1;\nselect 'a;1' from t;")));
+    }
+
+    @Test
+    public void readsCommentMarkersWithinStringsAsText() throws IOException {
+
+        assertEquals(Arrays.asList("select '--not a comment;' from t", "select '/* nor; this */' from t"),
+                originalQueries(streamedQueries("select '--not a comment;' from t; select '/* nor; this */' from t;")));
+    }
+
+    @Test
+    public void skipsTheQueriesOfOnlyComments() throws IOException {
+
+        assertEquals(Arrays.asList("-- and another;\nselect 1 from t"),
+                originalQueries(streamedQueries("/* only;\n a comment */;\n-- and another;\nselect 1 from t;\n/* ; */\n")));
+    }
+
+    @Test
+    public void keepsTheTokensAroundABlockCommentApart() throws IOException {
+
+        assertEquals("select 1", streamedQueries("select/* a */1;").get(0).getQueryWithoutComments());
+    }
+
+    private static void assertSameQueries(String script) throws IOException {
+
+        assertEquals(describe(runnerQueries(script)), describe(streamedQueries(script)));
+    }
+
+    private static void assertSameQueriesAsEditor(String script) throws IOException {
+
+        assertEquals(describe(editorQueries(script)), describe(streamedQueries(script)));
+    }
+
+    /**
+     * The original text and the text without comments of the queries, with the
+     * whitespace left by a removed comment collapsed.
+     */
+    private static List<String> describe(List<DerivedQuery> queries) {
+
+        List<String> descriptions = new ArrayList<String>();
+        for (DerivedQuery query : queries) {
+
+            descriptions.add(query.getOriginalQuery().trim() + " => "
+                    + query.getQueryWithoutComments().replaceAll("[ \\t]+", " "));
+        }
+
+        return descriptions;
+    }
+
+    private static List<String> originalQueries(List<DerivedQuery> queries) {
+
+        List<String> originalQueries = new ArrayList<String>();
+        for (DerivedQuery query : queries) {
+
+            originalQueries.add(query.getOriginalQuery().trim());
+        }
+
+        return originalQueries;
+    }
+
+    private static List<DerivedQuery> streamedQueries(String script) throws IOException {
+
+        List<DerivedQuery> queries = new ArrayList<DerivedQuery>();
+        StreamingQueryTokenizer tokenizer = new StreamingQueryTokenizer(new StringReader(script));
+        try {
+
+            DerivedQuery query;
+            while ((query = tokenizer.next()) != null) {
+
+                if (query.isExecutable()) {
+
+                    queries.add(query);
+                }
+
+            }
+
+        } finally {
+
+            tokenizer.close();
+        }
+
+        return queries;
+    }
+
+    /**
+     * Splits the script the way SqlScriptRunner did before the streaming tokenizer.
+     */
+    private static List<DerivedQuery> runnerQueries(String script) {
+
+        List<DerivedQuery> queries = new ArrayList<DerivedQuery>();
+        QueryTokenizer queryTokenizer = new QueryTokenizer();
+        queryTokenizer.extractTokens(script);
+
+        int startIndex = 0;
+        String delimiter = ";";
+        String lowQuery = script.toLowerCase();
+        while (script != null && !script.isEmpty()) {
+
+            QueryTokenizer.QueryTokenized tokenized =
+                    queryTokenizer.tokenizeFirstQuery(script, lowQuery, startIndex, delimiter);
+            script = tokenized.script;
+            lowQuery = tokenized.lowScript;
+            startIndex = tokenized.startIndex;
+            delimiter = tokenized.delimiter;
+
+            // the runner sent the comments between two delimiters as a statement
+            DerivedQuery query = tokenized.query;
+            if (query != null && query.isExecutable() && !query.getQueryWithoutComments().isEmpty()) {
+
+                queries.add(query);
+            }
+
+        }
+
+        return queries;
+    }
+
+    private static List<DerivedQuery> editorQueries(String script) {
+
+        List<DerivedQuery> queries = new ArrayList<DerivedQuery>();
+        for (DerivedQuery query : new QueryTokenizer().tokenize(script)) {
+
+            if (query.isExecutable()) {
+
+                queries.add(query);
+            }
+
+        }
+
+        return queries;
+    }
+
+}
@@ -0,0 +1,277 @@
+package org.underworldlabs.swing.table;
+
+import org.junit.Test;
+
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Checks the row order of the rank sort - stability, nulls, descending
+ * columns and the ranks of the radix and string sorts against the column
+ * comparators and the row comparison the table sorter used before.
+ */
+public class RowIndexSorterTest {
+
+    private static final int ASC = TableSorter.ASCENDING;
+
+    private static final int DESC = TableSorter.DESCENDING;
+
+    @Test
+    public void keepsTheModelOrderOfEqualValues() {
+
+        TableModel model = model(new Class[]{Integer.class}, 3, 1, 3, 2, 1, 3);
+
+        assertArrayEquals(new int[]{1, 4, 3, 0, 2, 5}, sort(model, new int[]{0}, new int[]{ASC}));
+        assertArrayEquals(new int[]{0, 2, 5, 3, 1, 4}, sort(model, new int[]{0}, new int[]{DESC}));
+    }
+
+    @Test
+    public void sortsNullsBeforeAnyValue() {
+
+        TableModel model = model(new Class[]{String.class}, "b", null, "", "a", null);
+
+        assertArrayEquals(new int[]{1, 4, 2, 3, 0}, sort(model, new int[]{0}, new int[]{ASC}));
+        assertArrayEquals(new int[]{0, 3, 2, 1, 4}, sort(model, new int[]{0}, new int[]{DESC}));
+    }
+
+    @Test
+    public void sortsNumbersOfAnySign() {
+
+        TableModel model = model(new Class[]{Number.class},
+                0, -1.5, Long.MAX_VALUE, new BigDecimal("-1e30"), 2, Long.MIN_VALUE, 0.25f, null);
+
+        assertArrayEquals(new int[]{7, 3, 5, 1, 0, 6, 4, 2}, sort(model, new int[]{0}, new int[]{ASC}));
+    }
+
+    @Test
+    public void sortsByTheFollowingColumnsWithinEqualValues() {
+
+        TableModel model = model(new Class[]{String.class, Integer.class},
+                "a", 2,
+                "b", 1,
+                "a", 1,
+                "b", null,
+                "a", 2);
+
+        assertArrayEquals(new int[]{2, 0, 4, 3, 1}, sort(model, new int[]{0, 1}, new int[]{ASC, ASC}));
+        assertArrayEquals(new int[]{1, 3, 0, 4, 2}, sort(model, new int[]{0, 1}, new int[]{DESC, DESC}));
+        assertArrayEquals(new int[]{0, 4, 2, 1, 3}, sort(model, new int[]{0, 1}, new int[]{ASC, DESC}));
+    }
+
+    @Test
+    public void sortsTheValuesOfTableCellValues() {
+
+        TableModel model = model(new Class[]{Integer.class}, cell(3), cell(null), cell(-2), 1);
+
+        assertArrayEquals(new int[]{1, 2, 3, 0}, sort(model, new int[]{0}, new int[]{ASC}));
+    }
+
+    @Test
+    public void ranksAsTheComparatorsOfTheColumns() {
+
+        Class[] types = {Integer.class, Long.class, Double.class, Date.class, Boolean.class, String.class};
+        Random random = new Random(20);
+        for (int run = 0; run < 20; run++) {
+
+            TableModel model = randomModel(random, types, 500 + random.nextInt(500));
+            int[] columns = randomColumns(random, types.length);
+            int[] directions = randomDirections(random, columns.length);
+
+            Map comparators = new HashMap();
+            for (Class type : types) {
+
+                comparators.put(type, type == String.class
+                        ? TableSorter.LEXICAL_COMPARATOR : TableSorter.COMPARABLE_COMAPRATOR);
+            }
+
+            int[] expected = new RowIndexSorter(model, columns, directions, comparators).sort();
+            assertArrayEquals(expected, sort(model, columns, directions));
+            assertArrayEquals(expected, compareRows(model, columns, directions));
+        }
+
+    }
+
+    private static int[] sort(TableModel model, int[] columns, int[] directions) {
+
+        return new RowIndexSorter(model, columns, directions, new HashMap()).sort();
+    }
+
+    /**
+     * Sorts the rows comparing their values as the table sorter did before the rank sort.
+     */
+    private static int[] compareRows(final TableModel model, final int[] columns, final int[] directions) {
+
+        List<Integer> rows = new ArrayList<Integer>();
+        for (int row = 0; row < model.getRowCount(); row++) {
+
+            rows.add(row);
+        }
+
+        Collections.sort(rows, new Comparator<Integer>() {
+            public int compare(Integer row1, Integer row2) {
+
+                for (int i = 0; i < columns.length; i++) {
+
+                    int comparison = compareValues(model.getValueAt(row1, columns[i]),
+                            model.getValueAt(row2, columns[i]));
+                    if (comparison != 0) {
+
+                        return directions[i] == DESC ? -comparison : comparison;
+                    }
+
+                }
+
+                return 0;
+            }
+        });
+
+        int[] sorted = new int[rows.size()];
+        for (int i = 0; i < sorted.length; i++) {
+
+            sorted[i] = rows.get(i);
+        }
+
+        return sorted;
+    }
+
+    private static int compareValues(Object value1, Object value2) {
+
+        if (value1 == null || value2 == null) {
+
+            return value1 == null ? (value2 == null ? 0 : -1) : 1;
+        }
+
+        if (value1 instanceof Number) {
+
+            return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+
+        } else if (value1 instanceof Date) {
+
+            return Long.compare(((Date) value1).getTime(), ((Date) value2).getTime());
+
+        } else if (value1 instanceof Boolean) {
+
+            return ((Boolean) value1).compareTo((Boolean) value2);
+        }
+
+        return value1.toString().compareTo(value2.toString());
+    }
+
+    private static TableModel randomModel(Random random, Class[] types, int rowCount) {
+
+        Object[] values = new Object[rowCount * types.length];
+        for (int row = 0; row < rowCount; row++) {
+
+            for (int column = 0; column < types.length; column++) {
+
+                values[row * types.length + column] = random.nextInt(10) == 0
+                        ? null : randomValue(random, types[column]);
+            }
+
+        }
+
+        return model(types, values);
+    }
+
+    private static Object randomValue(Random random, Class type) {
+
+        // few distinct values to sort equal values by the following columns
+        if (type == Integer.class) {
+
+            return random.nextInt(41) - 20;
+
+        } else if (type == Long.class) {
+
+            return random.nextBoolean() ? (long) random.nextInt(5) : random.nextLong();
+
+        } else if (type == Double.class) {
+
+            return (random.nextInt(200) - 100) / 8d;
+
+        } else if (type == Date.class) {
+
+            return new Date((random.nextInt(100) - 50) * 86400000L);
+
+        } else if (type == Boolean.class) {
+
+            return random.nextBoolean();
+        }
+
+        return Integer.toString(random.nextInt(30), 36) + (random.nextBoolean() ? "" : "x");
+    }
+
+    private static int[] randomColumns(Random random, int columnCount) {
+
+        List<Integer> columns = new ArrayList<Integer>();
+        for (int column = 0; column < columnCount; column++) {
+
+            columns.add(column);
+        }
+        Collections.shuffle(columns, random);
+
+        int[] sortedColumns = new int[1 + random.nextInt(3)];
+        for (int i = 0; i < sortedColumns.length; i++) {
+
+            sortedColumns[i] = columns.get(i);
+        }
+
+        return sortedColumns;
+    }
+
+    private static int[] randomDirections(Random random, int count) {
+
+        int[] directions = new int[count];
+        for (int i = 0; i < count; i++) {
+
+            directions[i] = random.nextBoolean() ? ASC : DESC;
+        }
+
+        return directions;
+    }
+
+    private static TableModel model(final Class[] types, Object... values) {
+
+        int rowCount = values.length / types.length;
+        DefaultTableModel model = new DefaultTableModel(rowCount, types.length) {
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+
+                return types[column];
+            }
+
+        };
+
+        for (int i = 0; i < values.length; i++) {
+
+            model.setValueAt(values[i], i / types.length, i % types.length);
+        }
+
+        return model;
+    }
+
+    private static TableCellValue cell(final Object value) {
+
+        return new TableCellValue() {
+
+            @Override
+            public Object getValue() {
+
+                return value;
+            }
+
+        };
+    }
+
+}
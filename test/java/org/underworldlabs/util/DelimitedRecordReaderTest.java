@@ -0,0 +1,184 @@
+package org.underworldlabs.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the records read from delimited text - quoted fields with
+ * delimiters, doubled quotes and line breaks, the line break styles
+ * and the empty fields at the end of a record.
+ */
+public class DelimitedRecordReaderTest {
+
+    @Test
+    public void readsTheDelimitersOfQuotedFieldsAsText() throws IOException {
+
+        List<String[]> records = read("a,\"b,c\",d\n\",\",\"\"\n", ",");
+
+        assertRecords(records, new String[]{"a", "b,c", "d"}, new String[]{",", ""});
+    }
+
+    @Test
+    public void readsDoubledQuotesAsOneQuote() throws IOException {
+
+        List<String[]> records = read("\"say \"\"hi\"\"\",x\n\"\"\"\"\n", ",");
+
+        assertRecords(records, new String[]{"say \"hi\"", "x"}, new String[]{"\""});
+    }
+
+    @Test
+    public void readsTheQuotesOfUnquotedFieldsAsIs() throws IOException {
+
+        assertRecords(read("ab\"c,d\n", ","), new String[]{"ab\"c", "d"});
+        assertRecords(read("\"a\",b\n", ",", DelimitedRecordReader.NO_QUOTE), new String[]{"\"a\"", "b"});
+    }
+
+    @Test
+    public void readsTheLineBreaksOfQuotedFields() throws IOException {
+
+        DelimitedRecordReader reader = reader("1,\"first\nsecond\r\nthird\",3\n4,5,6\n", ",");
+
+        assertTrue(reader.next());
+        assertArrayEquals(new String[]{"1", "first\nsecond\r\nthird", "3"}, reader.getValues());
+        assertEquals(1, reader.getLineNumber());
+        assertEquals("1,\"first\nsecond\r\nthird\",3", reader.getRecordText());
+
+        assertTrue(reader.next());
+        assertArrayEquals(new String[]{"4", "5", "6"}, reader.getValues());
+        assertEquals(4, reader.getLineNumber());
+
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void readsCrLfAndCrLineBreaks() throws IOException {
+
+        List<String[]> records = read("a,b\r\nc,d\re,f\r\n", ",");
+
+        assertRecords(records, new String[]{"a", "b"}, new String[]{"c", "d"}, new String[]{"e", "f"});
+    }
+
+    @Test
+    public void readsTheEmptyFieldsAtTheEndOfARecord() throws IOException {
+
+        List<String[]> records = read("a,b,\n,,\nc,\"\"", ",");
+
+        assertRecords(records, new String[]{"a", "b", ""}, new String[]{"", "", ""}, new String[]{"c", ""});
+    }
+
+    @Test
+    public void readsAnEmptyLineAsABlankRecord() throws IOException {
+
+        DelimitedRecordReader reader = reader("a\n\nb\n", ",");
+
+        assertTrue(reader.next());
+        assertFalse(reader.isBlank());
+
+        assertTrue(reader.next());
+        assertTrue(reader.isBlank());
+        assertEquals(1, reader.getFieldCount());
+        assertTrue(reader.isBlank(0));
+
+        assertTrue(reader.next());
+        assertEquals("b", reader.getString(0));
+        assertEquals(3, reader.getLineNumber());
+
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void readsMultipleCharacterDelimiters() throws IOException {
+
+        assertRecords(read("a||\"b||c\"||\n", "||"), new String[]{"a", "b||c", ""});
+    }
+
+    @Test
+    public void readsFieldsAcrossTheBufferBoundary() throws IOException {
+
+        // quoted values with delimiters and line breaks past the first buffer fill
+        StringBuilder sb = new StringBuilder();
+        List<String[]> expected = new ArrayList<String[]>();
+        for (int i = 0; sb.length() < 200 * 1024; i++) {
+
+            String value = "value " + i + ", \"" + i + "\"\r\nnext";
+            sb.append(i).append(",\"").append(value.replace("\"", "\"\"")).append("\",\r\n");
+            expected.add(new String[]{String.valueOf(i), value, ""});
+        }
+
+        List<String[]> records = read(sb.toString(), ",");
+
+        assertEquals(expected.size(), records.size());
+        for (int i = 0; i < expected.size(); i++) {
+
+            assertArrayEquals("record " + i, expected.get(i), records.get(i));
+        }
+
+    }
+
+    @Test
+    public void readsTheRecordsOfACharacterArray() throws IOException {
+
+        char[] chars = "a,\"b\nc\"\nd,e\n".toCharArray();
+        DelimitedRecordReader reader = new DelimitedRecordReader(chars, chars.length, ",", '"');
+
+        assertTrue(reader.next());
+        assertEquals(0, reader.getRecordStart());
+        assertEquals(7, reader.getRecordLength());
+
+        assertTrue(reader.next());
+        assertEquals(8, reader.getRecordStart());
+        assertArrayEquals(new String[]{"d", "e"}, reader.getValues());
+
+        assertFalse(reader.next());
+    }
+
+    private static void assertRecords(List<String[]> records, String[]... expected) {
+
+        assertEquals(expected.length, records.size());
+        for (int i = 0; i < expected.length; i++) {
+
+            assertEquals(Arrays.asList(expected[i]), Arrays.asList(records.get(i)));
+        }
+
+    }
+
+    private static List<String[]> read(String text, String delimiter) throws IOException {
+
+        return read(text, delimiter, '"');
+    }
+
+    private static List<String[]> read(String text, String delimiter, int quote) throws IOException {
+
+        List<String[]> records = new ArrayList<String[]>();
+        DelimitedRecordReader reader = new DelimitedRecordReader(new StringReader(text), delimiter, quote);
+        try {
+
+            while (reader.next()) {
+
+                records.add(reader.getValues());
+            }
+
+        } finally {
+
+            reader.close();
+        }
+
+        return records;
+    }
+
+    private static DelimitedRecordReader reader(String text, String delimiter) {
+
+        return new DelimitedRecordReader(new StringReader(text), delimiter, '"');
+    }
+
+}